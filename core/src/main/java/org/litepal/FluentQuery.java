@@ -18,7 +18,10 @@ package org.litepal;
 
 import android.text.TextUtils;
 
+import org.litepal.crud.Aggregate;
+import org.litepal.crud.AggregateResult;
 import org.litepal.crud.LitePalSupport;
+import org.litepal.crud.PreparedQuery;
 import org.litepal.crud.QueryHandler;
 import org.litepal.crud.async.AverageExecutor;
 import org.litepal.crud.async.CountExecutor;
@@ -29,7 +32,9 @@ import org.litepal.tablemanager.Connector;
 import org.litepal.util.BaseUtility;
 import org.litepal.util.DBUtility;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Allows developers to query tables with fluent style.
@@ -54,6 +59,31 @@ public class FluentQuery {
 	 */
 	String mOrderBy;
 
+	/**
+	 * Representing the group by clause in SQL.
+	 */
+	String[] mGroupBy;
+
+	/**
+	 * Representing the having clause in SQL, followed by its arguments.
+	 */
+	String[] mHaving;
+
+	/**
+	 * Representing the joined classes and their foreign key columns in SQL.
+	 */
+	Map<Class<?>, String> mJoins;
+
+	/**
+	 * Representing the association paths to load after querying.
+	 */
+	String[] mIncludes;
+
+	/**
+	 * Representing whether to load collection associations lazily.
+	 */
+	boolean mLazy;
+
 	/**
 	 * Representing the limit clause in SQL.
 	 */
@@ -131,6 +161,154 @@ public class FluentQuery {
         return this;
 	}
 
+	/**
+	 * Declaring which columns to group the rows by. It works with
+	 * {@link #aggregate(Class, Aggregate...)}, and each group becomes a row of
+	 * the result.
+	 *
+	 * <pre>
+	 * LitePal.groupBy(&quot;city&quot;).aggregate(Person.class, count(), avg(&quot;age&quot;));
+	 * </pre>
+	 *
+	 * This will count people and calculate their average age of each city.
+	 *
+	 * @param columns
+	 *            The columns to group the rows by.
+	 * @return A ClusterQuery instance.
+	 */
+	public FluentQuery groupBy(String... columns) {
+		mGroupBy = columns;
+		return this;
+	}
+
+	/**
+	 * Declaring which groups to return after grouping. It works with
+	 * {@link #groupBy(String...)}, and the aggregate aliases can be used in it.
+	 *
+	 * <pre>
+	 * LitePal.groupBy(&quot;city&quot;).having(&quot;count &gt; cast(? as integer)&quot;, &quot;10&quot;).aggregate(Person.class, count());
+	 * </pre>
+	 *
+	 * This will only return the cities which have more than 10 people. The
+	 * arguments are bound as text, and the results of aggregate functions have
+	 * no type affinity, so cast the arguments which are compared with them as
+	 * numbers.
+	 *
+	 * @param condition
+	 *            A filter declaring which groups to return, formatted as an
+	 *            SQL HAVING clause. Passing null will return all groups.
+	 * @param args
+	 *            The values to fill into the place holders of condition in
+	 *            order, which are bound after the where arguments.
+	 * @return A ClusterQuery instance.
+	 */
+	public FluentQuery having(String condition, String... args) {
+		if (condition == null) {
+			mHaving = null;
+		} else {
+			int size = args == null ? 0 : args.length;
+			mHaving = new String[size + 1];
+			mHaving[0] = condition;
+			if (size > 0) {
+				System.arraycopy(args, 0, mHaving, 1, size);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Declaring to load the associated model of each row in the same query,
+	 * by joining its table with the foreign key column.
+	 *
+	 * <pre>
+	 * LitePal.where(&quot;album.name = ?&quot;, &quot;Thriller&quot;).join(Album.class, &quot;album_id&quot;).find(Song.class);
+	 * </pre>
+	 *
+	 * This will find the songs of album Thriller, with the album of each song
+	 * loaded by a single SELECT ... LEFT JOIN statement, instead of one more
+	 * query for each song. Songs of the same album share the same album
+	 * instance. The model must have a many-to-one or one-to-one association
+	 * to the joined class. Columns existing in both tables should be qualified
+	 * by table name in where and order by clauses. Other associations are
+	 * not loaded even if isEager is true.
+	 *
+	 * @param associatedClass
+	 *            The associated class to join.
+	 * @param foreignKeyColumn
+	 *            The foreign key column in the model's table which references
+	 *            the associated class. Passing null will use the default one,
+	 *            such as album_id.
+	 * @return A ClusterQuery instance.
+	 */
+	public FluentQuery join(Class<?> associatedClass, String foreignKeyColumn) {
+		if (mJoins == null) {
+			mJoins = new LinkedHashMap<>();
+		}
+		mJoins.put(associatedClass, foreignKeyColumn);
+		return this;
+	}
+
+	/**
+	 * It is mostly same as {@link FluentQuery#join(Class, String)} but joins
+	 * with the default foreign key column.
+	 *
+	 * @param associatedClass
+	 *            The associated class to join.
+	 * @return A ClusterQuery instance.
+	 */
+	public FluentQuery join(Class<?> associatedClass) {
+		return join(associatedClass, null);
+	}
+
+	/**
+	 * Declaring which associations to load into the found models. Each path
+	 * is a chain of association field names separated by dot, so associations
+	 * can be loaded in any depth.
+	 *
+	 * <pre>
+	 * LitePal.include(&quot;songs&quot;, &quot;songs.artist&quot;, &quot;singer&quot;).find(Album.class);
+	 * </pre>
+	 *
+	 * This will find all albums with their singer, songs and the artist of
+	 * each song loaded. Each segment of the paths is loaded for all the found
+	 * albums by one batched query, instead of one query for each album, and
+	 * the associations which are not named are not loaded.
+	 *
+	 * @param paths
+	 *            The association paths to load.
+	 * @return A ClusterQuery instance.
+	 */
+	public FluentQuery include(String... paths) {
+		mIncludes = paths;
+		return this;
+	}
+
+	/**
+	 * Declaring to load the collection associations of the found models
+	 * lazily.
+	 *
+	 * <pre>
+	 * List&lt;Album&gt; albums = LitePal.where(&quot;year &gt; ?&quot;, &quot;2000&quot;).lazy().find(Album.class);
+	 * List&lt;Song&gt; songs = albums.get(0).getSongs();
+	 * </pre>
+	 *
+	 * The one-to-many and many-to-many fields, such as List&lt;Song&gt;, are
+	 * set with lazy collections which hold their owners. When any of them is
+	 * accessed at the first time, the association of all the found albums is
+	 * loaded by one batched query, and the loaded songs get lazy collections
+	 * as well. So screens which touch the association of only a few visible
+	 * rows don't load the others. Many-to-one and one-to-one fields can't be
+	 * proxied, use {@link #include(String...)} or {@link #join(Class)} to
+	 * load them. Fields declared as a concrete collection class, such as
+	 * ArrayList, are not supported either.
+	 *
+	 * @return A ClusterQuery instance.
+	 */
+	public FluentQuery lazy() {
+		mLazy = true;
+		return this;
+	}
+
 	/**
 	 * Limits the number of rows returned by the query.
 	 *
@@ -212,7 +390,7 @@ public class FluentQuery {
 	 * parameter. If set true the associated models will be loaded as well.
      * <br>
      * Note that isEager will only work for one deep level relation, considering the query efficiency.
-     * You have to implement on your own if you need to load multiple deepness of relation at once.
+     * Use {@link #include(String...)} if you need to load multiple deepness of relation at once.
 	 *
 	 * @param modelClass
 	 *            Which table to query and the object type to return as a list.
@@ -221,6 +399,7 @@ public class FluentQuery {
 	 * @return An object list with founded data from database, or an empty list.
 	 */
 	public <T> List<T> find(Class<T> modelClass, boolean isEager) {
+        checkNotGrouped();
         synchronized (LitePalSupport.class) {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             String limit;
@@ -232,7 +411,19 @@ public class FluentQuery {
                 }
                 limit = mOffset + "," + mLimit;
             }
-            return queryHandler.onFind(modelClass, mColumns, mConditions, mOrderBy, limit, isEager);
+            List<T> list;
+            if (mJoins != null) {
+                list = queryHandler.onFindJoined(modelClass, mColumns, mConditions, mOrderBy, limit, mJoins);
+            } else {
+                list = queryHandler.onFind(modelClass, mColumns, mConditions, mOrderBy, limit, isEager);
+            }
+            if (mIncludes != null) {
+                queryHandler.onInclude(list, modelClass, mIncludes);
+            }
+            if (mLazy) {
+                queryHandler.onLazy(list, modelClass);
+            }
+            return list;
         }
 	}
 
@@ -263,6 +454,104 @@ public class FluentQuery {
         return executor;
     }
 
+    /**
+     * Finds multiple records by the cluster parameters, and maps each of them
+     * into a plain class instead of the model class:
+     *
+     * <pre>
+     * LitePal.select(&quot;name&quot;, &quot;age&quot;).where(&quot;age &gt; ?&quot;, &quot;14&quot;).findAs(Person.class, PersonItem.class);
+     * </pre>
+     *
+     * The plain class doesn't need to extend LitePalSupport. If it has a
+     * constructor with one parameter for each selected column, such as a
+     * Kotlin data class, the values are passed to the constructor in the
+     * order of selected columns. Otherwise it needs a default constructor,
+     * and each column is assigned to the field with the same name. The
+     * associated models and generic values are never loaded.
+     *
+     * @param modelClass
+     *            Which table to query from by class.
+     * @param dtoClass
+     *            The plain class to map each record into.
+     * @return A list of the plain class, or an empty list.
+     */
+    public <R> List<R> findAs(Class<?> modelClass, Class<R> dtoClass) {
+        checkNotGrouped();
+        synchronized (LitePalSupport.class) {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+            return queryHandler.onFindAs(getTableName(modelClass), dtoClass, mColumns, mConditions, mOrderBy, getLimit());
+        }
+    }
+
+    /**
+     * Calculates multiple aggregate functions by the cluster parameters in one
+     * query. If group by columns are declared, the aggregates are calculated
+     * for each group:
+     *
+     * <pre>
+     * AggregateResult result = LitePal.where(&quot;age &gt; ?&quot;, &quot;15&quot;).groupBy(&quot;city&quot;).order(&quot;sum_salary desc&quot;)
+     *         .aggregate(Person.class, count(), sum(&quot;salary&quot;), avg(&quot;age&quot;));
+     * </pre>
+     *
+     * The result has one row for each city, with the city column followed by
+     * count, sum_salary and avg_age columns. All the rows are read in one pass,
+     * which is cheaper than calling {@link #count(Class)}, {@link #sum(Class, String, Class)}
+     * and {@link #average(Class, String)} one by one.
+     *
+     * @param modelClass
+     *            Which table to query from by class.
+     * @param aggregates
+     *            The aggregate functions to calculate, created by the static
+     *            methods of {@link Aggregate}.
+     * @return The calculated rows.
+     */
+    public AggregateResult aggregate(Class<?> modelClass, Aggregate... aggregates) {
+        synchronized (LitePalSupport.class) {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+            return queryHandler.onAggregate(getTableName(modelClass), mGroupBy, mHaving, aggregates, mConditions,
+                    mOrderBy, getLimit());
+        }
+    }
+
+    /**
+     * Prepares the cluster parameters as a reusable query template. The place
+     * holders in where clause which are not filled by the where arguments are
+     * filled when executing the template:
+     *
+     * <pre>
+     * PreparedQuery&lt;Person&gt; query = LitePal.where(&quot;age &gt; ? and city = ?&quot;).order(&quot;age&quot;).prepare(Person.class);
+     * List&lt;Person&gt; people = query.find(&quot;14&quot;, &quot;Beijing&quot;);
+     * </pre>
+     *
+     * The clauses are converted only once, so it's much more efficient than
+     * building the same query again and again with different arguments.
+     *
+     * @param modelClass
+     *            Which table to query and the object type to return.
+     * @return A PreparedQuery instance.
+     */
+    public <T> PreparedQuery<T> prepare(Class<T> modelClass) {
+        return prepare(modelClass, false);
+    }
+
+    /**
+     * It is mostly same as {@link FluentQuery#prepare(Class)} but an isEager
+     * parameter. If set true the associated models will be loaded as well.
+     *
+     * @param modelClass
+     *            Which table to query and the object type to return.
+     * @param isEager
+     *            True to load the associated models, false not.
+     * @return A PreparedQuery instance.
+     */
+    public <T> PreparedQuery<T> prepare(Class<T> modelClass, boolean isEager) {
+        checkNotGrouped();
+        synchronized (LitePalSupport.class) {
+            QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+            return queryHandler.onPrepare(modelClass, mColumns, mConditions, mOrderBy, mLimit, mOffset, isEager);
+        }
+    }
+
     /**
      * Finds the first record by the cluster parameters. You can use the below
      * way to finish a complicated query:
@@ -298,7 +587,7 @@ public class FluentQuery {
      * parameter. If set true the associated models will be loaded as well.
      * <br>
      * Note that isEager will only work for one deep level relation, considering the query efficiency.
-     * You have to implement on your own if you need to load multiple deepness of relation at once.
+     * Use {@link #include(String...)} if you need to load multiple deepness of relation at once.
      *
      * @param modelClass
      *            Which table to query and the object type to return.
@@ -384,7 +673,7 @@ public class FluentQuery {
      * parameter. If set true the associated models will be loaded as well.
      * <br>
      * Note that isEager will only work for one deep level relation, considering the query efficiency.
-     * You have to implement on your own if you need to load multiple deepness of relation at once.
+     * Use {@link #include(String...)} if you need to load multiple deepness of relation at once.
      *
      * @param modelClass
      *            Which table to query and the object type to return.
@@ -502,6 +791,7 @@ public class FluentQuery {
 	 * @return Count of the specified table.
 	 */
 	public int count(String tableName) {
+        checkNotGrouped();
         synchronized (LitePalSupport.class) {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onCount(tableName, mConditions);
@@ -535,6 +825,86 @@ public class FluentQuery {
         return executor;
     }
 
+	/**
+	 * Reads a single column of the matched records as long values. The values
+	 * are read directly from database without creating any model, so it's the
+	 * most efficient way to get ids or other numbers only.
+	 *
+	 * <pre>
+	 * long[] ids = LitePal.where(&quot;age &gt; ?&quot;, &quot;15&quot;).order(&quot;age&quot;).pluckLongs(Person.class, &quot;id&quot;);
+	 * </pre>
+	 *
+	 * Null values are read as 0.
+	 *
+	 * @param modelClass
+	 *            Which table to query from by class.
+	 * @param column
+	 *            The column to read.
+	 * @return The values of the column in order, or an empty array.
+	 */
+	public long[] pluckLongs(Class<?> modelClass, String column) {
+		checkNotGrouped();
+		synchronized (LitePalSupport.class) {
+			QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+			return queryHandler.onPluckLongs(getTableName(modelClass), column, mConditions, mOrderBy, getLimit());
+		}
+	}
+
+	/**
+	 * Reads a single column of the matched records as int values. It is mostly
+	 * same as {@link FluentQuery#pluckLongs(Class, String)}.
+	 *
+	 * @param modelClass
+	 *            Which table to query from by class.
+	 * @param column
+	 *            The column to read.
+	 * @return The values of the column in order, or an empty array.
+	 */
+	public int[] pluckInts(Class<?> modelClass, String column) {
+		checkNotGrouped();
+		synchronized (LitePalSupport.class) {
+			QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+			return queryHandler.onPluckInts(getTableName(modelClass), column, mConditions, mOrderBy, getLimit());
+		}
+	}
+
+	/**
+	 * Reads a single column of the matched records as double values. It is
+	 * mostly same as {@link FluentQuery#pluckLongs(Class, String)}.
+	 *
+	 * @param modelClass
+	 *            Which table to query from by class.
+	 * @param column
+	 *            The column to read.
+	 * @return The values of the column in order, or an empty array.
+	 */
+	public double[] pluckDoubles(Class<?> modelClass, String column) {
+		checkNotGrouped();
+		synchronized (LitePalSupport.class) {
+			QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+			return queryHandler.onPluckDoubles(getTableName(modelClass), column, mConditions, mOrderBy, getLimit());
+		}
+	}
+
+	/**
+	 * Reads a single column of the matched records as String values. It is
+	 * mostly same as {@link FluentQuery#pluckLongs(Class, String)}, but null
+	 * values are kept as null.
+	 *
+	 * @param modelClass
+	 *            Which table to query from by class.
+	 * @param column
+	 *            The column to read.
+	 * @return The values of the column in order, or an empty list.
+	 */
+	public List<String> pluckStrings(Class<?> modelClass, String column) {
+		checkNotGrouped();
+		synchronized (LitePalSupport.class) {
+			QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+			return queryHandler.onPluckStrings(getTableName(modelClass), column, mConditions, mOrderBy, getLimit());
+		}
+	}
+
 	/**
 	 * Calculates the average value on a given column.
 	 *
@@ -587,6 +957,7 @@ public class FluentQuery {
 	 * @return The average value on a given column.
 	 */
 	public double average(String tableName, String column) {
+        checkNotGrouped();
         synchronized (LitePalSupport.class) {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onAverage(tableName, column, mConditions);
@@ -678,6 +1049,7 @@ public class FluentQuery {
 	 * @return The maximum value on a given column.
 	 */
 	public <T> T max(String tableName, String columnName, Class<T> columnType) {
+        checkNotGrouped();
         synchronized (LitePalSupport.class) {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onMax(tableName, columnName, mConditions, columnType);
@@ -769,6 +1141,7 @@ public class FluentQuery {
 	 * @return The minimum value on a given column.
 	 */
 	public <T> T min(String tableName, String columnName, Class<T> columnType) {
+        checkNotGrouped();
         synchronized (LitePalSupport.class) {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onMin(tableName, columnName, mConditions, columnType);
@@ -860,6 +1233,7 @@ public class FluentQuery {
 	 * @return The sum value on a given column.
 	 */
 	public <T> T sum(String tableName, String columnName, Class<T> columnType) {
+        checkNotGrouped();
         synchronized (LitePalSupport.class) {
             QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
             return queryHandler.onSum(tableName, columnName, mConditions, columnType);
@@ -893,4 +1267,38 @@ public class FluentQuery {
         return executor;
     }
 
+	/**
+	 * Get the table name of the model class.
+	 *
+	 * @param modelClass
+	 *            The model class.
+	 * @return The table name.
+	 */
+	private String getTableName(Class<?> modelClass) {
+		return BaseUtility.changeCase(DBUtility.getTableNameByClassName(modelClass.getName()));
+	}
+
+	/**
+	 * Combine the limit and offset into a LIMIT clause.
+	 *
+	 * @return The LIMIT clause, or null.
+	 */
+	private String getLimit() {
+		if (mOffset == null) {
+			return mLimit;
+		}
+		return mOffset + "," + (mLimit == null ? "0" : mLimit);
+	}
+
+	/**
+	 * Group by and having only work with {@link #aggregate(Class, Aggregate...)}.
+	 * Fail instead of ignoring them, or the models, counts and values would be
+	 * queried without grouping.
+	 */
+	private void checkNotGrouped() {
+		if ((mGroupBy != null && mGroupBy.length > 0) || mHaving != null) {
+			throw new LitePalSupportException(LitePalSupportException.GROUP_BY_WITHOUT_AGGREGATE);
+		}
+	}
+
 }
\ No newline at end of file
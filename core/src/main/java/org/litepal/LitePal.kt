@@ -20,6 +20,7 @@ import android.content.ContentValues
 import android.content.Context
 import android.database.sqlite.SQLiteDatabase
 import org.litepal.crud.LitePalSupport
+import org.litepal.tablemanager.UpgradePlan
 import org.litepal.tablemanager.callback.DatabaseListener
 
 /**
@@ -46,6 +47,23 @@ object LitePal {
         Operator.initialize(context)
     }
 
+    /**
+     * Initialize to make LitePal ready to work, and warm up in a background thread if warmUp is
+     * true. Warming up parses litepal.xml, opens the database with creating or upgrading tables and
+     * running pending migrations, then builds the fields and associations of all mapping classes.
+     * So the first operation won't pay for these jobs, and it only waits for the parts it needs if
+     * they are still running.
+     *
+     * @param context
+     * Application context.
+     * @param warmUp
+     * True to warm up in a background thread.
+     */
+    @JvmStatic
+    fun initialize(context: Context, warmUp: Boolean) {
+        Operator.initialize(context, warmUp)
+    }
+
     /**
      * Get a writable SQLiteDatabase.
      *
@@ -74,6 +92,21 @@ object LitePal {
     @JvmStatic
     fun setTransactionSuccessful() = Operator.setTransactionSuccessful()
 
+    /**
+     * Begins a session on the current thread. Within a session, the same record is always
+     * loaded into the same model instance, and models already loaded are returned by find
+     * methods without querying again. Sessions can be nested.
+     */
+    @JvmStatic
+    fun beginSession() = Operator.beginSession()
+
+    /**
+     * End the session on the current thread. Loaded models are released when the outermost
+     * session ends.
+     */
+    @JvmStatic
+    fun endSession() = Operator.endSession()
+
     /**
      * Switch the using database to the one specified by parameter.
      * @param litePalDB
@@ -93,6 +126,18 @@ object LitePal {
         Operator.useDefault()
     }
 
+    /**
+     * Plan the operations of creating or upgrading tables of the specified database, without
+     * changing anything. The operations are in the order they will be performed, with the
+     * estimated rows each of them goes through and whether it may lose data. The using database
+     * is not switched.
+     * @param litePalDB
+     * The database with the model classes to upgrade to.
+     * @return The plan of operations, which can be exported by [UpgradePlan.toJson].
+     */
+    @JvmStatic
+    fun planUpgrade(litePalDB: LitePalDB) = Operator.planUpgrade(litePalDB)
+
     /**
      * Delete the specified database.
      * @param dbName
@@ -156,6 +201,37 @@ object LitePal {
     @JvmStatic
     fun order(column: String?) = Operator.order(column)
 
+    /**
+     * Declaring which columns to group the rows by. It works with
+     * [FluentQuery.aggregate].
+     *
+     * LitePal.groupBy(&quot;city&quot;).aggregate(Person.class, count(), avg(&quot;age&quot;));
+     *
+     * This will count people and calculate their average age of each city.
+     *
+     * @param columns
+     * The columns to group the rows by.
+     * @return A FluentQuery instance.
+     */
+    @JvmStatic
+    fun groupBy(vararg columns: String?) = Operator.groupBy(*columns)
+
+    /**
+     * Declaring which associations to load into the found models. Each path
+     * is a chain of association field names separated by dot.
+     *
+     * LitePal.include(&quot;songs&quot;, &quot;songs.artist&quot;).find(Album.class);
+     *
+     * This will find all albums with their songs and the artist of each song
+     * loaded, one batched query for each path segment.
+     *
+     * @param paths
+     * The association paths to load.
+     * @return A FluentQuery instance.
+     */
+    @JvmStatic
+    fun include(vararg paths: String?) = Operator.include(*paths)
+
     /**
      * Limits the number of rows returned by the query.
      *
@@ -1064,6 +1140,105 @@ object LitePal {
     @Deprecated("This method is deprecated and will be removed in the future releases.", ReplaceWith("Handle async db operation in your own logic instead."))
     fun updateAllAsync(tableName: String, values: ContentValues, vararg conditions: String?) = Operator.updateAllAsync(tableName, values, *conditions)
 
+    /**
+     * Updates all records which match the conditions with a SQL expression. The
+     * new values are computed by database within a single UPDATE statement, so
+     * no model needs to be loaded and concurrent updates won't get lost.
+     *
+     * LitePal.updateAllWithExpression(Song::class.java, arrayOf("playcount = playcount + ?", "1"), "album = ?", "Yellow")
+     *
+     * This means that the playcount of all the songs in album Yellow will be
+     * increased by 1.
+     *
+     * @param modelClass
+     * Which table to update by class.
+     * @param expression
+     * A string array representing the SET part of an SQL statement.
+     * First element is the expression, the rest are the arguments to
+     * fill into its place holders.
+     * @param conditions
+     * A string array representing the WHERE part of an SQL
+     * statement. First parameter is the WHERE clause to apply when
+     * updating. The way of specifying place holders is to insert one
+     * or more question marks in the SQL. The first question mark is
+     * replaced by the second element of the array, the next question
+     * mark by the third, and so on. Passing empty string will update
+     * all rows.
+     * @return The number of rows affected.
+     */
+    @JvmStatic
+    fun updateAllWithExpression(modelClass: Class<*>, expression: Array<String?>, vararg conditions: String?) = Operator.updateAllWithExpression(modelClass, expression, *conditions)
+
+    /**
+     * Increases the value of a numeric column for all records which match the
+     * conditions, without loading any model. Null values are treated as 0.
+     *
+     * LitePal.increment(Song::class.java, "playcount", 1, "id = ?", "1")
+     *
+     * This means that the playcount of song 1 will be increased by 1. Pass a
+     * negative delta to decrease.
+     *
+     * @param modelClass
+     * Which table to update by class.
+     * @param column
+     * The numeric column to increase.
+     * @param delta
+     * The amount to add.
+     * @param conditions
+     * A string array representing the WHERE part of an SQL
+     * statement. First parameter is the WHERE clause to apply when
+     * updating. The way of specifying place holders is to insert one
+     * or more question marks in the SQL. The first question mark is
+     * replaced by the second element of the array, the next question
+     * mark by the third, and so on. Passing empty string will update
+     * all rows.
+     * @return The number of rows affected.
+     */
+    @JvmStatic
+    fun increment(modelClass: Class<*>, column: String, delta: Number?, vararg conditions: String?) = Operator.increment(modelClass, column, delta, *conditions)
+
+    /**
+     * Increases the value of a numeric column by different amounts for many
+     * records at once. All the increments are done within one transaction with
+     * a statement which is compiled only once. If any of them failed, the whole
+     * action will be cancelled and your database will be **rolled back**.
+     *
+     * LitePal.increment(Song::class.java, "playcount", mapOf(1L to 3, 2L to 5))
+     *
+     * @param modelClass
+     * Which table to update by class.
+     * @param column
+     * The numeric column to increase.
+     * @param deltas
+     * A map from ids to the amount to add for each record.
+     * @return The number of rows affected.
+     */
+    @JvmStatic
+    fun increment(modelClass: Class<*>, column: String, deltas: Map<Long, Number>) = Operator.increment(modelClass, column, deltas)
+
+    /**
+     * Updates many records with different values for each of them. The UPDATE
+     * statement is compiled only once and all the rows are updated within one
+     * transaction. If any of them failed, the whole action will be cancelled
+     * and your database will be **rolled back**.
+     *
+     * LitePal.updateBatch(Song::class.java, arrayOf("name", "duration"), listOf(arrayOf(1L, "Hey Jude", 431), arrayOf(2L, "Let It Be", 243)))
+     *
+     * Each row starts with the id of the record to update, followed by the new
+     * values in the same order as columns.
+     *
+     * @param modelClass
+     * Which table to update by class.
+     * @param columns
+     * The columns to update.
+     * @param rows
+     * The id and new values of each record to update.
+     * @return The number of rows affected by each row, in the same order as
+     * rows.
+     */
+    @JvmStatic
+    fun updateBatch(modelClass: Class<*>, columns: Array<String>, rows: List<Array<Any?>>) = Operator.updateBatch(modelClass, columns, rows)
+
     /**
      * Saves the collection into database.
      *
@@ -1135,4 +1310,13 @@ object LitePal {
         Operator.registerDatabaseListener(listener)
     }
 
+    /**
+     * Check if the data of tables rebuilt by upgrade are being migrated in background. The data
+     * operations of LitePal wait until the migration is finished.
+     *
+     * @return True if the migration is running, false otherwise.
+     */
+    @JvmStatic
+    fun isMigrating() = Operator.isMigrating()
+
 }
\ No newline at end of file
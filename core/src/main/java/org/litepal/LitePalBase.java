@@ -17,6 +17,8 @@
 package org.litepal;
 
 import org.litepal.annotation.Column;
+import org.litepal.annotation.Index;
+import org.litepal.annotation.Indexes;
 import org.litepal.crud.LitePalSupport;
 import org.litepal.crud.model.AssociationsInfo;
 import org.litepal.exceptions.DatabaseGenerateException;
@@ -24,6 +26,7 @@ import org.litepal.parser.LitePalAttr;
 import org.litepal.tablemanager.model.AssociationsModel;
 import org.litepal.tablemanager.model.ColumnModel;
 import org.litepal.tablemanager.model.GenericModel;
+import org.litepal.tablemanager.model.IndexModel;
 import org.litepal.tablemanager.model.TableModel;
 import org.litepal.tablemanager.typechange.BlobOrm;
 import org.litepal.tablemanager.typechange.BooleanOrm;
@@ -41,12 +44,13 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Base class of all the LitePal components. If each component need to
@@ -78,13 +82,21 @@ public abstract class LitePalBase {
 
     /**
      * This is map of class name to fields list. Indicates that each class has which supported fields.
+     * Shared by all instances, as the fields of a class never change.
      */
-    private Map<String, List<Field>> classFieldsMap = new HashMap<>();
+    private static final Map<String, List<Field>> classFieldsMap = new ConcurrentHashMap<>();
 
 	/**
 	 * This is map of class name to generic fields list. Indicates that each class has which supported generic fields.
+	 * Shared by all instances, as the fields of a class never change.
 	 */
-    private Map<String, List<Field>> classGenericFieldsMap = new HashMap<>();
+    private static final Map<String, List<Field>> classGenericFieldsMap = new ConcurrentHashMap<>();
+
+    /**
+     * This is map of class name to association info. Shared by all instances, and replaced by a new
+     * one when the mapping classes may change.
+     */
+    private static volatile Map<String, Collection<AssociationsInfo>> classAssociationInfosMap = new ConcurrentHashMap<>();
 
 	/**
 	 * The collection contains all association models.
@@ -125,9 +137,70 @@ public abstract class LitePalBase {
             ColumnModel columnModel = convertFieldToColumnModel(field);
             tableModel.addColumnModel(columnModel);
 		}
+		for (Index index : getDeclaredIndexes(className)) {
+			IndexModel indexModel = convertIndexToIndexModel(tableName, index);
+			for (IndexModel declaredIndexModel : tableModel.getIndexModels()) {
+				if (declaredIndexModel.getIndexName().equalsIgnoreCase(indexModel.getIndexName())) {
+					throw new DatabaseGenerateException(String.format(DatabaseGenerateException.DUPLICATE_INDEX,
+							className, indexModel.getColumns()));
+				}
+			}
+			tableModel.addIndexModel(indexModel);
+		}
 		return tableModel;
 	}
 
+	/**
+	 * Find the indexes declared on the class by {@link Index} and
+	 * {@link Indexes}.
+	 *
+	 * @param className
+	 *            The full name of the class.
+	 * @return A list contains the declared indexes.
+	 */
+	private List<Index> getDeclaredIndexes(String className) {
+		Class<?> clazz;
+		try {
+			clazz = Class.forName(className);
+		} catch (ClassNotFoundException e) {
+			throw new DatabaseGenerateException(DatabaseGenerateException.CLASS_NOT_FOUND + className);
+		}
+		List<Index> indexes = new ArrayList<>();
+		Index index = clazz.getAnnotation(Index.class);
+		if (index != null) {
+			indexes.add(index);
+		}
+		Indexes container = clazz.getAnnotation(Indexes.class);
+		if (container != null) {
+			indexes.addAll(Arrays.asList(container.value()));
+		}
+		return indexes;
+	}
+
+	/**
+	 * Convert an index annotation into an IndexModel instance. The columns and
+	 * where clause are converted the same way as the columns of fields, and the
+	 * index is named by the table name, its columns and constraints.
+	 *
+	 * @param tableName
+	 *            The table to index.
+	 * @param index
+	 *            The index annotation declared on class.
+	 * @return An IndexModel instance contains index name, columns and
+	 *         constraints.
+	 */
+	private IndexModel convertIndexToIndexModel(String tableName, Index index) {
+		IndexModel indexModel = new IndexModel();
+		for (String column : index.columns()) {
+			indexModel.addColumn(DBUtility.convertToValidIndexColumn(column));
+		}
+		indexModel.setUnique(index.unique());
+		indexModel.setWhere(DBUtility.convertWhereClauseToColumnName(index.where().trim()));
+		indexModel.setIndexName(DBUtility.getDeclaredIndexName(tableName, indexModel.getColumns(),
+				indexModel.isUnique(), indexModel.getWhere()));
+		return indexModel;
+	}
+
 	/**
 	 * This method is used to get association models depends on the given class
 	 * name list.
@@ -171,10 +244,42 @@ public abstract class LitePalBase {
 			mAssociationInfos = new HashSet<>();
 		}
 		mAssociationInfos.clear();
-		analyzeClassFields(className, GET_ASSOCIATION_INFO_ACTION);
+		// If the mapping classes change while analyzing, such as the warm-up thread is running when
+		// the using database is switched, the result is put into the replaced map and never used.
+		Map<String, Collection<AssociationsInfo>> associationInfosMap = classAssociationInfosMap;
+		Collection<AssociationsInfo> associationInfos = associationInfosMap.get(className);
+		if (associationInfos == null) {
+			analyzeClassFields(className, GET_ASSOCIATION_INFO_ACTION);
+			associationInfosMap.put(className, new HashSet<>(mAssociationInfos));
+		} else {
+			mAssociationInfos.addAll(associationInfos);
+		}
 		return mAssociationInfos;
 	}
 
+	/**
+	 * Build the fields and association info of the class in advance, so the
+	 * first operation on the class won't pay for the reflection.
+	 *
+	 * @param className
+	 *            The full name of the class.
+	 */
+	protected void loadMetadata(String className) {
+		getSupportedFields(className);
+		getSupportedGenericFields(className);
+		getAssociationInfo(className);
+	}
+
+	/**
+	 * Clear the association info of all classes. Associations depend on the
+	 * mapping classes, so this is called when the using database changes. The
+	 * cache is replaced instead of cleared, so the analyzing which started
+	 * before can't put stale info into the new one.
+	 */
+	public static void clearAssociationInfoCache() {
+		classAssociationInfosMap = new ConcurrentHashMap<>();
+	}
+
 	/**
 	 * Find all the fields in the class. But not each field is supported to add
 	 * a column to the table. Only the basic data types and String are
@@ -691,12 +796,14 @@ public abstract class LitePalBase {
         boolean unique = false;
         boolean hasIndex = false;
         String defaultValue = "";
+        String backfill = "";
         Column annotation = field.getAnnotation(Column.class);
         if (annotation != null) {
             nullable = annotation.nullable();
             unique = annotation.unique();
             defaultValue = annotation.defaultValue();
             hasIndex = annotation.index();
+            backfill = annotation.backfill();
         }
         ColumnModel columnModel = new ColumnModel();
         columnModel.setColumnName(DBUtility.convertToValidColumnName(field.getName()));
@@ -705,6 +812,7 @@ public abstract class LitePalBase {
         columnModel.setUnique(unique);
         columnModel.setDefaultValue(defaultValue);
         columnModel.setHasIndex(hasIndex);
+        columnModel.setBackfill(backfill);
         return columnModel;
     }
 
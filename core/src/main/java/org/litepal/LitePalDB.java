@@ -53,6 +53,21 @@ public class LitePalDB {
      */
     private boolean isExternalStorage = false;
 
+    /**
+     * Define the foreign key constraints of associations. Option values: none, cascade, setnull.
+     */
+    private String foreignKeys;
+
+    /**
+     * Define where to migrate data of rebuilt tables. Option values: foreground, background.
+     */
+    private String migration;
+
+    /**
+     * Define whether to create indexes for associations. Option values: auto, none.
+     */
+    private String associationIndexes;
+
     /**
      * All the model classes that want to map in the database. Each class should
      * be given the full name including package name.
@@ -70,6 +85,9 @@ public class LitePalDB {
         LitePalConfig config = LitePalParser.parseLitePalConfiguration();
         LitePalDB litePalDB = new LitePalDB(dbName, config.getVersion());
         litePalDB.setStorage(config.getStorage());
+        litePalDB.setForeignKeys(config.getForeignKeys());
+        litePalDB.setMigration(config.getMigration());
+        litePalDB.setAssociationIndexes(config.getAssociationIndexes());
         litePalDB.setClassNames(config.getClassNames());
         return litePalDB;
     }
@@ -110,6 +128,57 @@ public class LitePalDB {
         this.isExternalStorage = isExternalStorage;
     }
 
+    public String getForeignKeys() {
+        return foreignKeys;
+    }
+
+    /**
+     * Set the foreign key constraints of associations. With {@link org.litepal.util.Const.Config#FOREIGN_KEYS_CASCADE}
+     * or {@link org.litepal.util.Const.Config#FOREIGN_KEYS_SET_NULL}, foreign key columns, intermediate join
+     * tables and generic tables will reference their associated tables, and SQLite will take over the cascade
+     * jobs when a referenced row is deleted. Increase the database version after changing this value, so the
+     * existing tables can be rebuilt.
+     *
+     * @param foreignKeys
+     *          Option values: none, cascade, setnull.
+     */
+    public void setForeignKeys(String foreignKeys) {
+        this.foreignKeys = foreignKeys;
+    }
+
+    public String getMigration() {
+        return migration;
+    }
+
+    /**
+     * Set where to migrate data of tables rebuilt by upgrade. With {@link org.litepal.util.Const.Config#MIGRATION_BACKGROUND},
+     * rows are copied in a background thread after the database is opened, and the data operations of LitePal wait
+     * until it's finished. Migration always runs in foreground if foreign keys are enabled.
+     *
+     * @param migration
+     *          Option values: foreground, background.
+     */
+    public void setMigration(String migration) {
+        this.migration = migration;
+    }
+
+    public String getAssociationIndexes() {
+        return associationIndexes;
+    }
+
+    /**
+     * Set whether to create indexes for associations. By default foreign key columns, intermediate join tables
+     * and generic tables are indexed, so loading and deleting associated models won't scan the whole table. With
+     * {@link org.litepal.util.Const.Config#ASSOCIATION_INDEXES_NONE}, these indexes are not created, and the
+     * existing ones are dropped when the database upgrades.
+     *
+     * @param associationIndexes
+     *          Option values: auto, none.
+     */
+    public void setAssociationIndexes(String associationIndexes) {
+        this.associationIndexes = associationIndexes;
+    }
+
     /**
      * Get the class name list. Always add table_schema as a value.
      *
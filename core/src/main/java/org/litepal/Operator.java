@@ -28,6 +28,7 @@ import org.litepal.crud.DeleteHandler;
 import org.litepal.crud.LitePalSupport;
 import org.litepal.crud.QueryHandler;
 import org.litepal.crud.SaveHandler;
+import org.litepal.crud.Session;
 import org.litepal.crud.UpdateHandler;
 import org.litepal.crud.async.AverageExecutor;
 import org.litepal.crud.async.CountExecutor;
@@ -40,16 +41,20 @@ import org.litepal.parser.LitePalAttr;
 import org.litepal.parser.LitePalConfig;
 import org.litepal.parser.LitePalParser;
 import org.litepal.tablemanager.Connector;
+import org.litepal.tablemanager.Migrator;
+import org.litepal.tablemanager.UpgradePlan;
 import org.litepal.tablemanager.callback.DatabaseListener;
 import org.litepal.util.BaseUtility;
 import org.litepal.util.Const;
 import org.litepal.util.DBUtility;
+import org.litepal.util.LitePalLog;
 import org.litepal.util.SharedUtil;
 import org.litepal.util.cipher.CipherUtil;
 
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * LitePal is an Android library that allows developers to use SQLite database extremely easy.
@@ -62,6 +67,8 @@ import java.util.List;
  */
 public class Operator {
 
+    private static final String TAG = "Operator";
+
     private static Handler handler = new Handler(Looper.getMainLooper());
 
     private static DatabaseListener dbListener = null;
@@ -87,19 +94,63 @@ public class Operator {
     }
 
     /**
-     * Get a writable SQLiteDatabase.
+     * Initialize to make LitePal ready to work, and warm up in a background thread if warmUp is
+     * true. Warming up parses litepal.xml, opens the database with creating or upgrading tables and
+     * running pending migrations, then builds the fields and associations of all mapping classes.
+     * So the first operation won't pay for these jobs, and it only waits for the parts it needs if
+     * they are still running.
+     *
+     * @param context
+     * 		Application context.
+     * @param warmUp
+     *      True to warm up in a background thread.
+     */
+    public static void initialize(Context context, boolean warmUp) {
+        initialize(context);
+        if (warmUp) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    warmUp();
+                }
+            }, "LitePal-WarmUp");
+            thread.start();
+        }
+    }
+
+    /**
+     * Open the database and build the metadata of all mapping classes.
+     */
+    private static void warmUp() {
+        try {
+            // Connector is locked while opening, so operations in other threads wait until it's opened.
+            Connector.getWritableDatabase();
+            LitePalBase metadataLoader = new LitePalBase() {
+            };
+            for (String className : LitePalAttr.getInstance().getClassNames()) {
+                metadataLoader.loadMetadata(className);
+            }
+        } catch (Exception e) {
+            // The first operation will run into the same problem and throw it to the caller.
+            LitePalLog.e(TAG, e);
+        }
+    }
+
+    /**
+     * Get a writable SQLiteDatabase. It doesn't wait for the data migration running in background,
+     * check {@link #isMigrating()} before reading the tables rebuilt by upgrade.
      *
      * @return A writable SQLiteDatabase instance
      */
     public static SQLiteDatabase getDatabase() {
-        return Connector.getDatabase();
+        return Connector.getWritableDatabase();
     }
 
     /**
      * Begins a transaction in EXCLUSIVE mode.
      */
     public static void beginTransaction() {
-        getDatabase().beginTransaction();
+        Connector.getDatabase().beginTransaction();
     }
 
     /**
@@ -118,6 +169,23 @@ public class Operator {
         getDatabase().setTransactionSuccessful();
     }
 
+    /**
+     * Begins a session on the current thread. Within a session, the same record is always
+     * loaded into the same model instance, and models already loaded are returned by find
+     * methods without querying again. Sessions can be nested.
+     */
+    public static void beginSession() {
+        Session.begin();
+    }
+
+    /**
+     * End the session on the current thread. Loaded models are released when the outermost
+     * session ends.
+     */
+    public static void endSession() {
+        Session.end();
+    }
+
     /**
      * Switch the using database to the one specified by parameter.
      * @param litePalDB
@@ -125,20 +193,61 @@ public class Operator {
      */
     public static void use(LitePalDB litePalDB) {
         synchronized (LitePalSupport.class) {
-            LitePalAttr litePalAttr = LitePalAttr.getInstance();
-            litePalAttr.setDbName(litePalDB.getDbName());
-            litePalAttr.setVersion(litePalDB.getVersion());
-            litePalAttr.setStorage(litePalDB.getStorage());
-            litePalAttr.setClassNames(litePalDB.getClassNames());
-            // set the extra key name only when use database other than default or litepal.xml not exists
-            if (!isDefaultDatabase(litePalDB.getDbName())) {
-                litePalAttr.setExtraKeyName(litePalDB.getDbName());
-                litePalAttr.setCases("lower");
-            }
+            applyLitePalDB(litePalDB);
             Connector.clearLitePalOpenHelperInstance();
         }
     }
 
+    /**
+     * Plan the operations of creating or upgrading tables of the specified database, without
+     * changing anything. The operations are in the order they will be performed, with the
+     * estimated rows each of them goes through and whether it may lose data. The plan is built
+     * from a copy of the configuration, so the using database is not switched, and other threads
+     * keep working on it meanwhile. See {@link UpgradePlan} for what the plan can't tell.
+     * @param litePalDB
+     *          The database with the model classes to upgrade to.
+     * @return The plan of operations, which can be exported by {@link UpgradePlan#toJson()}.
+     */
+    public static UpgradePlan planUpgrade(LitePalDB litePalDB) {
+        LitePalAttr litePalAttr;
+        synchronized (LitePalSupport.class) {
+            litePalAttr = LitePalAttr.getInstance().copy();
+        }
+        applyLitePalDB(litePalDB, litePalAttr);
+        return Connector.planUpgrade(litePalAttr);
+    }
+
+    /**
+     * Apply the configuration of database to LitePalAttr.
+     * @param litePalDB
+     *          The database to apply.
+     */
+    private static void applyLitePalDB(LitePalDB litePalDB) {
+        applyLitePalDB(litePalDB, LitePalAttr.getInstance());
+    }
+
+    /**
+     * Apply the configuration of database to the specified LitePalAttr.
+     * @param litePalDB
+     *          The database to apply.
+     * @param litePalAttr
+     *          The configuration to apply to.
+     */
+    private static void applyLitePalDB(LitePalDB litePalDB, LitePalAttr litePalAttr) {
+        litePalAttr.setDbName(litePalDB.getDbName());
+        litePalAttr.setVersion(litePalDB.getVersion());
+        litePalAttr.setStorage(litePalDB.getStorage());
+        litePalAttr.setForeignKeys(litePalDB.getForeignKeys());
+        litePalAttr.setMigration(litePalDB.getMigration());
+        litePalAttr.setAssociationIndexes(litePalDB.getAssociationIndexes());
+        litePalAttr.setClassNames(litePalDB.getClassNames());
+        // set the extra key name only when use database other than default or litepal.xml not exists
+        if (!isDefaultDatabase(litePalDB.getDbName())) {
+            litePalAttr.setExtraKeyName(litePalDB.getDbName());
+            litePalAttr.setCases("lower");
+        }
+    }
+
     /**
      * Switch the using database to default with configuration by litepal.xml.
      */
@@ -286,6 +395,47 @@ public class Operator {
         return cQuery;
     }
 
+    /**
+     * Declaring which columns to group the rows by. It works with
+     * {@link FluentQuery#aggregate(Class, org.litepal.crud.Aggregate...)}.
+     *
+     * <pre>
+     * LitePal.groupBy(&quot;city&quot;).aggregate(Person.class, count(), avg(&quot;age&quot;));
+     * </pre>
+     *
+     * This will count people and calculate their average age of each city.
+     *
+     * @param columns
+     *            The columns to group the rows by.
+     * @return A FluentQuery instance.
+     */
+    public static FluentQuery groupBy(String... columns) {
+        FluentQuery cQuery = new FluentQuery();
+        cQuery.mGroupBy = columns;
+        return cQuery;
+    }
+
+    /**
+     * Declaring which associations to load into the found models. Each path
+     * is a chain of association field names separated by dot.
+     *
+     * <pre>
+     * LitePal.include(&quot;songs&quot;, &quot;songs.artist&quot;).find(Album.class);
+     * </pre>
+     *
+     * This will find all albums with their songs and the artist of each song
+     * loaded, one batched query for each path segment.
+     *
+     * @param paths
+     *            The association paths to load.
+     * @return A FluentQuery instance.
+     */
+    public static FluentQuery include(String... paths) {
+        FluentQuery cQuery = new FluentQuery();
+        cQuery.mIncludes = paths;
+        return cQuery;
+    }
+
     /**
      * Limits the number of rows returned by the query.
      *
@@ -1480,6 +1630,156 @@ public class Operator {
         return executor;
     }
 
+    /**
+     * Updates all records which match the conditions with a SQL expression. The
+     * new values are computed by database within a single UPDATE statement, so
+     * no model needs to be loaded and concurrent updates won't get lost.
+     *
+     * <pre>
+     * LitePal.updateAllWithExpression(Song.class, new String[] { &quot;playcount = playcount + ?&quot;, &quot;1&quot; },
+     *         &quot;album = ?&quot;, &quot;Yellow&quot;);
+     * </pre>
+     *
+     * This means that the playcount of all the songs in album Yellow will be
+     * increased by 1.
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param expression
+     *            A string array representing the SET part of an SQL statement.
+     *            First element is the expression, the rest are the arguments to
+     *            fill into its place holders.
+     * @param conditions
+     *            A string array representing the WHERE part of an SQL
+     *            statement. First parameter is the WHERE clause to apply when
+     *            updating. The way of specifying place holders is to insert one
+     *            or more question marks in the SQL. The first question mark is
+     *            replaced by the second element of the array, the next question
+     *            mark by the third, and so on. Passing empty string will update
+     *            all rows.
+     * @return The number of rows affected.
+     */
+    public static int updateAllWithExpression(Class<?> modelClass, String[] expression, String... conditions) {
+        synchronized (LitePalSupport.class) {
+            UpdateHandler updateHandler = new UpdateHandler(Connector.getDatabase());
+            return updateHandler.onUpdateAllWithExpression(BaseUtility.changeCase(DBUtility.getTableNameByClassName(
+                    modelClass.getName())), expression, conditions);
+        }
+    }
+
+    /**
+     * Increases the value of a numeric column for all records which match the
+     * conditions, without loading any model. Null values are treated as 0.
+     *
+     * <pre>
+     * LitePal.increment(Song.class, &quot;playcount&quot;, 1, &quot;id = ?&quot;, &quot;1&quot;);
+     * </pre>
+     *
+     * This means that the playcount of song 1 will be increased by 1. Pass a
+     * negative delta to decrease.
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param column
+     *            The numeric column to increase.
+     * @param delta
+     *            The amount to add.
+     * @param conditions
+     *            A string array representing the WHERE part of an SQL
+     *            statement. First parameter is the WHERE clause to apply when
+     *            updating. The way of specifying place holders is to insert one
+     *            or more question marks in the SQL. The first question mark is
+     *            replaced by the second element of the array, the next question
+     *            mark by the third, and so on. Passing empty string will update
+     *            all rows.
+     * @return The number of rows affected.
+     */
+    public static int increment(Class<?> modelClass, String column, Number delta, String... conditions) {
+        synchronized (LitePalSupport.class) {
+            UpdateHandler updateHandler = new UpdateHandler(Connector.getDatabase());
+            return updateHandler.onIncrement(BaseUtility.changeCase(DBUtility.getTableNameByClassName(
+                    modelClass.getName())), column, delta, conditions);
+        }
+    }
+
+    /**
+     * Increases the value of a numeric column by different amounts for many
+     * records at once. All the increments are done within one transaction with
+     * a statement which is compiled only once. If any of them failed, the whole
+     * action will be cancelled and your database will be <b>rolled back</b>.
+     *
+     * <pre>
+     * Map&lt;Long, Integer&gt; deltas = new HashMap&lt;&gt;();
+     * deltas.put(1L, 3);
+     * deltas.put(2L, 5);
+     * LitePal.increment(Song.class, &quot;playcount&quot;, deltas);
+     * </pre>
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param column
+     *            The numeric column to increase.
+     * @param deltas
+     *            A map from ids to the amount to add for each record.
+     * @return The number of rows affected.
+     */
+    public static int increment(Class<?> modelClass, String column, Map<Long, ? extends Number> deltas) {
+        synchronized (LitePalSupport.class) {
+            SQLiteDatabase db = Connector.getDatabase();
+            db.beginTransaction();
+            try {
+                UpdateHandler updateHandler = new UpdateHandler(db);
+                int rowsAffected = updateHandler.onIncrement(BaseUtility.changeCase(DBUtility.getTableNameByClassName(
+                        modelClass.getName())), column, deltas);
+                db.setTransactionSuccessful();
+                return rowsAffected;
+            } finally {
+                db.endTransaction();
+            }
+        }
+    }
+
+    /**
+     * Updates many records with different values for each of them. The UPDATE
+     * statement is compiled only once and all the rows are updated within one
+     * transaction. If any of them failed, the whole action will be cancelled
+     * and your database will be <b>rolled back</b>.
+     *
+     * <pre>
+     * List&lt;Object[]&gt; rows = new ArrayList&lt;&gt;();
+     * rows.add(new Object[] { 1L, &quot;Hey Jude&quot;, 431 });
+     * rows.add(new Object[] { 2L, &quot;Let It Be&quot;, 243 });
+     * int[] rowsAffected = LitePal.updateBatch(Song.class, new String[] { &quot;name&quot;, &quot;duration&quot; }, rows);
+     * </pre>
+     *
+     * Each row starts with the id of the record to update, followed by the new
+     * values in the same order as columns.
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param columns
+     *            The columns to update.
+     * @param rows
+     *            The id and new values of each record to update.
+     * @return The number of rows affected by each row, in the same order as
+     *         rows.
+     */
+    public static int[] updateBatch(Class<?> modelClass, String[] columns, List<Object[]> rows) {
+        synchronized (LitePalSupport.class) {
+            SQLiteDatabase db = Connector.getDatabase();
+            db.beginTransaction();
+            try {
+                UpdateHandler updateHandler = new UpdateHandler(db);
+                int[] rowsAffected = updateHandler.onUpdateBatch(BaseUtility.changeCase(DBUtility.getTableNameByClassName(
+                        modelClass.getName())), columns, rows);
+                db.setTransactionSuccessful();
+                return rowsAffected;
+            } finally {
+                db.endTransaction();
+            }
+        }
+    }
+
     /**
      * Saves the collection into database. <br>
      *
@@ -1596,4 +1896,14 @@ public class Operator {
         return dbListener;
     }
 
+    /**
+     * Check if the data of tables rebuilt by upgrade are being migrated in background. The data
+     * operations of LitePal wait until the migration is finished.
+     *
+     * @return True if the migration is running, false otherwise.
+     */
+    public static boolean isMigrating() {
+        return Migrator.isMigrating();
+    }
+
 }
\ No newline at end of file
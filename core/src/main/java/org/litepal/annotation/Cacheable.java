@@ -0,0 +1,48 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used for caching the query results of a model class in memory. It's suitable
+ * for reference data which is queried a lot but rarely changes. The cached
+ * results will be invalidated when the table or any related table is written
+ * through LitePal.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cacheable {
+
+    /**
+     * Set the max number of query results to cache.
+     */
+    int maxEntries() default 100;
+
+    /**
+     * Set the max estimated bytes of query results to cache. When it's greater
+     * than 0, the cache is bounded by bytes instead of maxEntries.
+     */
+    long maxBytes() default 0;
+
+}
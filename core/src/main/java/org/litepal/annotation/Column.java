@@ -56,4 +56,12 @@ public @interface Column {
      */
     boolean index() default false;
 
+    /**
+     * Set a SQL expression to fill the column of existing rows during upgrade, when the column is
+     * added, or the rows have no value for it when the table is rebuilt. It's evaluated against
+     * each row, so it can refer to other columns, such as "'user_' || id". An unique column added
+     * to a table with rows needs it to give each row a distinct value.
+     */
+    String backfill() default "";
+
 }
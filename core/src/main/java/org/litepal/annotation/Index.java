@@ -0,0 +1,62 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.litepal.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used for adding an index on several columns of a model class, which is
+ * useful for queries filtering or sorting on these columns together. The
+ * index can be unique, and partial with a where clause. Declare more indexes
+ * of a class with {@link Indexes}.
+ *
+ * <pre>
+ * &#64;Index(columns = {"userId", "status", "createdAt desc"}, where = "status != 0")
+ * public class Order extends LitePalSupport {
+ * }
+ * </pre>
+ *
+ * The index is created, changed or dropped when the database upgrades, and it
+ * won't be rebuilt if its definition is not changed.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Index {
+
+    /**
+     * Set the indexed columns in order. Each one can be a column name followed
+     * by asc or desc, or an expression such as lower(name).
+     */
+    String[] columns();
+
+    /**
+     * Set unique constraint for the indexed columns together.
+     */
+    boolean unique() default false;
+
+    /**
+     * Set the where clause to make a partial index, which only indexes the
+     * rows matching the condition.
+     */
+    String where() default "";
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import org.litepal.util.DBUtility;
+
+import java.util.Locale;
+
+/**
+ * An aggregate function to calculate by {@link org.litepal.FluentQuery#aggregate(Class, Aggregate...)}.
+ * Each aggregate becomes a column of the result, named by its alias. The
+ * default alias is the function name and column name joined by underscore,
+ * such as sum_price, or count for {@link #count()}.
+ *
+ * <pre>
+ * AggregateResult result = LitePal.where(&quot;age &gt; ?&quot;, &quot;15&quot;).groupBy(&quot;city&quot;)
+ *         .aggregate(Person.class, count(), sum(&quot;salary&quot;), avg(&quot;age&quot;));
+ * </pre>
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class Aggregate {
+
+	/**
+	 * The aggregate function name.
+	 */
+	private final String function;
+
+	/**
+	 * The column to calculate on, or null for count of rows.
+	 */
+	private final String column;
+
+	/**
+	 * The name of result column.
+	 */
+	private final String alias;
+
+	private Aggregate(String function, String column, String alias) {
+		this.function = function;
+		this.column = column;
+		this.alias = alias.toLowerCase(Locale.US);
+	}
+
+	/**
+	 * Count the rows of each group.
+	 *
+	 * @return The aggregate named count.
+	 */
+	public static Aggregate count() {
+		return new Aggregate("count", null, "count");
+	}
+
+	/**
+	 * Count the non-null values of column in each group.
+	 *
+	 * @param column
+	 *            The column to count.
+	 * @return The aggregate named count_column.
+	 */
+	public static Aggregate count(String column) {
+		return new Aggregate("count", column, "count_" + column);
+	}
+
+	/**
+	 * Calculate the sum of column in each group.
+	 *
+	 * @param column
+	 *            The column to calculate.
+	 * @return The aggregate named sum_column.
+	 */
+	public static Aggregate sum(String column) {
+		return new Aggregate("sum", column, "sum_" + column);
+	}
+
+	/**
+	 * Calculate the average value of column in each group.
+	 *
+	 * @param column
+	 *            The column to calculate.
+	 * @return The aggregate named avg_column.
+	 */
+	public static Aggregate avg(String column) {
+		return new Aggregate("avg", column, "avg_" + column);
+	}
+
+	/**
+	 * Calculate the maximum value of column in each group.
+	 *
+	 * @param column
+	 *            The column to calculate.
+	 * @return The aggregate named max_column.
+	 */
+	public static Aggregate max(String column) {
+		return new Aggregate("max", column, "max_" + column);
+	}
+
+	/**
+	 * Calculate the minimum value of column in each group.
+	 *
+	 * @param column
+	 *            The column to calculate.
+	 * @return The aggregate named min_column.
+	 */
+	public static Aggregate min(String column) {
+		return new Aggregate("min", column, "min_" + column);
+	}
+
+	/**
+	 * Give the aggregate another name in result.
+	 *
+	 * @param alias
+	 *            The name of result column.
+	 * @return A new aggregate with the name.
+	 */
+	public Aggregate alias(String alias) {
+		return new Aggregate(function, column, alias);
+	}
+
+	/**
+	 * Get the name of result column.
+	 *
+	 * @return The lower case name of result column.
+	 */
+	public String getAlias() {
+		return alias;
+	}
+
+	/**
+	 * Build the select expression of the aggregate, with column names
+	 * conflicting with SQLite keywords converted.
+	 *
+	 * @return The select expression.
+	 */
+	String toSelectClause() {
+		String argument = column == null ? "1" : DBUtility.convertToValidColumnName(column);
+		return function + "(" + argument + ") as " + alias;
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import android.database.Cursor;
+
+import org.litepal.exceptions.LitePalSupportException;
+
+import java.util.Locale;
+
+/**
+ * The rows calculated by {@link org.litepal.FluentQuery#aggregate(Class, Aggregate...)}.
+ * The group by columns come first, then the aggregates in the order they are
+ * given. All the values are read from cursor in one pass and kept in a single
+ * array by the storage type of SQLite, so the result is still available after
+ * the cursor is closed.
+ *
+ * <pre>
+ * for (int i = 0; i &lt; result.getRowCount(); i++) {
+ *     String city = result.getString(i, &quot;city&quot;);
+ *     double salary = result.getDouble(i, &quot;sum_salary&quot;);
+ * }
+ * </pre>
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class AggregateResult {
+
+	/**
+	 * Lower case names of the result columns.
+	 */
+	private final String[] columnNames;
+
+	/**
+	 * The values of all rows, row after row.
+	 */
+	private final Object[] values;
+
+	/**
+	 * The number of rows.
+	 */
+	private final int rowCount;
+
+	/**
+	 * Read all the rows of the cursor.
+	 *
+	 * @param cursor
+	 *            The cursor of aggregate query, which is not moved yet.
+	 */
+	AggregateResult(Cursor cursor) {
+		columnNames = cursor.getColumnNames();
+		for (int i = 0; i < columnNames.length; i++) {
+			columnNames[i] = columnNames[i].toLowerCase(Locale.US);
+		}
+		rowCount = cursor.getCount();
+		values = new Object[rowCount * columnNames.length];
+		int index = 0;
+		while (cursor.moveToNext()) {
+			for (int i = 0; i < columnNames.length; i++) {
+				switch (cursor.getType(i)) {
+					case Cursor.FIELD_TYPE_INTEGER:
+						values[index] = cursor.getLong(i);
+						break;
+					case Cursor.FIELD_TYPE_FLOAT:
+						values[index] = cursor.getDouble(i);
+						break;
+					case Cursor.FIELD_TYPE_STRING:
+						values[index] = cursor.getString(i);
+						break;
+					case Cursor.FIELD_TYPE_BLOB:
+						values[index] = cursor.getBlob(i);
+						break;
+					default:
+						break;
+				}
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * Get the number of rows, which is the number of groups if group by
+	 * columns are declared.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Get the names of result columns, group by columns first, then the alias
+	 * of aggregates.
+	 *
+	 * @return Lower case names of the result columns.
+	 */
+	public String[] getColumnNames() {
+		return columnNames.clone();
+	}
+
+	/**
+	 * Get the index of result column by name.
+	 *
+	 * @param columnName
+	 *            The name of result column, case insensitive.
+	 * @return The index of column, or -1 if the column doesn't exist.
+	 */
+	public int getColumnIndex(String columnName) {
+		for (int i = 0; i < columnNames.length; i++) {
+			if (columnNames[i].equalsIgnoreCase(columnName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Check the value is null or not.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param columnName
+	 *            The name of result column.
+	 * @return True if the value is null.
+	 */
+	public boolean isNull(int row, String columnName) {
+		return getValue(row, columnName) == null;
+	}
+
+	/**
+	 * Get the value as long. Null value is read as 0.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param columnName
+	 *            The name of result column.
+	 * @return The value as long.
+	 */
+	public long getLong(int row, String columnName) {
+		Object value = getValue(row, columnName);
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		return value == null ? 0 : Long.parseLong(value.toString());
+	}
+
+	/**
+	 * Get the value as int. Null value is read as 0.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param columnName
+	 *            The name of result column.
+	 * @return The value as int.
+	 */
+	public int getInt(int row, String columnName) {
+		return (int) getLong(row, columnName);
+	}
+
+	/**
+	 * Get the value as double. Null value is read as 0.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param columnName
+	 *            The name of result column.
+	 * @return The value as double.
+	 */
+	public double getDouble(int row, String columnName) {
+		Object value = getValue(row, columnName);
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		return value == null ? 0 : Double.parseDouble(value.toString());
+	}
+
+	/**
+	 * Get the value as String. Null value is kept as null.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param columnName
+	 *            The name of result column.
+	 * @return The value as String, or null.
+	 */
+	public String getString(int row, String columnName) {
+		Object value = getValue(row, columnName);
+		return value == null ? null : value.toString();
+	}
+
+	/**
+	 * Get the value of aggregate as long. Null value is read as 0.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param aggregate
+	 *            The aggregate which is given to query.
+	 * @return The value as long.
+	 */
+	public long getLong(int row, Aggregate aggregate) {
+		return getLong(row, aggregate.getAlias());
+	}
+
+	/**
+	 * Get the value of aggregate as int. Null value is read as 0.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param aggregate
+	 *            The aggregate which is given to query.
+	 * @return The value as int.
+	 */
+	public int getInt(int row, Aggregate aggregate) {
+		return getInt(row, aggregate.getAlias());
+	}
+
+	/**
+	 * Get the value of aggregate as double. Null value is read as 0.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param aggregate
+	 *            The aggregate which is given to query.
+	 * @return The value as double.
+	 */
+	public double getDouble(int row, Aggregate aggregate) {
+		return getDouble(row, aggregate.getAlias());
+	}
+
+	/**
+	 * Find the raw value in the array.
+	 *
+	 * @param row
+	 *            The index of row.
+	 * @param columnName
+	 *            The name of result column.
+	 * @return The raw value.
+	 */
+	private Object getValue(int row, String columnName) {
+		int columnIndex = getColumnIndex(columnName);
+		if (columnIndex == -1) {
+			throw new LitePalSupportException(columnName + LitePalSupportException.AGGREGATE_NO_SUCH_COLUMN);
+		}
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("row " + row + " of " + rowCount);
+		}
+		return values[row * columnNames.length + columnIndex];
+	}
+
+}
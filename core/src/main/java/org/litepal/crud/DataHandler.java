@@ -19,6 +19,8 @@ package org.litepal.crud;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
 import android.util.Log;
 import android.util.SparseArray;
 
@@ -39,14 +41,21 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import static org.litepal.util.BaseUtility.changeCase;
 
@@ -60,6 +69,24 @@ import static org.litepal.util.BaseUtility.changeCase;
 abstract class DataHandler extends LitePalBase {
 	public static final String TAG = "DataHandler";
 
+	/**
+	 * The max number of host parameters in a single SQL statement. It's the
+	 * default value of SQLITE_MAX_VARIABLE_NUMBER before SQLite 3.32.0, so id
+	 * arrays are bound in chunks under this size.
+	 */
+	static final int MAX_VARIABLE_NUMBER = 999;
+
+	/**
+	 * The alias of owner id column in the queries of include paths.
+	 */
+	private static final String INCLUDE_OWNER_ID = "litepal_owner_id";
+
+	/**
+	 * Cursor class name and getter method name as key. Getter method of cursor
+	 * as value.
+	 */
+	private static final Map<String, Method> cursorMethods = new HashMap<>();
+
 	/**
 	 * Instance of SQLiteDatabase, use to do the CRUD job.
 	 */
@@ -121,37 +148,243 @@ abstract class DataHandler extends LitePalBase {
 	 *            model's table.
 	 * @return A model list. The list may be empty.
 	 */
-	@SuppressWarnings("unchecked")
 	protected <T> List<T> query(Class<T> modelClass, String[] columns, String selection,
 			String[] selectionArgs, String groupBy, String having, String orderBy, String limit,
 			List<AssociationsInfo> foreignKeyAssociations) {
+		return query(modelClass, columns, selection, selectionArgs, groupBy, having, orderBy, limit,
+				foreignKeyAssociations, null);
+	}
+
+	/**
+	 * Same as {@link #query(Class, String[], String, String[], String, String, String, String, List)},
+	 * but reuses the row mapper built by a previous query of the same shape, so
+	 * the projection and the reflection information are not resolved again.
+	 *
+	 * @param rowMapper
+	 *            The row mapper built by
+	 *            {@link #getRowMapper(Class, String[], List)}. Passing null
+	 *            will build a new one for this query only.
+	 * @return A model list. The list may be empty.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> List<T> query(Class<T> modelClass, String[] columns, String selection,
+			String[] selectionArgs, String groupBy, String having, String orderBy, String limit,
+			List<AssociationsInfo> foreignKeyAssociations, RowMapper rowMapper) {
+		ResultCache resultCache = ResultCache.getInstance();
+		String cacheKey = null;
+		if (resultCache.isCacheable(modelClass)) {
+			cacheKey = generateCacheKey(columns, selection, selectionArgs, groupBy, having, orderBy, limit,
+					foreignKeyAssociations != null);
+			List<?> cachedList = resultCache.get(modelClass, cacheKey);
+			if (cachedList != null) {
+				return (List<T>) mapThroughSession(copyModels(cachedList), foreignKeyAssociations != null);
+			}
+		}
+		Session session = Session.current(mDatabase);
 		List<T> dataList = new ArrayList<>();
 		Cursor cursor = null;
 		try {
-            List<Field> supportedFields = getSupportedFields(modelClass.getName());
-            List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
-            String[] customizedColumns = DBUtility.convertSelectClauseToValidNames(getCustomizedColumns(columns, supportedGenericFields, foreignKeyAssociations));
-            String tableName = getTableName(modelClass);
-			cursor = mDatabase.query(tableName, customizedColumns, selection, selectionArgs,
+			if (rowMapper == null) {
+				rowMapper = getRowMapper(modelClass, columns, foreignKeyAssociations);
+			}
+			List<Field> supportedFields = rowMapper.supportedFields;
+			List<Field> supportedGenericFields = rowMapper.supportedGenericFields;
+			SparseArray<QueryInfoCache> queryInfoCacheSparseArray = rowMapper.queryInfoCacheSparseArray;
+			Map<Field, GenericModel> genericModelMap = rowMapper.genericModelMap;
+			cursor = mDatabase.query(rowMapper.tableName, rowMapper.customizedColumns, selection, selectionArgs,
 					groupBy, having, orderBy, limit);
 			if (cursor.moveToFirst()) {
-                SparseArray<QueryInfoCache> queryInfoCacheSparseArray = new SparseArray<>();
-                Map<Field, GenericModel> genericModelMap = new HashMap<>();
 				do {
-					T modelInstance = (T) createInstanceFromClass(modelClass);
-					giveBaseObjIdValue((LitePalSupport) modelInstance,
-							cursor.getLong(cursor.getColumnIndexOrThrow("id")));
-					setValueToModel(modelInstance, supportedFields, foreignKeyAssociations, cursor, queryInfoCacheSparseArray);
-                    setGenericValueToModel((LitePalSupport) modelInstance, supportedGenericFields, genericModelMap);
+					long id = cursor.getLong(cursor.getColumnIndexOrThrow("id"));
+					T modelInstance = session == null ? null : session.get(modelClass, id);
+					boolean managed = modelInstance != null;
+					if (modelInstance == null) {
+						modelInstance = (T) createInstanceFromClass(modelClass);
+						giveBaseObjIdValue((LitePalSupport) modelInstance, id);
+						setValueToModel(modelInstance, supportedFields, null, cursor, queryInfoCacheSparseArray);
+						if (session != null && columns == null) {
+							// put before loading generic values, so self referencing lists find it.
+							session.put((LitePalSupport) modelInstance);
+							managed = true;
+						}
+						setGenericValueToModel((LitePalSupport) modelInstance, supportedGenericFields, genericModelMap);
+					} else if (session.isEagerLoaded(modelInstance)) {
+						dataList.add(modelInstance);
+						continue;
+					}
 					if (foreignKeyAssociations != null) {
+						setForeignKeyValueToModel(modelInstance, foreignKeyAssociations, cursor);
 						setAssociatedModel((LitePalSupport) modelInstance);
+						if (managed) {
+							session.markEagerLoaded((LitePalSupport) modelInstance);
+						}
+					}
+					dataList.add(modelInstance);
+				} while (cursor.moveToNext());
+			}
+			if (cacheKey != null && !mDatabase.inTransaction()) {
+				// data read within a transaction may be rolled back, so it's never cached.
+				getRelatedTables(modelClass.getName());
+				resultCache.put(modelClass, cacheKey, copyModels(dataList));
+			}
+			return dataList;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Build the row mapper of a query shape, which holds the converted
+	 * projection and the reflection information to set values into models.
+	 *
+	 * @param modelClass
+	 *            The model to compile the query against.
+	 * @param columns
+	 *            A list of which columns to return. Passing null will return
+	 *            all columns.
+	 * @param foreignKeyAssociations
+	 *            Associated classes which have foreign keys in the current
+	 *            model's table.
+	 * @return The row mapper of the query shape.
+	 */
+	RowMapper getRowMapper(Class<?> modelClass, String[] columns, List<AssociationsInfo> foreignKeyAssociations) {
+		RowMapper rowMapper = new RowMapper();
+		rowMapper.tableName = getTableName(modelClass);
+		rowMapper.supportedFields = getSupportedFields(modelClass.getName());
+		// copy it, because the customized columns will filter the generic fields.
+		rowMapper.supportedGenericFields = new ArrayList<>(getSupportedGenericFields(modelClass.getName()));
+		rowMapper.customizedColumns = DBUtility.convertSelectClauseToValidNames(getCustomizedColumns(columns,
+				rowMapper.supportedGenericFields, foreignKeyAssociations));
+		return rowMapper;
+	}
+
+	/**
+	 * Query the models together with their many-to-one or one-to-one
+	 * associated models in a single SQL statement. Each joined table is left
+	 * joined by the foreign key column, and its columns are aliased with the
+	 * table name as prefix, so both sides are hydrated from the same row. The
+	 * joined models are deduplicated by id, so children of the same parent
+	 * share the same parent instance. Query results are not cached.
+	 *
+	 * @param modelClass
+	 *            The model to compile the query against.
+	 * @param columns
+	 *            A list of which columns of the model to return. Passing null
+	 *            will return all columns.
+	 * @param selection
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Columns existing in multiple tables should be
+	 *            qualified by table name.
+	 * @param selectionArgs
+	 *            The values to replace ?s in selection.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, formatted as
+	 *            LIMIT clause. Passing null denotes no LIMIT clause.
+	 * @param joins
+	 *            The associated classes to join as key, and the foreign key
+	 *            columns in the model's table as value.
+	 * @return A model list. The list may be empty.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> List<T> joinQuery(Class<T> modelClass, String[] columns, String selection, String[] selectionArgs,
+			String orderBy, String limit, Map<Class<?>, String> joins) {
+		Session session = Session.current(mDatabase);
+		List<T> dataList = new ArrayList<>();
+		Cursor cursor = null;
+		try {
+			RowMapper rowMapper = getRowMapper(modelClass, columns, null);
+			String[] modelColumns = rowMapper.customizedColumns;
+			if (modelColumns == null) {
+				modelColumns = getColumnNames(rowMapper.supportedFields);
+			}
+			StringBuilder sql = new StringBuilder("select ");
+			for (int i = 0; i < modelColumns.length; i++) {
+				if (i > 0) {
+					sql.append(",");
+				}
+				sql.append(rowMapper.tableName).append(".").append(modelColumns[i]).append(" as ")
+						.append(modelColumns[i]);
+			}
+			StringBuilder from = new StringBuilder(" from ").append(rowMapper.tableName);
+			List<JoinMapper> joinMappers = new ArrayList<>();
+			for (Map.Entry<Class<?>, String> join : joins.entrySet()) {
+				JoinMapper joinMapper = getJoinMapper(modelClass, join.getKey(), join.getValue());
+				String joinTable = joinMapper.rowMapper.tableName;
+				for (String column : getColumnNames(joinMapper.rowMapper.supportedFields)) {
+					sql.append(",").append(joinTable).append(".").append(column).append(" as ")
+							.append(joinMapper.prefix).append(column);
+				}
+				from.append(" left join ").append(joinTable).append(" on ").append(rowMapper.tableName)
+						.append(".").append(joinMapper.foreignKeyColumn).append(" = ").append(joinTable)
+						.append(".id");
+				joinMappers.add(joinMapper);
+			}
+			sql.append(from);
+			if (!TextUtils.isEmpty(selection)) {
+				sql.append(" where ").append(selection);
+			}
+			if (!TextUtils.isEmpty(orderBy)) {
+				sql.append(" order by ").append(orderBy);
+			}
+			if (!TextUtils.isEmpty(limit)) {
+				sql.append(" limit ").append(limit);
+			}
+			cursor = mDatabase.rawQuery(sql.toString(), selectionArgs);
+			if (cursor.moveToFirst()) {
+				int idColumnIndex = cursor.getColumnIndexOrThrow("id");
+				for (JoinMapper joinMapper : joinMappers) {
+					compileJoinMapper(joinMapper, cursor);
+				}
+				do {
+					long id = cursor.getLong(idColumnIndex);
+					T modelInstance = session == null ? null : session.get(modelClass, id);
+					if (modelInstance == null) {
+						modelInstance = (T) createInstanceFromClass(modelClass);
+						giveBaseObjIdValue((LitePalSupport) modelInstance, id);
+						setValueToModel(modelInstance, rowMapper.supportedFields, null, cursor,
+								rowMapper.queryInfoCacheSparseArray);
+						if (session != null && columns == null) {
+							session.put((LitePalSupport) modelInstance);
+						}
+						setGenericValueToModel((LitePalSupport) modelInstance, rowMapper.supportedGenericFields,
+								rowMapper.genericModelMap);
+					}
+					for (JoinMapper joinMapper : joinMappers) {
+						if (cursor.isNull(joinMapper.idColumnIndex)) {
+							continue;
+						}
+						long joinedId = cursor.getLong(joinMapper.idColumnIndex);
+						LitePalSupport joinedModel = joinMapper.models.get(joinedId);
+						if (joinedModel == null) {
+							joinedModel = session == null ? null
+									: (LitePalSupport) session.get(joinMapper.modelClass, joinedId);
+							if (joinedModel == null) {
+								joinedModel = (LitePalSupport) createInstanceFromClass(joinMapper.modelClass);
+								giveBaseObjIdValue(joinedModel, joinedId);
+								setValueToModel(joinedModel, joinMapper.rowMapper.supportedFields, null, cursor,
+										joinMapper.rowMapper.queryInfoCacheSparseArray);
+								if (session != null) {
+									session.put(joinedModel);
+								}
+								setGenericValueToModel(joinedModel, joinMapper.rowMapper.supportedGenericFields,
+										joinMapper.rowMapper.genericModelMap);
+							}
+							joinMapper.models.put(joinedId, joinedModel);
+						}
+						setFieldValue((LitePalSupport) modelInstance, joinMapper.associationField, joinedModel);
 					}
 					dataList.add(modelInstance);
 				} while (cursor.moveToNext());
-                queryInfoCacheSparseArray.clear();
-                genericModelMap.clear();
 			}
 			return dataList;
+		} catch (LitePalSupportException e) {
+			throw e;
 		} catch (Exception e) {
 			throw new LitePalSupportException(e.getMessage(), e);
 		} finally {
@@ -161,6 +394,667 @@ abstract class DataHandler extends LitePalBase {
 		}
 	}
 
+	/**
+	 * Build the join mapper of an associated class, which holds the
+	 * association field of the model and the reflection information of the
+	 * associated class.
+	 *
+	 * @param modelClass
+	 *            The model to query.
+	 * @param joinClass
+	 *            The associated class to join.
+	 * @param foreignKeyColumn
+	 *            The foreign key column in the model's table. Passing null
+	 *            will use the default foreign key column of the association.
+	 * @return The join mapper of the associated class.
+	 */
+	private JoinMapper getJoinMapper(Class<?> modelClass, Class<?> joinClass, String foreignKeyColumn) {
+		if (modelClass == joinClass) {
+			throw new LitePalSupportException(LitePalSupportException.JOIN_WITH_ITSELF);
+		}
+		Field associationField = null;
+		for (AssociationsInfo associationInfo : getForeignKeyAssociations(modelClass.getName(), true)) {
+			if (associationInfo.getAssociatedClassName().equals(joinClass.getName())) {
+				associationField = associationInfo.getAssociateOtherModelFromSelf();
+				break;
+			}
+		}
+		if (associationField == null) {
+			throw new LitePalSupportException(modelClass.getName() + LitePalSupportException.JOIN_WITHOUT_ASSOCIATION
+					+ joinClass.getName());
+		}
+		JoinMapper joinMapper = new JoinMapper();
+		joinMapper.modelClass = joinClass;
+		joinMapper.associationField = associationField;
+		joinMapper.rowMapper = getRowMapper(joinClass, null, null);
+		joinMapper.prefix = joinMapper.rowMapper.tableName + "__";
+		if (TextUtils.isEmpty(foreignKeyColumn)) {
+			foreignKeyColumn = getForeignKeyColumnName(joinMapper.rowMapper.tableName);
+		}
+		joinMapper.foreignKeyColumn = BaseUtility.changeCase(DBUtility.convertToValidColumnName(foreignKeyColumn));
+		return joinMapper;
+	}
+
+	/**
+	 * Find the aliased columns of the joined table in cursor, and cache them
+	 * into the row mapper of the associated class.
+	 *
+	 * @param joinMapper
+	 *            The join mapper to compile.
+	 * @param cursor
+	 *            The cursor of join query.
+	 */
+	private void compileJoinMapper(JoinMapper joinMapper, Cursor cursor) {
+		joinMapper.idColumnIndex = cursor.getColumnIndexOrThrow(joinMapper.prefix + "id");
+		for (Field field : joinMapper.rowMapper.supportedFields) {
+			int columnIndex = cursor.getColumnIndex(joinMapper.prefix + getColumnName(field));
+			if (columnIndex != -1) {
+				QueryInfoCache cache = new QueryInfoCache();
+				cache.getMethodName = genGetColumnMethod(field);
+				cache.field = field;
+				joinMapper.rowMapper.queryInfoCacheSparseArray.put(columnIndex, cache);
+			}
+		}
+	}
+
+	/**
+	 * Get the column names of the supported fields, with id column first.
+	 *
+	 * @param supportedFields
+	 *            List of all supported fields.
+	 * @return The column names.
+	 */
+	private String[] getColumnNames(List<Field> supportedFields) {
+		List<String> columnNames = new ArrayList<>();
+		columnNames.add("id");
+		for (Field field : supportedFields) {
+			String columnName = getColumnName(field);
+			if (!columnNames.contains(columnName)) {
+				columnNames.add(columnName);
+			}
+		}
+		return columnNames.toArray(new String[0]);
+	}
+
+	/**
+	 * Get the column name of the field, in the way
+	 * {@link #setValueToModel(Object, List, List, Cursor, SparseArray)} finds
+	 * it from cursor.
+	 *
+	 * @param field
+	 *            The supported field.
+	 * @return The column name.
+	 */
+	private String getColumnName(Field field) {
+		String columnName = isIdColumn(field.getName()) ? "id" : DBUtility.convertToValidColumnName(field.getName());
+		return BaseUtility.changeCase(columnName);
+	}
+
+	/**
+	 * Load the associations named by the include paths into the models. Each
+	 * path is a chain of association field names separated by dot, such as
+	 * songs.artist, and can be in any depth. Each segment of the paths is
+	 * loaded for all the models of its level by one batched query, and the
+	 * associations which are not named are left alone.
+	 *
+	 * @param models
+	 *            The models to load associations into.
+	 * @param className
+	 *            The class name of the models.
+	 * @param paths
+	 *            The include paths.
+	 */
+	protected void loadIncludes(Collection<? extends LitePalSupport> models, String className, Collection<String> paths) {
+		Map<String, List<String>> segments = new LinkedHashMap<>();
+		for (String path : paths) {
+			if (TextUtils.isEmpty(path)) {
+				continue;
+			}
+			int dotIndex = path.indexOf('.');
+			String segment = (dotIndex == -1 ? path : path.substring(0, dotIndex)).trim();
+			List<String> subPaths = segments.get(segment);
+			if (subPaths == null) {
+				subPaths = new ArrayList<>();
+				segments.put(segment, subPaths);
+			}
+			if (dotIndex != -1) {
+				subPaths.add(path.substring(dotIndex + 1));
+			}
+		}
+		for (Map.Entry<String, List<String>> entry : segments.entrySet()) {
+			AssociationsInfo info = getAssociationByField(className, entry.getKey());
+			Collection<LitePalSupport> associatedModels = loadAssociation(models, info);
+			if (!entry.getValue().isEmpty() && !associatedModels.isEmpty()) {
+				loadIncludes(associatedModels, info.getAssociatedClassName(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Set lazy collections into the collection association fields of the
+	 * models, which are still null or empty. The association of all the
+	 * models is loaded by one batched query when any of the lazy collections
+	 * is accessed at the first time, and the loaded models get lazy
+	 * collections as well. Fields declared as a concrete collection class are
+	 * left alone.
+	 *
+	 * @param models
+	 *            The models to set lazy collections into.
+	 * @param className
+	 *            The class name of the models.
+	 */
+	void setLazyCollections(Collection<? extends LitePalSupport> models, String className) {
+		if (models.isEmpty()) {
+			return;
+		}
+		try {
+			for (AssociationsInfo info : new ArrayList<>(getAssociationInfo(className))) {
+				Field field = info.getAssociateOtherModelFromSelf();
+				if (field == null || !isCollection(field.getType())) {
+					continue;
+				}
+				boolean isList = isList(field.getType());
+				Class<?> lazyType = isList ? LazyLoader.LazyList.class : LazyLoader.LazySet.class;
+				if (!field.getType().isAssignableFrom(lazyType)) {
+					continue;
+				}
+				LazyLoader loader = new LazyLoader(info);
+				for (LitePalSupport model : models) {
+					if (!model.isSaved()) {
+						continue;
+					}
+					Collection<?> collection = (Collection<?>) getFieldValue(model, field);
+					// isEmpty() of a lazy collection would load it, so it's checked by type.
+					if (collection == null || (!LazyLoader.isLazyCollection(collection) && collection.isEmpty())) {
+						DynamicExecutor.setField(model, field.getName(), loader.createCollection(model, isList),
+								model.getClass());
+					}
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Find the association of the class by the name of its association field.
+	 *
+	 * @param className
+	 *            The full class name.
+	 * @param fieldName
+	 *            The name of association field.
+	 * @return The association info with the class as self.
+	 */
+	private AssociationsInfo getAssociationByField(String className, String fieldName) {
+		for (AssociationsInfo info : new ArrayList<>(getAssociationInfo(className))) {
+			Field field = info.getAssociateOtherModelFromSelf();
+			if (field != null && field.getName().equals(fieldName)) {
+				return info;
+			}
+		}
+		throw new LitePalSupportException(className + LitePalSupportException.INCLUDE_NO_SUCH_ASSOCIATION + fieldName);
+	}
+
+	/**
+	 * Load one association of all the owner models in batches, then set the
+	 * associated models into the owners. If the associated model has a field
+	 * referencing a single owner, the owner is set into it as well.
+	 *
+	 * @param owners
+	 *            The models which own the association.
+	 * @param info
+	 *            The association info with the owner class as self.
+	 * @return The distinct associated models loaded.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	Collection<LitePalSupport> loadAssociation(Collection<? extends LitePalSupport> owners,
+			AssociationsInfo info) {
+		Map<Long, List<LitePalSupport>> ownersById = new HashMap<>();
+		for (LitePalSupport owner : owners) {
+			if (owner.isSaved()) {
+				List<LitePalSupport> sameIdOwners = ownersById.get(owner.getBaseObjId());
+				if (sameIdOwners == null) {
+					sameIdOwners = new ArrayList<>();
+					ownersById.put(owner.getBaseObjId(), sameIdOwners);
+				}
+				sameIdOwners.add(owner);
+			}
+		}
+		Map<Long, LitePalSupport> associatedModels = new LinkedHashMap<>();
+		if (ownersById.isEmpty()) {
+			return associatedModels.values();
+		}
+		Field field = info.getAssociateOtherModelFromSelf();
+		Field reverseField = info.getAssociateSelfFromOtherModel();
+		if (reverseField != null && isCollection(reverseField.getType())) {
+			reverseField = null;
+		}
+		String ownerTable = DBUtility.getTableNameByClassName(info.getSelfClassName());
+		String associatedTable = DBUtility.getTableNameByClassName(info.getAssociatedClassName());
+		String sql;
+		String ownerIdColumn;
+		if (info.getAssociationType() == Const.Model.MANY_TO_MANY) {
+			sql = "select a.*, b." + getForeignKeyColumnName(ownerTable) + " as " + INCLUDE_OWNER_ID + " from "
+					+ associatedTable + " a inner join " + DBUtility.getIntermediateTableName(ownerTable, associatedTable)
+					+ " b on a.id = b." + getForeignKeyColumnName(associatedTable) + " where ";
+			ownerIdColumn = "b." + getForeignKeyColumnName(ownerTable);
+		} else if (!isCollection(field.getType()) && info.getClassHoldsForeignKey().equals(info.getSelfClassName())) {
+			sql = "select a.*, o.id as " + INCLUDE_OWNER_ID + " from " + associatedTable + " a inner join "
+					+ ownerTable + " o on o." + getForeignKeyColumnName(associatedTable) + " = a.id where ";
+			ownerIdColumn = "o.id";
+		} else {
+			sql = "select a.*, a." + getForeignKeyColumnName(ownerTable) + " as " + INCLUDE_OWNER_ID + " from "
+					+ associatedTable + " a where ";
+			ownerIdColumn = "a." + getForeignKeyColumnName(ownerTable);
+		}
+		// Owners as key by identity, the models loaded into their collection by id as value.
+		Map<LitePalSupport, Map<Long, LitePalSupport>> collectionModels = new IdentityHashMap<>();
+		Session session = Session.current(mDatabase);
+		Cursor cursor = null;
+		try {
+			Class<?> associatedClass = Class.forName(info.getAssociatedClassName());
+			RowMapper rowMapper = getRowMapper(associatedClass, null, null);
+			for (long[] chunk : getIdChunks(MAX_VARIABLE_NUMBER, toLongArray(ownersById.keySet()))) {
+				cursor = mDatabase.rawQuery(BaseUtility.changeCase(sql) + getWhereOfIdsWithIn(ownerIdColumn,
+						chunk.length), getWhereArgsOfIds(chunk));
+				if (cursor.moveToFirst()) {
+					int idColumnIndex = cursor.getColumnIndexOrThrow("id");
+					int ownerIdColumnIndex = cursor.getColumnIndexOrThrow(BaseUtility.changeCase(INCLUDE_OWNER_ID));
+					do {
+						long id = cursor.getLong(idColumnIndex);
+						LitePalSupport modelInstance = associatedModels.get(id);
+						if (modelInstance == null) {
+							modelInstance = session == null ? null : (LitePalSupport) session.get(associatedClass, id);
+							if (modelInstance == null) {
+								modelInstance = (LitePalSupport) createInstanceFromClass(associatedClass);
+								giveBaseObjIdValue(modelInstance, id);
+								setValueToModel(modelInstance, rowMapper.supportedFields, null, cursor,
+										rowMapper.queryInfoCacheSparseArray);
+								if (session != null) {
+									session.put(modelInstance);
+								}
+								setGenericValueToModel(modelInstance, rowMapper.supportedGenericFields,
+										rowMapper.genericModelMap);
+							}
+							associatedModels.put(id, modelInstance);
+						}
+						for (LitePalSupport owner : ownersById.get(cursor.getLong(ownerIdColumnIndex))) {
+							if (isCollection(field.getType())) {
+								Map<Long, LitePalSupport> models = collectionModels.get(owner);
+								if (models == null) {
+									models = new LinkedHashMap<>();
+									collectionModels.put(owner, models);
+								}
+								models.put(id, modelInstance);
+							} else {
+								setFieldValue(owner, field, modelInstance);
+							}
+							if (reverseField != null) {
+								setFieldValue(modelInstance, reverseField, owner);
+							}
+						}
+					} while (cursor.moveToNext());
+				}
+				cursor.close();
+				cursor = null;
+			}
+			for (Map.Entry<LitePalSupport, Map<Long, LitePalSupport>> entry : collectionModels.entrySet()) {
+				putIntoCollection(entry.getKey(), field, entry.getValue());
+			}
+			return associatedModels.values();
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Put the loaded models into the collection field of owner. The models
+	 * already in the collection with the same ids, such as those set by eager
+	 * loading, are replaced in place by the loaded ones, so each row appears
+	 * only once, and the associations included further are set on the models
+	 * in the collection.
+	 *
+	 * @param owner
+	 *            The model which owns the collection.
+	 * @param field
+	 *            The collection field.
+	 * @param models
+	 *            The loaded models by id.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void putIntoCollection(LitePalSupport owner, Field field, Map<Long, LitePalSupport> models)
+			throws SecurityException, IllegalArgumentException, IllegalAccessException {
+		Collection collection = (Collection) getFieldValue(owner, field);
+		List<Object> elements = new ArrayList<>();
+		if (collection == null) {
+			if (isList(field.getType())) {
+				collection = new ArrayList();
+			} else {
+				collection = new HashSet();
+			}
+			DynamicExecutor.setField(owner, field.getName(), collection, owner.getClass());
+		} else {
+			Set<Long> ids = new HashSet<>();
+			for (Object element : collection) {
+				LitePalSupport model = (LitePalSupport) element;
+				if (model != null && model.isSaved()) {
+					if (!ids.add(model.getBaseObjId())) {
+						continue;
+					}
+					LitePalSupport loadedModel = models.remove(model.getBaseObjId());
+					if (loadedModel != null) {
+						model = loadedModel;
+					}
+				}
+				elements.add(model);
+			}
+			collection.clear();
+		}
+		elements.addAll(models.values());
+		collection.addAll(elements);
+	}
+
+	/**
+	 * Generate the key of a query for {@link ResultCache}. Each part is
+	 * prefixed with its length, so different queries never share the same key.
+	 * 
+	 * @param columns
+	 *            A list of which columns to return.
+	 * @param selection
+	 *            A filter declaring which rows to return.
+	 * @param selectionArgs
+	 *            The values to replace ?s in selection.
+	 * @param groupBy
+	 *            The GROUP BY clause.
+	 * @param having
+	 *            The HAVING clause.
+	 * @param orderBy
+	 *            The ORDER BY clause.
+	 * @param limit
+	 *            The LIMIT clause.
+	 * @param isEager
+	 *            True to load the associated models, false not.
+	 * @return The normalized query as key.
+	 */
+	private String generateCacheKey(String[] columns, String selection, String[] selectionArgs, String groupBy,
+			String having, String orderBy, String limit, boolean isEager) {
+		StringBuilder key = new StringBuilder();
+		appendCacheKeyPart(key, String.valueOf(isEager));
+		if (columns != null) {
+			String[] sortedColumns = columns.clone();
+			Arrays.sort(sortedColumns);
+			appendCacheKeyPart(key, String.valueOf(sortedColumns.length));
+			for (String column : sortedColumns) {
+				appendCacheKeyPart(key, column);
+			}
+		} else {
+			appendCacheKeyPart(key, null);
+		}
+		appendCacheKeyPart(key, selection);
+		if (selectionArgs != null) {
+			appendCacheKeyPart(key, String.valueOf(selectionArgs.length));
+			for (String selectionArg : selectionArgs) {
+				appendCacheKeyPart(key, selectionArg);
+			}
+		} else {
+			appendCacheKeyPart(key, null);
+		}
+		appendCacheKeyPart(key, groupBy);
+		appendCacheKeyPart(key, having);
+		appendCacheKeyPart(key, orderBy);
+		appendCacheKeyPart(key, limit);
+		return key.toString();
+	}
+
+	/**
+	 * Append a part of query into the key.
+	 * 
+	 * @param key
+	 *            The key to append.
+	 * @param part
+	 *            The part of query. Can be null.
+	 */
+	private void appendCacheKeyPart(StringBuilder key, String part) {
+		if (part == null) {
+			key.append('-');
+		} else {
+			key.append(part.length()).append(':').append(part);
+		}
+	}
+
+	/**
+	 * Copy the models, so the copies can be changed without affecting the
+	 * models in {@link ResultCache}.
+	 * 
+	 * @param models
+	 *            The models to copy.
+	 * @return A new list of copied models.
+	 */
+	private List<Object> copyModels(List<?> models) {
+		List<Object> copies = new ArrayList<>(models.size());
+		for (Object model : models) {
+			copies.add(copyModel(model, true));
+		}
+		return copies;
+	}
+
+	/**
+	 * Copy a model by its fields. Dates, arrays and collections are copied too.
+	 * Associated models are copied only for one level, which is as deep as
+	 * eager loading goes.
+	 * 
+	 * @param model
+	 *            The model to copy.
+	 * @param copyAssociations
+	 *            True to copy associated models, false to share them.
+	 * @return The copy of model.
+	 */
+	private Object copyModel(Object model, boolean copyAssociations) {
+		try {
+			Object copy = createInstanceFromClass(model.getClass());
+			Class<?> clazz = model.getClass();
+			while (clazz != null && clazz != LitePalSupport.class) {
+				for (Field field : clazz.getDeclaredFields()) {
+					int modifiers = field.getModifiers();
+					if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+						continue;
+					}
+					field.setAccessible(true);
+					field.set(copy, copyValue(field.get(model), copyAssociations));
+				}
+				clazz = clazz.getSuperclass();
+			}
+			giveBaseObjIdValue((LitePalSupport) copy, ((LitePalSupport) model).getBaseObjId());
+			return copy;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Copy a field value of model for {@link #copyModel(Object, boolean)}.
+	 * 
+	 * @param value
+	 *            The field value.
+	 * @param copyAssociations
+	 *            True to copy associated models, false to share them.
+	 * @return The copy of value.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object copyValue(Object value, boolean copyAssociations) {
+		if (value instanceof Date) {
+			return new Date(((Date) value).getTime());
+		} else if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		} else if (value instanceof LitePalSupport) {
+			return copyAssociations ? copyModel(value, false) : value;
+		} else if (value instanceof Collection) {
+			Collection<Object> collection;
+			try {
+				collection = (Collection<Object>) value.getClass().newInstance();
+			} catch (InstantiationException | IllegalAccessException e) {
+				collection = value instanceof Set ? new HashSet<>() : new ArrayList<>();
+			}
+			for (Object element : (Collection<?>) value) {
+				collection.add(copyValue(element, copyAssociations));
+			}
+			return collection;
+		}
+		return value;
+	}
+
+	/**
+	 * Replace the models which are already in session by the instances in
+	 * session, and put the others into session. Only used for models copied
+	 * from {@link ResultCache}.
+	 *
+	 * @param models
+	 *            The copied models.
+	 * @param isEager
+	 *            True if the associations of models are loaded.
+	 * @return The models mapped through session.
+	 */
+	private List<Object> mapThroughSession(List<Object> models, boolean isEager) {
+		Session session = Session.current(mDatabase);
+		if (session == null) {
+			return models;
+		}
+		for (int i = 0; i < models.size(); i++) {
+			LitePalSupport model = (LitePalSupport) models.get(i);
+			Object managed = session.get(model.getClass(), model.getBaseObjId());
+			if (managed != null && (!isEager || session.isEagerLoaded(managed))) {
+				models.set(i, managed);
+			} else {
+				session.put(model);
+				if (isEager) {
+					session.markEagerLoaded(model);
+				}
+			}
+		}
+		return models;
+	}
+
+	/**
+	 * Get the tables which are related to the model class. They are its own
+	 * table, generic tables, intermediate join tables and associated tables.
+	 * Writing to any of them may change the query results of the model class.
+	 * 
+	 * @param className
+	 *            The full class name.
+	 * @return The lower case names of related tables.
+	 */
+	private Set<String> getRelatedTables(String className) {
+		ResultCache resultCache = ResultCache.getInstance();
+		Set<String> relatedTables = resultCache.getRelatedTables(className);
+		if (relatedTables == null) {
+			List<String> tableNames = new ArrayList<>();
+			String tableName = DBUtility.getTableNameByClassName(className);
+			tableNames.add(tableName);
+			for (Field field : getSupportedGenericFields(className)) {
+				tableNames.add(DBUtility.getGenericTableName(className, field.getName()));
+			}
+			for (AssociationsInfo associationInfo : getAssociationInfo(className)) {
+				String associatedTableName = DBUtility.getTableNameByClassName(associationInfo
+						.getAssociatedClassName());
+				tableNames.add(associatedTableName);
+				if (associationInfo.getAssociationType() == Const.Model.MANY_TO_MANY) {
+					tableNames.add(DBUtility.getIntermediateTableName(tableName, associatedTableName));
+				}
+			}
+			relatedTables = resultCache.putRelatedTables(className, tableNames);
+		}
+		return relatedTables;
+	}
+
+	/**
+	 * Invalidate the cached query results which may be changed by writing the
+	 * model class. Should be called after the write is done, because it
+	 * analyzes the associations of the model class again.
+	 * 
+	 * @param className
+	 *            The full class name of the written model.
+	 */
+	protected void invalidateResultCache(String className) {
+		if (!ResultCache.getInstance().isEmpty()) {
+			ResultCache.getInstance().invalidate(getRelatedTables(className));
+		}
+	}
+
+	/**
+	 * Invalidate the cached query results which may be changed by writing the
+	 * table.
+	 * 
+	 * @param tableName
+	 *            The written table.
+	 */
+	protected void invalidateResultCacheByTable(String tableName) {
+		if (!ResultCache.getInstance().isEmpty()) {
+			ResultCache.getInstance().invalidate(Collections.singleton(tableName.toLowerCase(Locale.US)));
+		}
+	}
+
+	/**
+	 * Put the saved model into session, so later finds of the same row get
+	 * this instance.
+	 *
+	 * @param baseObj
+	 *            The saved model.
+	 */
+	protected void putIntoSession(LitePalSupport baseObj) {
+		Session session = Session.current(mDatabase);
+		if (session != null) {
+			session.put(baseObj);
+		}
+	}
+
+	/**
+	 * Evict the model with the id from session, because the row is changed
+	 * without going through the instance in session.
+	 *
+	 * @param className
+	 *            The full class name.
+	 * @param id
+	 *            The id of the changed row.
+	 */
+	protected void evictFromSession(String className, long id) {
+		Session session = Session.current(mDatabase);
+		if (session != null) {
+			session.evict(className, id);
+		}
+	}
+
+	/**
+	 * Evict the models which may be changed by writing the model class from
+	 * session. Should be called after the write is done, because it analyzes
+	 * the associations of the model class again.
+	 *
+	 * @param className
+	 *            The full class name of the written model.
+	 */
+	protected void evictRelatedFromSession(String className) {
+		Session session = Session.current(mDatabase);
+		if (session != null) {
+			session.evictTables(getRelatedTables(className));
+		}
+	}
+
+	/**
+	 * Evict the models stored in the table from session.
+	 *
+	 * @param tableName
+	 *            The written table.
+	 */
+	protected void evictTableFromSession(String tableName) {
+		Session session = Session.current(mDatabase);
+		if (session != null) {
+			session.evictTables(Collections.singleton(tableName.toLowerCase(Locale.US)));
+		}
+	}
+
 	/**
 	 * Handles the math query of the given table.
 	 * 
@@ -186,8 +1080,7 @@ abstract class DataHandler extends LitePalBase {
 			cursor = mDatabase.query(tableName, columns, getWhereClause(conditions),
 					getWhereArgs(conditions), null, null, null);
 			if (cursor.moveToFirst()) {
-				Class<?> cursorClass = cursor.getClass();
-				Method method = cursorClass.getMethod(genGetColumnMethod(type), int.class);
+				Method method = getCursorMethod(cursor.getClass(), genGetColumnMethod(type));
 				result = (T) method.invoke(cursor, 0);
 			}
 		} catch (Exception e) {
@@ -200,6 +1093,148 @@ abstract class DataHandler extends LitePalBase {
 		return result;
 	}
 
+	/**
+	 * Find the getter method of cursor, which is cached after the first lookup
+	 * as math queries are usually run again and again.
+	 *
+	 * @param cursorClass
+	 *            The class of cursor.
+	 * @param methodName
+	 *            The getter method name, such as getInt.
+	 * @return The getter method which takes the column index.
+	 */
+	private static Method getCursorMethod(Class<?> cursorClass, String methodName) throws NoSuchMethodException {
+		String key = cursorClass.getName() + "#" + methodName;
+		synchronized (cursorMethods) {
+			Method method = cursorMethods.get(key);
+			if (method == null) {
+				method = cursorClass.getMethod(methodName, int.class);
+				cursorMethods.put(key, method);
+			}
+			return method;
+		}
+	}
+
+	/**
+	 * Query a single column of the given table, and read the values as long
+	 * directly from cursor without creating any model. Null values are read
+	 * as 0.
+	 *
+	 * @param tableName
+	 *            Which table to query from.
+	 * @param column
+	 *            The column to read.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 *            Passing null will use the default sort order.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, formatted as
+	 *            LIMIT clause. Passing null denotes no LIMIT clause.
+	 * @return The values of the column in order. The array may be empty.
+	 */
+	protected long[] pluckLongs(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		Cursor cursor = null;
+		try {
+			cursor = pluckQuery(tableName, column, conditions, orderBy, limit);
+			long[] values = new long[cursor.getCount()];
+			for (int i = 0; cursor.moveToNext(); i++) {
+				values[i] = cursor.getLong(0);
+			}
+			return values;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link #pluckLongs(String, String, String[], String, String)},
+	 * but reads the values as int.
+	 *
+	 * @return The values of the column in order. The array may be empty.
+	 */
+	protected int[] pluckInts(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		Cursor cursor = null;
+		try {
+			cursor = pluckQuery(tableName, column, conditions, orderBy, limit);
+			int[] values = new int[cursor.getCount()];
+			for (int i = 0; cursor.moveToNext(); i++) {
+				values[i] = cursor.getInt(0);
+			}
+			return values;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link #pluckLongs(String, String, String[], String, String)},
+	 * but reads the values as double.
+	 *
+	 * @return The values of the column in order. The array may be empty.
+	 */
+	protected double[] pluckDoubles(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		Cursor cursor = null;
+		try {
+			cursor = pluckQuery(tableName, column, conditions, orderBy, limit);
+			double[] values = new double[cursor.getCount()];
+			for (int i = 0; cursor.moveToNext(); i++) {
+				values[i] = cursor.getDouble(0);
+			}
+			return values;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link #pluckLongs(String, String, String[], String, String)},
+	 * but reads the values as String. Null values are kept as null.
+	 *
+	 * @return The values of the column in order. The list may be empty.
+	 */
+	protected List<String> pluckStrings(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		Cursor cursor = null;
+		try {
+			cursor = pluckQuery(tableName, column, conditions, orderBy, limit);
+			List<String> values = new ArrayList<>(cursor.getCount());
+			while (cursor.moveToNext()) {
+				values.add(cursor.getString(0));
+			}
+			return values;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Query a single column of the given table.
+	 *
+	 * @return The cursor with only one column.
+	 */
+	private Cursor pluckQuery(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		return mDatabase.query(tableName, new String[] { column }, getWhereClause(conditions),
+				getWhereArgs(conditions), null, null, orderBy, limit);
+	}
+
 	/**
 	 * Assign the generated id value to {@link LitePalSupport#baseObjId}. This
 	 * value will be used as identify of this model for system use.
@@ -502,6 +1537,37 @@ abstract class DataHandler extends LitePalBase {
 		return null;
 	}
 
+	/**
+	 * Bind a value into the compiled statement with the same type mapping as
+	 * saving a model does. Boolean is stored as 1 or 0, Date is stored as
+	 * milliseconds, floating point numbers are bound as double and other
+	 * numbers as long. Null will be bound as NULL.
+	 * 
+	 * @param statement
+	 *            The compiled statement.
+	 * @param index
+	 *            The 1-based index to the parameter to bind.
+	 * @param value
+	 *            The value to bind.
+	 */
+	protected static void bindValue(SQLiteStatement statement, int index, Object value) {
+		if (value == null) {
+			statement.bindNull(index);
+		} else if (value instanceof Float || value instanceof Double || value instanceof BigDecimal) {
+			statement.bindDouble(index, ((Number) value).doubleValue());
+		} else if (value instanceof Number) {
+			statement.bindLong(index, ((Number) value).longValue());
+		} else if (value instanceof Boolean) {
+			statement.bindLong(index, (Boolean) value ? 1 : 0);
+		} else if (value instanceof Date) {
+			statement.bindLong(index, ((Date) value).getTime());
+		} else if (value instanceof byte[]) {
+			statement.bindBlob(index, (byte[]) value);
+		} else {
+			statement.bindString(index, value.toString());
+		}
+	}
+
 	/**
 	 * Check the passing conditions represent to affect all lines or not. <br>
 	 * Do not pass anything to the conditions parameter means affect all lines.
@@ -515,46 +1581,132 @@ abstract class DataHandler extends LitePalBase {
 	}
 
 	/**
-	 * Get the where clause by the passed in id collection to apply multiple
-	 * rows.
+	 * Split the passed in ids into sorted and distinct chunks. Each chunk has
+	 * no more ids than chunkSize, so it can be bound into a single IN clause
+	 * without exceeding the limit of host parameters.
 	 * 
+	 * @param chunkSize
+	 *            The max number of ids in each chunk.
 	 * @param ids
-	 *            The id collection.
+	 *            The id array.
+	 * @return The chunks of ids, in ascending order.
+	 */
+	protected List<long[]> getIdChunks(int chunkSize, long... ids) {
+		List<long[]> chunks = new ArrayList<long[]>();
+		if (ids == null || ids.length == 0) {
+			return chunks;
+		}
+		long[] sortedIds = ids.clone();
+		Arrays.sort(sortedIds);
+		int count = 0;
+		for (int i = 0; i < sortedIds.length; i++) {
+			if (i == 0 || sortedIds[i] != sortedIds[i - 1]) {
+				sortedIds[count++] = sortedIds[i];
+			}
+		}
+		for (int start = 0; start < count; start += chunkSize) {
+			chunks.add(Arrays.copyOfRange(sortedIds, start, Math.min(start + chunkSize, count)));
+		}
+		return chunks;
+	}
+
+	/**
+	 * Get the where clause with place holders to apply multiple rows by ids,
+	 * like "id in (?, ?, ?)".
+	 * 
+	 * @param columnName
+	 *            The column to match the ids.
+	 * @param count
+	 *            The number of ids.
 	 * @return The where clause to execute.
 	 */
-	protected String getWhereOfIdsWithOr(Collection<Long> ids) {
-		StringBuilder whereClause = new StringBuilder();
-		boolean needOr = false;
-		for (long id : ids) {
-			if (needOr) {
-				whereClause.append(" or ");
+	protected String getWhereOfIdsWithIn(String columnName, int count) {
+		StringBuilder whereClause = new StringBuilder(columnName);
+		whereClause.append(" in (");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				whereClause.append(", ");
 			}
-			needOr = true;
-			whereClause.append("id = ");
-			whereClause.append(id);
+			whereClause.append("?");
 		}
+		whereClause.append(")");
 		return changeCase(whereClause.toString());
 	}
 
 	/**
-	 * Get the where clause by the passed in id array to apply multiple rows.
+	 * Get the where arguments to fill into the where clause built by
+	 * {@link #getWhereOfIdsWithIn(String, int)}.
+	 * 
+	 * @param ids
+	 *            The id array.
+	 * @return The where arguments of ids.
+	 */
+	protected String[] getWhereArgsOfIds(long... ids) {
+		String[] whereArgs = new String[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			whereArgs[i] = String.valueOf(ids[i]);
+		}
+		return whereArgs;
+	}
+
+	/**
+	 * Update the rows whose column matches any of the passed in ids. The ids
+	 * are bound in chunks, so there's no limit of the ids size.
 	 * 
+	 * @param tableName
+	 *            Which table to update.
+	 * @param values
+	 *            A map from column names to new column values.
+	 * @param columnName
+	 *            The column to match the ids.
 	 * @param ids
 	 *            The id collection.
-	 * @return The where clause to execute.
+	 * @return The number of rows affected.
 	 */
-	protected String getWhereOfIdsWithOr(long... ids) {
-		StringBuilder whereClause = new StringBuilder();
-		boolean needOr = false;
+	protected int updateByIds(String tableName, ContentValues values, String columnName, Collection<Long> ids) {
+		int rowsAffected = 0;
+		for (long[] chunk : getIdChunks(MAX_VARIABLE_NUMBER - values.size(), toLongArray(ids))) {
+			rowsAffected += mDatabase.update(tableName, values, getWhereOfIdsWithIn(columnName, chunk.length),
+					getWhereArgsOfIds(chunk));
+		}
+		return rowsAffected;
+	}
+
+	/**
+	 * Delete the rows whose column matches any of the passed in ids. The ids
+	 * are bound in chunks, so there's no limit of the ids size.
+	 * 
+	 * @param tableName
+	 *            Which table to delete from.
+	 * @param columnName
+	 *            The column to match the ids.
+	 * @param ids
+	 *            The id array.
+	 * @return The number of rows affected.
+	 */
+	protected int deleteByIds(String tableName, String columnName, long... ids) {
+		int rowsAffected = 0;
+		for (long[] chunk : getIdChunks(MAX_VARIABLE_NUMBER, ids)) {
+			rowsAffected += mDatabase.delete(tableName, getWhereOfIdsWithIn(columnName, chunk.length),
+					getWhereArgsOfIds(chunk));
+		}
+		return rowsAffected;
+	}
+
+	/**
+	 * Convert the id collection into an array.
+	 * 
+	 * @param ids
+	 *            The id collection.
+	 * @return The id array.
+	 */
+	protected long[] toLongArray(Collection<Long> ids) {
+		long[] array = new long[ids.size()];
+		int i = 0;
 		for (long id : ids) {
-			if (needOr) {
-				whereClause.append(" or ");
-			}
-			needOr = true;
-			whereClause.append("id = ");
-			whereClause.append(id);
+			array[i++] = id;
 		}
-		return changeCase(whereClause.toString());
+		return array;
 	}
 
 	/**
@@ -724,23 +1876,40 @@ abstract class DataHandler extends LitePalBase {
         }
 
 		if (foreignKeyAssociations != null) {
-			for (AssociationsInfo associationInfo : foreignKeyAssociations) {
-				String foreignKeyColumn = getForeignKeyColumnName(DBUtility
-						.getTableNameByClassName(associationInfo.getAssociatedClassName()));
-				int columnIndex = cursor.getColumnIndex(foreignKeyColumn);
-				if (columnIndex != -1) {
-					long associatedClassId = cursor.getLong(columnIndex);
-					try {
-						LitePalSupport associatedObj = (LitePalSupport) Operator.find(
-								Class.forName(associationInfo.getAssociatedClassName()),
-								associatedClassId);
-						if (associatedObj != null) {
-							setFieldValue((LitePalSupport) modelInstance,
-									associationInfo.getAssociateOtherModelFromSelf(), associatedObj);
-						}
-					} catch (ClassNotFoundException e) {
-						e.printStackTrace();
+			setForeignKeyValueToModel(modelInstance, foreignKeyAssociations, cursor);
+		}
+	}
+
+	/**
+	 * Find the associated models by the foreign key columns, then set them
+	 * into the model.
+	 *
+	 * @param modelInstance
+	 *            The model to set into.
+	 * @param foreignKeyAssociations
+	 *            Associated classes which have foreign keys in the current
+	 *            model's table.
+	 * @param cursor
+	 *            Use to get value from database.
+	 */
+	protected void setForeignKeyValueToModel(Object modelInstance, List<AssociationsInfo> foreignKeyAssociations,
+			Cursor cursor) throws SecurityException, IllegalArgumentException, IllegalAccessException {
+		for (AssociationsInfo associationInfo : foreignKeyAssociations) {
+			String foreignKeyColumn = getForeignKeyColumnName(DBUtility
+					.getTableNameByClassName(associationInfo.getAssociatedClassName()));
+			int columnIndex = cursor.getColumnIndex(foreignKeyColumn);
+			if (columnIndex != -1) {
+				long associatedClassId = cursor.getLong(columnIndex);
+				try {
+					LitePalSupport associatedObj = (LitePalSupport) Operator.find(
+							Class.forName(associationInfo.getAssociatedClassName()),
+							associatedClassId);
+					if (associatedObj != null) {
+						setFieldValue((LitePalSupport) modelInstance,
+								associationInfo.getAssociateOtherModelFromSelf(), associatedObj);
 					}
+				} catch (ClassNotFoundException e) {
+					e.printStackTrace();
 				}
 			}
 		}
@@ -1247,6 +2416,7 @@ abstract class DataHandler extends LitePalBase {
 		if (fkInOtherModel == null) {
 			return;
 		}
+		Session session = Session.current(mDatabase);
 		for (AssociationsInfo info : fkInOtherModel) {
 			Cursor cursor = null;
 			String associatedClassName = info.getAssociatedClassName();
@@ -1281,11 +2451,18 @@ abstract class DataHandler extends LitePalBase {
                     SparseArray<QueryInfoCache> queryInfoCacheSparseArray = new SparseArray<>();
                     Map<Field, GenericModel> genericModelMap = new HashMap<>();
 					do {
-						LitePalSupport modelInstance = (LitePalSupport) createInstanceFromClass(Class.forName(associatedClassName));
-						giveBaseObjIdValue(modelInstance,
-								cursor.getLong(cursor.getColumnIndexOrThrow("id")));
-						setValueToModel(modelInstance, supportedFields, null, cursor, queryInfoCacheSparseArray);
-                        setGenericValueToModel(modelInstance, supportedGenericFields, genericModelMap);
+						long id = cursor.getLong(cursor.getColumnIndexOrThrow("id"));
+						Class<?> associatedClass = Class.forName(associatedClassName);
+						LitePalSupport modelInstance = session == null ? null : (LitePalSupport) session.get(associatedClass, id);
+						if (modelInstance == null) {
+							modelInstance = (LitePalSupport) createInstanceFromClass(associatedClass);
+							giveBaseObjIdValue(modelInstance, id);
+							setValueToModel(modelInstance, supportedFields, null, cursor, queryInfoCacheSparseArray);
+							if (session != null) {
+								session.put(modelInstance);
+							}
+							setGenericValueToModel(modelInstance, supportedGenericFields, genericModelMap);
+						}
 						if (info.getAssociationType() == Const.Model.MANY_TO_ONE || isM2M) {
                             Field field = info.getAssociateOtherModelFromSelf();
 							Collection collection = (Collection) getFieldValue(baseObj, field);
@@ -1297,7 +2474,9 @@ abstract class DataHandler extends LitePalBase {
                                 }
                                 DynamicExecutor.setField(baseObj, field.getName(), collection, baseObj.getClass());
                             }
-                            collection.add(modelInstance);
+                            if (session == null || !collection.contains(modelInstance)) {
+                                collection.add(modelInstance);
+                            }
 						} else if (info.getAssociationType() == Const.Model.ONE_TO_ONE) {
 							setFieldValue(baseObj,
 									info.getAssociateOtherModelFromSelf(), modelInstance);
@@ -1401,4 +2580,49 @@ abstract class DataHandler extends LitePalBase {
 
     }
 
+	/**
+	 * The converted projection and reflection information of a query shape.
+	 * Can be reused by queries of the same shape.
+	 *
+	 * @since 3.3
+	 */
+	static class RowMapper {
+
+		String tableName;
+
+		String[] customizedColumns;
+
+		List<Field> supportedFields;
+
+		List<Field> supportedGenericFields;
+
+		final SparseArray<QueryInfoCache> queryInfoCacheSparseArray = new SparseArray<>();
+
+		final Map<Field, GenericModel> genericModelMap = new HashMap<>();
+
+	}
+
+	/**
+	 * The associated class of a join query, and how its columns are mapped.
+	 *
+	 * @since 3.3
+	 */
+	static class JoinMapper {
+
+		Class<?> modelClass;
+
+		Field associationField;
+
+		String foreignKeyColumn;
+
+		String prefix;
+
+		RowMapper rowMapper;
+
+		int idColumnIndex;
+
+		final Map<Long, LitePalSupport> models = new HashMap<>();
+
+	}
+
 }
\ No newline at end of file
@@ -19,9 +19,9 @@ package org.litepal.crud;
 import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
 
-import org.litepal.Operator;
 import org.litepal.crud.model.AssociationsInfo;
 import org.litepal.exceptions.LitePalSupportException;
+import org.litepal.parser.LitePalAttr;
 import org.litepal.util.BaseUtility;
 import org.litepal.util.Const;
 import org.litepal.util.DBUtility;
@@ -36,9 +36,9 @@ import java.util.Set;
 /**
  * This is a component under LitePalSupport. It deals with the deleting stuff as
  * primary task. If deletes a saved model or delete a record with id, the
- * cascade delete function would work. But considering efficiency, if deletes
- * with deleteAll method, the referenced data in other tables will not be
- * affected. Developers should remove those referenced data by their own.
+ * cascade delete function would work. If deletes with deleteAll method by model
+ * class, the referenced data in other tables will be removed by sub queries,
+ * so no ids need to be loaded into memory.
  * 
  * @author Tony Green
  * @since 1.1
@@ -76,13 +76,21 @@ public class DeleteHandler extends DataHandler {
 	 */
 	int onDelete(LitePalSupport baseObj) {
 		if (baseObj.isSaved()) {
-            List<Field> supportedGenericFields = getSupportedGenericFields(baseObj.getClassName());
-            deleteGenericData(baseObj.getClass(), supportedGenericFields, baseObj.getBaseObjId());
 			Collection<AssociationsInfo> associationInfos = analyzeAssociations(baseObj);
-			int rowsAffected = deleteCascade(baseObj);
-			rowsAffected += mDatabase.delete(baseObj.getTableName(), "id = "
-					+ baseObj.getBaseObjId(), null);
-			clearAssociatedModelSaveState(baseObj, associationInfos);
+			int rowsAffected = 0;
+			if (!isForeignKeysEnabled()) {
+                List<Field> supportedGenericFields = getSupportedGenericFields(baseObj.getClassName());
+                deleteGenericData(baseObj.getClass(), supportedGenericFields, baseObj.getBaseObjId());
+				rowsAffected = deleteCascade(baseObj);
+			}
+			rowsAffected += StatementCache.getInstance().delete(mDatabase, baseObj.getTableName(),
+					baseObj.getBaseObjId());
+			if (!Const.Config.FOREIGN_KEYS_SET_NULL.equals(LitePalAttr.getInstance().getForeignKeys())) {
+				// associated rows are kept by SQLite with set null, so they are still saved.
+				clearAssociatedModelSaveState(baseObj, associationInfos);
+			}
+			invalidateResultCache(baseObj.getClassName());
+			evictRelatedFromSession(baseObj.getClassName());
 			return rowsAffected;
 		}
 		return 0;
@@ -102,13 +110,17 @@ public class DeleteHandler extends DataHandler {
 	 * @return The number of rows affected. Including cascade delete rows.
 	 */
     public int onDelete(Class<?> modelClass, long id) {
-        List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
-        deleteGenericData(modelClass, supportedGenericFields, id);
-		analyzeAssociations(modelClass);
-		int rowsAffected = deleteCascade(modelClass, id);
-		rowsAffected += mDatabase.delete(getTableName(modelClass),
-				"id = " + id, null);
+		int rowsAffected = 0;
+		if (!isForeignKeysEnabled()) {
+            List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
+            deleteGenericData(modelClass, supportedGenericFields, id);
+			analyzeAssociations(modelClass);
+			rowsAffected = deleteCascade(modelClass, id);
+		}
+		rowsAffected += StatementCache.getInstance().delete(mDatabase, getTableName(modelClass), id);
 		getForeignKeyTableToDelete().clear();
+		invalidateResultCache(modelClass.getName());
+		evictRelatedFromSession(modelClass.getName());
 		return rowsAffected;
 	}
 
@@ -129,33 +141,45 @@ public class DeleteHandler extends DataHandler {
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-		return mDatabase.delete(tableName, getWhereClause(conditions),
+		int rowsAffected = mDatabase.delete(tableName, getWhereClause(conditions),
 				getWhereArgs(conditions));
+		invalidateResultCacheByTable(tableName);
+		evictTableFromSession(tableName);
+		return rowsAffected;
 	}
 
-    @SuppressWarnings("unchecked")
+	/**
+	 * The open interface for other classes in CRUD package to delete multiple
+	 * rows by model class. Referenced data in associated tables, intermediate
+	 * join tables and generic tables will be removed too. All of them are
+	 * deleted by sub queries against the model's table, so ids of the deleted
+	 * rows never need to be loaded into memory.
+	 *
+	 * @param modelClass
+	 *            Which table to delete from.
+	 * @param conditions
+	 *            A string array representing the WHERE part of an SQL
+	 *            statement.
+	 * @return The number of rows affected. Including cascade delete rows.
+	 */
     public int onDeleteAll(Class<?> modelClass, String... conditions) {
 		BaseUtility.checkConditionsCorrect(conditions);
         if (conditions != null && conditions.length > 0) {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
-        List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
-        if (!supportedGenericFields.isEmpty()) {
-            List<LitePalSupport> list = (List<LitePalSupport>) Operator.select("id").where(conditions).find(modelClass);
-            if (list.size() > 0) {
-                long[] ids = new long[list.size()];
-                for (int i = 0; i < ids.length; i++) {
-                    LitePalSupport dataSupport = list.get(i);
-                    ids[i] = dataSupport.getBaseObjId();
-                }
-                deleteGenericData(modelClass, supportedGenericFields, ids);
-            }
-        }
-		analyzeAssociations(modelClass);
-		int rowsAffected = deleteAllCascade(modelClass, conditions);
-		rowsAffected += mDatabase.delete(getTableName(modelClass), getWhereClause(conditions),
-				getWhereArgs(conditions));
+        String whereClause = getWhereClause(conditions);
+        String[] whereArgs = getWhereArgs(conditions);
+		int rowsAffected = 0;
+		if (!isForeignKeysEnabled()) {
+            List<Field> supportedGenericFields = getSupportedGenericFields(modelClass.getName());
+            deleteAllGenericData(modelClass, supportedGenericFields, whereClause, whereArgs);
+			analyzeAssociations(modelClass);
+			rowsAffected = deleteAllCascade(modelClass, whereClause, whereArgs);
+		}
+		rowsAffected += mDatabase.delete(getTableName(modelClass), whereClause, whereArgs);
 		getForeignKeyTableToDelete().clear();
+		invalidateResultCache(modelClass.getName());
+		evictRelatedFromSession(modelClass.getName());
 		return rowsAffected;
 	}
 
@@ -214,31 +238,55 @@ public class DeleteHandler extends DataHandler {
 		return rowsAffected;
 	}
 
-	private int deleteAllCascade(Class<?> modelClass, String... conditions) {
+	/**
+	 * Use the analyzed result of associations to delete referenced data of all
+	 * the rows matching the where clause. So this method must be called after
+	 * {@link #analyzeAssociations(Class)} and before the rows in modelClass's
+	 * table get deleted.
+	 *
+	 * @param modelClass
+	 *            To get the table name and combine with id as a foreign key
+	 *            column.
+	 * @param whereClause
+	 *            The WHERE clause of the rows to delete. Null means all rows.
+	 * @param whereArgs
+	 *            The arguments to bind into whereClause.
+	 * @return The number of rows affected in associated tables and intermediate
+	 *         join tables.
+	 */
+	private int deleteAllCascade(Class<?> modelClass, String whereClause, String[] whereArgs) {
 		int rowsAffected = 0;
+		String tableName = getTableName(modelClass);
+		String fkName = getForeignKeyColumnName(tableName);
+		String idsInTable = getIdsInTableClause(fkName, tableName, whereClause);
 		for (String associatedTableName : getForeignKeyTableToDelete()) {
-			String tableName = getTableName(modelClass);
-			String fkName = getForeignKeyColumnName(tableName);
-			StringBuilder whereClause = new StringBuilder();
-			whereClause.append(fkName).append(" in (select id from ");
-			whereClause.append(tableName);
-			if (conditions != null && conditions.length > 0) {
-				whereClause.append(" where ").append(buildConditionString(conditions));
-			}
-			whereClause.append(")");
-			rowsAffected += mDatabase.delete(associatedTableName,
-					BaseUtility.changeCase(whereClause.toString()), null);
+			rowsAffected += mDatabase.delete(associatedTableName, idsInTable, whereArgs);
 		}
 		return rowsAffected;
 	}
-	
-	private String buildConditionString(String... conditions) {
-		  int argCount = conditions.length - 1;
-          String whereClause = conditions[0];
-          for (int i = 0; i < argCount; i++) {
-                  whereClause = whereClause.replaceFirst("\\?", "'" + conditions[i+1] + "'");
-          }
-          return whereClause;
+
+	/**
+	 * Build a where clause which matches all the rows whose column value is one
+	 * of the ids selected from tableName with the passed in where clause. The
+	 * placeholders of whereClause are kept, so the same where arguments can be
+	 * bound to the result.
+	 *
+	 * @param columnName
+	 *            The column which references the ids of tableName.
+	 * @param tableName
+	 *            The table to select ids from.
+	 * @param whereClause
+	 *            The WHERE clause to filter ids. Null means all rows.
+	 * @return A where clause like "column in (select id from table where ...)".
+	 */
+	private String getIdsInTableClause(String columnName, String tableName, String whereClause) {
+		StringBuilder idsInTable = new StringBuilder();
+		idsInTable.append(columnName).append(" in (select id from ").append(tableName);
+		if (!TextUtils.isEmpty(whereClause)) {
+			idsInTable.append(" where ").append(whereClause);
+		}
+		idsInTable.append(")");
+		return idsInTable.toString();
 	}
 
 	/**
@@ -359,6 +407,18 @@ public class DeleteHandler extends DataHandler {
 		return rowsAffected;
 	}
 
+	/**
+	 * Check if foreign key constraints are generated into database. If so, the
+	 * referenced data in associated tables, intermediate join tables and
+	 * generic tables will be cleaned by SQLite itself, and the rows affected
+	 * by SQLite won't be counted into the returned rows.
+	 *
+	 * @return True if foreign keys is enabled, false otherwise.
+	 */
+	private boolean isForeignKeysEnabled() {
+		return LitePalAttr.getInstance().isForeignKeysEnabled();
+	}
+
 	/**
 	 * Get all the associated tables of current model's table. Only used while
 	 * deleting by id.
@@ -378,34 +438,39 @@ public class DeleteHandler extends DataHandler {
      *          Used to get the generic table name and value id column.
      * @param supportedGenericFields
      *          List of all supported generic fields.
-     * @param ids
-     *          The id array of models.
+     * @param id
+     *          The id of model.
      */
-    private void deleteGenericData(Class<?> modelClass, List<Field> supportedGenericFields, long... ids) {
+    private void deleteGenericData(Class<?> modelClass, List<Field> supportedGenericFields, long id) {
+        String genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(modelClass.getName());
+        for (Field field : supportedGenericFields) {
+            String tableName = DBUtility.getGenericTableName(modelClass.getName(), field.getName());
+            mDatabase.delete(tableName, genericValueIdColumnName + " = ?", new String[] { String.valueOf(id) });
+        }
+    }
+
+    /**
+     * Delete the generic data in generic tables of all the rows matching the where clause. This
+     * method must be called before the main data get deleted.
+     * @param modelClass
+     *          Used to get the generic table name and value id column.
+     * @param supportedGenericFields
+     *          List of all supported generic fields.
+     * @param whereClause
+     *          The WHERE clause of the main data to delete. Null means all rows.
+     * @param whereArgs
+     *          The arguments to bind into whereClause.
+     */
+    private void deleteAllGenericData(Class<?> modelClass, List<Field> supportedGenericFields,
+                                      String whereClause, String[] whereArgs) {
+        if (supportedGenericFields.isEmpty()) {
+            return;
+        }
+        String genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(modelClass.getName());
+        String idsInTable = getIdsInTableClause(genericValueIdColumnName, getTableName(modelClass), whereClause);
         for (Field field : supportedGenericFields) {
             String tableName = DBUtility.getGenericTableName(modelClass.getName(), field.getName());
-            String genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(modelClass.getName());
-            int maxExpressionCount = 500; // Prevent the where condition is too long
-            int length = ids.length;
-            int loopCount = (length - 1) / maxExpressionCount;
-            for (int i = 0; i <= loopCount; i++) {
-                StringBuilder whereClause = new StringBuilder();
-                boolean needOr = false;
-                for (int j = maxExpressionCount * i; j < maxExpressionCount * (i + 1); j++) {
-                    if (j >= length) {
-                        break;
-                    }
-                    long id = ids[j];
-                    if (needOr) {
-                        whereClause.append(" or ");
-                    }
-                    whereClause.append(genericValueIdColumnName).append(" = ").append(id);
-                    needOr = true;
-                }
-                if (!TextUtils.isEmpty(whereClause.toString())) {
-                    mDatabase.delete(tableName, whereClause.toString(), null);
-                }
-            }
+            mDatabase.delete(tableName, idsInTable, whereArgs);
         }
     }
 }
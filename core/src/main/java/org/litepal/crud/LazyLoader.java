@@ -0,0 +1,274 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import org.litepal.crud.model.AssociationsInfo;
+import org.litepal.exceptions.LitePalSupportException;
+import org.litepal.tablemanager.Connector;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads a collection association of all the models found by the same query,
+ * when any of their lazy collections is accessed at the first time. So
+ * touching the association of a few models costs one batched query, no
+ * matter how many models are found. The owners are held weakly until the
+ * association is loaded, so keeping one of them doesn't keep the others in
+ * memory, and the loader lets go of all of them after loading.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+class LazyLoader {
+
+	/**
+	 * The association to load, with the owner class as self.
+	 */
+	private final AssociationsInfo info;
+
+	/**
+	 * The owner models whose lazy collections are created by this loader.
+	 * Null after loaded.
+	 */
+	private List<WeakReference<LitePalSupport>> owners = new ArrayList<>();
+
+	LazyLoader(AssociationsInfo info) {
+		this.info = info;
+	}
+
+	/**
+	 * Create the lazy collection of the owner, which is loaded by this
+	 * loader together with the other owners.
+	 *
+	 * @param owner
+	 *            The owner model.
+	 * @param isList
+	 *            True to create a list, false to create a set.
+	 * @return The lazy collection to set into the association field.
+	 */
+	Collection<?> createCollection(LitePalSupport owner, boolean isList) {
+		owners.add(new WeakReference<>(owner));
+		return isList ? new LazyList<>(this, owner) : new LazySet<>(this, owner);
+	}
+
+	/**
+	 * Check if the collection is a lazy collection created by a loader.
+	 *
+	 * @param collection
+	 *            The collection to check.
+	 * @return True if it's a lazy collection, false otherwise.
+	 */
+	static boolean isLazyCollection(Collection<?> collection) {
+		return collection instanceof LazyList || collection instanceof LazySet;
+	}
+
+	/**
+	 * Load the association of all owners which are still alive, and set the
+	 * loaded collections into their lazy collections. Owners whose field is
+	 * replaced by developers are not loaded any more. Should be called with
+	 * the lock of {@link LitePalSupport}.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void load() {
+		if (owners == null) {
+			return;
+		}
+		List<WeakReference<LitePalSupport>> references = owners;
+		owners = null;
+		Field field = info.getAssociateOtherModelFromSelf();
+		boolean isList = List.class.isAssignableFrom(field.getType());
+		QueryHandler queryHandler = new QueryHandler(Connector.getDatabase());
+		List<LitePalSupport> models = new ArrayList<>();
+		try {
+			for (WeakReference<LitePalSupport> reference : references) {
+				LitePalSupport model = reference.get();
+				if (model == null) {
+					continue;
+				}
+				Object value = queryHandler.getFieldValue(model, field);
+				Collection collection = isList ? new ArrayList() : new HashSet();
+				if (value instanceof LazyList && ((LazyList) value).loader == this) {
+					((LazyList) value).setLoaded((List) collection);
+				} else if (value instanceof LazySet && ((LazySet) value).loader == this) {
+					((LazySet) value).setLoaded((Set) collection);
+				} else {
+					continue;
+				}
+				DynamicExecutor.setField(model, field.getName(), collection, model.getClass());
+				models.add(model);
+			}
+		} catch (IllegalAccessException e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		}
+		Collection<LitePalSupport> associatedModels = queryHandler.loadAssociation(models, info);
+		queryHandler.setLazyCollections(associatedModels, info.getAssociatedClassName());
+	}
+
+	/**
+	 * A list which loads its elements at the first access.
+	 */
+	static class LazyList<E> extends AbstractList<E> {
+
+		/**
+		 * The loader of this list. Null after loaded.
+		 */
+		private LazyLoader loader;
+
+		/**
+		 * The owner of this list, which keeps it alive until loaded. Null
+		 * after loaded.
+		 */
+		private LitePalSupport owner;
+
+		/**
+		 * The loaded list. Null if not loaded yet.
+		 */
+		private List<E> loaded;
+
+		LazyList(LazyLoader loader, LitePalSupport owner) {
+			this.loader = loader;
+			this.owner = owner;
+		}
+
+		void setLoaded(List<E> list) {
+			loaded = list;
+			loader = null;
+			owner = null;
+		}
+
+		private List<E> delegate() {
+			synchronized (LitePalSupport.class) {
+				if (loaded == null) {
+					loader.load();
+					if (loaded == null) {
+						// the field of owner is replaced, so this list is not loaded together.
+						setLoaded(new ArrayList<E>());
+					}
+				}
+				return loaded;
+			}
+		}
+
+		@Override
+		public E get(int index) {
+			return delegate().get(index);
+		}
+
+		@Override
+		public int size() {
+			return delegate().size();
+		}
+
+		@Override
+		public E set(int index, E element) {
+			return delegate().set(index, element);
+		}
+
+		@Override
+		public void add(int index, E element) {
+			delegate().add(index, element);
+		}
+
+		@Override
+		public E remove(int index) {
+			return delegate().remove(index);
+		}
+
+	}
+
+	/**
+	 * A set which loads its elements at the first access.
+	 */
+	static class LazySet<E> extends AbstractSet<E> {
+
+		/**
+		 * The loader of this set. Null after loaded.
+		 */
+		private LazyLoader loader;
+
+		/**
+		 * The owner of this set, which keeps it alive until loaded. Null
+		 * after loaded.
+		 */
+		private LitePalSupport owner;
+
+		/**
+		 * The loaded set. Null if not loaded yet.
+		 */
+		private Set<E> loaded;
+
+		LazySet(LazyLoader loader, LitePalSupport owner) {
+			this.loader = loader;
+			this.owner = owner;
+		}
+
+		void setLoaded(Set<E> set) {
+			loaded = set;
+			loader = null;
+			owner = null;
+		}
+
+		private Set<E> delegate() {
+			synchronized (LitePalSupport.class) {
+				if (loaded == null) {
+					loader.load();
+					if (loaded == null) {
+						// the field of owner is replaced, so this set is not loaded together.
+						setLoaded(new HashSet<E>());
+					}
+				}
+				return loaded;
+			}
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return delegate().iterator();
+		}
+
+		@Override
+		public int size() {
+			return delegate().size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return delegate().contains(o);
+		}
+
+		@Override
+		public boolean add(E e) {
+			return delegate().add(e);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return delegate().remove(o);
+		}
+
+	}
+
+}
@@ -453,21 +453,20 @@ public class LitePalSupport {
      *            all rows.
      * @return If the model saved or updated successfully, return true. Otherwise return false.
      */
-    @SuppressWarnings("unchecked")
     public boolean saveOrUpdate(String... conditions) {
         synchronized (LitePalSupport.class) {
             if (conditions == null || conditions.length == 0) {
                 return save();
             }
-            List<LitePalSupport> list = (List<LitePalSupport>) Operator.where(conditions).find(getClass());
-            if (list.isEmpty()) {
+            long[] ids = Operator.where(conditions).pluckLongs(getClass(), "id");
+            if (ids.length == 0) {
                 return save();
             } else {
                 SQLiteDatabase db = Connector.getDatabase();
                 db.beginTransaction();
                 try {
-                    for (LitePalSupport support : list) {
-                        baseObjId = support.getBaseObjId();
+                    for (long id : ids) {
+                        baseObjId = id;
                         SaveHandler saveHandler = new SaveHandler(db);
                         saveHandler.onSave(this);
                         clearAssociatedData();
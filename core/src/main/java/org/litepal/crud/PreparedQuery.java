@@ -0,0 +1,276 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import org.litepal.crud.model.AssociationsInfo;
+import org.litepal.exceptions.LitePalSupportException;
+import org.litepal.tablemanager.Connector;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * A reusable query template built by {@link org.litepal.FluentQuery#prepare(Class)}.
+ * The where clause, order by clause and projection are converted only once
+ * when preparing, and the row mapper and the count statement are kept after
+ * the first execution. So executing the same query shape again and again
+ * with different arguments only needs to bind the arguments.
+ *
+ * <pre>
+ * PreparedQuery&lt;Person&gt; query = LitePal.where(&quot;age &gt; ? and city = ?&quot;).order(&quot;age&quot;).prepare(Person.class);
+ * List&lt;Person&gt; people = query.find(&quot;14&quot;, &quot;Beijing&quot;);
+ * int count = query.count(&quot;20&quot;, &quot;Shanghai&quot;);
+ * </pre>
+ *
+ * The instance is thread safe and can be kept as long as the application
+ * lives. Call {@link #close()} to release the compiled statement when the
+ * query is not needed anymore.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class PreparedQuery<T> implements Closeable {
+
+	/**
+	 * The model class to query.
+	 */
+	private final Class<T> modelClass;
+
+	/**
+	 * The selected columns, or null for all columns.
+	 */
+	private final String[] columns;
+
+	/**
+	 * The converted where clause, or null for all rows.
+	 */
+	private final String whereClause;
+
+	/**
+	 * The arguments given when preparing, which are bound before the arguments
+	 * of each execution.
+	 */
+	private final String[] fixedArgs;
+
+	/**
+	 * The number of arguments each execution should provide.
+	 */
+	private final int argCount;
+
+	/**
+	 * The converted order by clause.
+	 */
+	private final String orderBy;
+
+	/**
+	 * The limit clause, or null for no limit.
+	 */
+	private final String limit;
+
+	/**
+	 * The offset, or null for no offset.
+	 */
+	private final String offset;
+
+	/**
+	 * True to load the associated models.
+	 */
+	private final boolean isEager;
+
+	/**
+	 * The database which the query handler and count statement work with.
+	 */
+	private SQLiteDatabase database;
+
+	/**
+	 * The query handler kept between executions.
+	 */
+	private QueryHandler queryHandler;
+
+	/**
+	 * The foreign key associations analyzed at the first execution.
+	 */
+	private List<AssociationsInfo> foreignKeyAssociations;
+
+	/**
+	 * The row mapper built at the first execution.
+	 */
+	private DataHandler.RowMapper rowMapper;
+
+	/**
+	 * The compiled count statement.
+	 */
+	private SQLiteStatement countStatement;
+
+	PreparedQuery(Class<T> modelClass, String[] columns, String whereClause, String[] fixedArgs, int argCount,
+			String orderBy, String limit, String offset, boolean isEager) {
+		this.modelClass = modelClass;
+		this.columns = columns;
+		this.whereClause = whereClause;
+		this.fixedArgs = fixedArgs;
+		this.argCount = argCount;
+		this.orderBy = orderBy;
+		this.limit = limit;
+		this.offset = offset;
+		this.isEager = isEager;
+	}
+
+	/**
+	 * Execute the query with the arguments.
+	 *
+	 * @param args
+	 *            The values to fill into the place holders of where clause
+	 *            in order.
+	 * @return An object list with founded data from database, or an empty list.
+	 */
+	public List<T> find(String... args) {
+		return query(limit, args);
+	}
+
+	/**
+	 * Execute the query with the arguments, and find the first record only.
+	 *
+	 * @param args
+	 *            The values to fill into the place holders of where clause
+	 *            in order.
+	 * @return An object with founded data from database, or null.
+	 */
+	public T findFirst(String... args) {
+		// If limit equals to 0, nothing should be found.
+		List<T> list = query("0".equals(limit) ? limit : "1", args);
+		if (list.size() > 0) {
+			return list.get(0);
+		}
+		return null;
+	}
+
+	/**
+	 * Count the records which match the where clause with the arguments. The
+	 * order, limit and offset are ignored.
+	 *
+	 * @param args
+	 *            The values to fill into the place holders of where clause
+	 *            in order.
+	 * @return Count of the matched records.
+	 */
+	public int count(String... args) {
+		String[] whereArgs = getWhereArgs(args);
+		synchronized (LitePalSupport.class) {
+			prepareHandler();
+			if (countStatement == null) {
+				StringBuilder sql = new StringBuilder("select count(1) from ");
+				sql.append(rowMapper.tableName);
+				if (whereClause != null) {
+					sql.append(" where ").append(whereClause);
+				}
+				countStatement = database.compileStatement(sql.toString());
+			}
+			countStatement.clearBindings();
+			if (whereArgs != null) {
+				countStatement.bindAllArgsAsStrings(whereArgs);
+			}
+			return (int) countStatement.simpleQueryForLong();
+		}
+	}
+
+	/**
+	 * Release the compiled count statement and everything built at the first
+	 * execution. The query can still be executed after closing, which
+	 * prepares it again.
+	 */
+	@Override
+	public void close() {
+		synchronized (LitePalSupport.class) {
+			if (countStatement != null) {
+				countStatement.close();
+				countStatement = null;
+			}
+			database = null;
+			queryHandler = null;
+			foreignKeyAssociations = null;
+			rowMapper = null;
+		}
+	}
+
+	/**
+	 * Execute the query with the limit and arguments.
+	 *
+	 * @param limit
+	 *            The limit clause to use.
+	 * @param args
+	 *            The values to fill into the place holders of where clause
+	 *            in order.
+	 * @return An object list with founded data from database, or an empty list.
+	 */
+	private List<T> query(String limit, String[] args) {
+		String[] whereArgs = getWhereArgs(args);
+		if (offset != null) {
+			limit = offset + "," + (limit == null ? "0" : limit);
+		}
+		synchronized (LitePalSupport.class) {
+			prepareHandler();
+			return queryHandler.query(modelClass, columns, whereClause, whereArgs, null, null, orderBy, limit,
+					foreignKeyAssociations, rowMapper);
+		}
+	}
+
+	/**
+	 * Make sure the query handler works with the current database. If the
+	 * database is switched, everything built against the old one is dropped.
+	 */
+	private void prepareHandler() {
+		SQLiteDatabase db = Connector.getDatabase();
+		if (database != db) {
+			if (countStatement != null) {
+				countStatement.close();
+				countStatement = null;
+			}
+			database = db;
+			queryHandler = new QueryHandler(db);
+			foreignKeyAssociations = queryHandler.getForeignKeyAssociations(modelClass.getName(), isEager);
+			rowMapper = queryHandler.getRowMapper(modelClass, columns, foreignKeyAssociations);
+		}
+	}
+
+	/**
+	 * Check the number of arguments, then combine them with the fixed
+	 * arguments.
+	 *
+	 * @param args
+	 *            The arguments of an execution.
+	 * @return All the arguments to bind.
+	 */
+	private String[] getWhereArgs(String[] args) {
+		int size = args == null ? 0 : args.length;
+		if (size != argCount) {
+			throw new LitePalSupportException(LitePalSupportException.UPDATE_CONDITIONS_EXCEPTION);
+		}
+		if (fixedArgs.length == 0) {
+			return size == 0 ? null : args;
+		}
+		String[] whereArgs = new String[fixedArgs.length + size];
+		System.arraycopy(fixedArgs, 0, whereArgs, 0, fixedArgs.length);
+		if (size > 0) {
+			System.arraycopy(args, 0, whereArgs, fixedArgs.length, size);
+		}
+		return whereArgs;
+	}
+
+}
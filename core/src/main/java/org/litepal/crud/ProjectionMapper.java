@@ -0,0 +1,351 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import android.database.Cursor;
+
+import org.litepal.exceptions.LitePalSupportException;
+import org.litepal.util.DBUtility;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the rows of a projection into a plain class, which doesn't need to
+ * extend {@link LitePalSupport}. If the class has a constructor with one
+ * parameter for each column, the values are passed to it in the order of
+ * columns, which suits Kotlin data classes and immutable Java classes. If
+ * more than one constructor has that many parameters, the one whose
+ * parameter types match the types of columns is chosen.
+ * Otherwise the class is created by its default constructor, and each column
+ * is assigned to the field with the same name. The mapper is compiled only
+ * once for each class and projection.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+class ProjectionMapper<R> {
+
+	/**
+	 * Class name, column names and column types as key. Compiled mapper as
+	 * value.
+	 */
+	private static final Map<String, ProjectionMapper<?>> mappers = new HashMap<String, ProjectionMapper<?>>();
+
+	/**
+	 * The constructor to create instance.
+	 */
+	private final Constructor<R> constructor;
+
+	/**
+	 * The types of constructor parameters. Null if values are assigned to
+	 * fields.
+	 */
+	private final Class<?>[] parameterTypes;
+
+	/**
+	 * The field of each column. Null if values are passed to constructor, or
+	 * the column has no matched field.
+	 */
+	private final Field[] fields;
+
+	private ProjectionMapper(Constructor<R> constructor, Class<?>[] parameterTypes, Field[] fields) {
+		this.constructor = constructor;
+		this.parameterTypes = parameterTypes;
+		this.fields = fields;
+	}
+
+	/**
+	 * Get the compiled mapper of the class and projection. Compile it if it's
+	 * not compiled yet.
+	 *
+	 * @param dtoClass
+	 *            The plain class to map into.
+	 * @param cursor
+	 *            The cursor of projection, which is moved to the first row.
+	 *            The types of columns are read from this row.
+	 * @return The compiled mapper.
+	 */
+	@SuppressWarnings("unchecked")
+	static synchronized <R> ProjectionMapper<R> get(Class<R> dtoClass, Cursor cursor) {
+		String[] columnNames = cursor.getColumnNames();
+		int[] columnTypes = new int[columnNames.length];
+		StringBuilder key = new StringBuilder(dtoClass.getName());
+		for (int i = 0; i < columnNames.length; i++) {
+			columnTypes[i] = cursor.getType(i);
+			key.append(",").append(columnNames[i]).append(":").append(columnTypes[i]);
+		}
+		ProjectionMapper<R> mapper = (ProjectionMapper<R>) mappers.get(key.toString());
+		if (mapper == null) {
+			mapper = compile(dtoClass, columnNames, columnTypes);
+			mappers.put(key.toString(), mapper);
+		}
+		return mapper;
+	}
+
+	/**
+	 * Map the current row of cursor into a new instance.
+	 *
+	 * @param cursor
+	 *            The cursor of projection, which is moved to the row to map.
+	 * @return The new instance.
+	 */
+	R map(Cursor cursor) throws InstantiationException, IllegalAccessException,
+			InvocationTargetException {
+		if (parameterTypes != null) {
+			Object[] args = new Object[parameterTypes.length];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = readValue(cursor, i, parameterTypes[i]);
+			}
+			return constructor.newInstance(args);
+		}
+		R instance = constructor.newInstance();
+		for (int i = 0; i < fields.length; i++) {
+			Field field = fields[i];
+			if (field != null) {
+				Object value = readValue(cursor, i, field.getType());
+				if (value != null || !field.getType().isPrimitive()) {
+					field.set(instance, value);
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Compile the mapper of the class and projection. The order of declared
+	 * constructors is not specified, so a constructor is only chosen when it's
+	 * the single one which suits the columns.
+	 *
+	 * @param dtoClass
+	 *            The plain class to map into.
+	 * @param columnNames
+	 *            The column names of projection in order.
+	 * @param columnTypes
+	 *            The types of columns in the first row, such as
+	 *            {@link Cursor#FIELD_TYPE_INTEGER}.
+	 * @return The compiled mapper.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> ProjectionMapper<R> compile(Class<R> dtoClass, String[] columnNames, int[] columnTypes) {
+		Constructor<R> defaultConstructor = null;
+		List<Constructor<?>> candidates = new ArrayList<Constructor<?>>();
+		for (Constructor<?> constructor : dtoClass.getDeclaredConstructors()) {
+			if (constructor.isSynthetic()) {
+				continue;
+			}
+			Class<?>[] types = constructor.getParameterTypes();
+			if (types.length == columnNames.length && types.length > 0) {
+				candidates.add(constructor);
+			}
+			if (types.length == 0) {
+				defaultConstructor = (Constructor<R>) constructor;
+			}
+		}
+		if (candidates.size() > 1) {
+			List<Constructor<?>> matched = new ArrayList<Constructor<?>>();
+			for (Constructor<?> candidate : candidates) {
+				if (isMatched(candidate.getParameterTypes(), columnTypes)) {
+					matched.add(candidate);
+				}
+			}
+			if (matched.size() != 1) {
+				throw new LitePalSupportException(dtoClass.getName()
+						+ LitePalSupportException.FIND_AS_AMBIGUOUS_CONSTRUCTOR);
+			}
+			candidates = matched;
+		}
+		if (candidates.size() == 1) {
+			Constructor<R> constructor = (Constructor<R>) candidates.get(0);
+			constructor.setAccessible(true);
+			return new ProjectionMapper<R>(constructor, constructor.getParameterTypes(), null);
+		}
+		if (defaultConstructor == null) {
+			throw new LitePalSupportException(dtoClass.getName()
+					+ LitePalSupportException.FIND_AS_NO_SUITABLE_CONSTRUCTOR);
+		}
+		defaultConstructor.setAccessible(true);
+		Field[] fields = new Field[columnNames.length];
+		for (int i = 0; i < columnNames.length; i++) {
+			fields[i] = findField(dtoClass, columnNames[i]);
+		}
+		return new ProjectionMapper<R>(defaultConstructor, null, fields);
+	}
+
+	/**
+	 * Check if the parameter types of a constructor match the types of
+	 * columns. Null values match any type.
+	 *
+	 * @param parameterTypes
+	 *            The parameter types of constructor.
+	 * @param columnTypes
+	 *            The types of columns in the same order.
+	 * @return True if each parameter can take the value of its column.
+	 */
+	private static boolean isMatched(Class<?>[] parameterTypes, int[] columnTypes) {
+		for (int i = 0; i < parameterTypes.length; i++) {
+			Class<?> type = parameterTypes[i];
+			boolean matched;
+			switch (columnTypes[i]) {
+			case Cursor.FIELD_TYPE_INTEGER:
+				matched = type == boolean.class || type == Boolean.class || type == Date.class
+						|| (type != double.class && type != float.class && type != char.class && type.isPrimitive())
+						|| (Number.class.isAssignableFrom(type) && type != Double.class && type != Float.class);
+				break;
+			case Cursor.FIELD_TYPE_FLOAT:
+				matched = type == double.class || type == Double.class || type == float.class || type == Float.class;
+				break;
+			case Cursor.FIELD_TYPE_STRING:
+				matched = type == String.class || type == char.class || type == Character.class;
+				break;
+			case Cursor.FIELD_TYPE_BLOB:
+				matched = type == byte[].class;
+				break;
+			default:
+				matched = true;
+				break;
+			}
+			if (!matched) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Find the field which the column is assigned to. Column names are
+	 * compared case insensitively, and the names converted from SQLite
+	 * keywords are also recognized.
+	 *
+	 * @param dtoClass
+	 *            The plain class to map into.
+	 * @param columnName
+	 *            The column name.
+	 * @return The matched field, or null.
+	 */
+	private static Field findField(Class<?> dtoClass, String columnName) {
+		Class<?> clazz = dtoClass;
+		while (clazz != null && clazz != Object.class) {
+			for (Field field : clazz.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+					continue;
+				}
+				String fieldName = field.getName();
+				if (fieldName.equalsIgnoreCase(columnName)
+						|| DBUtility.convertToValidColumnName(fieldName).equalsIgnoreCase(columnName)) {
+					field.setAccessible(true);
+					return field;
+				}
+			}
+			clazz = clazz.getSuperclass();
+		}
+		return null;
+	}
+
+	/**
+	 * Read the value of column by the target type. Null value of column
+	 * becomes null, or the default value if the type is primitive and the
+	 * value is passed to constructor.
+	 *
+	 * @param cursor
+	 *            The cursor moved to the row to read.
+	 * @param columnIndex
+	 *            The index of column.
+	 * @param type
+	 *            The target type.
+	 * @return The value of column.
+	 */
+	private Object readValue(Cursor cursor, int columnIndex, Class<?> type) {
+		if (cursor.isNull(columnIndex)) {
+			if (parameterTypes == null || !type.isPrimitive()) {
+				return null;
+			}
+			if (type == boolean.class) {
+				return false;
+			}
+			if (type == char.class) {
+				return '\u0000';
+			}
+			return readNumber(0L, type);
+		}
+		if (type == String.class) {
+			return cursor.getString(columnIndex);
+		}
+		if (type == boolean.class || type == Boolean.class) {
+			return cursor.getInt(columnIndex) != 0;
+		}
+		if (type == char.class || type == Character.class) {
+			String value = cursor.getString(columnIndex);
+			return value.isEmpty() ? '\u0000' : value.charAt(0);
+		}
+		if (type == double.class || type == Double.class || type == float.class || type == Float.class) {
+			return readNumber(cursor.getDouble(columnIndex), type);
+		}
+		if (type.isPrimitive() || Number.class.isAssignableFrom(type)) {
+			return readNumber(cursor.getLong(columnIndex), type);
+		}
+		if (type == Date.class) {
+			long date = cursor.getLong(columnIndex);
+			// Long.MAX_VALUE is a date that will never reach, which represents null in our case.
+			return date == Long.MAX_VALUE ? null : new Date(date);
+		}
+		if (type == byte[].class) {
+			return cursor.getBlob(columnIndex);
+		}
+		return cursor.getString(columnIndex);
+	}
+
+	/**
+	 * Convert the number into the target type.
+	 *
+	 * @param number
+	 *            The number read from cursor.
+	 * @param type
+	 *            The target type.
+	 * @return The converted number.
+	 */
+	private Object readNumber(Number number, Class<?> type) {
+		if (type == long.class || type == Long.class) {
+			return number.longValue();
+		}
+		if (type == int.class || type == Integer.class) {
+			return number.intValue();
+		}
+		if (type == short.class || type == Short.class) {
+			return number.shortValue();
+		}
+		if (type == byte.class || type == Byte.class) {
+			return number.byteValue();
+		}
+		if (type == double.class || type == Double.class) {
+			return number.doubleValue();
+		}
+		if (type == float.class || type == Float.class) {
+			return number.floatValue();
+		}
+		return number;
+	}
+
+}
@@ -16,12 +16,18 @@
 
 package org.litepal.crud;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import org.litepal.exceptions.LitePalSupportException;
 import org.litepal.util.BaseUtility;
 import org.litepal.util.DBUtility;
 
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
 
 /**
  * This is a component under LitePalSupport. It deals with query stuff as primary
@@ -45,7 +51,8 @@ public class QueryHandler extends DataHandler {
 
 	/**
 	 * The open interface for other classes in CRUD package to query a record
-	 * based on id. If the result set is empty, gives null back.
+	 * based on id. If the result set is empty, gives null back. If the record
+	 * is already in the active {@link Session}, it's returned without query.
 	 * 
 	 * @param modelClass
 	 *            Which table to query and the object type to return.
@@ -56,6 +63,13 @@ public class QueryHandler extends DataHandler {
 	 * @return An object with found data from database, or null.
 	 */
     public <T> T onFind(Class<T> modelClass, long id, boolean isEager) {
+		Session session = Session.current(mDatabase);
+		if (session != null) {
+			T model = session.get(modelClass, id);
+			if (model != null && (!isEager || session.isEagerLoaded(model))) {
+				return model;
+			}
+		}
 		List<T> dataList = query(modelClass, null, "id = ?", new String[] { String.valueOf(id) },
 				null, null, null, null, getForeignKeyAssociations(modelClass.getName(), isEager));
 		if (dataList.size() > 0) {
@@ -104,7 +118,8 @@ public class QueryHandler extends DataHandler {
 
 	/**
 	 * The open interface for other classes in CRUD package to query multiple
-	 * records by an id array. Pass no ids means query all rows.
+	 * records by an id array. Pass no ids means query all rows. The ids are
+	 * bound in chunks, so there's no limit of the ids size.
 	 * 
 	 * @param modelClass
 	 *            Which table to query and the object type to return as a list.
@@ -120,8 +135,12 @@ public class QueryHandler extends DataHandler {
 			dataList = query(modelClass, null, null, null, null, null, "id", null,
 					getForeignKeyAssociations(modelClass.getName(), isEager));
 		} else {
-			dataList = query(modelClass, null, getWhereOfIdsWithOr(ids), null, null, null, "id",
-					null, getForeignKeyAssociations(modelClass.getName(), isEager));
+			dataList = new ArrayList<T>();
+			for (long[] chunk : getIdChunks(MAX_VARIABLE_NUMBER, ids)) {
+				dataList.addAll(query(modelClass, null, getWhereOfIdsWithIn("id", chunk.length),
+						getWhereArgsOfIds(chunk), null, null, "id", null,
+						getForeignKeyAssociations(modelClass.getName(), isEager)));
+			}
 		}
 		return dataList;
 	}
@@ -161,6 +180,341 @@ public class QueryHandler extends DataHandler {
                 getForeignKeyAssociations(modelClass.getName(), isEager));
 	}
 
+	/**
+	 * The open interface for other classes in CRUD package to query multiple
+	 * records together with their joined associated models in one query.
+	 *
+	 * @param modelClass
+	 *            Which table to query and the object type to return as a list.
+	 * @param columns
+	 *            A String array of which columns of the model to return.
+	 *            Passing null will return all columns.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, or null.
+	 * @param joins
+	 *            The associated classes to join as key, and the foreign key
+	 *            columns as value.
+	 * @return An object list with founded data from database, or an empty list.
+	 */
+	public <T> List<T> onFindJoined(Class<T> modelClass, String[] columns, String[] conditions, String orderBy,
+			String limit, Map<Class<?>, String> joins) {
+		BaseUtility.checkConditionsCorrect(conditions);
+		if (conditions != null && conditions.length > 0) {
+			conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+		}
+		return joinQuery(modelClass, columns, getWhereClause(conditions), getWhereArgs(conditions),
+				DBUtility.convertOrderByClauseToValidName(orderBy), limit, joins);
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to load the
+	 * associations named by include paths into the queried models.
+	 *
+	 * @param models
+	 *            The queried models.
+	 * @param modelClass
+	 *            The class of the models.
+	 * @param paths
+	 *            The include paths, such as songs.artist.
+	 */
+	@SuppressWarnings("unchecked")
+	public void onInclude(List<?> models, Class<?> modelClass, String[] paths) {
+		if (!models.isEmpty()) {
+			loadIncludes((List<LitePalSupport>) models, modelClass.getName(), Arrays.asList(paths));
+		}
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to set lazy
+	 * collections into the collection associations of the queried models.
+	 *
+	 * @param models
+	 *            The queried models.
+	 * @param modelClass
+	 *            The class of the models.
+	 */
+	@SuppressWarnings("unchecked")
+	public void onLazy(List<?> models, Class<?> modelClass) {
+		setLazyCollections((List<LitePalSupport>) models, modelClass.getName());
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to query records
+	 * into a plain class, which doesn't need to extend LitePalSupport. The
+	 * associated models and generic values are not loaded.
+	 *
+	 * @param tableName
+	 *            Which table to query from.
+	 * @param dtoClass
+	 *            The plain class to map each row into.
+	 * @param columns
+	 *            A String array of which columns to return. Passing null will
+	 *            return all columns.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, or null.
+	 * @return A list of the plain class, or an empty list.
+	 */
+	public <R> List<R> onFindAs(String tableName, Class<R> dtoClass, String[] columns, String[] conditions,
+			String orderBy, String limit) {
+		BaseUtility.checkConditionsCorrect(conditions);
+		if (conditions != null && conditions.length > 0) {
+			conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+		}
+		List<R> dataList = new ArrayList<>();
+		Cursor cursor = null;
+		try {
+			cursor = mDatabase.query(tableName, DBUtility.convertSelectClauseToValidNames(columns),
+					getWhereClause(conditions), getWhereArgs(conditions), null, null,
+					DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+			if (cursor.moveToFirst()) {
+				ProjectionMapper<R> mapper = ProjectionMapper.get(dtoClass, cursor);
+				do {
+					dataList.add(mapper.map(cursor));
+				} while (cursor.moveToNext());
+			}
+			return dataList;
+		} catch (LitePalSupportException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to prepare a query
+	 * template. The where clause and order by clause are converted only once
+	 * here. The place holders in where clause which are not filled by
+	 * conditions are filled by the arguments of each execution.
+	 *
+	 * @param modelClass
+	 *            Which table to query and the object type to return as a list.
+	 * @param columns
+	 *            A String array of which columns to return. Passing null will
+	 *            return all columns.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, or null.
+	 * @param offset
+	 *            Skips the number of rows from the beginning, or null.
+	 * @param isEager
+	 *            True to load the associated models, false not.
+	 * @return The prepared query.
+	 */
+	public <T> PreparedQuery<T> onPrepare(Class<T> modelClass, String[] columns, String[] conditions,
+			String orderBy, String limit, String offset, boolean isEager) {
+		String whereClause = null;
+		String[] fixedArgs = new String[0];
+		int argCount = 0;
+		if (conditions != null && conditions.length > 0 && !TextUtils.isEmpty(conditions[0])) {
+			argCount = BaseUtility.count(conditions[0], "?") - (conditions.length - 1);
+			if (argCount < 0) {
+				throw new LitePalSupportException(LitePalSupportException.UPDATE_CONDITIONS_EXCEPTION);
+			}
+			whereClause = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+			fixedArgs = Arrays.copyOfRange(conditions, 1, conditions.length);
+		}
+		return new PreparedQuery<>(modelClass, columns, whereClause, fixedArgs, argCount,
+				DBUtility.convertOrderByClauseToValidName(orderBy), limit, offset, isEager);
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to calculate
+	 * multiple aggregate functions of each group in one query.
+	 *
+	 * @param tableName
+	 *            Which table to query from.
+	 * @param groupBy
+	 *            The columns to group rows by. Passing null will treat all
+	 *            rows as one group.
+	 * @param having
+	 *            A filter declaring which groups to return, formatted as an
+	 *            SQL HAVING clause and followed by its arguments. Passing null
+	 *            will return all groups.
+	 * @param aggregates
+	 *            The aggregate functions to calculate.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the groups, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of groups returned by the query, or null.
+	 * @return The calculated rows.
+	 */
+	public AggregateResult onAggregate(String tableName, String[] groupBy, String[] having, Aggregate[] aggregates,
+			String[] conditions, String orderBy, String limit) {
+		if (aggregates == null || aggregates.length == 0) {
+			throw new LitePalSupportException(LitePalSupportException.AGGREGATE_WITHOUT_FUNCTION);
+		}
+		BaseUtility.checkConditionsCorrect(conditions);
+		BaseUtility.checkConditionsCorrect(having);
+		if (conditions != null && conditions.length > 0) {
+			conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+		}
+		String havingClause = null;
+		String[] selectionArgs = getWhereArgs(conditions);
+		if (having != null && having.length > 0) {
+			havingClause = DBUtility.convertWhereClauseToColumnName(having[0]);
+			// The place holders of having clause come after the ones of where clause.
+			if (having.length > 1) {
+				int whereArgCount = selectionArgs == null ? 0 : selectionArgs.length;
+				String[] args = new String[whereArgCount + having.length - 1];
+				if (whereArgCount > 0) {
+					System.arraycopy(selectionArgs, 0, args, 0, whereArgCount);
+				}
+				System.arraycopy(having, 1, args, whereArgCount, having.length - 1);
+				selectionArgs = args;
+			}
+		}
+		String[] groupColumns = DBUtility.convertSelectClauseToValidNames(groupBy);
+		int groupCount = groupColumns == null ? 0 : groupColumns.length;
+		String[] columns = new String[groupCount + aggregates.length];
+		if (groupCount > 0) {
+			System.arraycopy(groupColumns, 0, columns, 0, groupCount);
+		}
+		for (int i = 0; i < aggregates.length; i++) {
+			columns[groupCount + i] = aggregates[i].toSelectClause();
+		}
+		String groupByClause = groupCount > 0 ? TextUtils.join(",", groupColumns) : null;
+		Cursor cursor = null;
+		try {
+			cursor = mDatabase.query(tableName, columns, getWhereClause(conditions), selectionArgs,
+					groupByClause, havingClause,
+					DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+			return new AggregateResult(cursor);
+		} catch (LitePalSupportException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new LitePalSupportException(e.getMessage(), e);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to read a single
+	 * column of the records as long, without creating any model.
+	 *
+	 * @param tableName
+	 *            Which table to query from.
+	 * @param column
+	 *            The column to read.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, or null.
+	 * @return The values of the column in order.
+	 */
+	public long[] onPluckLongs(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		BaseUtility.checkConditionsCorrect(conditions);
+		if (conditions != null && conditions.length > 0) {
+			conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+		}
+		return pluckLongs(tableName, DBUtility.convertToValidColumnName(column), conditions,
+				DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to read a single
+	 * column of the records as int, without creating any model.
+	 *
+	 * @param tableName
+	 *            Which table to query from.
+	 * @param column
+	 *            The column to read.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, or null.
+	 * @return The values of the column in order.
+	 */
+	public int[] onPluckInts(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		BaseUtility.checkConditionsCorrect(conditions);
+		if (conditions != null && conditions.length > 0) {
+			conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+		}
+		return pluckInts(tableName, DBUtility.convertToValidColumnName(column), conditions,
+				DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to read a single
+	 * column of the records as double, without creating any model.
+	 *
+	 * @param tableName
+	 *            Which table to query from.
+	 * @param column
+	 *            The column to read.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, or null.
+	 * @return The values of the column in order.
+	 */
+	public double[] onPluckDoubles(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		BaseUtility.checkConditionsCorrect(conditions);
+		if (conditions != null && conditions.length > 0) {
+			conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+		}
+		return pluckDoubles(tableName, DBUtility.convertToValidColumnName(column), conditions,
+				DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+	}
+
+	/**
+	 * The open interface for other classes in CRUD package to read a single
+	 * column of the records as String, without creating any model.
+	 *
+	 * @param tableName
+	 *            Which table to query from.
+	 * @param column
+	 *            The column to read.
+	 * @param conditions
+	 *            A filter declaring which rows to return, formatted as an SQL
+	 *            WHERE clause. Passing null will return all rows.
+	 * @param orderBy
+	 *            How to order the rows, formatted as an SQL ORDER BY clause.
+	 * @param limit
+	 *            Limits the number of rows returned by the query, or null.
+	 * @return The values of the column in order.
+	 */
+	public List<String> onPluckStrings(String tableName, String column, String[] conditions, String orderBy, String limit) {
+		BaseUtility.checkConditionsCorrect(conditions);
+		if (conditions != null && conditions.length > 0) {
+			conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+		}
+		return pluckStrings(tableName, DBUtility.convertToValidColumnName(column), conditions,
+				DBUtility.convertOrderByClauseToValidName(orderBy), limit);
+	}
+
 	/**
 	 * The open interface for other classes in CRUD package to Count the
 	 * records.
@@ -0,0 +1,394 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import org.litepal.annotation.Cacheable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The second level cache of query results for model classes annotated with
+ * {@link Cacheable}. Each model class has its own LRU cache keyed by the
+ * normalized query, which is bounded by entry count or estimated bytes. When
+ * any table related to the model class, including its generic tables,
+ * intermediate join tables and associated tables, is written through the
+ * CRUD handlers, all the cached results of the model class are invalidated.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class ResultCache {
+
+	/**
+	 * The instance of ResultCache.
+	 */
+	private static ResultCache cache;
+
+	/**
+	 * Model class name as key. Cached results of the model class as value.
+	 */
+	private final Map<String, ClassCache> classCaches = new HashMap<String, ClassCache>();
+
+	/**
+	 * Model class name as key. Cacheable annotation of the model class as value,
+	 * or null if the model class is not cacheable.
+	 */
+	private final Map<String, Cacheable> cacheableMap = new HashMap<String, Cacheable>();
+
+	/**
+	 * Model class name as key. Lower case names of the related tables as value.
+	 */
+	private final Map<String, Set<String>> relatedTablesMap = new HashMap<String, Set<String>>();
+
+	/**
+	 * The number of queries answered from cache.
+	 */
+	private long hitCount;
+
+	/**
+	 * The number of cacheable queries which went to database.
+	 */
+	private long missCount;
+
+	/**
+	 * The number of results evicted because the cache was full.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Do not allow to create instance by developers.
+	 */
+	private ResultCache() {
+	}
+
+	/**
+	 * Provide a way to get the instance of ResultCache.
+	 *
+	 * @return the singleton instance of ResultCache
+	 */
+	public static ResultCache getInstance() {
+		if (cache == null) {
+			synchronized (ResultCache.class) {
+				if (cache == null) {
+					cache = new ResultCache();
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Get the number of queries answered from cache.
+	 *
+	 * @return The hit count.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Get the number of cacheable queries which went to database.
+	 *
+	 * @return The miss count.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Get the number of results evicted because the cache was full.
+	 *
+	 * @return The eviction count.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Get the number of cached results of the model class.
+	 *
+	 * @param modelClass
+	 *            The model class.
+	 * @return The number of cached results.
+	 */
+	public synchronized int size(Class<?> modelClass) {
+		ClassCache classCache = classCaches.get(modelClass.getName());
+		return classCache == null ? 0 : classCache.results.size();
+	}
+
+	/**
+	 * Remove all the cached results and reset the counters.
+	 */
+	public synchronized void clear() {
+		classCaches.clear();
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+	}
+
+	/**
+	 * Check the model class is annotated with {@link Cacheable} or not.
+	 *
+	 * @param modelClass
+	 *            The model class.
+	 * @return True if query results of the model class can be cached.
+	 */
+	synchronized boolean isCacheable(Class<?> modelClass) {
+		String className = modelClass.getName();
+		if (!cacheableMap.containsKey(className)) {
+			cacheableMap.put(className, modelClass.getAnnotation(Cacheable.class));
+		}
+		return cacheableMap.get(className) != null;
+	}
+
+	/**
+	 * Check if there's no result cached at all, so writes can skip invalidation.
+	 *
+	 * @return True if nothing is cached.
+	 */
+	synchronized boolean isEmpty() {
+		return classCaches.isEmpty();
+	}
+
+	/**
+	 * Get the related tables of the model class which were put before.
+	 *
+	 * @param className
+	 *            The full class name.
+	 * @return The lower case names of related tables, or null.
+	 */
+	synchronized Set<String> getRelatedTables(String className) {
+		return relatedTablesMap.get(className);
+	}
+
+	/**
+	 * Remember the related tables of the model class. They won't change at
+	 * runtime.
+	 *
+	 * @param className
+	 *            The full class name.
+	 * @param tableNames
+	 *            Names of related tables.
+	 * @return The lower case names of related tables.
+	 */
+	synchronized Set<String> putRelatedTables(String className, Collection<String> tableNames) {
+		Set<String> relatedTables = new HashSet<String>();
+		for (String tableName : tableNames) {
+			relatedTables.add(tableName.toLowerCase(Locale.US));
+		}
+		relatedTablesMap.put(className, relatedTables);
+		return relatedTables;
+	}
+
+	/**
+	 * Find the cached result of the query.
+	 *
+	 * @param modelClass
+	 *            The model class.
+	 * @param key
+	 *            The normalized query.
+	 * @return The cached models, or null if not cached.
+	 */
+	synchronized List<?> get(Class<?> modelClass, String key) {
+		ClassCache classCache = classCaches.get(modelClass.getName());
+		CachedResult result = classCache == null ? null : classCache.results.get(key);
+		if (result == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		return result.models;
+	}
+
+	/**
+	 * Put the result of the query into cache. The eldest results will be
+	 * evicted if the cache of the model class is full.
+	 *
+	 * @param modelClass
+	 *            The model class.
+	 * @param key
+	 *            The normalized query.
+	 * @param models
+	 *            The models to cache. Should not be shared with anyone else.
+	 */
+	synchronized void put(Class<?> modelClass, String key, List<?> models) {
+		Cacheable cacheable = modelClass.getAnnotation(Cacheable.class);
+		if (cacheable == null) {
+			return;
+		}
+		ClassCache classCache = classCaches.get(modelClass.getName());
+		if (classCache == null) {
+			classCache = new ClassCache(cacheable.maxEntries(), cacheable.maxBytes());
+			classCaches.put(modelClass.getName(), classCache);
+		}
+		CachedResult result = new CachedResult(models, classCache.maxBytes > 0 ? estimateBytes(models) : 0);
+		CachedResult previous = classCache.results.put(key, result);
+		if (previous != null) {
+			classCache.bytes -= previous.bytes;
+		}
+		classCache.bytes += result.bytes;
+		Iterator<CachedResult> iterator = classCache.results.values().iterator();
+		while (iterator.hasNext() && classCache.isFull()) {
+			CachedResult eldest = iterator.next();
+			iterator.remove();
+			classCache.bytes -= eldest.bytes;
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * Invalidate the cached results of all model classes which relate to any
+	 * of the written tables.
+	 *
+	 * @param writtenTables
+	 *            Lower case names of the written tables.
+	 */
+	synchronized void invalidate(Collection<String> writtenTables) {
+		Iterator<Map.Entry<String, ClassCache>> iterator = classCaches.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Set<String> relatedTables = relatedTablesMap.get(iterator.next().getKey());
+			if (relatedTables == null) {
+				iterator.remove();
+				continue;
+			}
+			for (String tableName : writtenTables) {
+				if (relatedTables.contains(tableName)) {
+					iterator.remove();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Estimate the bytes of models by walking their fields. Associated models
+	 * are only walked for one level.
+	 *
+	 * @param models
+	 *            The models to estimate.
+	 * @return The estimated bytes.
+	 */
+	private long estimateBytes(List<?> models) {
+		long bytes = 16;
+		for (Object model : models) {
+			bytes += estimateBytes(model, true);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Estimate the bytes of a value.
+	 *
+	 * @param value
+	 *            The value to estimate.
+	 * @param walkModel
+	 *            True to walk the fields if value is a model.
+	 * @return The estimated bytes.
+	 */
+	private long estimateBytes(Object value, boolean walkModel) {
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof String) {
+			return 40 + 2 * ((String) value).length();
+		}
+		if (value instanceof byte[]) {
+			return 16 + ((byte[]) value).length;
+		}
+		if (value instanceof Collection) {
+			long bytes = 32;
+			for (Object element : (Collection<?>) value) {
+				bytes += 8 + estimateBytes(element, walkModel);
+			}
+			return bytes;
+		}
+		if (value instanceof LitePalSupport && walkModel) {
+			long bytes = 16;
+			Class<?> clazz = value.getClass();
+			while (clazz != null && clazz != LitePalSupport.class) {
+				for (Field field : clazz.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers())) {
+						continue;
+					}
+					try {
+						field.setAccessible(true);
+						bytes += 8 + estimateBytes(field.get(value), false);
+					} catch (IllegalAccessException e) {
+						bytes += 8;
+					}
+				}
+				clazz = clazz.getSuperclass();
+			}
+			return bytes;
+		}
+		return 16;
+	}
+
+	/**
+	 * The cached results of a model class in access order.
+	 */
+	private static class ClassCache {
+
+		final LinkedHashMap<String, CachedResult> results = new LinkedHashMap<String, CachedResult>(16, 0.75f, true);
+
+		final int maxEntries;
+
+		final long maxBytes;
+
+		long bytes;
+
+		ClassCache(int maxEntries, long maxBytes) {
+			this.maxEntries = maxEntries;
+			this.maxBytes = maxBytes;
+		}
+
+		boolean isFull() {
+			if (maxBytes > 0) {
+				return bytes > maxBytes;
+			}
+			return results.size() > maxEntries;
+		}
+
+	}
+
+	/**
+	 * The cached models of a query with estimated bytes.
+	 */
+	private static class CachedResult {
+
+		final List<?> models;
+
+		final long bytes;
+
+		CachedResult(List<?> models, long bytes) {
+			this.models = models;
+			this.bytes = bytes;
+		}
+
+	}
+
+}
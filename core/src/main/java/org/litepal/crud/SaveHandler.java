@@ -86,6 +86,8 @@ public class SaveHandler extends DataHandler {
             analyzeAssociatedModels(baseObj, associationInfos);
 			doUpdateAction(baseObj, supportedFields, supportedGenericFields);
 		}
+		invalidateResultCache(className);
+		putIntoSession(baseObj);
 	}
 
 	/**
@@ -119,7 +121,9 @@ public class SaveHandler extends DataHandler {
 					doUpdateAction(baseObj, supportedFields, supportedGenericFields);
 				}
 				baseObj.clearAssociatedData();
+				putIntoSession(baseObj);
 			}
+			invalidateResultCache(className);
 		}
 	}
 
@@ -168,7 +172,7 @@ public class SaveHandler extends DataHandler {
 	}
 
 	/**
-	 * Calling {@link android.database.sqlite.SQLiteDatabase#insert(String, String, android.content.ContentValues)} to
+	 * Calling {@link StatementCache#insert(SQLiteDatabase, String, ContentValues)} to
 	 * persist the current model.
 	 * 
 	 * @param baseObj
@@ -181,7 +185,7 @@ public class SaveHandler extends DataHandler {
         if (values.size() == 0) {
             values.putNull("id");
         }
-		return mDatabase.insert(baseObj.getTableName(), null, values);
+		return StatementCache.getInstance().insert(mDatabase, baseObj.getTableName(), values);
 	}
 
 	/**
@@ -249,7 +253,7 @@ public class SaveHandler extends DataHandler {
 
 	/**
 	 * Calling
-	 * {@link android.database.sqlite.SQLiteDatabase#update(String, android.content.ContentValues, String, String[])} to
+	 * {@link StatementCache#update(SQLiteDatabase, String, ContentValues, long)} to
 	 * update the current model.
 	 * 
 	 * @param baseObj
@@ -259,8 +263,8 @@ public class SaveHandler extends DataHandler {
 	 */
 	private void updating(LitePalSupport baseObj, ContentValues values) {
 	    if (values.size() > 0) {
-            mDatabase.update(baseObj.getTableName(), values, "id = ?",
-                    new String[] { String.valueOf(baseObj.getBaseObjId()) });
+            StatementCache.getInstance().update(mDatabase, baseObj.getTableName(), values,
+                    baseObj.getBaseObjId());
         }
 	}
 
@@ -393,7 +397,7 @@ public class SaveHandler extends DataHandler {
 			values.put(fkName, baseObj.getBaseObjId());
 			Set<Long> ids = associatedModelMap.get(associatedTableName);
 			if (ids != null && !ids.isEmpty()) {
-				mDatabase.update(associatedTableName, values, getWhereOfIdsWithOr(ids), null);
+				updateByIds(associatedTableName, values, "id", ids);
 			}
 		}
 	}
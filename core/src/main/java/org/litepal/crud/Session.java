@@ -0,0 +1,232 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import org.litepal.util.DBUtility;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The identity map of models within a session scope. While a session is active
+ * on the current thread, the same row is always hydrated into the same model
+ * instance, no matter it's loaded by find methods, eager loading or self
+ * referencing generic lists. Models already in session are served without
+ * querying database again. Sessions can be nested, and the identity map is
+ * dropped when the outermost session ends.
+ *
+ * <pre>
+ * Session.begin();
+ * try {
+ * 	Song song = LitePal.find(Song.class, 1, true);
+ * 	Album album = LitePal.find(Album.class, song.getAlbum().getId());
+ * 	// song.getAlbum() == album
+ * } finally {
+ * 	Session.end();
+ * }
+ * </pre>
+ *
+ * Writes which can't be reflected to the models in memory, such as updateAll
+ * and deleteAll, will evict the models of the written tables from session.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class Session {
+
+	/**
+	 * The session of each thread.
+	 */
+	private static final ThreadLocal<Session> sessions = new ThreadLocal<Session>();
+
+	/**
+	 * Model class name as key. Models of the class by id as value.
+	 */
+	private final Map<String, Map<Long, LitePalSupport>> models = new HashMap<String, Map<Long, LitePalSupport>>();
+
+	/**
+	 * Models whose associations have been loaded.
+	 */
+	private final Set<LitePalSupport> eagerLoadedModels = Collections
+			.newSetFromMap(new IdentityHashMap<LitePalSupport, Boolean>());
+
+	/**
+	 * The database which the models are loaded from.
+	 */
+	private SQLiteDatabase database;
+
+	/**
+	 * How many times the session is began without end.
+	 */
+	private int depth;
+
+	/**
+	 * Do not allow to create instance by developers.
+	 */
+	private Session() {
+	}
+
+	/**
+	 * Begin a session on the current thread. If there's already an active
+	 * session, the models in it are kept until the outermost session ends.
+	 */
+	public static void begin() {
+		Session session = sessions.get();
+		if (session == null) {
+			session = new Session();
+			sessions.set(session);
+		}
+		session.depth++;
+	}
+
+	/**
+	 * End the session on the current thread. The identity map is dropped when
+	 * the outermost session ends.
+	 */
+	public static void end() {
+		Session session = sessions.get();
+		if (session != null && --session.depth <= 0) {
+			sessions.remove();
+		}
+	}
+
+	/**
+	 * Check there's an active session on the current thread or not.
+	 *
+	 * @return True if a session is active.
+	 */
+	public static boolean isActive() {
+		return sessions.get() != null;
+	}
+
+	/**
+	 * Get the active session of the current thread. If the database is not the
+	 * one the models are loaded from, the models will be dropped.
+	 *
+	 * @param db
+	 *            The database to operate.
+	 * @return The active session, or null if there's no active session.
+	 */
+	static Session current(SQLiteDatabase db) {
+		Session session = sessions.get();
+		if (session != null && session.database != db) {
+			session.models.clear();
+			session.eagerLoadedModels.clear();
+			session.database = db;
+		}
+		return session;
+	}
+
+	/**
+	 * Find the model in session by id.
+	 *
+	 * @param modelClass
+	 *            The model class.
+	 * @param id
+	 *            The id of model.
+	 * @return The model in session, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T get(Class<T> modelClass, long id) {
+		Map<Long, LitePalSupport> modelMap = models.get(modelClass.getName());
+		return modelMap == null ? null : (T) modelMap.get(id);
+	}
+
+	/**
+	 * Put the model into session. Unsaved model will be ignored.
+	 *
+	 * @param model
+	 *            The model to put.
+	 */
+	void put(LitePalSupport model) {
+		if (!model.isSaved()) {
+			return;
+		}
+		Map<Long, LitePalSupport> modelMap = models.get(model.getClassName());
+		if (modelMap == null) {
+			modelMap = new HashMap<Long, LitePalSupport>();
+			models.put(model.getClassName(), modelMap);
+		}
+		LitePalSupport previous = modelMap.put(model.getBaseObjId(), model);
+		if (previous != null && previous != model) {
+			eagerLoadedModels.remove(previous);
+		}
+	}
+
+	/**
+	 * Check the associations of model have been loaded or not.
+	 *
+	 * @param model
+	 *            The model in session.
+	 * @return True if the associations have been loaded.
+	 */
+	boolean isEagerLoaded(Object model) {
+		return eagerLoadedModels.contains(model);
+	}
+
+	/**
+	 * Mark the associations of model have been loaded.
+	 *
+	 * @param model
+	 *            The model in session.
+	 */
+	void markEagerLoaded(LitePalSupport model) {
+		eagerLoadedModels.add(model);
+	}
+
+	/**
+	 * Evict the model with the id from session.
+	 *
+	 * @param className
+	 *            The full class name.
+	 * @param id
+	 *            The id of model.
+	 */
+	void evict(String className, long id) {
+		Map<Long, LitePalSupport> modelMap = models.get(className);
+		if (modelMap != null) {
+			eagerLoadedModels.remove(modelMap.remove(id));
+		}
+	}
+
+	/**
+	 * Evict all the models which are stored in any of the tables from session.
+	 *
+	 * @param tableNames
+	 *            Lower case names of the tables.
+	 */
+	void evictTables(Collection<String> tableNames) {
+		Iterator<Map.Entry<String, Map<Long, LitePalSupport>>> iterator = models.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Map<Long, LitePalSupport>> entry = iterator.next();
+			String tableName = DBUtility.getTableNameByClassName(entry.getKey());
+			if (tableName != null && tableNames.contains(tableName.toLowerCase(Locale.US))) {
+				eagerLoadedModels.removeAll(entry.getValue().values());
+				iterator.remove();
+			}
+		}
+	}
+
+}
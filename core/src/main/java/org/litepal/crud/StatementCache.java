@@ -0,0 +1,352 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.crud;
+
+import android.content.ContentValues;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A LRU cache of compiled SQLiteStatement for the hot single row operations,
+ * which are inserting a row, updating a row by id and deleting a row by id.
+ * Statements are keyed by operation, table and column set, and all the values
+ * are bound as arguments, so repeated operations on the same table don't build
+ * SQL strings or statement objects again. Each execution still acquires the
+ * prepared statement from the statement cache of the database connection, so
+ * the connection keeps as many statements as this cache does, or they would
+ * be compiled again. The cache is bound to one SQLiteDatabase instance and
+ * will be cleared when the database changes.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class StatementCache {
+
+	private static final String TAG = "StatementCache";
+
+	/**
+	 * The max number of statements to keep, which is also the size of
+	 * statement cache of database connection. It can't be greater than
+	 * {@link SQLiteDatabase#MAX_SQL_CACHE_SIZE}.
+	 */
+	public static final int MAX_SIZE = 100;
+
+	/**
+	 * The instance of StatementCache.
+	 */
+	private static StatementCache cache;
+
+	/**
+	 * The compiled statements in access order.
+	 */
+	private final LinkedHashMap<String, SQLiteStatement> statements = new LinkedHashMap<String, SQLiteStatement>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+			if (size() > MAX_SIZE) {
+				eldest.getValue().close();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * The database which the cached statements are compiled against.
+	 */
+	private SQLiteDatabase database;
+
+	/**
+	 * The number of times a compiled statement is reused.
+	 */
+	private long hitCount;
+
+	/**
+	 * The number of times a statement has to be compiled.
+	 */
+	private long missCount;
+
+	/**
+	 * Do not allow to create instance by developers.
+	 */
+	private StatementCache() {
+	}
+
+	/**
+	 * Provide a way to get the instance of StatementCache.
+	 *
+	 * @return the singleton instance of StatementCache
+	 */
+	public static StatementCache getInstance() {
+		if (cache == null) {
+			synchronized (StatementCache.class) {
+				if (cache == null) {
+					cache = new StatementCache();
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Get the number of times a compiled statement is reused.
+	 *
+	 * @return The hit count.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Get the number of times a statement has to be compiled.
+	 *
+	 * @return The miss count.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Get the number of statements in the cache.
+	 *
+	 * @return The number of cached statements.
+	 */
+	public synchronized int size() {
+		return statements.size();
+	}
+
+	/**
+	 * Close all the cached statements and reset the counters.
+	 */
+	public synchronized void clear() {
+		for (SQLiteStatement statement : statements.values()) {
+			statement.close();
+		}
+		statements.clear();
+		database = null;
+		hitCount = 0;
+		missCount = 0;
+	}
+
+	/**
+	 * Insert a row into the table with the values.
+	 *
+	 * @param db
+	 *            The database to insert into.
+	 * @param tableName
+	 *            Which table to insert into.
+	 * @param values
+	 *            A map from column names to column values. Can not be empty.
+	 * @return The row ID of the newly inserted row, or -1 if an error occurred.
+	 */
+	synchronized long insert(SQLiteDatabase db, String tableName, ContentValues values) {
+		String[] columns = getSortedColumns(values);
+		String key = generateKey("insert", tableName, columns);
+		SQLiteStatement statement = getStatement(db, key);
+		if (statement == null) {
+			StringBuilder sql = new StringBuilder("insert into ");
+			sql.append(tableName).append(" (");
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					sql.append(", ");
+				}
+				sql.append(columns[i]);
+			}
+			sql.append(") values (");
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					sql.append(", ");
+				}
+				sql.append("?");
+			}
+			sql.append(")");
+			statement = putStatement(db, key, sql.toString());
+		}
+		statement.clearBindings();
+		bindValues(statement, columns, values);
+		try {
+			return statement.executeInsert();
+		} catch (SQLException e) {
+			Log.e(TAG, "Error inserting " + values, e);
+			return -1;
+		}
+	}
+
+	/**
+	 * Update the row with the id by the values.
+	 *
+	 * @param db
+	 *            The database to update.
+	 * @param tableName
+	 *            Which table to update.
+	 * @param values
+	 *            A map from column names to new column values. Can not be
+	 *            empty.
+	 * @param id
+	 *            Which record to update.
+	 * @return The number of rows affected.
+	 */
+	synchronized int update(SQLiteDatabase db, String tableName, ContentValues values, long id) {
+		String[] columns = getSortedColumns(values);
+		String key = generateKey("update", tableName, columns);
+		SQLiteStatement statement = getStatement(db, key);
+		if (statement == null) {
+			StringBuilder sql = new StringBuilder("update ");
+			sql.append(tableName).append(" set ");
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					sql.append(", ");
+				}
+				sql.append(columns[i]).append(" = ?");
+			}
+			sql.append(" where id = ?");
+			statement = putStatement(db, key, sql.toString());
+		}
+		statement.clearBindings();
+		bindValues(statement, columns, values);
+		statement.bindLong(columns.length + 1, id);
+		return statement.executeUpdateDelete();
+	}
+
+	/**
+	 * Delete the row with the id.
+	 *
+	 * @param db
+	 *            The database to delete from.
+	 * @param tableName
+	 *            Which table to delete from.
+	 * @param id
+	 *            Which record to delete.
+	 * @return The number of rows affected.
+	 */
+	synchronized int delete(SQLiteDatabase db, String tableName, long id) {
+		String key = generateKey("delete", tableName, null);
+		SQLiteStatement statement = getStatement(db, key);
+		if (statement == null) {
+			statement = putStatement(db, key, "delete from " + tableName + " where id = ?");
+		}
+		statement.clearBindings();
+		statement.bindLong(1, id);
+		return statement.executeUpdateDelete();
+	}
+
+	/**
+	 * Find the compiled statement by key. If the database is not the one the
+	 * cached statements are compiled against, the cache will be cleared.
+	 *
+	 * @param db
+	 *            The database to operate.
+	 * @param key
+	 *            The key of statement.
+	 * @return The compiled statement, or null if it's not cached.
+	 */
+	private SQLiteStatement getStatement(SQLiteDatabase db, String key) {
+		if (database != db) {
+			for (SQLiteStatement statement : statements.values()) {
+				statement.close();
+			}
+			statements.clear();
+			database = db;
+		}
+		SQLiteStatement statement = statements.get(key);
+		if (statement != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return statement;
+	}
+
+	/**
+	 * Compile the SQL and put the statement into cache.
+	 *
+	 * @param db
+	 *            The database to operate.
+	 * @param key
+	 *            The key of statement.
+	 * @param sql
+	 *            The SQL to compile.
+	 * @return The compiled statement.
+	 */
+	private SQLiteStatement putStatement(SQLiteDatabase db, String key, String sql) {
+		SQLiteStatement statement = db.compileStatement(sql);
+		statements.put(key, statement);
+		return statement;
+	}
+
+	/**
+	 * Get the column names in values and sort them, so the same column set
+	 * always generates the same key and SQL.
+	 *
+	 * @param values
+	 *            A map from column names to column values.
+	 * @return The sorted column names.
+	 */
+	private String[] getSortedColumns(ContentValues values) {
+		String[] columns = values.keySet().toArray(new String[0]);
+		Arrays.sort(columns);
+		return columns;
+	}
+
+	/**
+	 * Generate the key of statement by operation, table and columns.
+	 *
+	 * @param operation
+	 *            The operation of statement.
+	 * @param tableName
+	 *            Which table to operate.
+	 * @param columns
+	 *            The sorted column names. Can be null.
+	 * @return The key of statement.
+	 */
+	private String generateKey(String operation, String tableName, String[] columns) {
+		StringBuilder key = new StringBuilder(operation);
+		key.append(" ").append(tableName);
+		if (columns != null) {
+			key.append(" ");
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					key.append(",");
+				}
+				key.append(columns[i]);
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Bind the values into statement in the order of columns.
+	 *
+	 * @param statement
+	 *            The compiled statement.
+	 * @param columns
+	 *            The sorted column names.
+	 * @param values
+	 *            A map from column names to column values.
+	 */
+	private void bindValues(SQLiteStatement statement, String[] columns, ContentValues values) {
+		for (int i = 0; i < columns.length; i++) {
+			DataHandler.bindValue(statement, i + 1, values.get(columns[i]));
+		}
+	}
+
+}
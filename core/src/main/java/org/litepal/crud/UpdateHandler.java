@@ -18,9 +18,10 @@ package org.litepal.crud;
 
 import android.content.ContentValues;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.os.Build;
+import android.text.TextUtils;
 
-import org.litepal.Operator;
 import org.litepal.annotation.Encrypt;
 import org.litepal.crud.model.AssociationsInfo;
 import org.litepal.exceptions.LitePalSupportException;
@@ -82,10 +83,13 @@ public class UpdateHandler extends DataHandler {
 		ContentValues values = new ContentValues();
 		putFieldsValue(baseObj, supportedFields, values);
 		putFieldsToDefaultValue(baseObj, values, id);
+		int rowsAffected = 0;
 		if (values.size() > 0) {
-			return mDatabase.update(baseObj.getTableName(), values, "id = " + id, null);
+			rowsAffected = StatementCache.getInstance().update(mDatabase, baseObj.getTableName(), values, id);
 		}
-		return 0;
+		invalidateResultCache(baseObj.getClassName());
+		evictFromSession(baseObj.getClassName(), id);
+		return rowsAffected;
 	}
 
 	/**
@@ -105,7 +109,10 @@ public class UpdateHandler extends DataHandler {
     public int onUpdate(Class<?> modelClass, long id, ContentValues values) {
 		if (values.size() > 0) {
             convertContentValues(values);
-            return mDatabase.update(getTableName(modelClass), values, "id = " + id, null);
+            int rowsAffected = StatementCache.getInstance().update(mDatabase, getTableName(modelClass), values, id);
+            invalidateResultCacheByTable(getTableName(modelClass));
+            evictFromSession(modelClass.getName(), id);
+            return rowsAffected;
 		}
 		return 0;
 	}
@@ -128,7 +135,6 @@ public class UpdateHandler extends DataHandler {
 	 * @throws IllegalArgumentException
 	 * @throws SecurityException
 	 */
-    @SuppressWarnings("unchecked")
 	int onUpdateAll(LitePalSupport baseObj, String... conditions) throws SecurityException,
 			IllegalArgumentException, NoSuchMethodException, IllegalAccessException,
 			InvocationTargetException {
@@ -140,20 +146,19 @@ public class UpdateHandler extends DataHandler {
         List<Field> supportedGenericFields = getSupportedGenericFields(baseObj.getClassName());
         long[] ids = null;
         if (!supportedGenericFields.isEmpty()) {
-            List<LitePalSupport> list = (List<LitePalSupport>) Operator.select("id").where(conditions).find(baseObj.getClass());
-            if (list.size() > 0) {
-                ids = new long[list.size()];
-                for (int i = 0; i < ids.length; i++) {
-                    LitePalSupport dataSupport = list.get(i);
-                    ids[i] = dataSupport.getBaseObjId();
-                }
+            long[] matchedIds = pluckLongs(baseObj.getTableName(), "id", conditions, null, null);
+            if (matchedIds.length > 0) {
+                ids = matchedIds;
                 updateGenericTables(baseObj, supportedGenericFields, ids);
             }
         }
         ContentValues values = new ContentValues();
 		putFieldsValue(baseObj, supportedFields, values);
 		putFieldsToDefaultValue(baseObj, values, ids);
-		return doUpdateAllAction(baseObj.getTableName(), values, conditions);
+		int rowsAffected = doUpdateAllAction(baseObj.getTableName(), values, conditions);
+		invalidateResultCache(baseObj.getClassName());
+		evictTableFromSession(baseObj.getTableName());
+		return rowsAffected;
 	}
 
 	/**
@@ -178,9 +183,229 @@ public class UpdateHandler extends DataHandler {
             conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
         }
         convertContentValues(values);
-		return doUpdateAllAction(tableName, values, conditions);
+		int rowsAffected = doUpdateAllAction(tableName, values, conditions);
+		invalidateResultCacheByTable(tableName);
+		evictTableFromSession(tableName);
+		return rowsAffected;
 	}
 
+	/**
+	 * The open interface for other classes in CRUD package to update multiple
+	 * rows with a SQL expression, such as "count = count + ?". The new values
+	 * are computed by database within a single UPDATE statement, so there's no
+	 * need to query the rows first and concurrent updates won't get lost.
+	 * 
+	 * @param tableName
+	 *            Which table to update.
+	 * @param expression
+	 *            A string array representing the SET part of an SQL statement.
+	 *            First element is the expression, the rest are the arguments to
+	 *            fill into its place holders.
+	 * @param conditions
+	 *            A string array representing the WHERE part of an SQL
+	 *            statement.
+	 * @return The number of rows affected.
+	 */
+    public int onUpdateAllWithExpression(String tableName, String[] expression, String... conditions) {
+        if (expression == null || expression.length == 0 || TextUtils.isEmpty(expression[0])) {
+            throw new LitePalSupportException(LitePalSupportException.UPDATE_EXPRESSION_IS_EMPTY);
+        }
+        BaseUtility.checkConditionsCorrect(expression);
+        BaseUtility.checkConditionsCorrect(conditions);
+        if (conditions != null && conditions.length > 0) {
+            conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+        }
+        String setClause = DBUtility.convertWhereClauseToColumnName(expression[0]);
+        String sql = generateUpdateSQL(tableName, setClause, getWhereClause(conditions));
+        SQLiteStatement statement = mDatabase.compileStatement(sql);
+        try {
+            int index = 1;
+            for (int i = 1; i < expression.length; i++) {
+                bindValue(statement, index++, expression[i]);
+            }
+            String[] whereArgs = getWhereArgs(conditions);
+            if (whereArgs != null) {
+                for (String whereArg : whereArgs) {
+                    bindValue(statement, index++, whereArg);
+                }
+            }
+            int rowsAffected = statement.executeUpdateDelete();
+            invalidateResultCacheByTable(tableName);
+            evictTableFromSession(tableName);
+            return rowsAffected;
+        } finally {
+            statement.close();
+        }
+    }
+
+	/**
+	 * The open interface for other classes in CRUD package to increase the
+	 * value of a numeric column by delta for all rows matching the conditions.
+	 * A null value will be treated as 0.
+	 * 
+	 * @param tableName
+	 *            Which table to update.
+	 * @param column
+	 *            The numeric column to increase.
+	 * @param delta
+	 *            The amount to add. Pass a negative value to decrease.
+	 * @param conditions
+	 *            A string array representing the WHERE part of an SQL
+	 *            statement.
+	 * @return The number of rows affected.
+	 */
+    public int onIncrement(String tableName, String column, Number delta, String... conditions) {
+        if (delta == null) {
+            throw new LitePalSupportException(LitePalSupportException.INCREMENT_DELTA_IS_NULL);
+        }
+        BaseUtility.checkConditionsCorrect(conditions);
+        if (conditions != null && conditions.length > 0) {
+            conditions[0] = DBUtility.convertWhereClauseToColumnName(conditions[0]);
+        }
+        String sql = generateUpdateSQL(tableName, generateIncrementClause(column), getWhereClause(conditions));
+        SQLiteStatement statement = mDatabase.compileStatement(sql);
+        try {
+            bindValue(statement, 1, delta);
+            String[] whereArgs = getWhereArgs(conditions);
+            if (whereArgs != null) {
+                for (int i = 0; i < whereArgs.length; i++) {
+                    bindValue(statement, i + 2, whereArgs[i]);
+                }
+            }
+            int rowsAffected = statement.executeUpdateDelete();
+            invalidateResultCacheByTable(tableName);
+            evictTableFromSession(tableName);
+            return rowsAffected;
+        } finally {
+            statement.close();
+        }
+    }
+
+	/**
+	 * The open interface for other classes in CRUD package to increase the
+	 * value of a numeric column by different deltas for different rows. The
+	 * UPDATE statement is compiled only once and executed for each id. This
+	 * method should be called within a transaction.
+	 * 
+	 * @param tableName
+	 *            Which table to update.
+	 * @param column
+	 *            The numeric column to increase.
+	 * @param deltas
+	 *            A map from ids to the amount to add for each record.
+	 * @return The number of rows affected.
+	 */
+    public int onIncrement(String tableName, String column, Map<Long, ? extends Number> deltas) {
+        int rowsAffected = 0;
+        if (deltas == null || deltas.isEmpty()) {
+            return rowsAffected;
+        }
+        if (deltas.containsValue(null)) {
+            throw new LitePalSupportException(LitePalSupportException.INCREMENT_DELTA_IS_NULL);
+        }
+        String sql = generateUpdateSQL(tableName, generateIncrementClause(column), "id = ?");
+        SQLiteStatement statement = mDatabase.compileStatement(sql);
+        try {
+            for (Map.Entry<Long, ? extends Number> entry : deltas.entrySet()) {
+                statement.clearBindings();
+                bindValue(statement, 1, entry.getValue());
+                statement.bindLong(2, entry.getKey());
+                rowsAffected += statement.executeUpdateDelete();
+            }
+        } finally {
+            statement.close();
+        }
+        invalidateResultCacheByTable(tableName);
+        evictTableFromSession(tableName);
+        return rowsAffected;
+    }
+
+	/**
+	 * The open interface for other classes in CRUD package to update many rows
+	 * with different values for each row. The UPDATE statement is compiled only
+	 * once, then the values of each row are bound and executed. This method
+	 * should be called within a transaction.
+	 * 
+	 * @param tableName
+	 *            Which table to update.
+	 * @param columns
+	 *            The columns to update.
+	 * @param rows
+	 *            Each row starts with the id of the record to update, followed
+	 *            by the new values in the same order as columns.
+	 * @return The number of rows affected by each row, in the same order as
+	 *         rows.
+	 */
+    public int[] onUpdateBatch(String tableName, String[] columns, List<Object[]> rows) {
+        if (columns == null || columns.length == 0) {
+            throw new LitePalSupportException(LitePalSupportException.UPDATE_BATCH_COLUMNS_IS_EMPTY);
+        }
+        if (rows == null || rows.isEmpty()) {
+            return new int[0];
+        }
+        StringBuilder setClause = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                setClause.append(", ");
+            }
+            setClause.append(DBUtility.convertToValidColumnName(columns[i])).append(" = ?");
+        }
+        String sql = generateUpdateSQL(tableName, setClause.toString(), "id = ?");
+        int[] rowsAffected = new int[rows.size()];
+        SQLiteStatement statement = mDatabase.compileStatement(sql);
+        try {
+            for (int i = 0; i < rowsAffected.length; i++) {
+                Object[] row = rows.get(i);
+                if (row == null || row.length != columns.length + 1 || !(row[0] instanceof Number)) {
+                    throw new LitePalSupportException(LitePalSupportException.UPDATE_BATCH_ROW_IS_INVALID);
+                }
+                statement.clearBindings();
+                for (int j = 1; j < row.length; j++) {
+                    bindValue(statement, j, row[j]);
+                }
+                statement.bindLong(row.length, ((Number) row[0]).longValue());
+                rowsAffected[i] = statement.executeUpdateDelete();
+            }
+        } finally {
+            statement.close();
+        }
+        invalidateResultCacheByTable(tableName);
+        evictTableFromSession(tableName);
+        return rowsAffected;
+    }
+
+	/**
+	 * Generate an UPDATE SQL with the SET part and WHERE part.
+	 * 
+	 * @param tableName
+	 *            Which table to update.
+	 * @param setClause
+	 *            The SET part of the SQL.
+	 * @param whereClause
+	 *            The WHERE part of the SQL. Null means all rows.
+	 * @return The UPDATE SQL.
+	 */
+    private String generateUpdateSQL(String tableName, String setClause, String whereClause) {
+        StringBuilder sql = new StringBuilder("update ");
+        sql.append(tableName).append(" set ").append(setClause);
+        if (!TextUtils.isEmpty(whereClause)) {
+            sql.append(" where ").append(whereClause);
+        }
+        return sql.toString();
+    }
+
+	/**
+	 * Generate the SET part which increases the column by a bound delta.
+	 * 
+	 * @param column
+	 *            The numeric column to increase.
+	 * @return The SET part like "count = ifnull(count, 0) + ?".
+	 */
+    private String generateIncrementClause(String column) {
+        String columnName = DBUtility.convertToValidColumnName(column);
+        return columnName + " = ifnull(" + columnName + ", 0) + ?";
+    }
+
 	/**
 	 * Do the action for updating multiple rows. It will check the validity of
 	 * conditions, then update rows in database. If the format of conditions is
@@ -231,16 +456,7 @@ public class UpdateHandler extends DataHandler {
                             if (BaseUtility.isGenericTypeSupported(genericTypeName)) {
                                 String tableName = DBUtility.getGenericTableName(baseObj.getClassName(), field.getName());
                                 String genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(baseObj.getClassName());
-                                StringBuilder whereClause = new StringBuilder();
-                                boolean needOr = false;
-                                for (long id : ids) {
-                                    if (needOr) {
-                                        whereClause.append(" or ");
-                                    }
-                                    whereClause.append(genericValueIdColumnName).append(" = ").append(id);
-                                    needOr = true;
-                                }
-                                mDatabase.delete(tableName, whereClause.toString(), null);
+                                deleteByIds(tableName, genericValueIdColumnName, ids);
                             }
                         }
                     } else {
@@ -309,7 +525,7 @@ public class UpdateHandler extends DataHandler {
 			values.put(fkName, id);
 			Set<Long> ids = associatedModelMap.get(associatedTable);
 			if (ids != null && !ids.isEmpty()) {
-				return mDatabase.update(associatedTable, values, getWhereOfIdsWithOr(ids), null);
+				return updateByIds(associatedTable, values, "id", ids);
 			}
 		}
 		return 0;
@@ -344,8 +560,8 @@ public class UpdateHandler extends DataHandler {
                 if (collection != null && !collection.isEmpty()) {
                     String tableName = DBUtility.getGenericTableName(baseObj.getClassName(), field.getName());
                     String genericValueIdColumnName = DBUtility.getGenericValueIdColumnName(baseObj.getClassName());
+                    deleteByIds(tableName, genericValueIdColumnName, ids);
                     for (long id : ids) {
-                        mDatabase.delete(tableName, genericValueIdColumnName + " = ?", new String[] {String.valueOf(id)});
                         for (Object object : collection) {
                             ContentValues values = new ContentValues();
                             values.put(genericValueIdColumnName, id);
@@ -56,6 +56,16 @@ public class DatabaseGenerateException extends RuntimeException {
      */
     public static final String EXTERNAL_STORAGE_PERMISSION_DENIED = "You don't have permission to access database at %1$s. Make sure you handled WRITE_EXTERNAL_STORAGE runtime permission correctly.";
 
+    /**
+     * The existing rows would get duplicate values of a new unique column.
+     */
+    public static final String UNIQUE_COLUMN_HAS_DUPLICATES = "Can not upgrade table %1$s, as %3$d rows would get duplicate values of the unique column %2$s. Give the column a backfill expression by @Column(backfill = ...) which is distinct for each row, or remove the duplicate values first.";
+
+    /**
+     * The same index is declared more than once on a class.
+     */
+    public static final String DUPLICATE_INDEX = "The index on columns %2$s is declared more than once on %1$s. Remove the duplicate @Index.";
+
 	/**
 	 * Constructor of DatabaseGenerateException.
 	 * 
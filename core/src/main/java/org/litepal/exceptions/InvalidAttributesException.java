@@ -47,6 +47,21 @@ public class InvalidAttributesException extends RuntimeException {
 	 */
 	public static final String CASES_VALUE_IS_INVALID = " is an invalid value for <cases></cases>";
 
+	/**
+	 * There's an invalid value in foreignkeys mark. Only none, cascade, setnull allowed.
+	 */
+	public static final String FOREIGN_KEYS_VALUE_IS_INVALID = " is an invalid value for <foreignkeys></foreignkeys>";
+
+	/**
+	 * There's an invalid value in migration mark. Only foreground, background allowed.
+	 */
+	public static final String MIGRATION_VALUE_IS_INVALID = " is an invalid value for <migration></migration>";
+
+	/**
+	 * There's an invalid value in associationindexes mark. Only auto, none allowed.
+	 */
+	public static final String ASSOCIATION_INDEXES_VALUE_IS_INVALID = " is an invalid value for <associationindexes></associationindexes>";
+
 	/**
 	 * Constructor of InvalidAttributesException.
 	 * 
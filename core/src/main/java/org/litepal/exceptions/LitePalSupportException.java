@@ -58,6 +58,67 @@ public class LitePalSupportException extends DataSupportException {
 	 */
 	public static final String UPDATE_CONDITIONS_EXCEPTION = "The parameters in conditions are incorrect.";
 
+	/**
+	 * Thrown when the expression to update is empty.
+	 */
+	public static final String UPDATE_EXPRESSION_IS_EMPTY = "The expression to update can not be empty.";
+
+	/**
+	 * Thrown when the amount to increase is null.
+	 */
+	public static final String INCREMENT_DELTA_IS_NULL = "The amount to increase can not be null.";
+
+	/**
+	 * Thrown when there is no column to update in batch.
+	 */
+	public static final String UPDATE_BATCH_COLUMNS_IS_EMPTY = "The columns to update in batch can not be empty.";
+
+	/**
+	 * Thrown when a row to update in batch doesn't start with id or doesn't
+	 * match the columns.
+	 */
+	public static final String UPDATE_BATCH_ROW_IS_INVALID = "Each row to update in batch should be an id followed by the values of columns.";
+
+	/**
+	 * Thrown when the selected columns can not be mapped into a plain class.
+	 */
+	public static final String FIND_AS_NO_SUITABLE_CONSTRUCTOR = " needs a constructor with one parameter for each selected column, or a default constructor.";
+
+	/**
+	 * Thrown when more than one constructor can take the selected columns.
+	 */
+	public static final String FIND_AS_AMBIGUOUS_CONSTRUCTOR = " has more than one constructor matching the types of selected columns.";
+
+	/**
+	 * Thrown when reading a column which is not in the aggregate result.
+	 */
+	public static final String AGGREGATE_NO_SUCH_COLUMN = " is neither a group by column nor an aggregate alias.";
+
+	/**
+	 * Thrown when aggregating without any aggregate function.
+	 */
+	public static final String AGGREGATE_WITHOUT_FUNCTION = "At least one aggregate function should be given.";
+
+	/**
+	 * Thrown when finding models with group by or having clause.
+	 */
+	public static final String GROUP_BY_WITHOUT_AGGREGATE = "groupBy and having only work with aggregate.";
+
+	/**
+	 * Thrown when joining a class which the model doesn't hold foreign key of.
+	 */
+	public static final String JOIN_WITHOUT_ASSOCIATION = " has no many-to-one or one-to-one association to join with ";
+
+	/**
+	 * Thrown when joining a model with itself.
+	 */
+	public static final String JOIN_WITH_ITSELF = "Joining a model with itself is not supported.";
+
+	/**
+	 * Thrown when an include path names a field which is not an association.
+	 */
+	public static final String INCLUDE_NO_SUCH_ASSOCIATION = " has no association field named ";
+
 	/**
 	 * Constructor of LitePalSupportException.
 	 * 
@@ -584,6 +584,81 @@ inline fun <reified T> LitePal.updateAll(values: ContentValues, vararg condition
 @Deprecated("This method is deprecated and will be removed in the future releases.", ReplaceWith("Handle async db operation in your own logic instead."))
 inline fun <reified T> LitePal.updateAllAsync(values: ContentValues, vararg conditions: String?) = updateAllAsync(T::class.java, values, *conditions)
 
+/**
+ * Updates all records which match the conditions with a SQL expression. The
+ * new values are computed by database within a single UPDATE statement, so
+ * no model needs to be loaded and concurrent updates won't get lost.
+ *
+ * ```
+ * LitePal.updateAllWithExpression<Song>(arrayOf("playcount = playcount + ?", "1"), "album = ?", "Yellow")
+ * ```
+ *
+ * @param expression
+ * A string array representing the SET part of an SQL statement.
+ * First element is the expression, the rest are the arguments to
+ * fill into its place holders.
+ * @param conditions
+ * A string array representing the WHERE part of an SQL
+ * statement. First parameter is the WHERE clause to apply when
+ * updating. Passing empty string will update all rows.
+ * @return The number of rows affected.
+ */
+inline fun <reified T> LitePal.updateAllWithExpression(expression: Array<String?>, vararg conditions: String?) = updateAllWithExpression(T::class.java, expression, *conditions)
+
+/**
+ * Increases the value of a numeric column for all records which match the
+ * conditions, without loading any model. Null values are treated as 0.
+ *
+ * ```
+ * LitePal.increment<Song>("playcount", 1, "id = ?", "1")
+ * ```
+ *
+ * @param column
+ * The numeric column to increase.
+ * @param delta
+ * The amount to add. Pass a negative value to decrease.
+ * @param conditions
+ * A string array representing the WHERE part of an SQL
+ * statement. First parameter is the WHERE clause to apply when
+ * updating. Passing empty string will update all rows.
+ * @return The number of rows affected.
+ */
+inline fun <reified T> LitePal.increment(column: String, delta: Number, vararg conditions: String?) = increment(T::class.java, column, delta, *conditions)
+
+/**
+ * Increases the value of a numeric column by different amounts for many
+ * records at once, within one transaction.
+ *
+ * ```
+ * LitePal.increment<Song>("playcount", mapOf(1L to 3, 2L to 5))
+ * ```
+ *
+ * @param column
+ * The numeric column to increase.
+ * @param deltas
+ * A map from ids to the amount to add for each record.
+ * @return The number of rows affected.
+ */
+inline fun <reified T> LitePal.increment(column: String, deltas: Map<Long, Number>) = increment(T::class.java, column, deltas)
+
+/**
+ * Updates many records with different values for each of them. The UPDATE
+ * statement is compiled only once and all the rows are updated within one
+ * transaction.
+ *
+ * ```
+ * LitePal.updateBatch<Song>(arrayOf("name", "duration"), listOf(arrayOf(1L, "Hey Jude", 431)))
+ * ```
+ *
+ * @param columns
+ * The columns to update.
+ * @param rows
+ * Each row starts with the id of the record to update, followed by the new
+ * values in the same order as columns.
+ * @return The number of rows affected by each row, in the same order as rows.
+ */
+inline fun <reified T> LitePal.updateBatch(columns: Array<String>, rows: List<Array<Any?>>) = updateBatch(T::class.java, columns, rows)
+
 /**
  * Check if the specified conditions data already exists in the table.
  * @param conditions
@@ -637,4 +712,25 @@ fun <T : LitePalSupport> Collection<T>.saveAll() = LitePal.saveAll(this)
     }
     endTransaction()
     return succeeded
+}
+
+/**
+ * Open a session scope, all codes in the lambda will under the same session.
+ * The same record is always loaded into the same model instance within the
+ * lambda, and models already loaded are returned without querying again.
+ * ```
+ * LitePal.session {
+ *     val song = LitePal.find<Song>(1, true)
+ *     val album = LitePal.find<Album>(song!!.album.id)
+ *     // song.album === album
+ * }
+ * ```
+ */
+inline fun <R> LitePal.session(block: () -> R): R {
+    beginSession()
+    try {
+        return block()
+    } finally {
+        endSession()
+    }
 }
\ No newline at end of file
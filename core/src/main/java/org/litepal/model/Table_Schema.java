@@ -35,10 +35,23 @@ public class Table_Schema {
 	private String name;
 
 	/**
-	 * Type of the table. 0 normal table, 1 intermediate join table.
+	 * Type of the table. 0 normal table, 1 intermediate join table, 2 generic
+	 * table, 3 temporary table being migrated.
 	 */
 	private int type;
 
+	/**
+	 * Fingerprint of the model class at last upgrade. Only normal tables have
+	 * fingerprints.
+	 */
+	private String fingerprint;
+
+	/**
+	 * The last id copied into the rebuilt table. Only temporary tables being
+	 * migrated have checkpoints.
+	 */
+	private long checkpoint;
+
 	/**
 	 * Get the table name.
 	 * 
@@ -77,4 +90,42 @@ public class Table_Schema {
 		this.type = type;
 	}
 
+	/**
+	 * Get the fingerprint of the model class.
+	 * 
+	 * @return The fingerprint.
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Set the fingerprint of the model class.
+	 * 
+	 * @param fingerprint
+	 *            The fingerprint to set.
+	 */
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Get the checkpoint of migration.
+	 * 
+	 * @return The last id copied.
+	 */
+	public long getCheckpoint() {
+		return checkpoint;
+	}
+
+	/**
+	 * Set the checkpoint of migration.
+	 * 
+	 * @param checkpoint
+	 *            The last id copied.
+	 */
+	public void setCheckpoint(long checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
 }
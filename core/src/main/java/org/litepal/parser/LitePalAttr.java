@@ -37,9 +37,16 @@ import android.text.TextUtils;
 public final class LitePalAttr {
 
 	/**
-	 * Static litePalAttr object.
+	 * Static litePalAttr object. It's published only after the configuration
+	 * is loaded, so other threads never see a half loaded one.
 	 */
-	private static LitePalAttr litePalAttr;
+	private static volatile LitePalAttr litePalAttr;
+
+	/**
+	 * The litePalAttr object used by the current thread instead of the static
+	 * one, such as planning the upgrade of another database.
+	 */
+	private static final ThreadLocal<LitePalAttr> threadLitePalAttr = new ThreadLocal<>();
 
 	/**
 	 * The version of database.
@@ -61,6 +68,21 @@ public final class LitePalAttr {
      */
     private String storage;
 
+    /**
+     * Define the foreign key constraints of associations. Option values: none, cascade, setnull.
+     */
+    private String foreignKeys;
+
+    /**
+     * Define where to migrate data of rebuilt tables. Option values: foreground, background.
+     */
+    private String migration;
+
+    /**
+     * Define whether to create indexes for associations. Option values: auto, none.
+     */
+    private String associationIndexes;
+
 	/**
 	 * All the model classes that want to map in the database. Each class should
 	 * be given the full name including package name.
@@ -83,18 +105,25 @@ public final class LitePalAttr {
 	 * @return the singleton instance of LitePalAttr
 	 */
 	public static LitePalAttr getInstance() {
-		if (litePalAttr == null) {
+		LitePalAttr instance = threadLitePalAttr.get();
+		if (instance != null) {
+			return instance;
+		}
+		instance = litePalAttr;
+		if (instance == null) {
 			synchronized (LitePalAttr.class) {
-				if (litePalAttr == null) {
-					litePalAttr = new LitePalAttr();
-                    loadLitePalXMLConfiguration();
+				instance = litePalAttr;
+				if (instance == null) {
+					instance = new LitePalAttr();
+                    loadLitePalXMLConfiguration(instance);
+					litePalAttr = instance;
 				}
 			}
 		}
-		return litePalAttr;
+		return instance;
 	}
 
-	private static void loadLitePalXMLConfiguration() {
+	private static void loadLitePalXMLConfiguration(LitePalAttr litePalAttr) {
         if (BaseUtility.isLitePalXMLExists()) {
             LitePalConfig config = LitePalParser.parseLitePalConfiguration();
             litePalAttr.setDbName(config.getDbName());
@@ -102,6 +131,9 @@ public final class LitePalAttr {
             litePalAttr.setClassNames(config.getClassNames());
             litePalAttr.setCases(config.getCases());
             litePalAttr.setStorage(config.getStorage());
+            litePalAttr.setForeignKeys(config.getForeignKeys());
+            litePalAttr.setMigration(config.getMigration());
+            litePalAttr.setAssociationIndexes(config.getAssociationIndexes());
         }
     }
 
@@ -112,6 +144,43 @@ public final class LitePalAttr {
 		litePalAttr = null;
 	}
 
+	/**
+	 * Never call this method. This is only used by internal. Let the current
+	 * thread use the specified configuration instead of the static one, so
+	 * the other threads are not affected.
+	 *
+	 * @param instance
+	 *            The configuration for the current thread, or null to use the
+	 *            static one again.
+	 */
+	public static void setThreadInstance(LitePalAttr instance) {
+		if (instance == null) {
+			threadLitePalAttr.remove();
+		} else {
+			threadLitePalAttr.set(instance);
+		}
+	}
+
+	/**
+	 * Copy the configuration, so the copy can be changed without affecting
+	 * this one.
+	 *
+	 * @return A new LitePalAttr with the same attributes.
+	 */
+	public LitePalAttr copy() {
+		LitePalAttr copy = new LitePalAttr();
+		copy.version = version;
+		copy.dbName = dbName;
+		copy.cases = cases;
+		copy.storage = storage;
+		copy.foreignKeys = foreignKeys;
+		copy.migration = migration;
+		copy.associationIndexes = associationIndexes;
+		copy.classNames = new ArrayList<>(getClassNames());
+		copy.extraKeyName = extraKeyName;
+		return copy;
+	}
+
 	public int getVersion() {
 		return version;
 	}
@@ -136,6 +205,60 @@ public final class LitePalAttr {
         this.storage = storage;
     }
 
+    public String getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public void setForeignKeys(String foreignKeys) {
+        this.foreignKeys = foreignKeys;
+    }
+
+    /**
+     * Check if the foreign key constraints of associations are generated into database and
+     * enforced by SQLite.
+     *
+     * @return True if foreignkeys is configured as cascade or setnull, false otherwise.
+     */
+    public boolean isForeignKeysEnabled() {
+        return Const.Config.FOREIGN_KEYS_CASCADE.equals(foreignKeys)
+                || Const.Config.FOREIGN_KEYS_SET_NULL.equals(foreignKeys);
+    }
+
+    public String getMigration() {
+        return migration;
+    }
+
+    public void setMigration(String migration) {
+        this.migration = migration;
+    }
+
+    /**
+     * Check if the data of rebuilt tables are migrated in a background thread.
+     *
+     * @return True if migration is configured as background, false otherwise.
+     */
+    public boolean isBackgroundMigration() {
+        return Const.Config.MIGRATION_BACKGROUND.equals(migration);
+    }
+
+    public String getAssociationIndexes() {
+        return associationIndexes;
+    }
+
+    public void setAssociationIndexes(String associationIndexes) {
+        this.associationIndexes = associationIndexes;
+    }
+
+    /**
+     * Check if indexes are created on foreign key columns, intermediate join tables and generic
+     * tables.
+     *
+     * @return True unless associationindexes is configured as none.
+     */
+    public boolean isAssociationIndexesEnabled() {
+        return !Const.Config.ASSOCIATION_INDEXES_NONE.equals(associationIndexes);
+    }
+
     public String getExtraKeyName() {
         return extraKeyName;
     }
@@ -192,7 +315,7 @@ public final class LitePalAttr {
 	 */
 	public void checkSelfValid() {
 		if (TextUtils.isEmpty(dbName)) {
-            loadLitePalXMLConfiguration();
+            loadLitePalXMLConfiguration(this);
             if (TextUtils.isEmpty(dbName)) {
                 throw new InvalidAttributesException(
                         InvalidAttributesException.DBNAME_IS_EMPTY_OR_NOT_DEFINED);
@@ -219,6 +342,34 @@ public final class LitePalAttr {
 						+ InvalidAttributesException.CASES_VALUE_IS_INVALID);
 			}
 		}
+		if (TextUtils.isEmpty(foreignKeys)) {
+			foreignKeys = Const.Config.FOREIGN_KEYS_NONE;
+		} else {
+			if (!foreignKeys.equals(Const.Config.FOREIGN_KEYS_NONE)
+					&& !foreignKeys.equals(Const.Config.FOREIGN_KEYS_CASCADE)
+					&& !foreignKeys.equals(Const.Config.FOREIGN_KEYS_SET_NULL)) {
+				throw new InvalidAttributesException(foreignKeys
+						+ InvalidAttributesException.FOREIGN_KEYS_VALUE_IS_INVALID);
+			}
+		}
+		if (TextUtils.isEmpty(migration)) {
+			migration = Const.Config.MIGRATION_FOREGROUND;
+		} else {
+			if (!migration.equals(Const.Config.MIGRATION_FOREGROUND)
+					&& !migration.equals(Const.Config.MIGRATION_BACKGROUND)) {
+				throw new InvalidAttributesException(migration
+						+ InvalidAttributesException.MIGRATION_VALUE_IS_INVALID);
+			}
+		}
+		if (TextUtils.isEmpty(associationIndexes)) {
+			associationIndexes = Const.Config.ASSOCIATION_INDEXES_AUTO;
+		} else {
+			if (!associationIndexes.equals(Const.Config.ASSOCIATION_INDEXES_AUTO)
+					&& !associationIndexes.equals(Const.Config.ASSOCIATION_INDEXES_NONE)) {
+				throw new InvalidAttributesException(associationIndexes
+						+ InvalidAttributesException.ASSOCIATION_INDEXES_VALUE_IS_INVALID);
+			}
+		}
 	}
 
 }
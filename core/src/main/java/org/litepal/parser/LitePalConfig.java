@@ -46,6 +46,21 @@ public class LitePalConfig {
      */
     private String storage;
 
+    /**
+     * Define the foreign key constraints of associations. Option values: none cascade setnull.
+     */
+    private String foreignKeys;
+
+    /**
+     * Define where to migrate data of rebuilt tables. Option values: foreground background.
+     */
+    private String migration;
+
+    /**
+     * Define whether to create indexes for associations. Option values: auto none.
+     */
+    private String associationIndexes;
+
     /**
      * All the model classes that want to map in the database. Each class should
      * be given the full name including package name.
@@ -76,6 +91,30 @@ public class LitePalConfig {
         this.storage = storage;
     }
 
+    public String getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public void setForeignKeys(String foreignKeys) {
+        this.foreignKeys = foreignKeys;
+    }
+
+    public String getMigration() {
+        return migration;
+    }
+
+    public void setMigration(String migration) {
+        this.migration = migration;
+    }
+
+    public String getAssociationIndexes() {
+        return associationIndexes;
+    }
+
+    public void setAssociationIndexes(String associationIndexes) {
+        this.associationIndexes = associationIndexes;
+    }
+
     /**
      * Get the class name list. Always add table_schema as a value.
      *
@@ -103,6 +103,24 @@ public class LitePalContentHandler extends DefaultHandler {
                     litePalAttr.setStorage(attributes.getValue(i).trim());
                 }
             }
+        } else if (LitePalParser.NODE_FOREIGN_KEYS.equalsIgnoreCase(localName)) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if (LitePalParser.ATTR_VALUE.equalsIgnoreCase(attributes.getLocalName(i))) {
+                    litePalAttr.setForeignKeys(attributes.getValue(i).trim());
+                }
+            }
+        } else if (LitePalParser.NODE_MIGRATION.equalsIgnoreCase(localName)) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if (LitePalParser.ATTR_VALUE.equalsIgnoreCase(attributes.getLocalName(i))) {
+                    litePalAttr.setMigration(attributes.getValue(i).trim());
+                }
+            }
+        } else if (LitePalParser.NODE_ASSOCIATION_INDEXES.equalsIgnoreCase(localName)) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if (LitePalParser.ATTR_VALUE.equalsIgnoreCase(attributes.getLocalName(i))) {
+                    litePalAttr.setAssociationIndexes(attributes.getValue(i).trim());
+                }
+            }
         }
 	}
 
@@ -18,6 +18,7 @@ package org.litepal.parser;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
@@ -75,6 +76,21 @@ public class LitePalParser {
      */
     static final String NODE_STORAGE = "storage";
 
+    /**
+     * Node name foreignkeys.
+     */
+    static final String NODE_FOREIGN_KEYS = "foreignkeys";
+
+    /**
+     * Node name migration.
+     */
+    static final String NODE_MIGRATION = "migration";
+
+    /**
+     * Node name associationindexes.
+     */
+    static final String NODE_ASSOCIATION_INDEXES = "associationindexes";
+
 	/**
 	 * Attribute name value, for dbname and version node.
 	 */
@@ -91,17 +107,95 @@ public class LitePalParser {
 	private static LitePalParser parser;
 
 	/**
-	 * Analyze litepal.xml, and store the analyzed result in LitePalParser. Use
-	 * DomParse to parse the configuration file as default. SAXParser and
-	 * XmlPullParser is also optional, but not visible to developers.
+	 * The method of the class generated from litepal.xml at build time, or
+	 * null if there's no such class.
+	 */
+	private static Method generatedConfigMethod;
+
+	/**
+	 * Indicates the generated class is looked up or not.
+	 */
+	private static boolean isGeneratedConfigChecked;
+
+	/**
+	 * Analyze litepal.xml, and store the analyzed result in LitePalParser. If
+	 * litepal.xml is compiled into a class at build time, the configuration
+	 * is created by the class without reading any file. Otherwise use
+	 * XmlPullParser to parse the configuration file. SAXParser is also
+	 * optional, but not visible to developers.
 	 */
 	public static LitePalConfig parseLitePalConfiguration() {
+		LitePalConfig config = createGeneratedConfiguration();
+		if (config != null) {
+			return config;
+		}
+		return parseLitePalXML();
+	}
+
+	/**
+	 * Parse litepal.xml by XmlPullParser, no matter it's compiled into a class
+	 * or not. The class generated at build time follows the same rules, nodes
+	 * are found at any depth, the last one wins, and values are taken as they
+	 * are.
+	 *
+	 * @return The configuration in litepal.xml.
+	 */
+	static LitePalConfig parseLitePalXML() {
 		if (parser == null) {
 			parser = new LitePalParser();
 		}
 		return parser.usePullParse();
 	}
 
+	/**
+	 * Check if litepal.xml is compiled into a class at build time.
+	 *
+	 * @return True if the generated class exists, false otherwise.
+	 */
+	public static boolean isGeneratedConfigurationExists() {
+		return findGeneratedConfigMethod() != null;
+	}
+
+	/**
+	 * Create the configuration by the class generated from litepal.xml at
+	 * build time. A new instance is created each time, as callers may modify
+	 * it.
+	 *
+	 * @return The configuration, or null if the generated class doesn't exist.
+	 */
+	private static LitePalConfig createGeneratedConfiguration() {
+		Method method = findGeneratedConfigMethod();
+		if (method == null) {
+			return null;
+		}
+		try {
+			return (LitePalConfig) method.invoke(null);
+		} catch (Exception e) {
+			throw new ParseConfigurationFileException(ParseConfigurationFileException.PARSE_CONFIG_FAILED);
+		}
+	}
+
+	/**
+	 * Look up the method which creates the configuration in the generated
+	 * class. The result is kept, so the class is looked up only once.
+	 *
+	 * @return The method, or null if the generated class doesn't exist.
+	 */
+	private static synchronized Method findGeneratedConfigMethod() {
+		if (!isGeneratedConfigChecked) {
+			try {
+				Class<?> clazz = Class.forName(Const.Config.GENERATED_CONFIGURATION_CLASS);
+				generatedConfigMethod = clazz.getMethod(Const.Config.GENERATED_CONFIGURATION_METHOD);
+			} catch (ClassNotFoundException e) {
+				generatedConfigMethod = null;
+			} catch (NoSuchMethodException e) {
+				generatedConfigMethod = null;
+			}
+			isGeneratedConfigChecked = true;
+		}
+		return generatedConfigMethod;
+	}
+
 	/**
 	 * Use SAXParser to parse the litepal.xml file. It will get the parsed
 	 * result from LitePalContentHandler and stored in the instance of
@@ -167,6 +261,15 @@ public class LitePalParser {
 					} else if (NODE_STORAGE.equals(nodeName)) {
                         String storage = xmlPullParser.getAttributeValue("", ATTR_VALUE);
                         litePalConfig.setStorage(storage);
+                    } else if (NODE_FOREIGN_KEYS.equals(nodeName)) {
+                        String foreignKeys = xmlPullParser.getAttributeValue("", ATTR_VALUE);
+                        litePalConfig.setForeignKeys(foreignKeys);
+                    } else if (NODE_MIGRATION.equals(nodeName)) {
+                        String migration = xmlPullParser.getAttributeValue("", ATTR_VALUE);
+                        litePalConfig.setMigration(migration);
+                    } else if (NODE_ASSOCIATION_INDEXES.equals(nodeName)) {
+                        String associationIndexes = xmlPullParser.getAttributeValue("", ATTR_VALUE);
+                        litePalConfig.setAssociationIndexes(associationIndexes);
                     }
                     break;
 				}
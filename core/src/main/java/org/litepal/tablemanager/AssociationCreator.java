@@ -22,18 +22,26 @@ import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
 
 import org.litepal.exceptions.DatabaseGenerateException;
+import org.litepal.parser.LitePalAttr;
 import org.litepal.tablemanager.model.AssociationsModel;
 import org.litepal.tablemanager.model.ColumnModel;
 import org.litepal.tablemanager.model.GenericModel;
+import org.litepal.tablemanager.model.IndexModel;
+import org.litepal.tablemanager.model.TableModel;
 import org.litepal.util.BaseUtility;
 import org.litepal.util.Const;
 import org.litepal.util.DBUtility;
 import org.litepal.util.LitePalLog;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * When models have associations such as one2one, many2one or many2many, tables
@@ -106,6 +114,7 @@ public abstract class AssociationCreator extends Generator {
             if (!TextUtils.isEmpty(defaultValue)) {
                 createTableSQL.append(" default ").append(defaultValue);
             }
+            createTableSQL.append(generateForeignKeyConstraint(columnModel));
         }
 		createTableSQL.append(")");
 		LitePalLog.d(TAG, "create table sql is >> " + createTableSQL);
@@ -142,6 +151,150 @@ public abstract class AssociationCreator extends Generator {
 		return "drop table if exists " + tableName;
 	}
 
+	/**
+	 * Generate a SQL for renaming the table into a temporary table.
+	 * 
+	 * @param tableName
+	 *            The table name use to alter to temporary table.
+	 * @return SQL to rename table.
+	 */
+	protected String generateAlterToTempTableSQL(String tableName) {
+		StringBuilder sql = new StringBuilder();
+		sql.append("alter table ").append(tableName).append(" rename to ")
+				.append(getTempTableName(tableName));
+		return sql.toString();
+	}
+
+	/**
+	 * Generate a SQL to do the data migration job to avoid losing data.
+	 *
+	 * @param tableModel
+	 *            Which contains table name use to migrate data.
+	 * @return SQL to migrate data.
+	 */
+	protected String generateDataMigrationSQL(TableModel tableModel) {
+        String tableName = tableModel.getTableName();
+		Collection<ColumnModel> columnModels = tableModel.getColumnModels();
+		if (!columnModels.isEmpty()) {
+			StringBuilder sql = new StringBuilder();
+			sql.append("insert into ").append(tableName).append("(");
+			boolean needComma = false;
+			for (ColumnModel columnModel : columnModels) {
+				if (needComma) {
+					sql.append(", ");
+				}
+				needComma = true;
+				sql.append(columnModel.getColumnName());
+			}
+			sql.append(") ");
+			sql.append("select ");
+			needComma = false;
+			for (ColumnModel columnModel : columnModels) {
+				if (needComma) {
+					sql.append(", ");
+				}
+				needComma = true;
+				sql.append(columnModel.getColumnName());
+			}
+			sql.append(" from ").append(getTempTableName(tableName));
+			return sql.toString();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Generate a SQL to drop the temporary table.
+	 * 
+	 * @param tableName
+	 *            The table name use to drop temporary table.
+	 * @return SQL to drop the temporary table.
+	 */
+	protected String generateDropTempTableSQL(String tableName) {
+		return generateDropTableSQL(getTempTableName(tableName));
+	}
+
+	/**
+	 * Removing or resizing columns from tables must need a temporary table to
+	 * store data, and here's the table name.
+	 * 
+	 * @param tableName
+	 *            The table name use to generate temporary table name.
+	 * @return Temporary table name
+	 */
+	protected String getTempTableName(String tableName) {
+		return tableName + Const.TableSchema.TEMP_TABLE_SUFFIX;
+	}
+
+
+	/**
+	 * Generate the foreign key constraint part of a column definition, such as
+	 * " references classroom(id) on delete cascade".
+	 *
+	 * @param columnModel
+	 *            Column model with column info.
+	 * @return The foreign key constraint of the column, or an empty string if
+	 *         the column doesn't reference to any table.
+	 */
+	protected String generateForeignKeyConstraint(ColumnModel columnModel) {
+		StringBuilder constraint = new StringBuilder();
+		if (columnModel.hasForeignKeyReference()) {
+			constraint.append(" references ").append(columnModel.getReferencedTable()).append("(id)");
+			if (!TextUtils.isEmpty(columnModel.getOnDeleteAction())) {
+				constraint.append(" on delete ").append(columnModel.getOnDeleteAction());
+			}
+		}
+		return constraint.toString();
+	}
+
+	/**
+	 * Give the column a foreign key constraint which references to the
+	 * passed in table, only if foreign keys is enabled in litepal.xml or
+	 * LitePalDB. Foreign key columns follow the configured on delete action,
+	 * while columns of intermediate join tables and generic tables are always
+	 * deleted with the referenced row.
+	 *
+	 * @param columnModel
+	 *            Column model to give constraint.
+	 * @param referencedTable
+	 *            The table to reference.
+	 * @param alwaysCascade
+	 *            True if the rows should be deleted with the referenced row no
+	 *            matter which on delete action is configured.
+	 */
+	protected void giveForeignKeyReference(ColumnModel columnModel, String referencedTable, boolean alwaysCascade) {
+		LitePalAttr litePalAttr = LitePalAttr.getInstance();
+		if (litePalAttr.isForeignKeysEnabled()) {
+			if (alwaysCascade || Const.Config.FOREIGN_KEYS_CASCADE.equals(litePalAttr.getForeignKeys())) {
+				columnModel.setForeignKeyReference(referencedTable, "cascade");
+			} else {
+				columnModel.setForeignKeyReference(referencedTable, "set null");
+			}
+		}
+	}
+
+	/**
+	 * Judge the foreign key constraint of a column in database is the same as
+	 * the expected one or not.
+	 *
+	 * @param columnModelDB
+	 *            Column model from database.
+	 * @param columnModel
+	 *            Column model with the expected constraint.
+	 * @return True if both reference to the same table with the same on
+	 *         delete action, or both have no reference. False otherwise.
+	 */
+	protected boolean isSameForeignKeyReference(ColumnModel columnModelDB, ColumnModel columnModel) {
+		if (columnModelDB.hasForeignKeyReference() != columnModel.hasForeignKeyReference()) {
+			return false;
+		}
+		if (!columnModel.hasForeignKeyReference()) {
+			return true;
+		}
+		return columnModelDB.getReferencedTable().equalsIgnoreCase(columnModel.getReferencedTable())
+				&& columnModel.getOnDeleteAction().equalsIgnoreCase(columnModelDB.getOnDeleteAction());
+	}
+
 	/**
 	 * Generate a SQL for add new column into the existing table.
 	 * @param tableName
@@ -164,18 +317,10 @@ public abstract class AssociationCreator extends Generator {
         String defaultValue = columnModel.getDefaultValue();
         if (!TextUtils.isEmpty(defaultValue)) {
             addColumnSQL.append(" default ").append(defaultValue);
-        } else {
-            if (!columnModel.isNullable()) {
-                if ("integer".equalsIgnoreCase(columnModel.getColumnType())) {
-                    defaultValue = "0";
-                } else if ("text".equalsIgnoreCase(columnModel.getColumnType())) {
-                    defaultValue = "''";
-                } else if ("real".equalsIgnoreCase(columnModel.getColumnType())) {
-                    defaultValue = "0.0";
-                }
-                addColumnSQL.append(" default ").append(defaultValue);
-            }
+        } else if (!columnModel.isNullable()) {
+            addColumnSQL.append(" default ").append(DBUtility.getBackfillValue(columnModel));
         }
+        addColumnSQL.append(generateForeignKeyConstraint(columnModel));
 		LitePalLog.d(TAG, "add column sql is >> " + addColumnSQL);
 		return addColumnSQL.toString();
 	}
@@ -204,6 +349,61 @@ public abstract class AssociationCreator extends Generator {
 		return createIndexSQL.toString();
 	}
 
+	/**
+	 * Generate a SQL for the index of association columns, such as foreign key
+	 * columns, the columns of intermediate join tables and the value id column
+	 * of generic tables. The index is created if it doesn't exist, or dropped
+	 * if associationindexes is configured as none.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @param columnNames
+	 *            The columns to index in order.
+	 * @return A generated create or drop index SQL.
+	 */
+	protected String generateAssociationIndexSQL(String tableName, String... columnNames) {
+		String indexName = DBUtility.getIndexName(tableName, TextUtils.join("_", columnNames));
+		String sql;
+		if (LitePalAttr.getInstance().isAssociationIndexesEnabled()) {
+			sql = "create index if not exists " + indexName + " on " + tableName + " ("
+					+ TextUtils.join(", ", columnNames) + ")";
+		} else {
+			sql = "drop index if exists " + indexName;
+		}
+		LitePalLog.d(TAG, "association index sql is >> " + sql);
+		return sql;
+	}
+
+	/**
+	 * Generate a SQL for creating the index declared by
+	 * {@link org.litepal.annotation.Index}.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @param indexModel
+	 *            Index model with index info.
+	 * @return A generated create index SQL.
+	 */
+	protected String generateCreateIndexSQL(String tableName, IndexModel indexModel) {
+		StringBuilder createIndexSQL = new StringBuilder();
+		createIndexSQL.append("create ");
+		if (indexModel.isUnique()) {
+			createIndexSQL.append("unique ");
+		}
+		createIndexSQL.append("index ");
+		createIndexSQL.append(indexModel.getIndexName());
+		createIndexSQL.append(" on ");
+		createIndexSQL.append(tableName);
+		createIndexSQL.append(" (");
+		createIndexSQL.append(TextUtils.join(", ", indexModel.getColumns()));
+		createIndexSQL.append(")");
+		if (indexModel.isPartial()) {
+			createIndexSQL.append(" where ").append(indexModel.getWhere());
+		}
+		LitePalLog.d(TAG, "create declared index sql is >> " + createIndexSQL);
+		return createIndexSQL.toString();
+	}
+
 	/**
 	 * Judge the passed in column is a foreign key column format or not. Each
 	 * column name ends with _id will be considered as foreign key column
@@ -233,17 +433,43 @@ public abstract class AssociationCreator extends Generator {
 	 *            Instance of SQLiteDatabase.
 	 */
 	protected void giveTableSchemaACopy(String tableName, int tableType, SQLiteDatabase db) {
-		StringBuilder sql = new StringBuilder("select * from ");
-		sql.append(Const.TableSchema.TABLE_NAME);
-		LitePalLog.d(TAG, "giveTableSchemaACopy SQL is >> " + sql);
-		Cursor cursor = null;
-		try {
-			cursor = db.rawQuery(sql.toString(), null);
-			if (isNeedtoGiveACopy(cursor, tableName)) {
+		SchemaCatalog schemaCatalog = getSchemaCatalog(db);
+		if (isNeedtoGiveACopy(schemaCatalog, tableName)) {
+			try {
 				ContentValues values = new ContentValues();
 				values.put(Const.TableSchema.COLUMN_NAME, BaseUtility.changeCase(tableName));
 				values.put(Const.TableSchema.COLUMN_TYPE, tableType);
 				db.insert(Const.TableSchema.TABLE_NAME, null, values);
+				schemaCatalog.putTableType(tableName, tableType);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Compare the fingerprint of each table model with the one saved in
+	 * table_schema. The tables which have no saved fingerprint, including
+	 * the ones created by old versions of LitePal, are considered changed.
+	 * 
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return Lower case names of the changed tables.
+	 */
+	Set<String> getChangedTables(SQLiteDatabase db) {
+		Map<String, String> savedFingerprints = new HashMap<>();
+		Cursor cursor = null;
+		try {
+			cursor = db.query(Const.TableSchema.TABLE_NAME, null, null, null, null, null, null);
+			int fingerprintIndex = cursor.getColumnIndex(Const.TableSchema.COLUMN_FINGERPRINT);
+			if (fingerprintIndex != -1 && cursor.moveToFirst()) {
+				int nameIndex = cursor.getColumnIndexOrThrow(Const.TableSchema.COLUMN_NAME);
+				do {
+					String name = cursor.getString(nameIndex);
+					if (name != null) {
+						savedFingerprints.put(name.toLowerCase(Locale.US), cursor.getString(fingerprintIndex));
+					}
+				} while (cursor.moveToNext());
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -252,46 +478,47 @@ public abstract class AssociationCreator extends Generator {
 				cursor.close();
 			}
 		}
+		Set<String> changedTables = new HashSet<>();
+		for (Map.Entry<String, String> entry : getFingerprints().entrySet()) {
+			String fingerprint = entry.getValue();
+			if (TextUtils.isEmpty(fingerprint) || !fingerprint.equals(savedFingerprints.get(entry.getKey()))) {
+				changedTables.add(entry.getKey());
+			}
+		}
+		LitePalLog.d(TAG, "getChangedTables >> " + changedTables);
+		return changedTables;
 	}
 
 	/**
-	 * Save the name of a created table into table_schema, but there're some
-	 * extra rules. Each table name should be only saved once, and special
-	 * tables will not be saved.
+	 * Save the fingerprint of each table model into table_schema, so the
+	 * tables will not be analyzed at next upgrade unless they changed.
 	 * 
-	 * @param cursor
-	 *            The cursor used to iterator values in the table.
-	 * @param tableName
-	 *            The table name.
-	 * @return If all rules are passed return true, any of them failed return
-	 *         false.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
 	 */
-	private boolean isNeedtoGiveACopy(Cursor cursor, String tableName) {
-		return !isValueExists(cursor, tableName) && !isSpecialTable(tableName);
+	void updateFingerprints(SQLiteDatabase db) {
+		for (Map.Entry<String, String> entry : getFingerprints().entrySet()) {
+			ContentValues values = new ContentValues();
+			values.put(Const.TableSchema.COLUMN_FINGERPRINT, entry.getValue());
+			db.update(Const.TableSchema.TABLE_NAME, values, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+					new String[] { entry.getKey() });
+		}
 	}
 
 	/**
-	 * Judge the table name has already exist in the table_schema or not.
+	 * Save the name of a created table into table_schema, but there're some
+	 * extra rules. Each table name should be only saved once, and special
+	 * tables will not be saved.
 	 * 
-	 * @param cursor
-	 *            The cursor used to iterator values in the table.
+	 * @param schemaCatalog
+	 *            The schema catalog which knows the tables in table_schema.
 	 * @param tableName
 	 *            The table name.
-	 * @return If value exists return true, or return false.
+	 * @return If all rules are passed return true, any of them failed return
+	 *         false.
 	 */
-	private boolean isValueExists(Cursor cursor, String tableName) {
-		boolean exist = false;
-		if (cursor.moveToFirst()) {
-			do {
-				String name = cursor.getString(cursor
-						.getColumnIndexOrThrow(Const.TableSchema.COLUMN_NAME));
-				if (name.equalsIgnoreCase(tableName)) {
-					exist = true;
-					break;
-				}
-			} while (cursor.moveToNext());
-		}
-		return exist;
+	private boolean isNeedtoGiveACopy(SchemaCatalog schemaCatalog, String tableName) {
+		return !schemaCatalog.isInTableSchema(tableName) && !isSpecialTable(tableName);
 	}
 
 	/**
@@ -324,6 +551,11 @@ public abstract class AssociationCreator extends Generator {
 	private void addAssociations(Collection<AssociationsModel> associatedModels, SQLiteDatabase db,
 			boolean force) {
 		for (AssociationsModel associationModel : associatedModels) {
+			if (!isTableChanged(associationModel.getTableName())
+					&& !isTableChanged(associationModel.getAssociatedTableName())) {
+				// the association is already in the database since last upgrade.
+				continue;
+			}
 			if (Const.Model.MANY_TO_ONE == associationModel.getAssociationType()
 					|| Const.Model.ONE_TO_ONE == associationModel.getAssociationType()) {
 				addForeignKeyColumn(associationModel.getTableName(),
@@ -335,7 +567,9 @@ public abstract class AssociationCreator extends Generator {
 			}
 		}
         for (GenericModel genericModel : getGenericModels()) {
-            createGenericTable(genericModel, db, force);
+            if (isTableChanged(DBUtility.getTableNameByForeignColumn(genericModel.getValueIdColumnName()))) {
+                createGenericTable(genericModel, db, force);
+            }
         }
 	}
 
@@ -360,22 +594,33 @@ public abstract class AssociationCreator extends Generator {
         ColumnModel column1 = new ColumnModel();
         column1.setColumnName(tableName + "_id");
         column1.setColumnType("integer");
+        giveForeignKeyReference(column1, tableName, true);
         ColumnModel column2 = new ColumnModel();
         column2.setColumnName(associatedTableName + "_id");
         column2.setColumnType("integer");
+        giveForeignKeyReference(column2, associatedTableName, true);
         columnModelList.add(column1);
         columnModelList.add(column2);
         String intermediateTableName = DBUtility.getIntermediateTableName(tableName,
                 associatedTableName);
 		List<String> sqls = new ArrayList<>();
-		if (DBUtility.isTableExists(intermediateTableName, db)) {
+		if (getSchemaCatalog(db).isTableExists(intermediateTableName)) {
 			if (force) {
 				sqls.add(generateDropTableSQL(intermediateTableName));
 				sqls.add(generateCreateTableSQL(intermediateTableName, columnModelList, false));
+			} else if (isForeignKeyReferenceChanged(intermediateTableName, columnModelList, db)) {
+				sqls.addAll(generateRebuildTableSQLs(intermediateTableName, columnModelList));
+				recordOperation(UpgradePlan.REBUILD_TABLE, intermediateTableName, null, false);
 			}
 		} else {
 			sqls.add(generateCreateTableSQL(intermediateTableName, columnModelList, false));
+			recordOperation(UpgradePlan.CREATE_TABLE, intermediateTableName, null, false);
 		}
+		// the composite index serves the lookups from one side, and the other side needs its own index.
+		String[] columnNames = { column1.getColumnName(), column2.getColumnName() };
+		Arrays.sort(columnNames, String.CASE_INSENSITIVE_ORDER);
+		sqls.add(generateAssociationIndexSQL(intermediateTableName, columnNames));
+		sqls.add(generateAssociationIndexSQL(intermediateTableName, columnNames[1]));
 		execute(sqls, db);
 		giveTableSchemaACopy(intermediateTableName, Const.TableSchema.INTERMEDIATE_JOIN_TABLE, db);
 	}
@@ -403,17 +648,23 @@ public abstract class AssociationCreator extends Generator {
         ColumnModel column2 = new ColumnModel();
         column2.setColumnName(valueIdColumnName);
         column2.setColumnType("integer");
+        giveForeignKeyReference(column2, DBUtility.getTableNameByForeignColumn(valueIdColumnName), true);
         columnModelList.add(column1);
         columnModelList.add(column2);
         List<String> sqls = new ArrayList<>();
-        if (DBUtility.isTableExists(tableName, db)) {
+        if (getSchemaCatalog(db).isTableExists(tableName)) {
             if (force) {
                 sqls.add(generateDropTableSQL(tableName));
                 sqls.add(generateCreateTableSQL(tableName, columnModelList, false));
+            } else if (isForeignKeyReferenceChanged(tableName, columnModelList, db)) {
+                sqls.addAll(generateRebuildTableSQLs(tableName, columnModelList));
+                recordOperation(UpgradePlan.REBUILD_TABLE, tableName, null, false);
             }
         } else {
             sqls.add(generateCreateTableSQL(tableName, columnModelList, false));
+            recordOperation(UpgradePlan.CREATE_TABLE, tableName, null, false);
         }
+        sqls.add(generateAssociationIndexSQL(tableName, valueIdColumnName));
         execute(sqls, db);
         giveTableSchemaACopy(tableName, Const.TableSchema.GENERIC_TABLE, db);
     }
@@ -435,25 +686,32 @@ public abstract class AssociationCreator extends Generator {
 	 */
 	protected void addForeignKeyColumn(String tableName, String associatedTableName,
 			String tableHoldsForeignKey, SQLiteDatabase db) {
-		if (DBUtility.isTableExists(tableName, db)) {
-			if (DBUtility.isTableExists(associatedTableName, db)) {
+		SchemaCatalog schemaCatalog = getSchemaCatalog(db);
+		if (schemaCatalog.isTableExists(tableName)) {
+			if (schemaCatalog.isTableExists(associatedTableName)) {
 				String foreignKeyColumn = null;
+				String referencedTable = null;
 				if (tableName.equals(tableHoldsForeignKey)) {
 					foreignKeyColumn = getForeignKeyColumnName(associatedTableName);
+					referencedTable = associatedTableName;
 				} else if (associatedTableName.equals(tableHoldsForeignKey)) {
 					foreignKeyColumn = getForeignKeyColumnName(tableName);
+					referencedTable = tableName;
 				}
-				if (!DBUtility.isColumnExists(foreignKeyColumn, tableHoldsForeignKey, db)) {
+				List<String> sqls = new ArrayList<>();
+				if (!schemaCatalog.isColumnExists(foreignKeyColumn, tableHoldsForeignKey)) {
                     ColumnModel columnModel = new ColumnModel();
                     columnModel.setColumnName(foreignKeyColumn);
                     columnModel.setColumnType("integer");
-                    List<String> sqls = new ArrayList<>();
+                    giveForeignKeyReference(columnModel, referencedTable, false);
                     sqls.add(generateAddColumnSQL(tableHoldsForeignKey, columnModel));
-					execute(sqls, db);
+                    recordOperation(UpgradePlan.ADD_COLUMN, tableHoldsForeignKey, foreignKeyColumn, false);
 				} else {
 					LitePalLog.d(TAG, "column " + foreignKeyColumn
 							+ " is already exist, no need to add one");
 				}
+				sqls.add(generateAssociationIndexSQL(tableHoldsForeignKey, foreignKeyColumn));
+				execute(sqls, db);
 			} else {
 				throw new DatabaseGenerateException(DatabaseGenerateException.TABLE_DOES_NOT_EXIST
 						+ associatedTableName);
@@ -464,6 +722,54 @@ public abstract class AssociationCreator extends Generator {
 		}
 	}
 
+    /**
+     * Check if the foreign key constraints of an existing intermediate join table or generic table
+     * are different from the expected ones. This happens when foreign keys configuration changed.
+     *
+     * @param tableName
+     *          The table name.
+     * @param columnModels
+     *          List contains the expected column models.
+     * @param db
+     *          Instance of SQLiteDatabase.
+     * @return True if any column has a different foreign key constraint in database. False otherwise.
+     */
+    private boolean isForeignKeyReferenceChanged(String tableName, List<ColumnModel> columnModels, SQLiteDatabase db) {
+        TableModel tableModelDB = getSchemaCatalog(db).findPragmaTableInfo(tableName);
+        for (ColumnModel columnModel : columnModels) {
+            ColumnModel columnModelDB = tableModelDB.getColumnModelByName(columnModel.getColumnName());
+            if (columnModelDB != null && !isSameForeignKeyReference(columnModelDB, columnModel)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generate SQLs to rebuild an intermediate join table or generic table with the passed in column
+     * models through a temporary table, so the existing data won't be lost.
+     *
+     * @param tableName
+     *          The table name.
+     * @param columnModels
+     *          List contains the column models of the new table.
+     * @return A SQL list contains create temporary table, create new table, migrate data and drop
+     *         temporary table.
+     */
+    private List<String> generateRebuildTableSQLs(String tableName, List<ColumnModel> columnModels) {
+        TableModel tableModel = new TableModel();
+        tableModel.setTableName(tableName);
+        for (ColumnModel columnModel : columnModels) {
+            tableModel.addColumnModel(columnModel);
+        }
+        List<String> sqls = new ArrayList<>();
+        sqls.add(generateAlterToTempTableSQL(tableName));
+        sqls.add(generateCreateTableSQL(tableName, columnModels, false));
+        sqls.add(generateDataMigrationSQL(tableModel));
+        sqls.add(generateDropTempTableSQL(tableName));
+        return sqls;
+    }
+
     /**
      * Check if the ColumnModel list contains only id field.
      * @param columnModels
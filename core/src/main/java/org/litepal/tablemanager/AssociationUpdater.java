@@ -20,7 +20,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-import org.litepal.parser.LitePalAttr;
 import org.litepal.tablemanager.model.AssociationsModel;
 import org.litepal.tablemanager.model.ColumnModel;
 import org.litepal.tablemanager.model.GenericModel;
@@ -36,7 +35,9 @@ import android.database.sqlite.SQLiteDatabase;
  * Upgrade the associations between model classes into tables. Creating new
  * tables and adding new foreign key columns are done in
  * {@link org.litepal.tablemanager.AssociationUpdater}. So this class just deal with the simple job of
- * removing foreign key columns and dropping dump intermediate join tables.
+ * finding dump foreign key columns and dropping dump intermediate join tables.
+ * The foreign key columns are removed by {@link org.litepal.tablemanager.Upgrader}
+ * together with the other changes of the same table.
  * 
  * @author Tony Green
  * @since 1.0
@@ -64,9 +65,8 @@ public abstract class AssociationUpdater extends Creator {
 	protected abstract void createOrUpgradeTable(SQLiteDatabase db, boolean force);
 
 	/**
-	 * {@link org.litepal.tablemanager.AssociationUpdater} does two jobs. Removing foreign key columns
-	 * when two models are not associated anymore, and remove the intermediate
-	 * join tables when two models are not associated anymore.
+	 * {@link org.litepal.tablemanager.AssociationUpdater} removes the intermediate join tables and
+	 * generic tables when two models are not associated anymore.
 	 */
 	@Override
 	protected void addOrUpdateAssociation(SQLiteDatabase db, boolean force) {
@@ -85,8 +85,22 @@ public abstract class AssociationUpdater extends Creator {
 	 * @return All the foreign key columns in a list.
 	 */
 	protected List<String> getForeignKeyColumns(TableModel tableModel) {
+		return getForeignKeyColumns(tableModel, getTableModelFromDB(tableModel.getTableName()));
+	}
+
+	/**
+	 * This method looks around all the columns in the table model from
+	 * database, and judge which of them are foreign key columns.
+	 * 
+	 * @param tableModel
+	 *            Use the TableModel to get columns name of model class.
+	 * @param tableModelDB
+	 *            The table model from database.
+	 * @return All the foreign key columns in a list.
+	 */
+	protected List<String> getForeignKeyColumns(TableModel tableModel, TableModel tableModelDB) {
 		List<String> foreignKeyColumns = new ArrayList<>();
-        Collection<ColumnModel> columnModels = getTableModelFromDB(tableModel.getTableName()).getColumnModels();
+        Collection<ColumnModel> columnModels = tableModelDB.getColumnModels();
 		for (ColumnModel columnModel : columnModels) {
             String columnName = columnModel.getColumnName();
 			if (isForeignKeyColumnFormat(columnModel.getColumnName())) {
@@ -126,7 +140,7 @@ public abstract class AssociationUpdater extends Creator {
 	 * @return A table model object with values from database table.
 	 */
 	protected TableModel getTableModelFromDB(String tableName) {
-		return DBUtility.findPragmaTableInfo(tableName, mDb);
+		return getSchemaCatalog(mDb).findPragmaTableInfo(tableName);
 	}
 
 	/**
@@ -142,26 +156,12 @@ public abstract class AssociationUpdater extends Creator {
             List<String> dropTableSQLS = new ArrayList<>();
 			for (int i = 0; i < dropTableNames.size(); i++) {
                 dropTableSQLS.add(generateDropTableSQL(dropTableNames.get(i)));
+                recordOperation(UpgradePlan.DROP_TABLE, dropTableNames.get(i), null, true);
 			}
 			execute(dropTableSQLS, db);
 		}
 	}
 
-	/**
-	 * When some fields are removed from class, the table should synchronize the
-	 * changes by removing the corresponding columns.
-	 * 
-	 * @param removeColumnNames
-	 *            The column names that need to remove.
-	 * @param tableName
-	 *            The table name to remove columns from.
-	 */
-	protected void removeColumns(Collection<String> removeColumnNames, String tableName) {
-		if (removeColumnNames != null && !removeColumnNames.isEmpty()) {
-			execute(getRemoveColumnSQLs(removeColumnNames, tableName), mDb);
-		}
-	}
-
 	/**
 	 * The values in table_schame should be synchronized with the model tables
 	 * in the database. If a model table is dropped, the corresponding data
@@ -187,28 +187,21 @@ public abstract class AssociationUpdater extends Creator {
             List<String> sqls = new ArrayList<>();
             sqls.add(deleteData.toString());
 			execute(sqls, mDb);
+			getSchemaCatalog(mDb).removeTableTypes(tableNames);
 		}
 	}
 
 	/**
 	 * When the association between two tables are no longer associated in the
 	 * classes, database should remove the foreign key column or intermediate
-	 * join table that keeps these two tables associated.
+	 * join table that keeps these two tables associated. Intermediate join
+	 * tables and generic tables can only be dumped when their owner tables
+	 * changed, so they are not checked if no table changed.
 	 */
 	private void removeAssociations() {
-		removeForeignKeyColumns();
-		removeIntermediateTables();
-        removeGenericTables();
-	}
-
-	/**
-	 * Analyzing the table models, then remove all the foreign key columns if
-	 * their association in model classes are no longer exist any more.
-	 */
-	private void removeForeignKeyColumns() {
-		for (String className : LitePalAttr.getInstance().getClassNames()) {
-			TableModel tableModel = getTableModel(className);
-			removeColumns(findForeignKeyToRemove(tableModel), tableModel.getTableName());
+		if (hasChangedTables()) {
+			removeIntermediateTables();
+			removeGenericTables();
 		}
 	}
 
@@ -239,11 +232,12 @@ public abstract class AssociationUpdater extends Creator {
 	 * @param tableModel
 	 *            Use the TableModel to get table name and columns name to
 	 *            generate SQL.
+	 * @param foreignKeyColumns
+	 *            All the foreign key columns of the table in database.
 	 * @return The foreign key columns need to remove in a list.
 	 */
-	private List<String> findForeignKeyToRemove(TableModel tableModel) {
+	protected List<String> findForeignKeyToRemove(TableModel tableModel, List<String> foreignKeyColumns) {
 		List<String> removeRelations = new ArrayList<>();
-		List<String> foreignKeyColumns = getForeignKeyColumns(tableModel);
 		String selfTableName = tableModel.getTableName();
 		for (String foreignKeyColumn : foreignKeyColumns) {
 			String associatedTableName = DBUtility.getTableNameByForeignColumn(foreignKeyColumn);
@@ -266,8 +260,9 @@ public abstract class AssociationUpdater extends Creator {
 	 */
 	private List<String> findIntermediateTablesToDrop() {
 		List<String> intermediateTables = new ArrayList<>();
-		for (String tableName : DBUtility.findAllTableNames(mDb)) {
-			if (DBUtility.isIntermediateTable(tableName, mDb)) {
+		SchemaCatalog schemaCatalog = getSchemaCatalog(mDb);
+		for (String tableName : schemaCatalog.findAllTableNames()) {
+			if (schemaCatalog.isIntermediateTable(tableName)) {
 				boolean dropIntermediateTable = true;
 				for (AssociationsModel associationModel : mAssociationModels) {
 					if (associationModel.getAssociationType() == Const.Model.MANY_TO_MANY) {
@@ -298,8 +293,9 @@ public abstract class AssociationUpdater extends Creator {
      */
     private List<String> findGenericTablesToDrop() {
         List<String> genericTablesToDrop = new ArrayList<>();
-        for (String tableName : DBUtility.findAllTableNames(mDb)) {
-            if (DBUtility.isGenericTable(tableName, mDb)) {
+        SchemaCatalog schemaCatalog = getSchemaCatalog(mDb);
+        for (String tableName : schemaCatalog.findAllTableNames()) {
+            if (schemaCatalog.isGenericTable(tableName)) {
                 boolean dropGenericTable = true;
                 for (GenericModel genericModel : getGenericModels()) {
                     String genericTableName = genericModel.getTableName();
@@ -317,131 +313,9 @@ public abstract class AssociationUpdater extends Creator {
         return genericTablesToDrop;
     }
 
-	/**
-	 * Generate a SQL for renaming the table into a temporary table.
-	 * 
-	 * @param tableName
-	 *            The table name use to alter to temporary table.
-	 * @return SQL to rename table.
-	 */
-	protected String generateAlterToTempTableSQL(String tableName) {
-		StringBuilder sql = new StringBuilder();
-		sql.append("alter table ").append(tableName).append(" rename to ")
-				.append(getTempTableName(tableName));
-		return sql.toString();
-	}
-
-	/**
-	 * Generate a SQL to create new table by the table model from database. Also
-	 * it will remove the columns that need to remove before generating the SQL.
-	 * 
-	 * @param removeColumnNames
-	 *            The column names need to remove.
-	 * @param tableModel
-	 *            Which contains table name use to create new table.
-	 * @return SQL to create new table.
-	 */
-	private String generateCreateNewTableSQL(Collection<String> removeColumnNames, TableModel tableModel) {
-		for (String removeColumnName : removeColumnNames) {
-            tableModel.removeColumnModelByName(removeColumnName);
-		}
-		return generateCreateTableSQL(tableModel);
-	}
-
-	/**
-	 * Generate a SQL to do the data migration job to avoid losing data.
-	 *
-	 * @param tableModel
-	 *            Which contains table name use to migrate data.
-	 * @return SQL to migrate data.
-	 */
-	protected String generateDataMigrationSQL(TableModel tableModel) {
-        String tableName = tableModel.getTableName();
-		Collection<ColumnModel> columnModels = tableModel.getColumnModels();
-		if (!columnModels.isEmpty()) {
-			StringBuilder sql = new StringBuilder();
-			sql.append("insert into ").append(tableName).append("(");
-			boolean needComma = false;
-			for (ColumnModel columnModel : columnModels) {
-				if (needComma) {
-					sql.append(", ");
-				}
-				needComma = true;
-				sql.append(columnModel.getColumnName());
-			}
-			sql.append(") ");
-			sql.append("select ");
-			needComma = false;
-			for (ColumnModel columnModel : columnModels) {
-				if (needComma) {
-					sql.append(", ");
-				}
-				needComma = true;
-				sql.append(columnModel.getColumnName());
-			}
-			sql.append(" from ").append(getTempTableName(tableName));
-			return sql.toString();
-		} else {
-			return null;
-		}
-	}
-
-	/**
-	 * Generate a SQL to drop the temporary table.
-	 * 
-	 * @param tableName
-	 *            The table name use to drop temporary table.
-	 * @return SQL to drop the temporary table.
-	 */
-	protected String generateDropTempTableSQL(String tableName) {
-		return generateDropTableSQL(getTempTableName(tableName));
-	}
-
-	/**
-	 * Removing or resizing columns from tables must need a temporary table to
-	 * store data, and here's the table name.
-	 * 
-	 * @param tableName
-	 *            The table name use to generate temporary table name.
-	 * @return Temporary table name
-	 */
-	protected String getTempTableName(String tableName) {
-		return tableName + "_temp";
-	}
-
-	/**
-	 * This method create a SQL array for the whole remove dump columns job.
-	 * 
-	 * @param removeColumnNames
-	 *            The column names need to remove.
-	 * @param tableName
-	 *            The table name to remove from.
-	 * @return A SQL list contains create temporary table, create new table,
-	 *         migrate data and drop temporary table.
-	 */
-	private List<String> getRemoveColumnSQLs(Collection<String> removeColumnNames, String tableName) {
-        TableModel tableModelFromDB = getTableModelFromDB(tableName);
-		String alterToTempTableSQL = generateAlterToTempTableSQL(tableName);
-		LitePalLog.d(TAG, "generateRemoveColumnSQL >> " + alterToTempTableSQL);
-		String createNewTableSQL = generateCreateNewTableSQL(removeColumnNames, tableModelFromDB);
-		LitePalLog.d(TAG, "generateRemoveColumnSQL >> " + createNewTableSQL);
-		String dataMigrationSQL = generateDataMigrationSQL(tableModelFromDB);
-		LitePalLog.d(TAG, "generateRemoveColumnSQL >> " + dataMigrationSQL);
-		String dropTempTableSQL = generateDropTempTableSQL(tableName);
-		LitePalLog.d(TAG, "generateRemoveColumnSQL >> " + dropTempTableSQL);
-		List<String> createIndexSQLs = generateCreateIndexSQLs(tableModelFromDB);
-        List<String> sqls = new ArrayList<>();
-        sqls.add(alterToTempTableSQL);
-        sqls.add(createNewTableSQL);
-        sqls.add(dataMigrationSQL);
-        sqls.add(dropTempTableSQL);
-        sqls.addAll(createIndexSQLs);
-		return sqls;
-	}
-
 	/**
 	 * Judge if the current iterated foreign key column should be dropped. It is
-	 * only used in {@link #findForeignKeyToRemove(org.litepal.tablemanager.model.TableModel)} when iterating
+	 * only used in {@link #findForeignKeyToRemove(org.litepal.tablemanager.model.TableModel, java.util.List)} when iterating
 	 * the foreign key column list. When this foreign key can not be found in
 	 * the association model collection, this foreign key should be dropped.
 	 * 
@@ -453,7 +327,7 @@ public abstract class AssociationUpdater extends Creator {
 	 *         true. Otherwise return false.
 	 */
 	private boolean shouldDropForeignKey(String selfTableName, String associatedTableName) {
-		for (AssociationsModel associationModel : mAssociationModels) {
+		for (AssociationsModel associationModel : getAllAssociations()) {
 			if (associationModel.getAssociationType() == Const.Model.ONE_TO_ONE) {
 				if (selfTableName.equalsIgnoreCase(associationModel.getTableHoldsForeignKey())) {
 					if (associationModel.getTableName().equalsIgnoreCase(selfTableName)) {
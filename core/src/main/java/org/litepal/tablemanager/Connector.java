@@ -21,6 +21,9 @@ import android.os.Environment;
 import android.text.TextUtils;
 
 import org.litepal.LitePalApplication;
+import org.litepal.LitePalBase;
+import org.litepal.crud.ResultCache;
+import org.litepal.crud.StatementCache;
 import org.litepal.parser.LitePalAttr;
 
 import java.io.File;
@@ -62,12 +65,16 @@ public class Connector {
 	 * Call getDatabase directly will invoke the getWritableDatabase method by
 	 * default.
 	 * 
-	 * This is method is alias of getWritableDatabase.
+	 * This is method is alias of getWritableDatabase, except that it waits
+	 * until the data of rebuilt tables are migrated in background. All the
+	 * data operations of LitePal get database by this method.
 	 * 
 	 * @return A writable SQLiteDatabase instance
 	 */
 	public static SQLiteDatabase getDatabase() {
-		return getWritableDatabase();
+		SQLiteDatabase db = getWritableDatabase();
+		Migrator.awaitMigration();
+		return db;
 	}
 
 	/**
@@ -85,30 +92,73 @@ public class Connector {
 		LitePalAttr litePalAttr = LitePalAttr.getInstance();
 		litePalAttr.checkSelfValid();
 		if (mLitePalHelper == null) {
-			String dbName = litePalAttr.getDbName();
-			if ("external".equalsIgnoreCase(litePalAttr.getStorage())) {
-				dbName = LitePalApplication.getContext().getExternalFilesDir("") + "/databases/" + dbName;
-			} else if (!"internal".equalsIgnoreCase(litePalAttr.getStorage()) && !TextUtils.isEmpty(litePalAttr.getStorage())) {
-                // internal or empty means internal storage, neither or them means sdcard storage
-                String dbPath = Environment.getExternalStorageDirectory().getPath() + "/" + litePalAttr.getStorage();
-                dbPath = dbPath.replace("//", "/");
-                File path = new File(dbPath);
-                if (!path.exists()) {
-                    path.mkdirs();
-                }
-                dbName = dbPath + "/" + dbName;
-            }
-			mLitePalHelper = new LitePalOpenHelper(dbName, litePalAttr.getVersion());
+			mLitePalHelper = new LitePalOpenHelper(getDatabaseName(litePalAttr), litePalAttr.getVersion());
 		}
 		return mLitePalHelper;
 	}
 
+	/**
+	 * Get the name of database file to open, which is a full path if the
+	 * database is not in internal storage.
+	 * 
+	 * @param litePalAttr
+	 *            The configuration of database.
+	 * @return The name or path of database file.
+	 */
+	private static String getDatabaseName(LitePalAttr litePalAttr) {
+		String dbName = litePalAttr.getDbName();
+		if ("external".equalsIgnoreCase(litePalAttr.getStorage())) {
+			dbName = LitePalApplication.getContext().getExternalFilesDir("") + "/databases/" + dbName;
+		} else if (!"internal".equalsIgnoreCase(litePalAttr.getStorage()) && !TextUtils.isEmpty(litePalAttr.getStorage())) {
+            // internal or empty means internal storage, neither or them means sdcard storage
+            String dbPath = Environment.getExternalStorageDirectory().getPath() + "/" + litePalAttr.getStorage();
+            dbPath = dbPath.replace("//", "/");
+            File path = new File(dbPath);
+            if (!path.exists()) {
+                path.mkdirs();
+            }
+            dbName = dbPath + "/" + dbName;
+        }
+		return dbName;
+	}
+
+	/**
+	 * Plan the operations of creating or upgrading tables by the specified
+	 * configuration, without changing the database. The database file is only
+	 * opened for reading, and never created or upgraded. The configuration in
+	 * use is not changed.
+	 * 
+	 * @param litePalAttr
+	 *            The configuration of database to plan for.
+	 * @return The plan of operations.
+	 */
+	public static UpgradePlan planUpgrade(LitePalAttr litePalAttr) {
+		litePalAttr.checkSelfValid();
+		String dbName = getDatabaseName(litePalAttr);
+		File dbFile = dbName.startsWith(File.separator) ? new File(dbName)
+				: LitePalApplication.getContext().getDatabasePath(dbName);
+		if (!dbFile.exists()) {
+			return Generator.plan(null, litePalAttr);
+		}
+		SQLiteDatabase db = SQLiteDatabase.openDatabase(dbFile.getPath(), null, SQLiteDatabase.OPEN_READONLY);
+		try {
+			return Generator.plan(db, litePalAttr);
+		} finally {
+			db.close();
+		}
+	}
+
 	/**
 	 * Never call this method. This is only used by internal.
 	 */
 	public static void clearLitePalOpenHelperInstance() {
+        // associations depend on the mapping classes of the using database.
+        LitePalBase.clearAssociationInfoCache();
         if (mLitePalHelper != null) {
-            mLitePalHelper.getWritableDatabase().close();
+            Migrator.awaitMigration();
+            StatementCache.getInstance().clear();
+            ResultCache.getInstance().clear();
+            mLitePalHelper.close();
             mLitePalHelper = null;
         }
 	}
@@ -16,9 +16,9 @@
 
 package org.litepal.tablemanager;
 
+import org.litepal.tablemanager.model.IndexModel;
 import org.litepal.tablemanager.model.TableModel;
 import org.litepal.util.Const;
-import org.litepal.util.DBUtility;
 
 import android.database.sqlite.SQLiteDatabase;
 
@@ -51,7 +51,11 @@ class Creator extends AssociationCreator {
 	}
 
     protected void createOrUpgradeTable(TableModel tableModel, SQLiteDatabase db, boolean force) {
-        execute(getCreateTableSQLs(tableModel, db, force), db);
+        List<String> sqls = getCreateTableSQLs(tableModel, db, force);
+        if (sqls != null) {
+            recordOperation(UpgradePlan.CREATE_TABLE, tableModel.getTableName(), null, false);
+        }
+        execute(sqls, db);
         giveTableSchemaACopy(tableModel.getTableName(), Const.TableSchema.NORMAL_TABLE, db);
     }
 
@@ -75,7 +79,7 @@ class Creator extends AssociationCreator {
             sqls.add(generateDropTableSQL(tableModel));
             sqls.add(generateCreateTableSQL(tableModel));
 		} else {
-			if (DBUtility.isTableExists(tableModel.getTableName(), db)) {
+			if (getSchemaCatalog(db).isTableExists(tableModel.getTableName())) {
 				return null;
 			} else {
                 sqls.add(generateCreateTableSQL(tableModel));
@@ -111,7 +115,8 @@ class Creator extends AssociationCreator {
 	}
 
 	/**
-	 * Generate create index SQLs by analyzing the TableModel.
+	 * Generate create index SQLs by analyzing the TableModel, including the
+	 * indexes of columns and the indexes declared on class.
 	 *
 	 * @param tableModel
 	 *            Use the TableModel to get table name and columns name to
@@ -119,7 +124,11 @@ class Creator extends AssociationCreator {
 	 * @return A generated create index SQLs.
 	 */
 	List<String> generateCreateIndexSQLs(TableModel tableModel) {
-		return generateCreateIndexSQLs(tableModel.getTableName(), tableModel.getColumnModels());
+		List<String> sqls = generateCreateIndexSQLs(tableModel.getTableName(), tableModel.getColumnModels());
+		for (IndexModel indexModel : tableModel.getIndexModels()) {
+			sqls.add(generateCreateIndexSQL(tableModel.getTableName(), indexModel));
+		}
+		return sqls;
 	}
 
 }
@@ -19,13 +19,13 @@ package org.litepal.tablemanager;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.litepal.tablemanager.model.TableModel;
 import org.litepal.util.BaseUtility;
 import org.litepal.util.Const;
 import org.litepal.util.LitePalLog;
 
-import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 
 /**
@@ -75,27 +75,12 @@ public class Dropper extends AssociationUpdater {
 	 */
 	private List<String> findTablesToDrop() {
 		List<String> dropTableNames = new ArrayList<>();
-		Cursor cursor = null;
-		try {
-			cursor = mDb.query(Const.TableSchema.TABLE_NAME, null, null, null, null, null, null);
-			if (cursor.moveToFirst()) {
-				do {
-					String tableName = cursor.getString(cursor
-							.getColumnIndexOrThrow(Const.TableSchema.COLUMN_NAME));
-					int tableType = cursor.getInt(cursor
-							.getColumnIndexOrThrow(Const.TableSchema.COLUMN_TYPE));
-					if (shouldDropThisTable(tableName, tableType)) {
-						// need to drop tableNameDB
-						LitePalLog.d(TAG, "need to drop " + tableName);
-						dropTableNames.add(tableName);
-					}
-				} while (cursor.moveToNext());
-			}
-		} catch (Exception ex) {
-			ex.printStackTrace();
-		} finally {
-			if (cursor != null) {
-				cursor.close();
+		for (Map.Entry<String, Integer> entry : getSchemaCatalog(mDb).getTableTypes().entrySet()) {
+			String tableName = entry.getKey();
+			if (shouldDropThisTable(tableName, entry.getValue())) {
+				// need to drop tableNameDB
+				LitePalLog.d(TAG, "need to drop " + tableName);
+				dropTableNames.add(tableName);
 			}
 		}
 		return dropTableNames;
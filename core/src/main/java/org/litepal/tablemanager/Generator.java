@@ -18,15 +18,29 @@ package org.litepal.tablemanager;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.litepal.LitePalBase;
 import org.litepal.exceptions.DatabaseGenerateException;
 import org.litepal.parser.LitePalAttr;
 import org.litepal.tablemanager.model.AssociationsModel;
+import org.litepal.tablemanager.model.ColumnModel;
+import org.litepal.tablemanager.model.GenericModel;
+import org.litepal.tablemanager.model.IndexModel;
 import org.litepal.tablemanager.model.TableModel;
 import org.litepal.util.BaseUtility;
+import org.litepal.util.Const;
+import org.litepal.util.DBUtility;
+import org.litepal.util.cipher.CipherUtil;
 
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
@@ -45,6 +59,12 @@ import android.text.TextUtils;
 public abstract class Generator extends LitePalBase {
 	public static final String TAG = "Generator";
 
+	/**
+	 * Version of the fingerprint format. Increase it when the way of
+	 * generating tables changes, so all tables are analyzed again.
+	 */
+	private static final int FINGERPRINT_VERSION = 2;
+
 	/**
 	 * The collection contains all table models. Use a global variable store
 	 * table model to improve performance. Avoiding look up for table model each
@@ -57,6 +77,24 @@ public abstract class Generator extends LitePalBase {
 	 */
 	private Collection<AssociationsModel> mAllRelationModels;
 
+	/**
+	 * Lower case names of the tables whose fingerprint changed since last
+	 * upgrade. Null means all tables should be analyzed.
+	 */
+	private Set<String> mChangedTables;
+
+	/**
+	 * The schema of database shared by all the steps of creating or upgrading
+	 * tables.
+	 */
+	private SchemaCatalog mSchemaCatalog;
+
+	/**
+	 * The plan to record operations into when planning an upgrade. Null at
+	 * real upgrade.
+	 */
+	private UpgradePlan mUpgradePlan;
+
 	/**
 	 * This is a shortcut way to get all the table models for each model class
 	 * defined in the mapping list. No need to iterate all the model classes and
@@ -77,6 +115,23 @@ public abstract class Generator extends LitePalBase {
 		return mTableModels;
 	}
 
+	/**
+	 * Find the table model of the model class which is mapped to the table.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return The table model, or null if no model class is mapped to the
+	 *         table.
+	 */
+	TableModel findTableModel(String tableName) {
+		for (String className : LitePalAttr.getInstance().getClassNames()) {
+			if (tableName.equalsIgnoreCase(DBUtility.getTableNameByClassName(className))) {
+				return getTableModel(className);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * This method is used to get all the association models which in the
 	 * mapping list of litepal.xml file.
@@ -90,10 +145,168 @@ public abstract class Generator extends LitePalBase {
 		return mAllRelationModels;
 	}
 
+	/**
+	 * Compute the fingerprint of each table model. A fingerprint is generated
+	 * from the columns, types and constraints of the table, and all the
+	 * associations and generic fields the table takes part in. So as long as
+	 * the fingerprint is the same, the table needs no upgrade.
+	 * 
+	 * @return Lower case table names as key, fingerprints as value.
+	 */
+	protected Map<String, String> getFingerprints() {
+		Collection<AssociationsModel> associationModels = getAllAssociations();
+		Map<String, String> fingerprints = new HashMap<>();
+		for (TableModel tableModel : getAllTableModels()) {
+			String tableName = tableModel.getTableName();
+			List<String> items = new ArrayList<>();
+			for (ColumnModel columnModel : tableModel.getColumnModels()) {
+				items.add("column:" + columnModel.getColumnName() + " " + columnModel.getColumnType()
+						+ " " + columnModel.isNullable() + " " + columnModel.isUnique()
+						+ " " + columnModel.getDefaultValue() + " " + columnModel.hasIndex()
+						+ " " + columnModel.getReferencedTable() + " " + columnModel.getOnDeleteAction());
+			}
+			for (IndexModel indexModel : tableModel.getIndexModels()) {
+				items.add("index:" + indexModel.getIndexName() + " " + indexModel.isUnique()
+						+ " " + indexModel.getColumns() + " " + indexModel.getWhere());
+			}
+			for (AssociationsModel associationModel : associationModels) {
+				if (tableName.equalsIgnoreCase(associationModel.getTableName())
+						|| tableName.equalsIgnoreCase(associationModel.getAssociatedTableName())) {
+					items.add("association:" + associationModel.getAssociationType()
+							+ " " + associationModel.getTableName()
+							+ " " + associationModel.getAssociatedTableName()
+							+ " " + associationModel.getTableHoldsForeignKey());
+				}
+			}
+			for (GenericModel genericModel : getGenericModels()) {
+				String ownerTableName = DBUtility.getTableNameByForeignColumn(genericModel.getValueIdColumnName());
+				if (tableName.equalsIgnoreCase(ownerTableName)) {
+					items.add("generic:" + genericModel.getTableName()
+							+ " " + genericModel.getValueColumnName()
+							+ " " + genericModel.getValueColumnType());
+				}
+			}
+			// HashMap and HashSet are used to keep models, sort items to make the fingerprint stable.
+			Collections.sort(items);
+			LitePalAttr litePalAttr = LitePalAttr.getInstance();
+			StringBuilder plainText = new StringBuilder();
+			plainText.append(FINGERPRINT_VERSION).append(" ").append(litePalAttr.getCases())
+					.append(" ").append(litePalAttr.getForeignKeys())
+					.append(" ").append(litePalAttr.getAssociationIndexes());
+			for (String item : items) {
+				plainText.append("\n").append(item);
+			}
+			fingerprints.put(tableName.toLowerCase(Locale.US), CipherUtil.md5Encrypt(plainText.toString()));
+		}
+		return fingerprints;
+	}
+
+	/**
+	 * Only analyze the tables whose fingerprint changed since last upgrade.
+	 * 
+	 * @param changedTables
+	 *            Lower case names of the changed tables. Null means all
+	 *            tables should be analyzed.
+	 */
+	void setChangedTables(Set<String> changedTables) {
+		mChangedTables = changedTables;
+	}
+
+	/**
+	 * Judge the table should be analyzed or not, as its fingerprint changed
+	 * since last upgrade.
+	 * 
+	 * @param tableName
+	 *            The table name.
+	 * @return True if the table changed or all tables should be analyzed.
+	 *         False otherwise.
+	 */
+	protected boolean isTableChanged(String tableName) {
+		return mChangedTables == null || tableName == null
+				|| mChangedTables.contains(tableName.toLowerCase(Locale.US));
+	}
+
+	/**
+	 * Judge if any table with associations changed since last upgrade.
+	 * table_schema never keeps the fingerprint of itself, so it's always
+	 * analyzed, but it has no associations and doesn't count here.
+	 * 
+	 * @return True if any table changed or all tables should be analyzed.
+	 *         False otherwise.
+	 */
+	protected boolean hasChangedTables() {
+		if (mChangedTables == null) {
+			return true;
+		}
+		for (String tableName : mChangedTables) {
+			if (!Const.TableSchema.TABLE_NAME.equalsIgnoreCase(tableName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Share the schema of database with the other steps of creating or
+	 * upgrading tables, so it's only loaded once.
+	 * 
+	 * @param schemaCatalog
+	 *            The schema catalog of database.
+	 */
+	void setSchemaCatalog(SchemaCatalog schemaCatalog) {
+		mSchemaCatalog = schemaCatalog;
+	}
+
+	/**
+	 * Get the schema catalog of the database, which answers the lookups of
+	 * tables, columns and indexes from memory.
+	 * 
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The schema catalog of database.
+	 */
+	SchemaCatalog getSchemaCatalog(SQLiteDatabase db) {
+		if (mSchemaCatalog == null || !mSchemaCatalog.isCatalogOf(db)) {
+			mSchemaCatalog = new SchemaCatalog(db);
+		}
+		return mSchemaCatalog;
+	}
+
+	/**
+	 * Record the operations into the plan, when the upgrade is planned on a
+	 * copy of database schema.
+	 * 
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
+	 */
+	void setUpgradePlan(UpgradePlan upgradePlan) {
+		mUpgradePlan = upgradePlan;
+	}
+
+	/**
+	 * Record an operation into the upgrade plan. Nothing happens if the
+	 * upgrade is not planned.
+	 * 
+	 * @param type
+	 *            The operation type, such as {@link UpgradePlan#ADD_COLUMN}.
+	 * @param tableName
+	 *            The table name.
+	 * @param detail
+	 *            The column or index name, or null.
+	 * @param destructive
+	 *            The operation may lose data or not.
+	 */
+	void recordOperation(String type, String tableName, String detail, boolean destructive) {
+		if (mUpgradePlan != null) {
+			mUpgradePlan.addOperation(type, tableName, detail, destructive);
+		}
+	}
+
 	/**
 	 * Use the parameter SQLiteDatabase to execute the passing SQLs. Subclasses
 	 * can add their own logic when do the executing job by overriding this
-	 * method.
+	 * method. The schema catalog is marked as stale after each SQL, so it
+	 * checks the changes of schema at the next lookup.
 	 * 
 	 * @param sqls
 	 *            SQLs that want to execute.
@@ -108,6 +321,7 @@ public abstract class Generator extends LitePalBase {
                     if (!TextUtils.isEmpty(sql)) {
                         throwSQL = BaseUtility.changeCase(sql);
                         db.execSQL(throwSQL);
+                        getSchemaCatalog(db).markStale();
                     }
 				}
 			}
@@ -124,9 +338,19 @@ public abstract class Generator extends LitePalBase {
 	 *            Instance of SQLiteDatabase.
 	 * @param force
 	 *            Drop the table first if it already exists.
+	 * @param changedTables
+	 *            Names of the tables to analyze. Null means all tables.
+	 * @param schemaCatalog
+	 *            The schema catalog of database.
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
 	 */
-	private static void addAssociation(SQLiteDatabase db, boolean force) {
+	private static void addAssociation(SQLiteDatabase db, boolean force, Set<String> changedTables,
+			SchemaCatalog schemaCatalog, UpgradePlan upgradePlan) {
 		AssociationCreator associationsCreator = new Creator();
+		associationsCreator.setChangedTables(changedTables);
+		associationsCreator.setSchemaCatalog(schemaCatalog);
+		associationsCreator.setUpgradePlan(upgradePlan);
 		associationsCreator.addOrUpdateAssociation(db, force);
 	}
 
@@ -136,9 +360,19 @@ public abstract class Generator extends LitePalBase {
 	 * 
 	 * @param db
 	 *            Instance of SQLiteDatabase.
+	 * @param changedTables
+	 *            Names of the tables to analyze. Null means all tables.
+	 * @param schemaCatalog
+	 *            The schema catalog of database.
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
 	 */
-	private static void updateAssociations(SQLiteDatabase db) {
+	private static void updateAssociations(SQLiteDatabase db, Set<String> changedTables,
+			SchemaCatalog schemaCatalog, UpgradePlan upgradePlan) {
 		AssociationUpdater associationUpgrader = new Upgrader();
+		associationUpgrader.setChangedTables(changedTables);
+		associationUpgrader.setSchemaCatalog(schemaCatalog);
+		associationUpgrader.setUpgradePlan(upgradePlan);
 		associationUpgrader.addOrUpdateAssociation(db, false);
 	}
 
@@ -148,12 +382,47 @@ public abstract class Generator extends LitePalBase {
 	 * 
 	 * @param db
 	 *            Instance of SQLiteDatabase.
+	 * @param changedTables
+	 *            Names of the tables to analyze. Null means all tables.
+	 * @param schemaCatalog
+	 *            The schema catalog of database.
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
 	 */
-	private static void upgradeTables(SQLiteDatabase db) {
+	private static void upgradeTables(SQLiteDatabase db, Set<String> changedTables,
+			SchemaCatalog schemaCatalog, UpgradePlan upgradePlan) {
 		Upgrader upgrader = new Upgrader();
+		upgrader.setChangedTables(changedTables);
+		upgrader.setSchemaCatalog(schemaCatalog);
+		upgrader.setUpgradePlan(upgradePlan);
 		upgrader.createOrUpgradeTable(db, false);
 	}
 
+	/**
+	 * Compare the fingerprints of model classes with the ones saved in
+	 * table_schema at last upgrade, to find out which tables changed.
+	 * 
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return Lower case names of the changed tables.
+	 */
+	private static Set<String> findChangedTables(SQLiteDatabase db) {
+		AssociationCreator associationCreator = new Creator();
+		return associationCreator.getChangedTables(db);
+	}
+
+	/**
+	 * Save the fingerprints of model classes into table_schema, after tables
+	 * are synchronized with them.
+	 * 
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 */
+	private static void saveFingerprints(SQLiteDatabase db) {
+		AssociationCreator associationCreator = new Creator();
+		associationCreator.updateFingerprints(db);
+	}
+
 	/**
 	 * Create tables based on the class models defined in the litepal.xml file.
 	 * After the tables are created, add association to these tables based on
@@ -163,9 +432,15 @@ public abstract class Generator extends LitePalBase {
 	 *            Instance of SQLiteDatabase.
 	 * @param force
 	 *            Drop the table first if it already exists.
+	 * @param schemaCatalog
+	 *            The schema catalog of database.
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
 	 */
-	private static void create(SQLiteDatabase db, boolean force) {
+	private static void create(SQLiteDatabase db, boolean force, SchemaCatalog schemaCatalog, UpgradePlan upgradePlan) {
 		Creator creator = new Creator();
+		creator.setSchemaCatalog(schemaCatalog);
+		creator.setUpgradePlan(upgradePlan);
 		creator.createOrUpgradeTable(db, force);
 	}
 
@@ -175,9 +450,15 @@ public abstract class Generator extends LitePalBase {
 	 * 
 	 * @param db
 	 *            Instance of SQLiteDatabase.
+	 * @param schemaCatalog
+	 *            The schema catalog of database.
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
 	 */
-	private static void drop(SQLiteDatabase db) {
+	private static void drop(SQLiteDatabase db, SchemaCatalog schemaCatalog, UpgradePlan upgradePlan) {
 		Dropper dropper = new Dropper();
+		dropper.setSchemaCatalog(schemaCatalog);
+		dropper.setUpgradePlan(upgradePlan);
 		dropper.createOrUpgradeTable(db, false);
 	}
 
@@ -204,24 +485,164 @@ public abstract class Generator extends LitePalBase {
 	 *            Instance of SQLiteDatabase.
 	 */
 	static void create(SQLiteDatabase db) {
-		create(db, true);
-		addAssociation(db, true);
+		create(db, null);
+	}
+
+	/**
+	 * Create tables and record the operations into the plan.
+	 * 
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
+	 */
+	static void create(SQLiteDatabase db, UpgradePlan upgradePlan) {
+		SchemaCatalog schemaCatalog = new SchemaCatalog(db);
+		create(db, true, schemaCatalog, upgradePlan);
+		addAssociation(db, true, null, schemaCatalog, upgradePlan);
+		saveFingerprints(db);
 	}
 
 	/**
 	 * Upgrade tables to make sure when model classes are changed, the
 	 * corresponding tables in the database should be always synchronized with
-	 * them.
+	 * them. Only the tables whose fingerprint changed since last upgrade are
+	 * analyzed, and the schema of database is loaded only once for all the
+	 * steps.
 	 * 
 	 * @param db
 	 *            Instance of SQLiteDatabase.
 	 */
 	static void upgrade(SQLiteDatabase db) {
-		drop(db);
-		create(db, false);
-		updateAssociations(db);
-		upgradeTables(db);
-		addAssociation(db, false);
+		upgrade(db, null);
+	}
+
+	/**
+	 * Upgrade tables and record the operations into the plan.
+	 * 
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @param upgradePlan
+	 *            The plan to record operations into, or null.
+	 */
+	static void upgrade(SQLiteDatabase db, UpgradePlan upgradePlan) {
+		// Keep the foreign key constraints referencing to the original table names while tables
+		// are renamed to temporary tables and rebuilt.
+		boolean legacyAlterTable = isLegacyAlterTable(db);
+		db.execSQL("pragma legacy_alter_table = on");
+		try {
+			Set<String> changedTables = findChangedTables(db);
+			SchemaCatalog schemaCatalog = new SchemaCatalog(db);
+			drop(db, schemaCatalog, upgradePlan);
+			create(db, false, schemaCatalog, upgradePlan);
+			updateAssociations(db, changedTables, schemaCatalog, upgradePlan);
+			upgradeTables(db, changedTables, schemaCatalog, upgradePlan);
+			addAssociation(db, false, changedTables, schemaCatalog, upgradePlan);
+			saveFingerprints(db);
+		} finally {
+			if (!legacyAlterTable) {
+				db.execSQL("pragma legacy_alter_table = off");
+			}
+		}
+	}
+
+	/**
+	 * Plan the operations of creating or upgrading tables without changing the
+	 * database. The tables, indexes and table_schema of database are copied
+	 * into an in-memory database, then the tables are upgraded there with the
+	 * operations recorded, and the rows are counted in the original database.
+	 * The current thread uses the configuration to plan for meanwhile, so the
+	 * configuration in use stays as it is for other threads.
+	 * 
+	 * @param db
+	 *            The database to plan for, or null if it doesn't exist yet.
+	 * @param litePalAttr
+	 *            The configuration of database to plan for.
+	 * @return The plan of operations.
+	 */
+	static UpgradePlan plan(SQLiteDatabase db, LitePalAttr litePalAttr) {
+		UpgradePlan upgradePlan = new UpgradePlan(db == null ? 0 : db.getVersion(), litePalAttr.getVersion(), db);
+		SQLiteDatabase planDb = SQLiteDatabase.create(null);
+		LitePalAttr.setThreadInstance(litePalAttr);
+		try {
+			if (db == null) {
+				create(planDb, upgradePlan);
+			} else {
+				copySchema(db, planDb);
+				// The migrations left by last upgrade are finished before upgrade.
+				for (String tempTableName : Migrator.findTempTables(planDb)) {
+					String tableName = tempTableName.substring(0,
+							tempTableName.length() - Const.TableSchema.TEMP_TABLE_SUFFIX.length());
+					upgradePlan.addOperation(UpgradePlan.FINISH_MIGRATION, tableName, null,
+							upgradePlan.countRows(tempTableName), false);
+					planDb.execSQL("drop table if exists " + tempTableName);
+					planDb.delete(Const.TableSchema.TABLE_NAME, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+							new String[] { tempTableName.toLowerCase(Locale.US) });
+				}
+				upgrade(planDb, upgradePlan);
+			}
+		} finally {
+			LitePalAttr.setThreadInstance(null);
+			upgradePlan.finish();
+			planDb.close();
+		}
+		return upgradePlan;
+	}
+
+	/**
+	 * Copy the tables and indexes of database into the plan database, and the
+	 * rows of table_schema which decide how tables are upgraded.
+	 * 
+	 * @param db
+	 *            The database to copy from.
+	 * @param planDb
+	 *            The in-memory database to copy into.
+	 */
+	private static void copySchema(SQLiteDatabase db, SQLiteDatabase planDb) {
+		Cursor cursor = null;
+		try {
+			// The tables of SQLite and Android are created by themselves.
+			cursor = db.rawQuery("select sql from sqlite_master where type in ('table', 'index') and sql is not null"
+					+ " and name not like 'sqlite\\_%' escape '\\' and name <> 'android_metadata'"
+					+ " order by type = 'index'", null);
+			while (cursor.moveToNext()) {
+				planDb.execSQL(cursor.getString(0));
+			}
+			if (DBUtility.isTableExists(Const.TableSchema.TABLE_NAME, db)) {
+				cursor.close();
+				cursor = db.query(Const.TableSchema.TABLE_NAME, null, null, null, null, null, null);
+				while (cursor.moveToNext()) {
+					ContentValues values = new ContentValues();
+					DatabaseUtils.cursorRowToContentValues(cursor, values);
+					planDb.insert(Const.TableSchema.TABLE_NAME, null, values);
+				}
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Check if renaming a table keeps the references to it in other tables
+	 * unchanged. SQLite versions without legacy_alter_table always behave
+	 * like this.
+	 * 
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return True if legacy alter table behavior is on, false otherwise.
+	 */
+	private static boolean isLegacyAlterTable(SQLiteDatabase db) {
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("pragma legacy_alter_table", null);
+			return !cursor.moveToFirst() || cursor.getInt(0) == 1;
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
 	}
 
 	/**
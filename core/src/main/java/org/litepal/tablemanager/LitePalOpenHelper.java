@@ -17,12 +17,14 @@
 package org.litepal.tablemanager;
 
 import android.content.Context;
+import android.os.Build;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteDatabase.CursorFactory;
 import android.database.sqlite.SQLiteOpenHelper;
 
 import org.litepal.LitePalApplication;
 import org.litepal.Operator;
+import org.litepal.crud.StatementCache;
 import org.litepal.parser.LitePalAttr;
 import org.litepal.tablemanager.callback.DatabaseListener;
 import org.litepal.util.SharedUtil;
@@ -80,6 +82,12 @@ class LitePalOpenHelper extends SQLiteOpenHelper {
         this(LitePalApplication.getContext(), dbName, null, version);
     }
 
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        configureSqlCache(db);
+    }
+
     @Override
     public void onCreate(SQLiteDatabase db) {
         Generator.create(db);
@@ -96,6 +104,8 @@ class LitePalOpenHelper extends SQLiteOpenHelper {
 
     @Override
     public void onUpgrade(SQLiteDatabase db, final int oldVersion, final int newVersion) {
+        // Finish the migrations left by last upgrade, so tables can be rebuilt again.
+        Migrator.migrate(db);
         Generator.upgrade(db);
         SharedUtil.updateVersion(LitePalAttr.getInstance().getExtraKeyName(), newVersion);
         final DatabaseListener listener = Operator.getDBListener();
@@ -109,4 +119,42 @@ class LitePalOpenHelper extends SQLiteOpenHelper {
         }
     }
 
-}
\ No newline at end of file
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            // onConfigure is not called before API 16.
+            configureSqlCache(db);
+        }
+        if (!db.isReadOnly()) {
+            LitePalAttr litePalAttr = LitePalAttr.getInstance();
+            if (Migrator.hasPendingMigrations(db)) {
+                // Rows of rebuilt tables are copied before foreign key constraints are enforced, as the
+                // referenced tables may not be migrated yet.
+                if (litePalAttr.isBackgroundMigration() && !litePalAttr.isForeignKeysEnabled()) {
+                    Migrator.migrateInBackground(db);
+                } else {
+                    Migrator.migrate(db);
+                }
+            }
+            if (litePalAttr.isForeignKeysEnabled()) {
+                // Foreign key constraints are not enforced by SQLite unless turned on for each connection.
+                db.execSQL("pragma foreign_keys = on");
+            }
+        }
+    }
+
+    /**
+     * Let the connection keep as many prepared statements as
+     * {@link StatementCache} does. The connection keeps 25 statements by
+     * default, so the cached statements of insert, update and delete on many
+     * tables would be compiled again at each execution.
+     *
+     * @param db
+     *            Instance of SQLiteDatabase.
+     */
+    private void configureSqlCache(SQLiteDatabase db) {
+        db.setMaxSqlCacheSize(StatementCache.MAX_SIZE);
+    }
+
+}
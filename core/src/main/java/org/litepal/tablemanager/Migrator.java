@@ -0,0 +1,545 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.tablemanager;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
+
+import org.litepal.LitePalApplication;
+import org.litepal.Operator;
+import org.litepal.tablemanager.callback.DatabaseListener;
+import org.litepal.tablemanager.model.ColumnModel;
+import org.litepal.tablemanager.model.TableModel;
+import org.litepal.util.Const;
+import org.litepal.util.DBUtility;
+import org.litepal.util.LitePalLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Copy the data of rebuilt tables from their temporary tables. When a table is
+ * rebuilt during upgrade, {@link Upgrader} only creates the new table and
+ * leaves the data in the temporary table, with a record in table_schema. Then
+ * the rows are copied by id range chunk after chunk, each chunk in its own
+ * transaction, and the last copied id is saved into table_schema as
+ * checkpoint. So the database is never held for a long time, and the
+ * migration resumes from the checkpoint if the process is killed.
+ * <p>
+ * Null values are filled with the backfill expression declared by
+ * {@link org.litepal.annotation.Column#backfill()}, or for not null columns
+ * without it, the declared default value or the zero value of the column
+ * type. {@link Upgrader} refuses to rebuild a table if a new unique column
+ * would get the same value on different rows, so no row is dropped for that.
+ * The rows still violating constraints of the rebuilt table are skipped and
+ * reported by {@link DatabaseListener#onMigrationConflict(String, List)}
+ * instead of failing the whole upgrade. A chunk is copied row by row if its
+ * violation can't be skipped by insert or ignore, so a single bad row can't
+ * make every open of the database fail.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class Migrator {
+
+	public static final String TAG = "Migrator";
+
+	/**
+	 * The max number of rows copied in one transaction.
+	 */
+	private static final int CHUNK_SIZE = 2000;
+
+	/**
+	 * Lock of the migrating state.
+	 */
+	private static final Object sLock = new Object();
+
+	/**
+	 * Indicates a background migration is running or not.
+	 */
+	private static boolean sMigrating;
+
+	/**
+	 * Disable to create an instance of Migrator.
+	 */
+	private Migrator() {
+	}
+
+	/**
+	 * Check if a background migration is running. The rebuilt tables are not
+	 * complete until it's finished.
+	 *
+	 * @return True if the migration is running, false otherwise.
+	 */
+	public static boolean isMigrating() {
+		synchronized (sLock) {
+			return sMigrating;
+		}
+	}
+
+	/**
+	 * Wait until the background migration is finished. Return immediately if
+	 * there's no migration running.
+	 */
+	public static void awaitMigration() {
+		synchronized (sLock) {
+			boolean interrupted = false;
+			while (sMigrating) {
+				try {
+					sLock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Check if there're rebuilt tables whose data are not copied yet.
+	 *
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return True if there're pending migrations, false otherwise.
+	 */
+	static boolean hasPendingMigrations(SQLiteDatabase db) {
+		return !findTempTables(db).isEmpty();
+	}
+
+	/**
+	 * Copy the data of all rebuilt tables in a background thread. The data
+	 * operations of LitePal wait until the migration is finished.
+	 *
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 */
+	static void migrateInBackground(final SQLiteDatabase db) {
+		synchronized (sLock) {
+			if (sMigrating) {
+				return;
+			}
+			sMigrating = true;
+		}
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					migrate(db);
+				} finally {
+					synchronized (sLock) {
+						sMigrating = false;
+						sLock.notifyAll();
+					}
+				}
+			}
+		}, "LitePal-Migrator");
+		thread.start();
+	}
+
+	/**
+	 * Copy the data of all rebuilt tables in the current thread.
+	 *
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 */
+	static void migrate(SQLiteDatabase db) {
+		List<String> tempTables = findTempTables(db);
+		if (tempTables.isEmpty()) {
+			return;
+		}
+		for (String tempTableName : tempTables) {
+			migrateTable(tempTableName, db);
+		}
+		final DatabaseListener listener = Operator.getDBListener();
+		if (listener != null) {
+			LitePalApplication.sHandler.post(new Runnable() {
+				@Override
+				public void run() {
+					listener.onMigrationFinish();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Copy the data of a temporary table into the rebuilt table from the
+	 * checkpoint, then drop the temporary table.
+	 *
+	 * @param tempTableName
+	 *            The temporary table name.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 */
+	private static void migrateTable(String tempTableName, SQLiteDatabase db) {
+		String tableName = tempTableName.substring(0, tempTableName.length() - Const.TableSchema.TEMP_TABLE_SUFFIX.length());
+		if (DBUtility.isTableExists(tableName, db) && DBUtility.isTableExists(tempTableName, db)) {
+			String migrationSQL = generateMigrationSQL(tableName, tempTableName, db);
+			long checkpoint = findCheckpoint(tempTableName, db);
+			long totalRows = queryLong("select count(*) from " + tempTableName, db);
+			long migratedRows = queryLong("select count(*) from " + tempTableName + " where id <= " + checkpoint, db);
+			LitePalLog.d(TAG, "migrate " + tableName + " from id " + checkpoint + " >> " + migrationSQL);
+			while (migrationSQL != null) {
+				List<ContentValues> conflictRows = null;
+				db.beginTransaction();
+				try {
+					long upperId = queryLong("select max(id) from (select id from " + tempTableName + " where id > "
+							+ checkpoint + " order by id limit " + CHUNK_SIZE + ")", db);
+					if (upperId <= checkpoint) {
+						break;
+					}
+					String range = " where id > " + checkpoint + " and id <= " + upperId;
+					long chunkRows = queryLong("select count(*) from " + tempTableName + range, db);
+					long insertedRows;
+					try {
+						insertedRows = executeUpdateDelete(migrationSQL + range, db);
+					} catch (SQLiteConstraintException e) {
+						// Insert or ignore doesn't skip some violations, such as foreign key constraints. The
+						// version is upgraded already, so the chunk is copied row by row instead of failing
+						// every time the database is opened.
+						LitePalLog.d(TAG, "migrate " + tableName + " row by row >> " + e.getMessage());
+						insertedRows = migrateRowByRow(migrationSQL, tempTableName, range, db);
+					}
+					if (insertedRows < chunkRows) {
+						conflictRows = findConflictRows(tableName, tempTableName, range, db);
+					}
+					migratedRows += chunkRows;
+					ContentValues values = new ContentValues();
+					values.put(Const.TableSchema.COLUMN_CHECKPOINT, upperId);
+					db.update(Const.TableSchema.TABLE_NAME, values, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+							new String[] { tempTableName.toLowerCase(Locale.US) });
+					db.setTransactionSuccessful();
+					checkpoint = upperId;
+				} finally {
+					db.endTransaction();
+				}
+				if (conflictRows != null) {
+					notifyConflict(tableName, conflictRows);
+				}
+				notifyProgress(tableName, migratedRows, totalRows);
+			}
+		}
+		db.beginTransaction();
+		try {
+			db.execSQL("drop table if exists " + tempTableName);
+			db.delete(Const.TableSchema.TABLE_NAME, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+					new String[] { tempTableName.toLowerCase(Locale.US) });
+			db.setTransactionSuccessful();
+		} finally {
+			db.endTransaction();
+		}
+	}
+
+	/**
+	 * Copy the rows in id range one by one, so the rows violating constraints
+	 * are skipped and the others are still copied.
+	 *
+	 * @param migrationSQL
+	 *            The SQL to copy rows, without the where clause.
+	 * @param tempTableName
+	 *            The temporary table name.
+	 * @param range
+	 *            The where clause of id range.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The number of rows copied.
+	 */
+	private static long migrateRowByRow(String migrationSQL, String tempTableName, String range, SQLiteDatabase db) {
+		List<Long> ids = new ArrayList<>();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("select id from " + tempTableName + range, null);
+			while (cursor.moveToNext()) {
+				ids.add(cursor.getLong(0));
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		long insertedRows = 0;
+		for (long id : ids) {
+			try {
+				insertedRows += executeUpdateDelete(migrationSQL + " where id = " + id, db);
+			} catch (SQLiteConstraintException e) {
+				LitePalLog.d(TAG, "skip row " + id + " of " + tempTableName + " >> " + e.getMessage());
+			}
+		}
+		return insertedRows;
+	}
+
+	/**
+	 * Execute a SQL which changes rows.
+	 *
+	 * @param sql
+	 *            The SQL to execute.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The number of rows changed.
+	 */
+	private static long executeUpdateDelete(String sql, SQLiteDatabase db) {
+		SQLiteStatement statement = db.compileStatement(sql);
+		try {
+			return statement.executeUpdateDelete();
+		} finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Generate the SQL which copies rows from the temporary table, without the
+	 * where clause of id range. The columns exist in both tables with the same
+	 * type are copied, and columns whose types are changed are not migrated.
+	 * Columns which may have no value are filled by
+	 * {@link #generateColumnValue(ColumnModel, String, boolean)}.
+	 *
+	 * @param tableName
+	 *            The rebuilt table name.
+	 * @param tempTableName
+	 *            The temporary table name.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The SQL to copy rows, or null if there's no column to copy.
+	 */
+	private static String generateMigrationSQL(String tableName, String tempTableName, SQLiteDatabase db) {
+		TableModel tableModel = DBUtility.findPragmaTableInfo(tableName, db);
+		TableModel tempTableModel = DBUtility.findPragmaTableInfo(tempTableName, db);
+		TableModel classTableModel = new Creator().findTableModel(tableName);
+		StringBuilder columns = new StringBuilder();
+		StringBuilder values = new StringBuilder();
+		boolean hasMigrationColumn = false;
+		for (ColumnModel columnModel : tableModel.getColumnModels()) {
+			String columnName = columnModel.getColumnName();
+			ColumnModel tempColumnModel = tempTableModel.getColumnModelByName(columnName);
+			boolean copyable = false;
+			if (tempColumnModel != null) {
+				String type = columnModel.getColumnType();
+				String tempType = tempColumnModel.getColumnType();
+				copyable = type.equalsIgnoreCase(tempType) || ("blob".equalsIgnoreCase(type) && TextUtils.isEmpty(tempType));
+				hasMigrationColumn |= copyable;
+			}
+			ColumnModel classColumnModel = classTableModel == null ? null : classTableModel.getColumnModelByName(columnName);
+			String backfill = classColumnModel == null ? null : classColumnModel.getBackfill();
+			String value = generateColumnValue(columnModel, backfill, copyable);
+			if (value != null) {
+				if (columns.length() > 0) {
+					columns.append(", ");
+					values.append(", ");
+				}
+				columns.append(columnName);
+				values.append(value);
+			}
+		}
+		if (!hasMigrationColumn) {
+			return null;
+		}
+		return "insert or ignore into " + tableName + " (" + columns + ") select " + values + " from " + tempTableName;
+	}
+
+	/**
+	 * Generate the value a column of the rebuilt table is copied with. The
+	 * null values are filled with the backfill expression declared by
+	 * {@link org.litepal.annotation.Column#backfill()}. Without it, null
+	 * values of not null columns are filled by
+	 * {@link DBUtility#getBackfillValue(ColumnModel)}, and other columns are
+	 * left to their default values if they can't be copied.
+	 *
+	 * @param columnModel
+	 *            The column of the rebuilt table.
+	 * @param backfill
+	 *            The backfill expression of the column, or empty.
+	 * @param copyable
+	 *            If the column can be copied from the temporary table.
+	 * @return The value as SQL expression, or null if the column is not
+	 *         copied.
+	 */
+	static String generateColumnValue(ColumnModel columnModel, String backfill, boolean copyable) {
+		String value = copyable ? columnModel.getColumnName() : null;
+		String backfillValue = null;
+		if (!TextUtils.isEmpty(backfill)) {
+			backfillValue = "(" + backfill + ")";
+		} else if (!columnModel.isNullable() && (copyable || TextUtils.isEmpty(columnModel.getDefaultValue()))) {
+			backfillValue = DBUtility.getBackfillValue(columnModel);
+		}
+		if (backfillValue != null) {
+			value = value == null ? backfillValue : "coalesce(" + value + ", " + backfillValue + ")";
+		}
+		return value;
+	}
+
+	/**
+	 * Find the rows in id range of the temporary table which are not copied,
+	 * as they violate the constraints of the rebuilt table.
+	 *
+	 * @param tableName
+	 *            The rebuilt table name.
+	 * @param tempTableName
+	 *            The temporary table name.
+	 * @param range
+	 *            The where clause of id range.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The values of rows not copied.
+	 */
+	private static List<ContentValues> findConflictRows(String tableName, String tempTableName, String range,
+			SQLiteDatabase db) {
+		List<ContentValues> conflictRows = new ArrayList<>();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("select * from " + tempTableName + range + " and id not in (select id from "
+					+ tableName + range + ")", null);
+			while (cursor.moveToNext()) {
+				ContentValues values = new ContentValues();
+				DatabaseUtils.cursorRowToContentValues(cursor, values);
+				conflictRows.add(values);
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		LitePalLog.d(TAG, conflictRows.size() + " rows of " + tempTableName + " are not copied into " + tableName);
+		return conflictRows;
+	}
+
+	/**
+	 * Find the temporary tables which are waiting for migration.
+	 *
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The names of the temporary tables.
+	 */
+	static List<String> findTempTables(SQLiteDatabase db) {
+		List<String> tempTables = new ArrayList<>();
+		Cursor cursor = null;
+		try {
+			cursor = db.query(Const.TableSchema.TABLE_NAME, new String[] { Const.TableSchema.COLUMN_NAME },
+					Const.TableSchema.COLUMN_TYPE + " = ?", new String[] { String.valueOf(Const.TableSchema.MIGRATING_TABLE) },
+					null, null, null);
+			while (cursor.moveToNext()) {
+				tempTables.add(cursor.getString(0));
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		return tempTables;
+	}
+
+	/**
+	 * Find the last copied id of the temporary table.
+	 *
+	 * @param tempTableName
+	 *            The temporary table name.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The last copied id, or 0 if nothing is copied.
+	 */
+	private static long findCheckpoint(String tempTableName, SQLiteDatabase db) {
+		Cursor cursor = null;
+		try {
+			cursor = db.query(Const.TableSchema.TABLE_NAME, new String[] { Const.TableSchema.COLUMN_CHECKPOINT },
+					"lower(" + Const.TableSchema.COLUMN_NAME + ") = ?", new String[] { tempTableName.toLowerCase(Locale.US) },
+					null, null, null);
+			if (cursor.moveToFirst()) {
+				return cursor.getLong(0);
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Run a query which returns a single number.
+	 *
+	 * @param sql
+	 *            The SQL to query.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return The number, or 0 if the result is null.
+	 */
+	private static long queryLong(String sql, SQLiteDatabase db) {
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery(sql, null);
+			if (cursor.moveToFirst() && !cursor.isNull(0)) {
+				return cursor.getLong(0);
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Notify the database listener the rows which are not copied.
+	 *
+	 * @param tableName
+	 *            The rebuilt table name.
+	 * @param conflictRows
+	 *            The values of rows not copied.
+	 */
+	private static void notifyConflict(final String tableName, final List<ContentValues> conflictRows) {
+		final DatabaseListener listener = Operator.getDBListener();
+		if (listener != null) {
+			LitePalApplication.sHandler.post(new Runnable() {
+				@Override
+				public void run() {
+					listener.onMigrationConflict(tableName, conflictRows);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Notify the database listener the progress of migration.
+	 *
+	 * @param tableName
+	 *            The rebuilt table name.
+	 * @param migratedRows
+	 *            The number of rows copied.
+	 * @param totalRows
+	 *            The number of rows to copy.
+	 */
+	private static void notifyProgress(final String tableName, final long migratedRows, final long totalRows) {
+		final DatabaseListener listener = Operator.getDBListener();
+		if (listener != null) {
+			LitePalApplication.sHandler.post(new Runnable() {
+				@Override
+				public void run() {
+					listener.onMigrationProgress(tableName, migratedRows, totalRows);
+				}
+			});
+		}
+	}
+
+}
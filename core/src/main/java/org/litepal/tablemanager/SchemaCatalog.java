@@ -0,0 +1,417 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.tablemanager;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.text.TextUtils;
+
+import org.litepal.exceptions.DatabaseGenerateException;
+import org.litepal.tablemanager.model.TableModel;
+import org.litepal.util.Const;
+import org.litepal.util.DBUtility;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps the schema of database in memory while tables are created or
+ * upgraded. The tables and indexes in sqlite_master and the table types in
+ * table_schema are loaded in one pass at the first lookup, and the columns of
+ * a table are read by pragmas only once when they are asked at the first
+ * time. Lookups are answered from memory without any query, until SQLs are
+ * executed and the catalog is marked as stale by {@link #markStale()}. Then
+ * the next lookup checks the schema version of database, which SQLite
+ * increases at every schema change. Only if it changed, sqlite_master is
+ * loaded again, and the tables whose definitions or indexes changed are read
+ * by pragmas again. {@link Generator#execute(java.util.List, SQLiteDatabase)}
+ * marks the catalog after each SQL, so SQLs executed in other ways while
+ * creating or upgrading tables should mark it too. Then the number of queries
+ * during upgrade grows with the number of tables and executed SQLs, instead of
+ * the number of tables times the number of lookups.
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+class SchemaCatalog {
+
+	/**
+	 * The database which the schema belongs to.
+	 */
+	private final SQLiteDatabase mDb;
+
+	/**
+	 * Lower case table names as key, table names as value. Null if not loaded
+	 * yet.
+	 */
+	private Map<String, String> mTableNames;
+
+	/**
+	 * Lower case table names as key, the SQLs of the table and its indexes in
+	 * sqlite_master as value. They tell which tables are changed when
+	 * sqlite_master is loaded again.
+	 */
+	private Map<String, String> mTableDefinitions;
+
+	/**
+	 * Lower case table names as key, the indexes declared by
+	 * {@link org.litepal.annotation.Index} as value.
+	 */
+	private Map<String, Map<String, String>> mDeclaredIndexes;
+
+	/**
+	 * The schema version of database when sqlite_master was loaded.
+	 */
+	private int mSchemaVersion;
+
+	/**
+	 * SQLs are executed since the schema version was checked last time, so
+	 * the schema might be changed.
+	 */
+	private boolean mStale;
+
+	/**
+	 * Lower case table names as key, table models read by pragmas as value.
+	 * Tables not in the map are read again at the next lookup.
+	 */
+	private final Map<String, TableModel> mTableModels = new HashMap<>();
+
+	/**
+	 * Lower case table names as key, table types saved in table_schema as
+	 * value. Null if not loaded yet.
+	 */
+	private Map<String, Integer> mTableTypes;
+
+	SchemaCatalog(SQLiteDatabase db) {
+		mDb = db;
+	}
+
+	/**
+	 * Called after SQLs are executed on the database. The next lookup checks
+	 * the schema version, and loads the changed schema if there is.
+	 */
+	void markStale() {
+		mStale = true;
+	}
+
+	/**
+	 * Judge the catalog keeps the schema of the database or not.
+	 *
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return True if the catalog belongs to the database.
+	 */
+	boolean isCatalogOf(SQLiteDatabase db) {
+		return mDb == db;
+	}
+
+	/**
+	 * Find all table names in the database.
+	 *
+	 * @return A list with all table names.
+	 */
+	List<String> findAllTableNames() {
+		loadSchema();
+		return new ArrayList<>(mTableNames.values());
+	}
+
+	/**
+	 * Test if the table exists in the database. Cases are ignored.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return Return true if the table exists, otherwise return false.
+	 */
+	boolean isTableExists(String tableName) {
+		loadSchema();
+		return !TextUtils.isEmpty(tableName) && mTableNames.containsKey(toKey(tableName));
+	}
+
+	/**
+	 * Test if a column exists in a table. Cases are ignored.
+	 *
+	 * @param columnName
+	 *            The column name.
+	 * @param tableName
+	 *            The table name.
+	 * @return Return true if the column exists, otherwise return false.
+	 */
+	boolean isColumnExists(String columnName, String tableName) {
+		if (TextUtils.isEmpty(columnName) || !isTableExists(tableName)) {
+			return false;
+		}
+		return findPragmaTableInfo(tableName).containsColumn(columnName);
+	}
+
+	/**
+	 * Find the columns of the table. The table is read by pragmas only if it's
+	 * asked at the first time or its definition changed since last lookup.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return A table model object with values from database table.
+	 * @throws org.litepal.exceptions.DatabaseGenerateException
+	 */
+	TableModel findPragmaTableInfo(String tableName) {
+		if (!isTableExists(tableName)) {
+			throw new DatabaseGenerateException(
+					DatabaseGenerateException.TABLE_DOES_NOT_EXIST_WHEN_EXECUTING + tableName);
+		}
+		String key = toKey(tableName);
+		TableModel tableModel = mTableModels.get(key);
+		if (tableModel == null) {
+			tableModel = DBUtility.findPragmaTableInfo(tableName, mDb);
+			mTableModels.put(key, tableModel);
+		}
+		return tableModel;
+	}
+
+	/**
+	 * Find the indexes declared by {@link org.litepal.annotation.Index} of the
+	 * table, with the SQLs created them.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return Lower case index names as key, SQLs as value. The map can be
+	 *         changed by callers.
+	 */
+	Map<String, String> findDeclaredIndexes(String tableName) {
+		if (!isTableExists(tableName)) {
+			return new HashMap<>();
+		}
+		Map<String, String> indexes = mDeclaredIndexes.get(toKey(tableName));
+		return indexes == null ? new HashMap<String, String>() : new HashMap<>(indexes);
+	}
+
+	/**
+	 * Judge the table is an intermediate join table or not by table_schema.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return Return true if the table is an intermediate join table.
+	 */
+	boolean isIntermediateTable(String tableName) {
+		return isTableType(tableName, Const.TableSchema.INTERMEDIATE_JOIN_TABLE);
+	}
+
+	/**
+	 * Judge the table is a generic table or not by table_schema.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return Return true if the table is a generic table.
+	 */
+	boolean isGenericTable(String tableName) {
+		return isTableType(tableName, Const.TableSchema.GENERIC_TABLE);
+	}
+
+	/**
+	 * Get all the tables saved in table_schema with their types.
+	 *
+	 * @return Lower case table names as key, table types as value.
+	 */
+	Map<String, Integer> getTableTypes() {
+		loadTableTypes();
+		return new LinkedHashMap<>(mTableTypes);
+	}
+
+	/**
+	 * Judge the table is saved in table_schema or not.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return Return true if table_schema has the table.
+	 */
+	boolean isInTableSchema(String tableName) {
+		loadTableTypes();
+		return mTableTypes.containsKey(toKey(tableName));
+	}
+
+	/**
+	 * Called after the table is saved into table_schema.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @param tableType
+	 *            The table type.
+	 */
+	void putTableType(String tableName, int tableType) {
+		if (mTableTypes != null) {
+			mTableTypes.put(toKey(tableName), tableType);
+		}
+	}
+
+	/**
+	 * Called after the tables are removed from table_schema.
+	 *
+	 * @param tableNames
+	 *            The table names.
+	 */
+	void removeTableTypes(List<String> tableNames) {
+		if (mTableTypes != null) {
+			for (String tableName : tableNames) {
+				mTableTypes.remove(toKey(tableName));
+			}
+		}
+	}
+
+	/**
+	 * Load the tables and indexes from sqlite_master in one query, if not
+	 * loaded yet or the schema changed since last load. The schema version is
+	 * only checked when the catalog is stale. The columns of the
+	 * tables whose definitions changed are forgotten, so they are read again
+	 * at the next lookup.
+	 *
+	 * @throws org.litepal.exceptions.DatabaseGenerateException
+	 */
+	private void loadSchema() {
+		if (mTableNames != null && !mStale) {
+			return;
+		}
+		mStale = false;
+		int schemaVersion = querySchemaVersion();
+		if (mTableNames != null && schemaVersion == mSchemaVersion) {
+			return;
+		}
+		Map<String, String> tableNames = new LinkedHashMap<>();
+		Map<String, Map<String, String>> declaredIndexes = new HashMap<>();
+		Map<String, String> tableDefinitions = new HashMap<>();
+		Cursor cursor = null;
+		try {
+			// Order by name, so the definitions are comparable between loads.
+			cursor = mDb.rawQuery("select type, name, tbl_name, sql from sqlite_master where type in ('table', 'index')"
+					+ " order by type = 'index', name", null);
+			while (cursor.moveToNext()) {
+				String type = cursor.getString(0);
+				String name = cursor.getString(1);
+				String tableName = cursor.getString(2);
+				String sql = cursor.getString(3);
+				String key = toKey(tableName);
+				Map<String, String> indexes = declaredIndexes.get(key);
+				if (indexes == null) {
+					indexes = new HashMap<>();
+					declaredIndexes.put(key, indexes);
+				}
+				if ("table".equalsIgnoreCase(type)) {
+					tableNames.put(key, tableName);
+				} else if (sql != null && DBUtility.isDeclaredIndex(tableName, name)) {
+					indexes.put(toKey(name), sql);
+				}
+				String definition = tableDefinitions.get(key);
+				tableDefinitions.put(key, (definition == null ? "" : definition + "\n") + type + " " + name + " " + sql);
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			throw new DatabaseGenerateException(e.getMessage());
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		if (mTableDefinitions != null) {
+			Iterator<String> iterator = mTableModels.keySet().iterator();
+			while (iterator.hasNext()) {
+				String key = iterator.next();
+				String definition = tableDefinitions.get(key);
+				if (definition == null || !definition.equals(mTableDefinitions.get(key))) {
+					iterator.remove();
+				}
+			}
+		}
+		mTableNames = tableNames;
+		mDeclaredIndexes = declaredIndexes;
+		mTableDefinitions = tableDefinitions;
+		mSchemaVersion = schemaVersion;
+	}
+
+	/**
+	 * Query the schema version of database, which SQLite increases each time
+	 * the schema is changed.
+	 *
+	 * @return The schema version.
+	 */
+	private int querySchemaVersion() {
+		Cursor cursor = null;
+		try {
+			cursor = mDb.rawQuery("pragma schema_version", null);
+			return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+		} catch (Exception e) {
+			e.printStackTrace();
+			throw new DatabaseGenerateException(e.getMessage());
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Load the table types from table_schema in one query, if not loaded yet.
+	 * table_schema might not be created yet, then no table has a type.
+	 */
+	private void loadTableTypes() {
+		if (mTableTypes != null) {
+			return;
+		}
+		mTableTypes = new LinkedHashMap<>();
+		Cursor cursor = null;
+		try {
+			cursor = mDb.query(Const.TableSchema.TABLE_NAME, new String[] { Const.TableSchema.COLUMN_NAME,
+					Const.TableSchema.COLUMN_TYPE }, null, null, null, null, null);
+			while (cursor.moveToNext()) {
+				String name = cursor.getString(0);
+				if (name != null) {
+					mTableTypes.put(toKey(name), cursor.getInt(1));
+				}
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+
+	/**
+	 * Judge the table is the given type in table_schema or not.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @param tableType
+	 *            The expected table type.
+	 * @return Return true if the table is the expected type.
+	 */
+	private boolean isTableType(String tableName, int tableType) {
+		if (TextUtils.isEmpty(tableName)) {
+			return false;
+		}
+		loadTableTypes();
+		Integer type = mTableTypes.get(toKey(tableName));
+		return type != null && type == tableType;
+	}
+
+	private static String toKey(String tableName) {
+		return tableName.toLowerCase(Locale.US);
+	}
+
+}
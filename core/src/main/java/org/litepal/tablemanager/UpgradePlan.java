@@ -0,0 +1,378 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.litepal.tablemanager;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The operations which will be performed on the tables when the database is
+ * created or upgraded, planned by {@link org.litepal.Operator#planUpgrade(org.litepal.LitePalDB)}
+ * without changing the database. The operations are in the order they will be
+ * performed, and each of them has the estimated number of rows it goes
+ * through, and a flag tells it may lose data or not.
+ * <p>
+ * The plan is made on the schema of database only, the rows are just
+ * counted. So it can't tell the rows which will be skipped for violating
+ * the constraints while copying a rebuilt table, nor that the upgrade will
+ * be refused for duplicate values of a new unique column. The indexes of
+ * associations are created or dropped without being listed.
+ *
+ * <pre>
+ * UpgradePlan plan = LitePal.planUpgrade(litePalDB);
+ * if (plan.hasDestructiveOperations() || plan.getEstimatedRows() &gt; 100000) {
+ *     Log.w(TAG, plan.toJson());
+ * }
+ * </pre>
+ *
+ * @author Tony Green
+ * @since 3.3
+ */
+public class UpgradePlan {
+
+	/**
+	 * Create a new table.
+	 */
+	public static final String CREATE_TABLE = "create_table";
+
+	/**
+	 * Drop a table which has no model class or association anymore.
+	 */
+	public static final String DROP_TABLE = "drop_table";
+
+	/**
+	 * Rebuild a table and copy its rows, as the changes can't be done by
+	 * alter table.
+	 */
+	public static final String REBUILD_TABLE = "rebuild_table";
+
+	/**
+	 * Add a column by alter table.
+	 */
+	public static final String ADD_COLUMN = "add_column";
+
+	/**
+	 * Drop a column by alter table.
+	 */
+	public static final String DROP_COLUMN = "drop_column";
+
+	/**
+	 * Create an index declared by {@link org.litepal.annotation.Index}.
+	 */
+	public static final String CREATE_INDEX = "create_index";
+
+	/**
+	 * Drop an index declared by {@link org.litepal.annotation.Index}.
+	 */
+	public static final String DROP_INDEX = "drop_index";
+
+	/**
+	 * Copy the rest rows of a table rebuilt by last upgrade, which is not
+	 * finished yet.
+	 */
+	public static final String FINISH_MIGRATION = "finish_migration";
+
+	/**
+	 * The version of database file, 0 if it doesn't exist yet.
+	 */
+	private final int oldVersion;
+
+	/**
+	 * The version to upgrade to.
+	 */
+	private final int newVersion;
+
+	/**
+	 * The operations in order.
+	 */
+	private final List<Operation> operations = new ArrayList<>();
+
+	/**
+	 * The database file to count rows, or null if it doesn't exist. It's only
+	 * used while planning.
+	 */
+	private SQLiteDatabase sourceDb;
+
+	/**
+	 * Lower case table names as key, row counts as value.
+	 */
+	private final Map<String, Long> rowCounts = new HashMap<>();
+
+	UpgradePlan(int oldVersion, int newVersion, SQLiteDatabase sourceDb) {
+		this.oldVersion = oldVersion;
+		this.newVersion = newVersion;
+		this.sourceDb = sourceDb;
+	}
+
+	/**
+	 * Get the version of database file.
+	 *
+	 * @return The version of database file, or 0 if it doesn't exist yet.
+	 */
+	public int getOldVersion() {
+		return oldVersion;
+	}
+
+	/**
+	 * Get the version to upgrade to. The database is only upgraded when it's
+	 * greater than the old version.
+	 *
+	 * @return The version to upgrade to.
+	 */
+	public int getNewVersion() {
+		return newVersion;
+	}
+
+	/**
+	 * Get the operations in the order they will be performed.
+	 *
+	 * @return An unmodifiable list of operations.
+	 */
+	public List<Operation> getOperations() {
+		return Collections.unmodifiableList(operations);
+	}
+
+	/**
+	 * Get the total estimated rows of all operations.
+	 *
+	 * @return The sum of estimated rows.
+	 */
+	public long getEstimatedRows() {
+		long rows = 0;
+		for (Operation operation : operations) {
+			rows += operation.getEstimatedRows();
+		}
+		return rows;
+	}
+
+	/**
+	 * Check if any operation may lose data.
+	 *
+	 * @return True if there's any destructive operation, false otherwise.
+	 */
+	public boolean hasDestructiveOperations() {
+		for (Operation operation : operations) {
+			if (operation.isDestructive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Export the plan as JSON, so it can be checked by CI.
+	 *
+	 * @return The plan in JSON.
+	 */
+	public String toJson() {
+		try {
+			JSONArray array = new JSONArray();
+			for (Operation operation : operations) {
+				JSONObject object = new JSONObject();
+				object.put("type", operation.getType());
+				object.put("table", operation.getTableName());
+				if (operation.getDetail() != null) {
+					object.put("detail", operation.getDetail());
+				}
+				object.put("estimatedRows", operation.getEstimatedRows());
+				object.put("destructive", operation.isDestructive());
+				array.put(object);
+			}
+			JSONObject plan = new JSONObject();
+			plan.put("oldVersion", oldVersion);
+			plan.put("newVersion", newVersion);
+			plan.put("estimatedRows", getEstimatedRows());
+			plan.put("destructive", hasDestructiveOperations());
+			plan.put("operations", array);
+			return plan.toString(2);
+		} catch (JSONException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("UpgradePlan ");
+		builder.append(oldVersion).append(" -> ").append(newVersion);
+		for (Operation operation : operations) {
+			builder.append("\n").append(operation);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Add an operation with the rows of the table it goes through. Creating a
+	 * table, adding a column or dropping an index doesn't go through rows.
+	 *
+	 * @param type
+	 *            The operation type.
+	 * @param tableName
+	 *            The table name.
+	 * @param detail
+	 *            The column or index name, or null.
+	 * @param destructive
+	 *            The operation may lose data or not.
+	 */
+	void addOperation(String type, String tableName, String detail, boolean destructive) {
+		boolean goesThroughRows = !CREATE_TABLE.equals(type) && !ADD_COLUMN.equals(type)
+				&& !DROP_INDEX.equals(type);
+		addOperation(type, tableName, detail, goesThroughRows ? countRows(tableName) : 0, destructive);
+	}
+
+	/**
+	 * Add an operation with the estimated rows.
+	 *
+	 * @param type
+	 *            The operation type.
+	 * @param tableName
+	 *            The table name.
+	 * @param detail
+	 *            The column or index name, or null.
+	 * @param estimatedRows
+	 *            The estimated rows the operation goes through.
+	 * @param destructive
+	 *            The operation may lose data or not.
+	 */
+	void addOperation(String type, String tableName, String detail, long estimatedRows, boolean destructive) {
+		operations.add(new Operation(type, tableName, detail, estimatedRows, destructive));
+	}
+
+	/**
+	 * Count the rows of table in database file. The table which doesn't exist
+	 * has no rows.
+	 *
+	 * @param tableName
+	 *            The table name.
+	 * @return The row count.
+	 */
+	long countRows(String tableName) {
+		if (sourceDb == null) {
+			return 0;
+		}
+		String key = tableName.toLowerCase(Locale.US);
+		Long rows = rowCounts.get(key);
+		if (rows == null) {
+			try {
+				rows = DatabaseUtils.queryNumEntries(sourceDb, tableName);
+			} catch (Exception e) {
+				rows = 0L;
+			}
+			rowCounts.put(key, rows);
+		}
+		return rows;
+	}
+
+	/**
+	 * Called when planning is finished, the database file is not used
+	 * anymore.
+	 */
+	void finish() {
+		sourceDb = null;
+		rowCounts.clear();
+	}
+
+	/**
+	 * An operation on a table.
+	 */
+	public static class Operation {
+
+		private final String type;
+
+		private final String tableName;
+
+		private final String detail;
+
+		private final long estimatedRows;
+
+		private final boolean destructive;
+
+		Operation(String type, String tableName, String detail, long estimatedRows, boolean destructive) {
+			this.type = type;
+			this.tableName = tableName;
+			this.detail = detail;
+			this.estimatedRows = estimatedRows;
+			this.destructive = destructive;
+		}
+
+		/**
+		 * Get the operation type, such as {@link UpgradePlan#REBUILD_TABLE}.
+		 *
+		 * @return The operation type.
+		 */
+		public String getType() {
+			return type;
+		}
+
+		/**
+		 * Get the table to operate on.
+		 *
+		 * @return The table name.
+		 */
+		public String getTableName() {
+			return tableName;
+		}
+
+		/**
+		 * Get the column or index to operate on, or the columns removed or
+		 * changed by rebuilding table.
+		 *
+		 * @return The detail of operation, or null.
+		 */
+		public String getDetail() {
+			return detail;
+		}
+
+		/**
+		 * Get the estimated rows the operation goes through, which is the row
+		 * count of the table in database file.
+		 *
+		 * @return The estimated rows.
+		 */
+		public long getEstimatedRows() {
+			return estimatedRows;
+		}
+
+		/**
+		 * Check if the operation may lose data, such as dropping a table or
+		 * column, or changing column types.
+		 *
+		 * @return True if the operation is destructive, false otherwise.
+		 */
+		public boolean isDestructive() {
+			return destructive;
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + tableName + (detail == null ? "" : " (" + detail + ")")
+					+ ", rows " + estimatedRows + (destructive ? ", destructive" : "");
+		}
+
+	}
+
+}
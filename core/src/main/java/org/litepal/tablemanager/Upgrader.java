@@ -16,12 +16,16 @@
 
 package org.litepal.tablemanager;
 
+import android.database.DatabaseUtils;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
 
-import org.litepal.crud.model.AssociationsInfo;
 import org.litepal.tablemanager.model.ColumnModel;
+import org.litepal.tablemanager.model.IndexModel;
 import org.litepal.tablemanager.model.TableModel;
+import org.litepal.exceptions.DatabaseGenerateException;
+import org.litepal.util.BaseUtility;
 import org.litepal.util.Const;
 import org.litepal.util.DBUtility;
 import org.litepal.util.LitePalLog;
@@ -29,12 +33,16 @@ import org.litepal.util.LitePalLog;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
- * Upgrade the database. The first step is to remove the columns that can not
- * find the corresponding field in the model class. Then add the new added field
- * as new column into the table. At last it will check all the types of columns
- * to see which are changed.
+ * Upgrade the database. It finds out the columns that can not find the
+ * corresponding field in the model class, the new added fields, the columns
+ * whose types or constraints are changed, and the dump foreign key columns.
+ * Then all the changes of a table are done at once. New columns are added by
+ * alter table, and the table is rebuilt at most once if any change can not be
+ * done by alter table.
  * 
  * @author Tony Green
  * @since 1.0
@@ -50,6 +58,11 @@ public class Upgrader extends AssociationUpdater {
      */
     protected TableModel mTableModelDB;
 
+    /**
+     * Foreign key columns of the table in database.
+     */
+    private List<String> mForeignKeyColumns;
+
     /**
      * Indicates that column constraints has changed or not.
      */
@@ -57,45 +70,58 @@ public class Upgrader extends AssociationUpdater {
 
 	/**
 	 * Analyzing the table model, them remove the dump columns and add new
-	 * columns of a table.
+	 * columns of a table. The tables whose fingerprint didn't change are
+	 * skipped.
 	 */
 	@Override
 	protected void createOrUpgradeTable(SQLiteDatabase db, boolean force) {
 		mDb = db;
+		List<TableModel> tableModels = new ArrayList<>();
 		for (TableModel tableModel : getAllTableModels()) {
+			// table_schema keeps the checkpoints of migrations, so it's upgraded before other tables.
+			if (Const.TableSchema.TABLE_NAME.equalsIgnoreCase(tableModel.getTableName())) {
+				tableModels.add(0, tableModel);
+			} else {
+				tableModels.add(tableModel);
+			}
+		}
+		for (TableModel tableModel : tableModels) {
+			if (!isTableChanged(tableModel.getTableName())) {
+				LitePalLog.d(TAG, "createOrUpgradeTable: fingerprint unchanged, skip " + tableModel.getTableName());
+				continue;
+			}
 			mTableModel = tableModel;
             mTableModelDB = getTableModelFromDB(tableModel.getTableName());
+            mForeignKeyColumns = getForeignKeyColumns(mTableModel, mTableModelDB);
             LitePalLog.d(TAG, "createOrUpgradeTable: model is " + mTableModel.getTableName());
             upgradeTable();
 		}
 	}
 
 	/**
-	 * Upgrade table actions. Include remove dump columns, add new columns and
-	 * change column types. All the actions above will be done by the description
-     * order.
+	 * Upgrade table actions. Include remove dump columns and foreign key
+	 * columns, add new columns and change column types and constraints. The
+	 * table is rebuilt only once if any of them can not be done by alter
+	 * table.
 	 */
 	private void upgradeTable() {
-        if (hasNewUniqueOrNotNullColumn()) {
-            // Need to drop the table and create new one. Cause unique column can not be added, and null data can not be migrated.
-            createOrUpgradeTable(mTableModel, mDb, true);
-            // add foreign keys of the table.
-            Collection<AssociationsInfo> associationsInfo = getAssociationInfo(mTableModel.getClassName());
-            for (AssociationsInfo info : associationsInfo) {
-                if (info.getAssociationType() == Const.Model.MANY_TO_ONE
-                        || info.getAssociationType() == Const.Model.ONE_TO_ONE) {
-                    if (info.getClassHoldsForeignKey().equalsIgnoreCase(mTableModel.getClassName())) {
-                        String associatedTableName = DBUtility.getTableNameByClassName(info.getAssociatedClassName());
-                        addForeignKeyColumn(mTableModel.getTableName(), associatedTableName, mTableModel.getTableName(), mDb);
-                    }
-                }
-            }
+        // Unique column can not be added and nullable column can not be changed to not null by alter
+        // table. The table is rebuilt, and the rows are copied with null values filled by Migrator.
+        hasConstraintChanged = hasNewUniqueOrNotNullColumn();
+        List<String> columnsToRemove = findColumnsToRemove();
+        List<String> foreignKeysToRemove = findForeignKeyToRemove(mTableModel, mForeignKeyColumns);
+        columnsToRemove.addAll(foreignKeysToRemove);
+        mForeignKeyColumns.removeAll(foreignKeysToRemove);
+        List<ColumnModel> columnsToAdd = findColumnsToAdd();
+        List<ColumnModel> columnTypesToChange = findColumnTypesToChange();
+        if (!hasConstraintChanged) {
+            hasConstraintChanged = hasForeignKeyReferenceChanged();
+        }
+        if (!hasConstraintChanged && columnTypesToChange.isEmpty() && dropColumns(columnsToRemove)) {
+            addColumns(columnsToAdd);
+            upgradeDeclaredIndexes();
         } else {
-            hasConstraintChanged = false;
-            removeColumns(findColumnsToRemove());
-            addColumns(findColumnsToAdd());
-            changeColumnsType(findColumnTypesToChange());
-            changeColumnsConstraints();
+            rebuildTable(columnsToRemove, columnTypesToChange);
         }
 	}
 
@@ -120,6 +146,22 @@ public class Upgrader extends AssociationUpdater {
         return false;
     }
 
+    /**
+     * Check if the foreign key constraints of foreign key columns in database are different from
+     * the current foreign keys configuration. The table need to be rebuilt if so.
+     * @return True if any foreign key column has a different constraint. False otherwise.
+     */
+    private boolean hasForeignKeyReferenceChanged() {
+        for (String foreignKeyColumn : mForeignKeyColumns) {
+            ColumnModel columnModelDB = mTableModelDB.getColumnModelByName(foreignKeyColumn);
+            if (columnModelDB != null
+                    && !isSameForeignKeyReference(columnModelDB, generateForeignKeyColumnModel(foreignKeyColumn))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 	/**
 	 * It will find the difference between class model and table model. If
 	 * there's a field in the class without a corresponding column in the table,
@@ -214,7 +256,7 @@ public class Upgrader extends AssociationUpdater {
 	 */
 	private boolean isNeedToRemove(String columnName) {
 		return isRemovedFromClass(columnName) && !isIdColumn(columnName)
-				&& !isForeignKeyColumn(mTableModel, columnName);
+				&& !BaseUtility.containsIgnoreCases(mForeignKeyColumns, columnName);
 	}
 
 	/**
@@ -239,6 +281,10 @@ public class Upgrader extends AssociationUpdater {
 	private List<String> generateAddColumnSQLs(ColumnModel columnModel) {
 	    List<String> sqls = new ArrayList<>();
 	    sqls.add(generateAddColumnSQL(mTableModel.getTableName(), columnModel));
+	    if (!TextUtils.isEmpty(columnModel.getBackfill())) {
+	        sqls.add("update " + mTableModel.getTableName() + " set " + columnModel.getColumnName() + " = ("
+                    + columnModel.getBackfill() + ")");
+        }
 	    if (columnModel.hasIndex()) {
 	        sqls.add(generateCreateIndexSQL(mTableModel.getTableName(), columnModel));
         }
@@ -263,17 +309,48 @@ public class Upgrader extends AssociationUpdater {
 
     /**
      * When some fields are removed from class, the table should synchronize the
-     * changes by removing the corresponding columns.
+     * changes by removing the corresponding columns. Columns are dropped by alter
+     * table if the SQLite library supports it, and they are not unique or
+     * foreign key columns with constraints.
      *
      * @param removeColumnNames
      *            The column names that need to remove.
+     * @return True if all columns are dropped, false if the table needs to be
+     *         rebuilt to remove the rest columns.
      */
-    private void removeColumns(List<String> removeColumnNames) {
-        LitePalLog.d(TAG, "do removeColumns " + removeColumnNames);
-        removeColumns(removeColumnNames, mTableModel.getTableName());
+    private boolean dropColumns(List<String> removeColumnNames) {
+        if (removeColumnNames.isEmpty()) {
+            return true;
+        }
+        if (!DBUtility.isDropColumnSupported(mDb)) {
+            return false;
+        }
+        for (String columnName : removeColumnNames) {
+            ColumnModel columnModelDB = mTableModelDB.getColumnModelByName(columnName);
+            if (columnModelDB != null && (columnModelDB.isUnique() || columnModelDB.hasForeignKeyReference())) {
+                return false;
+            }
+        }
+        LitePalLog.d(TAG, "do dropColumns " + removeColumnNames);
+        String tableName = mTableModel.getTableName();
         for (String columnName : removeColumnNames) {
+            List<String> sqls = new ArrayList<>();
+            ColumnModel columnModelDB = mTableModelDB.getColumnModelByName(columnName);
+            if (columnModelDB != null && columnModelDB.hasIndex()) {
+                sqls.add("drop index if exists " + DBUtility.getIndexName(tableName, columnName));
+            }
+            sqls.add("alter table " + tableName + " drop column " + columnName);
+            try {
+                execute(sqls, mDb);
+            } catch (DatabaseGenerateException e) {
+                // Such as the column is used by an index or a view created by developers.
+                LitePalLog.d(TAG, "drop column failed, rebuild table " + tableName + " instead");
+                return false;
+            }
+            recordOperation(UpgradePlan.DROP_COLUMN, tableName, columnName, true);
             mTableModelDB.removeColumnModelByName(columnName);
         }
+        return true;
     }
 
 	/**
@@ -285,87 +362,257 @@ public class Upgrader extends AssociationUpdater {
 	 */
 	private void addColumns(List<ColumnModel> columnModelList) {
         LitePalLog.d(TAG, "do addColumn");
-		execute(getAddColumnSQLs(columnModelList), mDb);
         for (ColumnModel columnModel : columnModelList) {
-            mTableModelDB.addColumnModel(columnModel);
+            recordOperation(UpgradePlan.ADD_COLUMN, mTableModel.getTableName(), columnModel.getColumnName(), false);
         }
+		execute(getAddColumnSQLs(columnModelList), mDb);
 	}
 
-	/**
-	 * When some fields type are changed in class, the table should drop the
-	 * before columns and create new columns with same name but new types.
-	 * 
-	 * @param columnModelList
-	 *            List with ColumnModel to change column type.
-	 */
-	private void changeColumnsType(List<ColumnModel> columnModelList) {
-        LitePalLog.d(TAG, "do changeColumnsType");
-        List<String> columnNames = new ArrayList<>();
-        if (columnModelList != null && !columnModelList.isEmpty()) {
-            for (ColumnModel columnModel : columnModelList) {
-                columnNames.add(columnModel.getColumnName());
+    /**
+     * Synchronize the indexes declared by {@link org.litepal.annotation.Index} with the class.
+     * The indexes are compared by their definitions, only the new or changed ones are created,
+     * and the removed or changed ones are dropped. The unchanged indexes are never rebuilt.
+     */
+    private void upgradeDeclaredIndexes() {
+        String tableName = mTableModel.getTableName();
+        Map<String, String> indexesDB = getSchemaCatalog(mDb).findDeclaredIndexes(tableName);
+        List<String> sqls = new ArrayList<>();
+        for (IndexModel indexModel : mTableModel.getIndexModels()) {
+            String createIndexSQL = generateCreateIndexSQL(tableName, indexModel);
+            String createIndexSQLDB = indexesDB.remove(indexModel.getIndexName().toLowerCase(Locale.US));
+            if (createIndexSQLDB == null) {
+                sqls.add(createIndexSQL);
+                recordOperation(UpgradePlan.CREATE_INDEX, tableName, indexModel.getIndexName(), false);
+            } else if (!isSameIndexDefinition(createIndexSQLDB, createIndexSQL)) {
+                sqls.add("drop index if exists " + indexModel.getIndexName());
+                sqls.add(createIndexSQL);
+                recordOperation(UpgradePlan.DROP_INDEX, tableName, indexModel.getIndexName(), false);
+                recordOperation(UpgradePlan.CREATE_INDEX, tableName, indexModel.getIndexName(), false);
             }
         }
-		removeColumns(columnNames);
-		addColumns(columnModelList);
-	}
+        for (String indexName : indexesDB.keySet()) {
+            sqls.add("drop index if exists " + indexName);
+            recordOperation(UpgradePlan.DROP_INDEX, tableName, indexName, false);
+        }
+        LitePalLog.d(TAG, "upgrade declared indexes of " + tableName + " >> " + sqls);
+        execute(sqls, mDb);
+    }
+
+    /**
+     * Compare the SQL which created an index in database with the SQL generated from class. Case
+     * and spaces are ignored, as SQLite keeps the SQL as it was given.
+     * @param createIndexSQLDB
+     *          The SQL created the index in database.
+     * @param createIndexSQL
+     *          The SQL generated from class.
+     * @return True if they define the same index. False otherwise.
+     */
+    private boolean isSameIndexDefinition(String createIndexSQLDB, String createIndexSQL) {
+        String definitionDB = createIndexSQLDB.trim().replaceAll("\\s+", " ").toLowerCase(Locale.US);
+        String definition = createIndexSQL.trim().replaceAll("\\s+", " ").toLowerCase(Locale.US);
+        return definitionDB.equals(definition);
+    }
 
     /**
-     * When fields annotation changed in class, table should change the corresponding constraints
-     * make them sync to the fields annotation.
+     * Generate SQLs to drop the indexes of the table before it's renamed to the temporary table.
+     * Indexes are moved together with the renamed table, and the temporary table is kept until
+     * its rows are migrated, so they have to be dropped before the new table creates the same
+     * name indexes.
+     * @return A SQL list contains drop indexes.
      */
-    private void changeColumnsConstraints() {
-        if (hasConstraintChanged) {
-            LitePalLog.d(TAG, "do changeColumnsConstraints");
-            execute(getChangeColumnsConstraintsSQL(), mDb);
+    private List<String> generateDropIndexSQLs() {
+        String tableName = mTableModel.getTableName();
+        List<String> sqls = new ArrayList<>();
+        for (ColumnModel columnModelDB : mTableModelDB.getColumnModels()) {
+            if (columnModelDB.hasIndex()) {
+                sqls.add("drop index if exists " + DBUtility.getIndexName(tableName, columnModelDB.getColumnName()));
+            }
+        }
+        for (String indexName : getSchemaCatalog(mDb).findDeclaredIndexes(tableName).keySet()) {
+            sqls.add("drop index if exists " + indexName);
+        }
+        return sqls;
+    }
+
+    /**
+     * Rebuild the table into the shape of model class, which removes the dump
+     * columns, adds the new columns, and changes the column types and
+     * constraints in one pass. Data of columns whose types are changed are not
+     * migrated. The data are left in the temporary table and copied by
+     * {@link Migrator} after upgrade, except for table_schema itself.
+     *
+     * @param removeColumnNames
+     *            The column names that need to remove.
+     * @param columnTypesToChange
+     *            List with ColumnModel to change column type.
+     */
+    private void rebuildTable(List<String> removeColumnNames, List<ColumnModel> columnTypesToChange) {
+        LitePalLog.d(TAG, "do rebuildTable");
+        List<String> changedColumnNames = new ArrayList<>(removeColumnNames);
+        for (ColumnModel columnModel : columnTypesToChange) {
+            changedColumnNames.add(columnModel.getColumnName());
+        }
+        if (!Const.TableSchema.TABLE_NAME.equalsIgnoreCase(mTableModel.getTableName())) {
+            checkBackfills();
+            checkNewUniqueColumns(columnTypesToChange);
+        }
+        // Data of removed columns and columns whose types are changed are not migrated.
+        recordOperation(UpgradePlan.REBUILD_TABLE, mTableModel.getTableName(),
+                changedColumnNames.isEmpty() ? null : TextUtils.join(", ", changedColumnNames),
+                !changedColumnNames.isEmpty());
+        TableModel migrationTableModel = new TableModel();
+        migrationTableModel.setTableName(mTableModel.getTableName());
+        for (ColumnModel columnModelDB : mTableModelDB.getColumnModels()) {
+            String columnName = columnModelDB.getColumnName();
+            if (BaseUtility.containsIgnoreCases(removeColumnNames, columnName)) {
+                continue;
+            }
+            boolean typeChanged = false;
+            for (ColumnModel columnModel : columnTypesToChange) {
+                if (columnModel.getColumnName().equalsIgnoreCase(columnName)) {
+                    typeChanged = true;
+                    break;
+                }
+            }
+            if (!typeChanged && (isIdColumn(columnName) || mTableModel.containsColumn(columnName)
+                    || BaseUtility.containsIgnoreCases(mForeignKeyColumns, columnName))) {
+                migrationTableModel.addColumnModel(columnModelDB);
+            }
+        }
+        execute(getRebuildTableSQLs(migrationTableModel), mDb);
+        if (!Const.TableSchema.TABLE_NAME.equalsIgnoreCase(mTableModel.getTableName())) {
+            getSchemaCatalog(mDb).putTableType(getTempTableName(mTableModel.getTableName()),
+                    Const.TableSchema.MIGRATING_TABLE);
         }
     }
 
     /**
-     * This method create a SQL array for the whole changing column constraints job.
+     * Make sure the backfill expressions are valid against the table, before it's rebuilt. The rows
+     * are copied after the version is upgraded, when an invalid expression would fail every time
+     * the database is opened.
+     */
+    private void checkBackfills() {
+        String tableName = mTableModel.getTableName();
+        for (ColumnModel columnModel : mTableModel.getColumnModels()) {
+            String backfill = columnModel.getBackfill();
+            if (!TextUtils.isEmpty(backfill)) {
+                try {
+                    mDb.compileStatement("select (" + backfill + ") from " + tableName).close();
+                } catch (SQLException e) {
+                    throw new DatabaseGenerateException(DatabaseGenerateException.SQL_ERROR + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Make sure the new unique columns get a distinct value on each existing row, so no row is
+     * dropped when the rows are copied into the rebuilt table. The values are computed the same
+     * way as {@link Migrator} copies them. The upgrade is refused if any two rows get the same
+     * value, and developers can give the column a backfill expression, or clean the duplicate
+     * values in a former version.
+     *
+     * @param columnTypesToChange
+     *            List with ColumnModel whose types are changed, their data are not migrated.
+     */
+    private void checkNewUniqueColumns(List<ColumnModel> columnTypesToChange) {
+        String tableName = mTableModel.getTableName();
+        for (ColumnModel columnModel : mTableModel.getColumnModels()) {
+            if (columnModel.isIdColumn() || !columnModel.isUnique()) {
+                continue;
+            }
+            String columnName = columnModel.getColumnName();
+            ColumnModel columnModelDB = mTableModelDB.getColumnModelByName(columnName);
+            boolean copyable = columnModelDB != null && !columnTypesToChange.contains(columnModel);
+            if (copyable && columnModelDB.isUnique()) {
+                continue;
+            }
+            String value = Migrator.generateColumnValue(columnModel, columnModel.getBackfill(), copyable);
+            if (value == null) {
+                // The rows take the default value, or null which never conflicts.
+                value = columnModel.getDefaultValue();
+            }
+            if (TextUtils.isEmpty(value)) {
+                continue;
+            }
+            long duplicateRows = DatabaseUtils.longForQuery(mDb, "select count(value) - count(distinct value) from (select "
+                    + value + " as value from " + tableName + ")", null);
+            if (duplicateRows > 0) {
+                throw new DatabaseGenerateException(String.format(DatabaseGenerateException.UNIQUE_COLUMN_HAS_DUPLICATES,
+                        tableName, columnName, duplicateRows));
+            }
+        }
+    }
+
+    /**
+     * This method create a SQL array for the whole rebuilding table job.
+     * @param migrationTableModel
+     *          Table model contains the columns whose data should be migrated.
      * @return A SQL list contains create temporary table, create new table, add foreign keys,
-     *         migrate data and drop temporary table.
+     *         and migrate data then drop temporary table, or leave the migration job to
+     *         {@link Migrator}.
      */
-    private List<String> getChangeColumnsConstraintsSQL() {
-        String alterToTempTableSQL = generateAlterToTempTableSQL(mTableModel.getTableName());
+    private List<String> getRebuildTableSQLs(TableModel migrationTableModel) {
+        String tableName = mTableModel.getTableName();
+        String tempTableName = getTempTableName(tableName);
+        String alterToTempTableSQL = generateAlterToTempTableSQL(tableName);
         String createNewTableSQL = generateCreateTableSQL(mTableModel);
         List<String> addForeignKeySQLs = generateAddForeignKeySQL();
-        String dataMigrationSQL = generateDataMigrationSQL(mTableModelDB);
-        String dropTempTableSQL = generateDropTempTableSQL(mTableModel.getTableName());
         List<String> createIndexSQLs = generateCreateIndexSQLs(mTableModel);
         List<String> sqls = new ArrayList<>();
+        sqls.addAll(generateDropIndexSQLs());
         sqls.add(alterToTempTableSQL);
         sqls.add(createNewTableSQL);
         sqls.addAll(addForeignKeySQLs);
-        sqls.add(dataMigrationSQL);
-        sqls.add(dropTempTableSQL);
+        if (Const.TableSchema.TABLE_NAME.equalsIgnoreCase(tableName)) {
+            sqls.add(generateDataMigrationSQL(migrationTableModel));
+            sqls.add(generateDropTempTableSQL(tableName));
+        } else {
+            // Keep the auto increment sequence, so new rows won't take the ids of rows not migrated yet.
+            sqls.add("insert into sqlite_sequence (name, seq) select '" + tableName
+                    + "', seq from sqlite_sequence where lower(name) = lower('" + tempTableName + "')");
+            sqls.add("insert into " + Const.TableSchema.TABLE_NAME + " (" + Const.TableSchema.COLUMN_NAME + ", "
+                    + Const.TableSchema.COLUMN_TYPE + ", " + Const.TableSchema.COLUMN_CHECKPOINT + ") values ('"
+                    + tempTableName + "', " + Const.TableSchema.MIGRATING_TABLE + ", 0)");
+        }
         sqls.addAll(createIndexSQLs);
-        LitePalLog.d(TAG, "generateChangeConstraintSQL >> ");
+        LitePalLog.d(TAG, "generateRebuildTableSQL >> ");
         for (String sql : sqls) {
             LitePalLog.d(TAG, sql);
         }
-        LitePalLog.d(TAG, "<< generateChangeConstraintSQL");
+        LitePalLog.d(TAG, "<< generateRebuildTableSQL");
         return sqls;
     }
 
     /**
-     * Generate a SQL List for adding foreign keys. Changing constraints job should remain all the
-     * existing columns including foreign keys. This method add origin foreign keys after creating
-     * table.
+     * Generate a SQL List for adding foreign keys. Rebuilding table job should remain all the
+     * existing foreign keys which are still in use. This method add them after creating table.
      * @return A SQL List for adding foreign keys.
      */
     private List<String> generateAddForeignKeySQL() {
         List<String> addForeignKeySQLs = new ArrayList<>();
-        List<String> foreignKeyColumns = getForeignKeyColumns(mTableModel);
-        for (String foreignKeyColumn : foreignKeyColumns) {
+        for (String foreignKeyColumn : mForeignKeyColumns) {
             if (!mTableModel.containsColumn(foreignKeyColumn)) {
-                ColumnModel columnModel = new ColumnModel();
-                columnModel.setColumnName(foreignKeyColumn);
-                columnModel.setColumnType("integer");
+                ColumnModel columnModel = generateForeignKeyColumnModel(foreignKeyColumn);
                 addForeignKeySQLs.add(generateAddColumnSQL(mTableModel.getTableName(), columnModel));
             }
         }
         return addForeignKeySQLs;
     }
 
+    /**
+     * Generate a column model for the foreign key column, with the foreign key constraint by the
+     * current foreign keys configuration.
+     * @param foreignKeyColumn
+     *          Name of the foreign key column.
+     * @return A column model of the foreign key column.
+     */
+    private ColumnModel generateForeignKeyColumnModel(String foreignKeyColumn) {
+        ColumnModel columnModel = new ColumnModel();
+        columnModel.setColumnName(foreignKeyColumn);
+        columnModel.setColumnType("integer");
+        giveForeignKeyReference(columnModel, DBUtility.getTableNameByForeignColumn(foreignKeyColumn), false);
+        return columnModel;
+    }
+
 }
@@ -16,6 +16,10 @@
 
 package org.litepal.tablemanager.callback;
 
+import android.content.ContentValues;
+
+import java.util.List;
+
 /**
  * Callback for listening database create and upgrade events.
  * @author Tony Green
@@ -27,4 +31,33 @@ public interface DatabaseListener {
 
     void onUpgrade(int oldVersion, int newVersion);
 
+    /**
+     * Called after each chunk of rows is copied into a table rebuilt by upgrade.
+     * @param tableName
+     *          The rebuilt table name.
+     * @param migratedRows
+     *          The number of rows processed so far, including the rows not copied for conflicts.
+     * @param totalRows
+     *          The number of rows to copy.
+     */
+    default void onMigrationProgress(String tableName, long migratedRows, long totalRows) {
+    }
+
+    /**
+     * Called when rows of a table rebuilt by upgrade are not copied, as they violate the constraints
+     * of the new table. The rows are dropped with the temporary table after this.
+     * @param tableName
+     *          The rebuilt table name.
+     * @param rows
+     *          The column values of rows not copied, keyed by the column names of old table.
+     */
+    default void onMigrationConflict(String tableName, List<ContentValues> rows) {
+    }
+
+    /**
+     * Called when the data of all rebuilt tables are copied.
+     */
+    default void onMigrationFinish() {
+    }
+
 }
\ No newline at end of file
@@ -56,6 +56,21 @@ public class ColumnModel {
      */
     private boolean hasIndex = false;
 
+    /**
+     * SQL expression to fill the column of existing rows during upgrade.
+     */
+    private String backfill = "";
+
+    /**
+     * The table which this column references to by foreign key constraint.
+     */
+    private String referencedTable;
+
+    /**
+     * The action of foreign key constraint when the referenced row is deleted. Such as cascade or set null.
+     */
+    private String onDeleteAction;
+
     public String getColumnName() {
         return columnName;
     }
@@ -100,6 +115,34 @@ public class ColumnModel {
         this.hasIndex = hasIndex;
     }
 
+    public String getReferencedTable() {
+        return referencedTable;
+    }
+
+    public String getOnDeleteAction() {
+        return onDeleteAction;
+    }
+
+    /**
+     * Give this column a foreign key constraint which references to the id column of another table.
+     * @param referencedTable
+     *          The table to reference.
+     * @param onDeleteAction
+     *          The action when the referenced row is deleted. Such as cascade or set null.
+     */
+    public void setForeignKeyReference(String referencedTable, String onDeleteAction) {
+        this.referencedTable = referencedTable;
+        this.onDeleteAction = onDeleteAction;
+    }
+
+    /**
+     * Judge current ColumnModel has foreign key constraint or not.
+     * @return True if it references to another table. False otherwise.
+     */
+    public boolean hasForeignKeyReference() {
+        return !TextUtils.isEmpty(referencedTable);
+    }
+
     public void setDefaultValue(String defaultValue) {
         if ("text".equalsIgnoreCase(columnType)) {
             if (!TextUtils.isEmpty(defaultValue)) {
@@ -110,6 +153,14 @@ public class ColumnModel {
         }
     }
 
+    public String getBackfill() {
+        return backfill;
+    }
+
+    public void setBackfill(String backfill) {
+        this.backfill = backfill;
+    }
+
     /**
      * Judge current ColumnModel is id column or not.
      * @return True if it's id column. False otherwise.
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C)  Tony Green, LitePal Framework Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.litepal.tablemanager.model;
+
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is a model class for indexes declared by {@link org.litepal.annotation.Index}.
+ * It stores index name, indexed columns, and index constraints information.
+ * @author Tony Green
+ * @since 3.3
+ */
+public class IndexModel {
+
+    /**
+     * Name of index.
+     */
+    private String indexName;
+
+    /**
+     * Indexed columns or expressions in order.
+     */
+    private List<String> columns = new ArrayList<>();
+
+    /**
+     * Unique constraint.
+     */
+    private boolean isUnique = false;
+
+    /**
+     * Where clause of partial index.
+     */
+    private String where = "";
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void addColumn(String column) {
+        columns.add(column);
+    }
+
+    public boolean isUnique() {
+        return isUnique;
+    }
+
+    public void setUnique(boolean isUnique) {
+        this.isUnique = isUnique;
+    }
+
+    public String getWhere() {
+        return where;
+    }
+
+    public void setWhere(String where) {
+        if (where != null) {
+            this.where = where;
+        }
+    }
+
+    /**
+     * Judge current IndexModel is a partial index or not.
+     * @return True if it has a where clause. False otherwise.
+     */
+    public boolean isPartial() {
+        return !TextUtils.isEmpty(where);
+    }
+
+}
@@ -18,8 +18,10 @@ package org.litepal.tablemanager.model;
 
 import org.litepal.util.BaseUtility;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,6 +43,11 @@ public class TableModel {
      */
     private Map<String, ColumnModel> columnModelMap = new HashMap<>();
 
+    /**
+     * A list contains the index models declared on the class.
+     */
+    private List<IndexModel> indexModels = new ArrayList<>();
+
 	/**
 	 * Class name for the table name. This value might be null. Don't rely on it.
 	 */
@@ -131,4 +138,22 @@ public class TableModel {
         return columnModelMap.containsKey(BaseUtility.changeCase(columnName));
     }
 
+    /**
+     * Add an index model into the table model.
+     *
+     * @param indexModel
+     *            An index model contains name, columns and constraints.
+     */
+    public void addIndexModel(IndexModel indexModel) {
+        indexModels.add(indexModel);
+    }
+
+    /**
+     * Find all the index models of the current table model.
+     * @return A list contains all index models.
+     */
+    public List<IndexModel> getIndexModels() {
+        return indexModels;
+    }
+
 }
@@ -22,6 +22,7 @@ import android.text.TextUtils;
 import org.litepal.LitePalApplication;
 import org.litepal.exceptions.LitePalSupportException;
 import org.litepal.parser.LitePalAttr;
+import org.litepal.parser.LitePalParser;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
@@ -224,10 +225,13 @@ public class BaseUtility {
     }
 
     /**
-     * If the litepal.xml configuration file exists.
+     * If the litepal.xml configuration file exists, or it's compiled into a class at build time.
      * @return True if exists, false otherwise.
      */
     public static boolean isLitePalXMLExists() {
+        if (LitePalParser.isGeneratedConfigurationExists()) {
+            return true;
+        }
         try {
             AssetManager assetManager = LitePalApplication.getContext().getAssets();
             String[] fileNames = assetManager.list("");
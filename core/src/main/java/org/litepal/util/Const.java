@@ -56,10 +56,55 @@ public interface Const {
 		 */
 		public static final String CASES_KEEP = "keep";
 
+		/**
+		 * Constant for not generating foreign key constraints.
+		 */
+		public static final String FOREIGN_KEYS_NONE = "none";
+
+		/**
+		 * Constant for generating foreign key constraints with on delete cascade.
+		 */
+		public static final String FOREIGN_KEYS_CASCADE = "cascade";
+
+		/**
+		 * Constant for generating foreign key constraints with on delete set null.
+		 */
+		public static final String FOREIGN_KEYS_SET_NULL = "setnull";
+
+		/**
+		 * Constant for migrating data of rebuilt tables when the database is opened.
+		 */
+		public static final String MIGRATION_FOREGROUND = "foreground";
+
+		/**
+		 * Constant for migrating data of rebuilt tables in a background thread.
+		 */
+		public static final String MIGRATION_BACKGROUND = "background";
+
+		/**
+		 * Constant for creating indexes on foreign key columns, intermediate join tables and generic tables.
+		 */
+		public static final String ASSOCIATION_INDEXES_AUTO = "auto";
+
+		/**
+		 * Constant for not creating indexes for associations.
+		 */
+		public static final String ASSOCIATION_INDEXES_NONE = "none";
+
 		/**
 		 * Constant configuration file name.
 		 */
 		public static final String CONFIGURATION_FILE_NAME = "litepal.xml";
+
+		/**
+		 * Constant name of the class generated from litepal.xml at build time.
+		 */
+		public static final String GENERATED_CONFIGURATION_CLASS = "org.litepal.generated.LitePalGeneratedConfig";
+
+		/**
+		 * Constant name of the method which creates LitePalConfig in the generated class.
+		 */
+		public static final String GENERATED_CONFIGURATION_METHOD = "create";
 	}
 
 	public interface TableSchema {
@@ -78,6 +123,21 @@ public interface Const {
 		 */
 		public static final String COLUMN_TYPE = "type";
 
+		/**
+		 * The fingerprint column in table_schema.
+		 */
+		public static final String COLUMN_FINGERPRINT = "fingerprint";
+
+		/**
+		 * The checkpoint column in table_schema.
+		 */
+		public static final String COLUMN_CHECKPOINT = "checkpoint";
+
+		/**
+		 * Suffix of the temporary table names.
+		 */
+		public static final String TEMP_TABLE_SUFFIX = "_temp";
+
 		/**
 		 * Constant for normal table.
 		 */
@@ -92,6 +152,11 @@ public interface Const {
          * Constant for generic table.
          */
         public static final int GENERIC_TABLE = 2;
+
+        /**
+         * Constant for temporary table whose data is being migrated.
+         */
+        public static final int MIGRATING_TABLE = 3;
 	}
 
 }
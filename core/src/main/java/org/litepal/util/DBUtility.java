@@ -27,9 +27,11 @@ import org.litepal.tablemanager.model.TableModel;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -50,6 +52,8 @@ public class DBUtility {
 
     private static final String KEYWORDS_COLUMN_SUFFIX = "_lpcolumn";
 
+    private static final String DECLARED_INDEX_PREFIX = "lpindex_";
+
     private static final String REG_OPERATOR = "\\s*(=|!=|<>|<|>)";
 
     private static final String REG_FUZZY = "\\s+(not\\s+)?(like|between)\\s+";
@@ -99,6 +103,77 @@ public class DBUtility {
 		return null;
 	}
 
+	/**
+	 * Get the name of index declared by {@link org.litepal.annotation.Index}.
+	 * It's named like lpindex_tableName_column1_column2, with the characters
+	 * which are not letters or digits in columns replaced by underscore. A
+	 * unique index ends with _unique, and a partial index ends with _where_
+	 * and the hash of its where clause, so indexes on the same columns never
+	 * share a name. The prefix tells the indexes owned by LitePal from those
+	 * created by developers, which are never dropped.
+	 * @param tableName
+	 * 			Table name.
+	 * @param columns
+	 * 			The indexed columns or expressions.
+	 * @param unique
+	 * 			The index is unique or not.
+	 * @param where
+	 * 			The where clause of partial index, or empty.
+	 * @return Index name.
+	 */
+	public static String getDeclaredIndexName(String tableName, List<String> columns, boolean unique, String where) {
+		StringBuilder indexName = new StringBuilder(DECLARED_INDEX_PREFIX).append(tableName);
+		for (String column : columns) {
+			indexName.append("_").append(column.replaceAll("\\W+", "_").replaceAll("^_|_$", ""));
+		}
+		if (unique) {
+			indexName.append("_unique");
+		}
+		if (!TextUtils.isEmpty(where)) {
+			String condition = where.trim().replaceAll("\\s+", " ").toLowerCase(Locale.US);
+			indexName.append("_where_").append(Integer.toHexString(condition.hashCode()));
+		}
+		return indexName.toString();
+	}
+
+	/**
+	 * Convert a column of {@link org.litepal.annotation.Index} into the column
+	 * name in database. A column name, which may be followed by asc or desc,
+	 * is converted the same way as the column of field, expressions are kept
+	 * as they are.
+	 * @param column
+	 * 			The indexed column or expression.
+	 * @return Converted column.
+	 */
+	public static String convertToValidIndexColumn(String column) {
+		Matcher matcher = Pattern.compile("(\\w+)(\\s+(asc|desc))?", Pattern.CASE_INSENSITIVE).matcher(column.trim());
+		if (matcher.matches()) {
+			String columnName = BaseUtility.changeCase(convertToValidColumnName(matcher.group(1)));
+			if (matcher.group(3) != null) {
+				return columnName + " " + matcher.group(3).toLowerCase(Locale.US);
+			}
+			return columnName;
+		}
+		return column.trim();
+	}
+
+	/**
+	 * Judge the index is declared by {@link org.litepal.annotation.Index} or
+	 * not, by the name of index.
+	 * @param tableName
+	 * 			Table name.
+	 * @param indexName
+	 * 			Index name.
+	 * @return True if it's a declared index, false otherwise.
+	 */
+	public static boolean isDeclaredIndex(String tableName, String indexName) {
+		if (TextUtils.isEmpty(tableName) || TextUtils.isEmpty(indexName)) {
+			return false;
+		}
+		String name = indexName.toLowerCase(Locale.US);
+		return name.startsWith(DECLARED_INDEX_PREFIX + tableName.toLowerCase(Locale.US) + "_");
+	}
+
 	/**
 	 * Get the corresponding table name list by the full class name list with
 	 * package. Each table name will only get the short class name without
@@ -292,6 +367,76 @@ public class DBUtility {
 		return exist;
 	}
 
+	/**
+	 * Find the value to fill a not null column with, when the existing rows
+	 * have no value for it. The declared default value is used if there's
+	 * one, or the zero value of the column type.
+	 *
+	 * @param columnModel
+	 *            The not null column.
+	 * @return The value as SQL literal, or null if the column type has no
+	 *         zero value.
+	 */
+	public static String getBackfillValue(ColumnModel columnModel) {
+		String defaultValue = columnModel.getDefaultValue();
+		if (!TextUtils.isEmpty(defaultValue)) {
+			return defaultValue;
+		}
+		String columnType = columnModel.getColumnType();
+		if ("integer".equalsIgnoreCase(columnType)) {
+			return "0";
+		} else if ("text".equalsIgnoreCase(columnType)) {
+			return "''";
+		} else if ("real".equalsIgnoreCase(columnType)) {
+			return "0.0";
+		}
+		return null;
+	}
+
+	/**
+	 * Judge the SQLite library which opens the database supports alter table
+	 * drop column or not. It's supported since SQLite 3.35.0.
+	 *
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return True if drop column is supported, false otherwise.
+	 */
+	public static boolean isDropColumnSupported(SQLiteDatabase db) {
+		return isSQLiteVersionAtLeast(3, 35, db);
+	}
+
+	/**
+	 * Compare the version of SQLite library which opens the database with the
+	 * passed in version.
+	 *
+	 * @param major
+	 *            The major version.
+	 * @param minor
+	 *            The minor version.
+	 * @param db
+	 *            Instance of SQLiteDatabase.
+	 * @return True if the SQLite version is the same or newer, false otherwise.
+	 */
+	private static boolean isSQLiteVersionAtLeast(int major, int minor, SQLiteDatabase db) {
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("select sqlite_version()", null);
+			if (cursor.moveToFirst()) {
+				String[] versions = cursor.getString(0).split("\\.");
+				int currentMajor = Integer.parseInt(versions[0]);
+				int currentMinor = versions.length > 1 ? Integer.parseInt(versions[1]) : 0;
+				return currentMajor > major || (currentMajor == major && currentMinor >= minor);
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Test if a column exists in a table. Cases are ignored.
 	 * 
@@ -422,6 +567,7 @@ public class DBUtility {
 					cursor.close();
 				}
 			}
+			findForeignKeyReferences(tableModelDB, db);
 			return tableModelDB;
 		} else {
 			throw new DatabaseGenerateException(
@@ -429,8 +575,76 @@ public class DBUtility {
 		}
 	}
 
+    /**
+     * Find the foreign key constraints of specified table, and give them to the corresponding
+     * column models.
+     * @param tableModel
+     *          The table model from database.
+     * @param db
+     *          Instance of SQLiteDatabase.
+     */
+    private static void findForeignKeyReferences(TableModel tableModel, SQLiteDatabase db) {
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery("pragma foreign_key_list(" + tableModel.getTableName() + ")", null);
+            if (cursor.moveToFirst()) {
+                do {
+                    String from = cursor.getString(cursor.getColumnIndexOrThrow("from"));
+                    ColumnModel columnModel = tableModel.getColumnModelByName(from);
+                    if (columnModel != null) {
+                        String table = cursor.getString(cursor.getColumnIndexOrThrow("table"));
+                        String onDelete = cursor.getString(cursor.getColumnIndexOrThrow("on_delete"));
+                        columnModel.setForeignKeyReference(table, onDelete.toLowerCase(Locale.US));
+                    }
+                } while (cursor.moveToNext());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new DatabaseGenerateException(e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Find the indexes declared by {@link org.litepal.annotation.Index} of specified table, with
+     * the SQLs created them.
+     * @param tableName
+     *          The table to find indexes.
+     * @param db
+     *          Instance of SQLiteDatabase.
+     * @return Lower case index names as key, SQLs as value.
+     */
+    public static Map<String, String> findDeclaredIndexes(String tableName, SQLiteDatabase db) {
+        Map<String, String> indexes = new HashMap<>();
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery("select name, sql from sqlite_master where type = 'index' and lower(tbl_name) = ?",
+                    new String[] { tableName.toLowerCase(Locale.US) });
+            while (cursor.moveToNext()) {
+                String name = cursor.getString(0);
+                String sql = cursor.getString(1);
+                if (sql != null && isDeclaredIndex(tableName, name)) {
+                    indexes.put(name.toLowerCase(Locale.US), sql);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new DatabaseGenerateException(e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        return indexes;
+    }
+
     /**
      * Find all columns with index, including normal index and unique index of specified table.
+     * Only the indexes on a single column count, and the indexes declared by
+     * {@link org.litepal.annotation.Index} are excluded.
      * @param tableName
      *          The table to find unique columns.
      * @param db
@@ -448,8 +662,14 @@ public class DBUtility {
                 do {
                     boolean unique = cursor.getInt(cursor.getColumnIndexOrThrow("unique")) == 1;
 					String name = cursor.getString(cursor.getColumnIndexOrThrow("name"));
+					if (isDeclaredIndex(tableName, name)) {
+						continue;
+					}
+					if (innerCursor != null) {
+						innerCursor.close();
+					}
 					innerCursor = db.rawQuery("pragma index_info(" + name + ")", null);
-					if (innerCursor.moveToFirst()) {
+					if (innerCursor.getCount() == 1 && innerCursor.moveToFirst()) {
 						String columnName = innerCursor.getString(innerCursor.getColumnIndexOrThrow("name"));
 						if (unique) {
 							uniqueColumns.add(columnName);
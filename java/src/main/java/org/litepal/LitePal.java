@@ -28,10 +28,12 @@ import org.litepal.crud.async.FindExecutor;
 import org.litepal.crud.async.FindMultiExecutor;
 import org.litepal.crud.async.SaveExecutor;
 import org.litepal.crud.async.UpdateOrDeleteExecutor;
+import org.litepal.tablemanager.UpgradePlan;
 import org.litepal.tablemanager.callback.DatabaseListener;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * LitePal is an Android library that allows developers to use SQLite database extremely easy.
@@ -56,6 +58,22 @@ public class LitePal {
         Operator.initialize(context);
     }
 
+    /**
+     * Initialize to make LitePal ready to work, and warm up in a background thread if warmUp is
+     * true. Warming up parses litepal.xml, opens the database with creating or upgrading tables and
+     * running pending migrations, then builds the fields and associations of all mapping classes.
+     * So the first operation won't pay for these jobs, and it only waits for the parts it needs if
+     * they are still running.
+     *
+     * @param context
+     * 		Application context.
+     * @param warmUp
+     *      True to warm up in a background thread.
+     */
+    public static void initialize(Context context, boolean warmUp) {
+        Operator.initialize(context, warmUp);
+    }
+
     /**
      * Get a writable SQLiteDatabase.
      *
@@ -65,6 +83,23 @@ public class LitePal {
         return Operator.getDatabase();
     }
 
+    /**
+     * Begins a session on the current thread. Within a session, the same record is always
+     * loaded into the same model instance, and models already loaded are returned by find
+     * methods without querying again. Sessions can be nested.
+     */
+    public static void beginSession() {
+        Operator.beginSession();
+    }
+
+    /**
+     * End the session on the current thread. Loaded models are released when the outermost
+     * session ends.
+     */
+    public static void endSession() {
+        Operator.endSession();
+    }
+
     /**
      * Switch the using database to the one specified by parameter.
      * @param litePalDB
@@ -81,6 +116,19 @@ public class LitePal {
         Operator.useDefault();
     }
 
+    /**
+     * Plan the operations of creating or upgrading tables of the specified database, without
+     * changing anything. The operations are in the order they will be performed, with the
+     * estimated rows each of them goes through and whether it may lose data. The using database
+     * is not switched.
+     * @param litePalDB
+     *          The database with the model classes to upgrade to.
+     * @return The plan of operations, which can be exported by {@link UpgradePlan#toJson()}.
+     */
+    public static UpgradePlan planUpgrade(LitePalDB litePalDB) {
+        return Operator.planUpgrade(litePalDB);
+    }
+
     /**
      * Delete the specified database.
      * @param dbName
@@ -153,6 +201,43 @@ public class LitePal {
         return Operator.order(column);
     }
 
+    /**
+     * Declaring which columns to group the rows by. It works with
+     * {@link FluentQuery#aggregate(Class, org.litepal.crud.Aggregate...)}.
+     *
+     * <pre>
+     * LitePal.groupBy(&quot;city&quot;).aggregate(Person.class, count(), avg(&quot;age&quot;));
+     * </pre>
+     *
+     * This will count people and calculate their average age of each city.
+     *
+     * @param columns
+     *            The columns to group the rows by.
+     * @return A FluentQuery instance.
+     */
+    public static FluentQuery groupBy(String... columns) {
+        return Operator.groupBy(columns);
+    }
+
+    /**
+     * Declaring which associations to load into the found models. Each path
+     * is a chain of association field names separated by dot.
+     *
+     * <pre>
+     * LitePal.include(&quot;songs&quot;, &quot;songs.artist&quot;).find(Album.class);
+     * </pre>
+     *
+     * This will find all albums with their songs and the artist of each song
+     * loaded, one batched query for each path segment.
+     *
+     * @param paths
+     *            The association paths to load.
+     * @return A FluentQuery instance.
+     */
+    public static FluentQuery include(String... paths) {
+        return Operator.include(paths);
+    }
+
     /**
      * Limits the number of rows returned by the query.
      *
@@ -1147,6 +1232,124 @@ public class LitePal {
         return Operator.updateAllAsync(tableName, values, conditions);
     }
 
+    /**
+     * Updates all records which match the conditions with a SQL expression. The
+     * new values are computed by database within a single UPDATE statement, so
+     * no model needs to be loaded and concurrent updates won't get lost.
+     *
+     * <pre>
+     * LitePal.updateAllWithExpression(Song.class, new String[] { &quot;playcount = playcount + ?&quot;, &quot;1&quot; },
+     *         &quot;album = ?&quot;, &quot;Yellow&quot;);
+     * </pre>
+     *
+     * This means that the playcount of all the songs in album Yellow will be
+     * increased by 1.
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param expression
+     *            A string array representing the SET part of an SQL statement.
+     *            First element is the expression, the rest are the arguments to
+     *            fill into its place holders.
+     * @param conditions
+     *            A string array representing the WHERE part of an SQL
+     *            statement. First parameter is the WHERE clause to apply when
+     *            updating. The way of specifying place holders is to insert one
+     *            or more question marks in the SQL. The first question mark is
+     *            replaced by the second element of the array, the next question
+     *            mark by the third, and so on. Passing empty string will update
+     *            all rows.
+     * @return The number of rows affected.
+     */
+    public static int updateAllWithExpression(Class<?> modelClass, String[] expression, String... conditions) {
+        return Operator.updateAllWithExpression(modelClass, expression, conditions);
+    }
+
+    /**
+     * Increases the value of a numeric column for all records which match the
+     * conditions, without loading any model. Null values are treated as 0.
+     *
+     * <pre>
+     * LitePal.increment(Song.class, &quot;playcount&quot;, 1, &quot;id = ?&quot;, &quot;1&quot;);
+     * </pre>
+     *
+     * This means that the playcount of song 1 will be increased by 1. Pass a
+     * negative delta to decrease.
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param column
+     *            The numeric column to increase.
+     * @param delta
+     *            The amount to add.
+     * @param conditions
+     *            A string array representing the WHERE part of an SQL
+     *            statement. First parameter is the WHERE clause to apply when
+     *            updating. The way of specifying place holders is to insert one
+     *            or more question marks in the SQL. The first question mark is
+     *            replaced by the second element of the array, the next question
+     *            mark by the third, and so on. Passing empty string will update
+     *            all rows.
+     * @return The number of rows affected.
+     */
+    public static int increment(Class<?> modelClass, String column, Number delta, String... conditions) {
+        return Operator.increment(modelClass, column, delta, conditions);
+    }
+
+    /**
+     * Increases the value of a numeric column by different amounts for many
+     * records at once. All the increments are done within one transaction with
+     * a statement which is compiled only once. If any of them failed, the whole
+     * action will be cancelled and your database will be <b>rolled back</b>.
+     *
+     * <pre>
+     * Map&lt;Long, Integer&gt; deltas = new HashMap&lt;&gt;();
+     * deltas.put(1L, 3);
+     * deltas.put(2L, 5);
+     * LitePal.increment(Song.class, &quot;playcount&quot;, deltas);
+     * </pre>
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param column
+     *            The numeric column to increase.
+     * @param deltas
+     *            A map from ids to the amount to add for each record.
+     * @return The number of rows affected.
+     */
+    public static int increment(Class<?> modelClass, String column, Map<Long, ? extends Number> deltas) {
+        return Operator.increment(modelClass, column, deltas);
+    }
+
+    /**
+     * Updates many records with different values for each of them. The UPDATE
+     * statement is compiled only once and all the rows are updated within one
+     * transaction. If any of them failed, the whole action will be cancelled
+     * and your database will be <b>rolled back</b>.
+     *
+     * <pre>
+     * List&lt;Object[]&gt; rows = new ArrayList&lt;&gt;();
+     * rows.add(new Object[] { 1L, &quot;Hey Jude&quot;, 431 });
+     * rows.add(new Object[] { 2L, &quot;Let It Be&quot;, 243 });
+     * int[] rowsAffected = LitePal.updateBatch(Song.class, new String[] { &quot;name&quot;, &quot;duration&quot; }, rows);
+     * </pre>
+     *
+     * Each row starts with the id of the record to update, followed by the new
+     * values in the same order as columns.
+     *
+     * @param modelClass
+     *            Which table to update by class.
+     * @param columns
+     *            The columns to update.
+     * @param rows
+     *            The id and new values of each record to update.
+     * @return The number of rows affected by each row, in the same order as
+     *         rows.
+     */
+    public static int[] updateBatch(Class<?> modelClass, String[] columns, List<Object[]> rows) {
+        return Operator.updateBatch(modelClass, columns, rows);
+    }
+
     /**
      * Saves the collection into database. <br>
      *
@@ -1219,4 +1422,14 @@ public class LitePal {
         Operator.registerDatabaseListener(listener);
     }
 
+    /**
+     * Check if the data of tables rebuilt by upgrade are being migrated in background. The data
+     * operations of LitePal wait until the migration is finished.
+     *
+     * @return True if the migration is running, false otherwise.
+     */
+    public static boolean isMigrating() {
+        return Operator.isMigrating();
+    }
+
 }
\ No newline at end of file
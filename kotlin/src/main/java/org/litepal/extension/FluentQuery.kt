@@ -17,6 +17,9 @@
 package org.litepal.extension
 
 import org.litepal.FluentQuery
+import org.litepal.crud.Aggregate
+import org.litepal.crud.AggregateResult
+import org.litepal.crud.PreparedQuery
 import org.litepal.crud.async.FindExecutor
 
 /**
@@ -57,7 +60,7 @@ inline fun <reified T> FluentQuery.findAsync() = findAsync(T::class.java)
  * parameter. If set true the associated models will be loaded as well.
  *
  * Note that isEager will only work for one deep level relation, considering the query efficiency.
- * You have to implement on your own if you need to load multiple deepness of relation at once.
+ * Use [FluentQuery.include] if you need to load multiple deepness of relation at once.
  *
  * @param isEager
  *            True to load the associated models, false not.
@@ -74,6 +77,68 @@ inline fun <reified T> FluentQuery.find(isEager: Boolean): List<T> = find(T::cla
  */
 inline fun <reified T> FluentQuery.findAsync(isEager: Boolean) = findAsync(T::class.java, isEager)
 
+/**
+ * Declaring to load the associated model of each row in the same query,
+ * by joining its table with the foreign key column:
+ *
+ * LitePal.where(&quot;album.name = ?&quot;, &quot;Thriller&quot;).join&lt;Album&gt;().find&lt;Song&gt;()
+ *
+ * Songs of the same album share the same album instance.
+ *
+ * @param foreignKeyColumn
+ *            The foreign key column in the model's table. Passing null will
+ *            use the default one, such as album_id.
+ * @return A FluentQuery instance.
+ */
+inline fun <reified T> FluentQuery.join(foreignKeyColumn: String? = null): FluentQuery = join(T::class.java, foreignKeyColumn)
+
+/**
+ * Finds multiple records by the cluster parameters, and maps each of them
+ * into a plain class instead of the model class:
+ *
+ * data class PersonItem(val name: String, val age: Int)
+ * LitePal.select(&quot;name&quot;, &quot;age&quot;).where(&quot;age &gt; ?&quot;, &quot;14&quot;).findAs&lt;Person, PersonItem&gt;()
+ *
+ * The values are passed to the constructor in the order of selected columns.
+ * Plain classes with a default constructor get the values assigned to the
+ * fields with the same name.
+ *
+ * @return A list of the plain class, or an empty list.
+ */
+inline fun <reified T, reified R> FluentQuery.findAs(): List<R> = findAs(T::class.java, R::class.java)
+
+/**
+ * Calculates multiple aggregate functions by the cluster parameters in one
+ * query, for each group if group by columns are declared:
+ *
+ * LitePal.where(&quot;age &gt; ?&quot;, &quot;15&quot;).groupBy(&quot;city&quot;).aggregate&lt;Person&gt;(count(), sum(&quot;salary&quot;))
+ *
+ * The result has one row for each city, with the city column followed by
+ * count and sum_salary columns.
+ *
+ * @param aggregates
+ *            The aggregate functions to calculate.
+ * @return The calculated rows.
+ */
+inline fun <reified T> FluentQuery.aggregate(vararg aggregates: Aggregate): AggregateResult = aggregate(T::class.java, *aggregates)
+
+/**
+ * Prepares the cluster parameters as a reusable query template. The place
+ * holders in where clause which are not filled by the where arguments are
+ * filled when executing the template:
+ *
+ * val query = LitePal.where(&quot;age &gt; ? and city = ?&quot;).order(&quot;age&quot;).prepare&lt;Person&gt;()
+ * val people = query.find(&quot;14&quot;, &quot;Beijing&quot;)
+ *
+ * The clauses are converted only once, so it's much more efficient than
+ * building the same query again and again with different arguments.
+ *
+ * @param isEager
+ *            True to load the associated models, false not.
+ * @return A PreparedQuery instance.
+ */
+inline fun <reified T> FluentQuery.prepare(isEager: Boolean = false): PreparedQuery<T> = prepare(T::class.java, isEager)
+
 /**
  * Finds the first record by the cluster parameters. You can use the below
  * way to finish a complicated query:
@@ -100,7 +165,7 @@ inline fun <reified T> FluentQuery.findFirstAsync(): FindExecutor<T> = findFirst
  * parameter. If set true the associated models will be loaded as well.
  *
  * Note that isEager will only work for one deep level relation, considering the query efficiency.
- * You have to implement on your own if you need to load multiple deepness of relation at once.
+ * Use [FluentQuery.include] if you need to load multiple deepness of relation at once.
  *
  * @param isEager
  *            True to load the associated models, false not.
@@ -127,7 +192,7 @@ inline fun <reified T> FluentQuery.findLast(): T? = findLast(T::class.java)
  * parameter. If set true the associated models will be loaded as well.
  *
  * Note that isEager will only work for one deep level relation, considering the query efficiency.
- * You have to implement on your own if you need to load multiple deepness of relation at once.
+ * Use [FluentQuery.include] if you need to load multiple deepness of relation at once.
  *
  * @param isEager
  *            True to load the associated models, false not.
@@ -266,4 +331,49 @@ inline fun <reified T, reified R> FluentQuery.sum(columnName: String): R = sum(T
  * The based on column to calculate.
  * @return The sum value on a given column.
  */
-inline fun <reified R> FluentQuery.sum(tableName: String, columnName: String): R = sum(tableName, columnName, R::class.java)
\ No newline at end of file
+inline fun <reified R> FluentQuery.sum(tableName: String, columnName: String): R = sum(tableName, columnName, R::class.java)
+
+/**
+ * Reads a single column of the matched records as long values. The values
+ * are read directly from database without creating any model, so it's the
+ * most efficient way to get ids or other numbers only.
+ *
+ * val ids = LitePal.where(&quot;age &gt; ?&quot;, &quot;15&quot;).order(&quot;age&quot;).pluckLongs&lt;Person&gt;(&quot;id&quot;)
+ *
+ * Null values are read as 0.
+ *
+ * @param column
+ * The column to read.
+ * @return The values of the column in order, or an empty array.
+ */
+inline fun <reified T> FluentQuery.pluckLongs(column: String): LongArray = pluckLongs(T::class.java, column)
+
+/**
+ * Reads a single column of the matched records as int values. It is mostly
+ * same as [FluentQuery.pluckLongs].
+ *
+ * @param column
+ * The column to read.
+ * @return The values of the column in order, or an empty array.
+ */
+inline fun <reified T> FluentQuery.pluckInts(column: String): IntArray = pluckInts(T::class.java, column)
+
+/**
+ * Reads a single column of the matched records as double values. It is mostly
+ * same as [FluentQuery.pluckLongs].
+ *
+ * @param column
+ * The column to read.
+ * @return The values of the column in order, or an empty array.
+ */
+inline fun <reified T> FluentQuery.pluckDoubles(column: String): DoubleArray = pluckDoubles(T::class.java, column)
+
+/**
+ * Reads a single column of the matched records as String values. It is mostly
+ * same as [FluentQuery.pluckLongs], but null values are kept as null.
+ *
+ * @param column
+ * The column to read.
+ * @return The values of the column in order, or an empty list.
+ */
+inline fun <reified T> FluentQuery.pluckStrings(column: String): List<String?> = pluckStrings(T::class.java, column)
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Column;
+import org.litepal.crud.LitePalSupport;
+
+public class Bookmark extends LitePalSupport {
+
+	private long id;
+
+	@Column(index = true)
+	private String url;
+
+	@Column(nullable = false)
+	private String title;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+}
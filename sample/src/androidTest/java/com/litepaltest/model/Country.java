@@ -0,0 +1,48 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Cacheable;
+import org.litepal.crud.LitePalSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Cacheable(maxEntries = 2)
+public class Country extends LitePalSupport {
+
+	private long id;
+
+	private String name;
+
+	private String code;
+
+	private List<String> languages = new ArrayList<>();
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public void setCode(String code) {
+		this.code = code;
+	}
+
+	public List<String> getLanguages() {
+		return languages;
+	}
+
+	public void setLanguages(List<String> languages) {
+		this.languages = languages;
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Index;
+import org.litepal.annotation.Indexes;
+import org.litepal.crud.LitePalSupport;
+
+@Indexes({ @Index(columns = { "brand", "price desc" }), @Index(columns = "mac", where = "mac is not null") })
+public class Laptop extends LitePalSupport {
+
+	private long id;
+
+	private String brand;
+
+	private double price;
+
+	private String mac;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getBrand() {
+		return brand;
+	}
+
+	public void setBrand(String brand) {
+		this.brand = brand;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public void setPrice(double price) {
+		this.price = price;
+	}
+
+	public String getMac() {
+		return mac;
+	}
+
+	public void setMac(String mac) {
+		this.mac = mac;
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.litepaltest.model;
+
+import org.litepal.crud.LitePalSupport;
+
+public class Memo extends LitePalSupport {
+
+	private long id;
+
+	private String title;
+
+	private String content;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public void setContent(String content) {
+		this.content = content;
+	}
+
+}
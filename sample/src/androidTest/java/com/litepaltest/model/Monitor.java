@@ -0,0 +1,26 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Index;
+import org.litepal.annotation.Indexes;
+import org.litepal.crud.LitePalSupport;
+
+@Indexes({ @Index(columns = "brand"), @Index(columns = " brand ") })
+public class Monitor extends LitePalSupport {
+
+	private long id;
+
+	private String brand;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getBrand() {
+		return brand;
+	}
+
+	public void setBrand(String brand) {
+		this.brand = brand;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Column;
+import org.litepal.crud.LitePalSupport;
+
+public class Subscriber extends LitePalSupport {
+
+	private long id;
+
+	@Column(nullable = false, defaultValue = "none")
+	private String email;
+
+	private int level;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
+}
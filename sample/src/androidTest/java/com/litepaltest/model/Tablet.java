@@ -0,0 +1,37 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Index;
+import org.litepal.annotation.Indexes;
+import org.litepal.crud.LitePalSupport;
+
+@Indexes({ @Index(columns = { "Brand", "order desc" }), @Index(columns = "brand", unique = true),
+		@Index(columns = "brand", where = "order > 0") })
+public class Tablet extends LitePalSupport {
+
+	private long id;
+
+	private String brand;
+
+	private int order;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getBrand() {
+		return brand;
+	}
+
+	public void setBrand(String brand) {
+		this.brand = brand;
+	}
+
+	public int getOrder() {
+		return order;
+	}
+
+	public void setOrder(int order) {
+		this.order = order;
+	}
+
+}
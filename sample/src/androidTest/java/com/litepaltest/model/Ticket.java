@@ -0,0 +1,35 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Column;
+import org.litepal.crud.LitePalSupport;
+
+public class Ticket extends LitePalSupport {
+
+	private long id;
+
+	@Column(unique = true, nullable = false)
+	private String serial;
+
+	private String holder;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getSerial() {
+		return serial;
+	}
+
+	public void setSerial(String serial) {
+		this.serial = serial;
+	}
+
+	public String getHolder() {
+		return holder;
+	}
+
+	public void setHolder(String holder) {
+		this.holder = holder;
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.litepaltest.model;
+
+import org.litepal.annotation.Column;
+import org.litepal.crud.LitePalSupport;
+
+public class Voucher extends LitePalSupport {
+
+	private long id;
+
+	@Column(unique = true)
+	private String code;
+
+	public long getId() {
+		return id;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public void setCode(String code) {
+		this.code = code;
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.litepaltest.test;
+
+import android.text.TextUtils;
+import androidx.test.filters.SmallTest;
+
+import com.litepaltest.model.Classroom;
+import com.litepaltest.model.Student;
+import com.litepaltest.model.Teacher;
+
+import org.junit.Test;
+import org.litepal.LitePal;
+import org.litepal.LitePalBase;
+import org.litepal.LitePalDB;
+import org.litepal.crud.model.AssociationsInfo;
+import org.litepal.parser.LitePalAttr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Check the configuration and the metadata built from it are consistent when
+ * they are accessed by several threads, such as the warm-up thread.
+ */
+@SmallTest
+public class ConfigurationTest extends LitePalTestCase {
+
+    @Test
+    public void testGetInstanceConcurrently() throws InterruptedException {
+        LitePal.useDefault();
+        final int threadCount = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final LitePalAttr[] instances = new LitePalAttr[threadCount];
+        final String[] dbNames = new String[threadCount];
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    LitePalAttr litePalAttr = LitePalAttr.getInstance();
+                    instances[index] = litePalAttr;
+                    dbNames[index] = litePalAttr.getDbName();
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < threadCount; i++) {
+            assertSame(instances[0], instances[i]);
+            // Never a half loaded configuration.
+            assertFalse(TextUtils.isEmpty(dbNames[i]));
+        }
+    }
+
+    @Test
+    public void testAssociationInfoAfterSwitchingDatabase() {
+        LitePalDB allClassesDB = new LitePalDB("associations", 1);
+        allClassesDB.addClassName(Classroom.class.getName());
+        allClassesDB.addClassName(Student.class.getName());
+        allClassesDB.addClassName(Teacher.class.getName());
+        LitePalDB classroomDB = new LitePalDB("associations", 1);
+        classroomDB.addClassName(Classroom.class.getName());
+
+        LitePal.use(allClassesDB);
+        AssociationLoader loader = new AssociationLoader();
+        assertFalse(loader.load(Classroom.class.getName()).isEmpty());
+
+        // Switch the using database at the last step of analyzing, as if the warm-up thread was still
+        // analyzing the classes of former database.
+        LitePal.use(allClassesDB);
+        loader.switchAtCall = loader.calls;
+        loader.switchTo = classroomDB;
+        assertFalse(loader.load(Classroom.class.getName()).isEmpty());
+        // The associations of former database are not cached for the new one.
+        assertTrue(new AssociationLoader().load(Classroom.class.getName()).isEmpty());
+        LitePal.useDefault();
+    }
+
+    private static class AssociationLoader extends LitePalBase {
+
+        int calls;
+
+        int switchAtCall;
+
+        LitePalDB switchTo;
+
+        Collection<AssociationsInfo> load(String className) {
+            calls = 0;
+            return new ArrayList<>(getAssociationInfo(className));
+        }
+
+        @Override
+        protected boolean isCollection(Class<?> fieldType) {
+            calls++;
+            if (calls == switchAtCall) {
+                LitePal.use(switchTo);
+            }
+            return super.isCollection(fieldType);
+        }
+
+    }
+
+}
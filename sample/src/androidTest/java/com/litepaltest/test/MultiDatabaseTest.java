@@ -1,5 +1,7 @@
 package com.litepaltest.test;
 
+import android.content.ContentValues;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import androidx.test.filters.SmallTest;
 
@@ -11,9 +13,12 @@ import com.litepaltest.model.Product;
 import org.junit.Test;
 import org.litepal.LitePal;
 import org.litepal.LitePalDB;
+import org.litepal.util.Const;
 import org.litepal.util.DBUtility;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertTrue;
 
 /**
@@ -103,4 +108,62 @@ public class MultiDatabaseTest extends LitePalTestCase {
         assertTrue(DBUtility.isTableExists("WeiboMessage", db));
     }
 
+    @Test
+    public void testFingerprint() {
+        LitePal.deleteDatabase("db3");
+        LitePalDB litePalDB = new LitePalDB("db3", 1);
+        litePalDB.addClassName(Classroom.class.getName());
+        litePalDB.addClassName(Product.class.getName());
+        LitePal.use(litePalDB);
+        SQLiteDatabase db = LitePal.getDatabase();
+        String classroomFingerprint = getFingerprint("classroom", db);
+        String productFingerprint = getFingerprint("product", db);
+        assertNotNull(classroomFingerprint);
+        assertNotNull(productFingerprint);
+
+        litePalDB = new LitePalDB("db3", 2);
+        litePalDB.addClassName(Classroom.class.getName());
+        litePalDB.addClassName(Product.class.getName());
+        litePalDB.addClassName(Computer.class.getName());
+        LitePal.use(litePalDB);
+        db = LitePal.getDatabase();
+        assertTrue(DBUtility.isTableExists("Computer", db));
+        assertEquals(classroomFingerprint, getFingerprint("classroom", db));
+        assertEquals(productFingerprint, getFingerprint("product", db));
+        assertNotNull(getFingerprint("computer", db));
+
+        // A column which is not in the model class is dropped only if the table is analyzed. So
+        // the column left in classroom shows it's skipped, and the one in product shows a table
+        // whose model class changed, simulated by a stale fingerprint, is analyzed again.
+        db.execSQL("alter table classroom add column leftover text");
+        db.execSQL("alter table product add column leftover text");
+        ContentValues values = new ContentValues();
+        values.put(Const.TableSchema.COLUMN_FINGERPRINT, "stale");
+        db.update(Const.TableSchema.TABLE_NAME, values, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+                new String[] { "product" });
+        litePalDB = new LitePalDB("db3", 3);
+        litePalDB.addClassName(Classroom.class.getName());
+        litePalDB.addClassName(Product.class.getName());
+        litePalDB.addClassName(Computer.class.getName());
+        LitePal.use(litePalDB);
+        db = LitePal.getDatabase();
+        assertTrue(DBUtility.isColumnExists("leftover", "classroom", db));
+        assertFalse(DBUtility.isColumnExists("leftover", "product", db));
+        assertEquals(classroomFingerprint, getFingerprint("classroom", db));
+        assertEquals(productFingerprint, getFingerprint("product", db));
+
+        LitePal.useDefault();
+        LitePal.deleteDatabase("db3");
+    }
+
+    private String getFingerprint(String tableName, SQLiteDatabase db) {
+        Cursor cursor = db.query(Const.TableSchema.TABLE_NAME, new String[] { Const.TableSchema.COLUMN_FINGERPRINT },
+                "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?", new String[] { tableName }, null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
 }
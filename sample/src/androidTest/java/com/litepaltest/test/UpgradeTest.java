@@ -0,0 +1,394 @@
+package com.litepaltest.test;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.test.filters.SmallTest;
+
+import com.litepaltest.model.Bookmark;
+import com.litepaltest.model.Coupon;
+import com.litepaltest.model.Memo;
+import com.litepaltest.model.Subscriber;
+import com.litepaltest.model.Ticket;
+import com.litepaltest.model.Voucher;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.litepal.LitePal;
+import org.litepal.LitePalApplication;
+import org.litepal.LitePalDB;
+import org.litepal.exceptions.DatabaseGenerateException;
+import org.litepal.parser.LitePalAttr;
+import org.litepal.tablemanager.UpgradePlan;
+import org.litepal.tablemanager.model.TableModel;
+import org.litepal.util.Const;
+import org.litepal.util.DBUtility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Upgrade tables which are created by a former version of model classes, and
+ * check the rows are kept in the new table shape.
+ */
+@SmallTest
+public class UpgradeTest extends LitePalTestCase {
+
+    @Test
+    public void testNotNullColumnWithDefault() {
+        SQLiteDatabase db = createOldTable("upgrade_not_null", Subscriber.class,
+                "create table subscriber (id integer primary key autoincrement, email text, level integer)");
+        db.execSQL("insert into subscriber (email, level) values ('tony@litepal.org', 1)");
+        db.execSQL("insert into subscriber (email, level) values (null, 2)");
+        db.execSQL("insert into subscriber (email, level) values (null, 3)");
+        db = upgrade("upgrade_not_null", 2, Subscriber.class);
+        assertEquals(Arrays.asList("tony@litepal.org", "none", "none"), queryStrings("select email from subscriber order by id", db));
+        assertEquals(Arrays.asList("1", "2", "3"), queryStrings("select level from subscriber order by id", db));
+        TableModel tableModel = DBUtility.findPragmaTableInfo("subscriber", db);
+        assertFalse(tableModel.getColumnModelByName("email").isNullable());
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_not_null");
+    }
+
+    @Test
+    public void testUniqueColumnWithConflictingRows() {
+        SQLiteDatabase db = createOldTable("upgrade_unique", Voucher.class,
+                "create table voucher (id integer primary key autoincrement, code text)");
+        db.execSQL("insert into voucher (code) values ('A')");
+        db.execSQL("insert into voucher (code) values ('A')");
+        db.execSQL("insert into voucher (code) values ('B')");
+        try {
+            upgrade("upgrade_unique", 2, Voucher.class);
+            fail("upgrade should be refused as rows conflict with the unique column");
+        } catch (DatabaseGenerateException e) {
+            assertTrue(e.getMessage().contains("code"));
+        }
+        // Nothing is changed by the refused upgrade.
+        db = upgrade("upgrade_unique", 1, Voucher.class);
+        assertEquals(Arrays.asList("A", "A", "B"), queryStrings("select code from voucher order by id", db));
+        assertFalse(DBUtility.isTableExists("voucher" + Const.TableSchema.TEMP_TABLE_SUFFIX, db));
+
+        db.execSQL("update voucher set code = 'C' where id = 2");
+        db = upgrade("upgrade_unique", 2, Voucher.class);
+        assertEquals(Arrays.asList("A", "C", "B"), queryStrings("select code from voucher order by id", db));
+        assertTrue(DBUtility.findPragmaTableInfo("voucher", db).getColumnModelByName("code").isUnique());
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_unique");
+    }
+
+    @Test
+    public void testUniqueNotNullColumnWithoutDefault() {
+        SQLiteDatabase db = createOldTable("upgrade_unique_not_null", Ticket.class,
+                "create table ticket (id integer primary key autoincrement, holder text)");
+        db.execSQL("insert into ticket (holder) values ('Tony')");
+        db.execSQL("insert into ticket (holder) values ('Jack')");
+        try {
+            // Each row would be filled with empty text.
+            upgrade("upgrade_unique_not_null", 2, Ticket.class);
+            fail("upgrade should be refused as rows would get the same value of the unique column");
+        } catch (DatabaseGenerateException e) {
+            assertTrue(e.getMessage().contains("serial"));
+        }
+        db = upgrade("upgrade_unique_not_null", 1, Ticket.class);
+        assertEquals(Arrays.asList("Tony", "Jack"), queryStrings("select holder from ticket order by id", db));
+        assertFalse(DBUtility.isColumnExists("serial", "ticket", db));
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_unique_not_null");
+    }
+
+    @Test
+    public void testUniqueColumnWithBackfill() {
+        SQLiteDatabase db = createOldTable("upgrade_backfill", Coupon.class,
+                "create table coupon (id integer primary key autoincrement, serial text, holder text)");
+        db.execSQL("insert into coupon (serial, holder) values ('vip', 'Tony')");
+        db.execSQL("insert into coupon (serial, holder) values (null, 'Jack')");
+        db.execSQL("insert into coupon (serial, holder) values (null, 'Lily')");
+        db = upgrade("upgrade_backfill", 2, Coupon.class);
+        assertEquals(Arrays.asList("vip", "coupon_2", "coupon_3"), queryStrings("select serial from coupon order by id", db));
+        assertEquals(Arrays.asList("Tony", "Jack", "Lily"), queryStrings("select holder from coupon order by id", db));
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_backfill");
+    }
+
+    @Test
+    public void testRebuildIndexedTable() {
+        SQLiteDatabase db = createOldTable("upgrade_index", Bookmark.class,
+                "create table bookmark (id integer primary key autoincrement, url text, title text)");
+        String indexName = DBUtility.getIndexName("bookmark", "url");
+        db.execSQL("create index " + indexName + " on bookmark (url)");
+        db.execSQL("insert into bookmark (url, title) values ('https://github.com/guolindev/LitePal', 'LitePal')");
+        db.execSQL("insert into bookmark (url, title) values ('https://developer.android.com', null)");
+        // title is changed into not null, so the table is rebuilt and the index of url is created again.
+        db = upgrade("upgrade_index", 2, Bookmark.class);
+        assertEquals(Arrays.asList("https://github.com/guolindev/LitePal", "https://developer.android.com"),
+                queryStrings("select url from bookmark order by id", db));
+        assertEquals(Arrays.asList("LitePal", ""), queryStrings("select title from bookmark order by id", db));
+        assertEquals(Arrays.asList("bookmark"), queryStrings("select lower(tbl_name) from sqlite_master where type = 'index'"
+                + " and lower(name) = '" + indexName.toLowerCase(Locale.US) + "'", db));
+        assertFalse(DBUtility.isTableExists("bookmark" + Const.TableSchema.TEMP_TABLE_SUFFIX, db));
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_index");
+    }
+
+    @Test
+    public void testResumeMigration() {
+        SQLiteDatabase db = createOldTable("upgrade_resume", Subscriber.class,
+                "create table subscriber (id integer primary key autoincrement, email text, level integer)");
+        for (int i = 1; i <= 4; i++) {
+            db.execSQL("insert into subscriber (email, level) values ('user" + i + "@litepal.org', " + i + ")");
+        }
+        db = upgrade("upgrade_resume", 2, Subscriber.class);
+        // Turn the table back into the state that the process was killed after the first chunk, which
+        // ends at id 2, was copied.
+        String tempTableName = "subscriber" + Const.TableSchema.TEMP_TABLE_SUFFIX;
+        String createTableSQL = queryStrings("select sql from sqlite_master where type = 'table'"
+                + " and lower(name) = 'subscriber'", db).get(0);
+        db.execSQL("alter table subscriber rename to " + tempTableName);
+        db.execSQL(createTableSQL);
+        db.execSQL("insert into subscriber select * from " + tempTableName + " where id <= 2");
+        // The rows before checkpoint are not copied again, so the changes of them are never seen.
+        db.execSQL("update " + tempTableName + " set email = 'copied' where id <= 2");
+        ContentValues values = new ContentValues();
+        values.put(Const.TableSchema.COLUMN_NAME, tempTableName);
+        values.put(Const.TableSchema.COLUMN_TYPE, Const.TableSchema.MIGRATING_TABLE);
+        values.put(Const.TableSchema.COLUMN_CHECKPOINT, 2);
+        db.insert(Const.TableSchema.TABLE_NAME, null, values);
+
+        // Open the database again, which resumes the migration.
+        db = upgrade("upgrade_resume", 2, Subscriber.class);
+        assertEquals(Arrays.asList("user1@litepal.org", "user2@litepal.org", "user3@litepal.org", "user4@litepal.org"),
+                queryStrings("select email from subscriber order by id", db));
+        assertFalse(DBUtility.isTableExists(tempTableName, db));
+        assertTrue(queryStrings("select " + Const.TableSchema.COLUMN_NAME + " from " + Const.TableSchema.TABLE_NAME
+                + " where " + Const.TableSchema.COLUMN_TYPE + " = " + Const.TableSchema.MIGRATING_TABLE, db).isEmpty());
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_resume");
+    }
+
+    @Test
+    public void testRebuildKeepsSequence() {
+        SQLiteDatabase db = createOldTable("upgrade_sequence", Subscriber.class,
+                "create table subscriber (id integer primary key autoincrement, email text, level integer)");
+        for (int i = 1; i <= 3; i++) {
+            db.execSQL("insert into subscriber (email, level) values ('user" + i + "@litepal.org', " + i + ")");
+        }
+        db.execSQL("delete from subscriber where id = 3");
+        db = upgrade("upgrade_sequence", 2, Subscriber.class);
+        assertEquals(Arrays.asList("1", "2"), queryStrings("select id from subscriber order by id", db));
+        // The id of deleted row is never taken again.
+        Subscriber subscriber = new Subscriber();
+        subscriber.setEmail("user4@litepal.org");
+        subscriber.setLevel(4);
+        assertTrue(subscriber.save());
+        assertEquals(4, subscriber.getId());
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_sequence");
+    }
+
+    @Test
+    public void testDropColumn() {
+        SQLiteDatabase db = createOldTable("upgrade_drop_column", Memo.class,
+                "create table memo (id integer primary key autoincrement, title text, content text, obsolete text)");
+        insertMemos(db, "obsolete");
+        db = upgrade("upgrade_drop_column", 2, Memo.class);
+        assertFalse(DBUtility.isColumnExists("obsolete", "memo", db));
+        assertMemos(db);
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_drop_column");
+    }
+
+    @Test
+    public void testDropForeignKeyColumn() {
+        // Memo used to belong to a notebook, which is not mapped any more.
+        SQLiteDatabase db = createOldTable("upgrade_drop_foreign_key", Memo.class,
+                "create table memo (id integer primary key autoincrement, title text, content text, notebook_id integer)");
+        insertMemos(db, "notebook_id");
+        db = upgrade("upgrade_drop_foreign_key", 2, Memo.class);
+        assertFalse(DBUtility.isColumnExists("notebook_id", "memo", db));
+        assertMemos(db);
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_drop_foreign_key");
+    }
+
+    @Test
+    public void testDropIndexedColumn() {
+        // An index created by developers stops alter table from dropping the column, so the table is rebuilt.
+        SQLiteDatabase db = createOldTable("upgrade_drop_indexed_column", Memo.class,
+                "create table memo (id integer primary key autoincrement, title text, content text, tag text)");
+        db.execSQL("create index custom_memo_tag on memo (tag)");
+        insertMemos(db, "tag");
+        db = upgrade("upgrade_drop_indexed_column", 2, Memo.class);
+        assertFalse(DBUtility.isColumnExists("tag", "memo", db));
+        assertTrue(queryStrings("select name from sqlite_master where type = 'index' and name = 'custom_memo_tag'", db).isEmpty());
+        assertFalse(DBUtility.isTableExists("memo" + Const.TableSchema.TEMP_TABLE_SUFFIX, db));
+        assertMemos(db);
+        LitePal.useDefault();
+        LitePal.deleteDatabase("upgrade_drop_indexed_column");
+    }
+
+    @Test
+    public void testPlanFreshDatabase() throws JSONException {
+        LitePal.deleteDatabase("plan_fresh");
+        LitePalDB litePalDB = new LitePalDB("plan_fresh", 1);
+        litePalDB.addClassName(Memo.class.getName());
+        UpgradePlan plan = LitePal.planUpgrade(litePalDB);
+        assertEquals(0, plan.getOldVersion());
+        assertEquals(1, plan.getNewVersion());
+        assertEquals(2, plan.getOperations().size());
+        assertOperation(plan.getOperations().get(0), UpgradePlan.CREATE_TABLE, "Table_Schema", null, 0, false);
+        assertOperation(plan.getOperations().get(1), UpgradePlan.CREATE_TABLE, "Memo", null, 0, false);
+        JSONObject json = new JSONObject(plan.toJson());
+        assertPlanJson(json, 0, 1, 0, false);
+        JSONArray operations = json.getJSONArray("operations");
+        assertEquals(2, operations.length());
+        assertOperationJson(operations.getJSONObject(0), UpgradePlan.CREATE_TABLE, "Table_Schema", null, 0, false);
+        assertOperationJson(operations.getJSONObject(1), UpgradePlan.CREATE_TABLE, "Memo", null, 0, false);
+        // The database file is not created by planning.
+        assertFalse(LitePalApplication.getContext().getDatabasePath("plan_fresh.db").exists());
+    }
+
+    @Test
+    public void testPlanAddColumn() throws JSONException {
+        SQLiteDatabase db = createOldTable("plan_add_column", Memo.class,
+                "create table memo (id integer primary key autoincrement, title text)");
+        db.execSQL("insert into memo (title) values ('Monday')");
+        db.execSQL("insert into memo (title) values ('Tuesday')");
+        LitePal.useDefault();
+        String dbName = LitePalAttr.getInstance().getDbName();
+        List<String> classNames = new ArrayList<>(LitePalAttr.getInstance().getClassNames());
+
+        LitePalDB litePalDB = new LitePalDB("plan_add_column", 2);
+        litePalDB.addClassName(Memo.class.getName());
+        UpgradePlan plan = LitePal.planUpgrade(litePalDB);
+        assertEquals(1, plan.getOldVersion());
+        assertEquals(2, plan.getNewVersion());
+        assertEquals(1, plan.getOperations().size());
+        assertOperation(plan.getOperations().get(0), UpgradePlan.ADD_COLUMN, "Memo", "content", 0, false);
+        JSONObject json = new JSONObject(plan.toJson());
+        assertPlanJson(json, 1, 2, 0, false);
+        JSONArray operations = json.getJSONArray("operations");
+        assertEquals(1, operations.length());
+        assertOperationJson(operations.getJSONObject(0), UpgradePlan.ADD_COLUMN, "Memo", "content", 0, false);
+
+        // Neither the configuration in use nor the database is changed by planning.
+        assertEquals(dbName, LitePalAttr.getInstance().getDbName());
+        assertEquals(classNames, LitePalAttr.getInstance().getClassNames());
+        db = upgrade("plan_add_column", 1, Memo.class);
+        assertFalse(DBUtility.isColumnExists("content", "memo", db));
+        LitePal.useDefault();
+        LitePal.deleteDatabase("plan_add_column");
+    }
+
+    @Test
+    public void testPlanRebuildTable() throws JSONException {
+        SQLiteDatabase db = createOldTable("plan_rebuild", Voucher.class,
+                "create table voucher (id integer primary key autoincrement, code text)");
+        db.execSQL("insert into voucher (code) values ('A')");
+        db.execSQL("insert into voucher (code) values ('B')");
+        db.execSQL("insert into voucher (code) values ('C')");
+        LitePalDB litePalDB = new LitePalDB("plan_rebuild", 2);
+        litePalDB.addClassName(Voucher.class.getName());
+        UpgradePlan plan = LitePal.planUpgrade(litePalDB);
+        assertEquals(1, plan.getOperations().size());
+        assertOperation(plan.getOperations().get(0), UpgradePlan.REBUILD_TABLE, "Voucher", null, 3, false);
+        assertEquals(3, plan.getEstimatedRows());
+        assertFalse(plan.hasDestructiveOperations());
+        JSONObject json = new JSONObject(plan.toJson());
+        assertPlanJson(json, 1, 2, 3, false);
+        JSONArray operations = json.getJSONArray("operations");
+        assertEquals(1, operations.length());
+        assertOperationJson(operations.getJSONObject(0), UpgradePlan.REBUILD_TABLE, "Voucher", null, 3, false);
+        assertFalse(DBUtility.findPragmaTableInfo("voucher", db).getColumnModelByName("code").isUnique());
+        LitePal.useDefault();
+        LitePal.deleteDatabase("plan_rebuild");
+    }
+
+    /**
+     * Create the database of version 1, then replace the table of model class
+     * by the one created by a former version of the class. The fingerprint is
+     * cleared, so the table is analyzed in next upgrade.
+     */
+    private SQLiteDatabase createOldTable(String dbName, Class<?> modelClass, String createTableSQL) {
+        LitePal.deleteDatabase(dbName);
+        SQLiteDatabase db = upgrade(dbName, 1, modelClass);
+        db.execSQL("drop table " + modelClass.getSimpleName());
+        db.execSQL(createTableSQL);
+        ContentValues values = new ContentValues();
+        values.putNull(Const.TableSchema.COLUMN_FINGERPRINT);
+        db.update(Const.TableSchema.TABLE_NAME, values, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+                new String[] { modelClass.getSimpleName().toLowerCase(Locale.US) });
+        return db;
+    }
+
+    private void assertOperation(UpgradePlan.Operation operation, String type, String tableName, String detail,
+            long estimatedRows, boolean destructive) {
+        assertEquals(type, operation.getType());
+        assertEquals(tableName, operation.getTableName());
+        assertEquals(detail, operation.getDetail());
+        assertEquals(estimatedRows, operation.getEstimatedRows());
+        assertEquals(destructive, operation.isDestructive());
+    }
+
+    private void assertPlanJson(JSONObject json, int oldVersion, int newVersion, long estimatedRows,
+            boolean destructive) throws JSONException {
+        assertEquals(oldVersion, json.getInt("oldVersion"));
+        assertEquals(newVersion, json.getInt("newVersion"));
+        assertEquals(estimatedRows, json.getLong("estimatedRows"));
+        assertEquals(destructive, json.getBoolean("destructive"));
+    }
+
+    private void assertOperationJson(JSONObject json, String type, String tableName, String detail,
+            long estimatedRows, boolean destructive) throws JSONException {
+        assertEquals(type, json.getString("type"));
+        assertEquals(tableName, json.getString("table"));
+        if (detail == null) {
+            assertFalse(json.has("detail"));
+        } else {
+            assertEquals(detail, json.getString("detail"));
+        }
+        assertEquals(estimatedRows, json.getLong("estimatedRows"));
+        assertEquals(destructive, json.getBoolean("destructive"));
+    }
+
+    private void insertMemos(SQLiteDatabase db, String columnToDrop) {
+        db.execSQL("insert into memo (title, content, " + columnToDrop + ") values ('Monday', 'Buy milk', 1)");
+        db.execSQL("insert into memo (title, content, " + columnToDrop + ") values ('Tuesday', null, 2)");
+        db.execSQL("insert into memo (title, content, " + columnToDrop + ") values ('Wednesday', 'Call Tony', null)");
+    }
+
+    private void assertMemos(SQLiteDatabase db) {
+        assertEquals(Arrays.asList("1", "2", "3"), queryStrings("select id from memo order by id", db));
+        assertEquals(Arrays.asList("Monday", "Tuesday", "Wednesday"), queryStrings("select title from memo order by id", db));
+        assertEquals(Arrays.asList("Buy milk", null, "Call Tony"), queryStrings("select content from memo order by id", db));
+    }
+
+    private SQLiteDatabase upgrade(String dbName, int version, Class<?> modelClass) {
+        LitePalDB litePalDB = new LitePalDB(dbName, version);
+        litePalDB.addClassName(modelClass.getName());
+        LitePal.use(litePalDB);
+        return LitePal.getDatabase();
+    }
+
+    private List<String> queryStrings(String sql, SQLiteDatabase db) {
+        List<String> values = new ArrayList<>();
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            while (cursor.moveToNext()) {
+                values.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return values;
+    }
+
+}
@@ -377,6 +377,27 @@ public class DeleteTest extends LitePalTestCase {
 		assertNull(getStudent(s3.getId()));
 	}
 
+    @Test
+	public void testDeleteAllCascadeWithQuotedArgs() {
+		Classroom classroom = new Classroom();
+		classroom.setName("Tony's room " + System.currentTimeMillis());
+		classroom.getNews().add("news1");
+		classroom.getNews().add("news2");
+		classroom.save();
+		Student s1 = new Student();
+		s1.setClassroom(classroom);
+		s1.save();
+		String tableName = DBUtility.getGenericTableName(Classroom.class.getName(), "news");
+		String column = DBUtility.getGenericValueIdColumnName(Classroom.class.getName());
+		int rows = LitePal.deleteAll(Classroom.class, "name = ?", classroom.getName());
+		assertEquals(2, rows);
+		assertNull(getClassroom(classroom.get_id()));
+		assertNull(getStudent(s1.getId()));
+		Cursor c = LitePal.findBySQL("select * from " + tableName + " where " + column + " = ?", String.valueOf(classroom.get_id()));
+		assertEquals(0, c.getCount());
+		c.close();
+	}
+
     @Test
 	public void testDeleteAll() {
 		Student s;
@@ -0,0 +1,114 @@
+package com.litepaltest.test.crud.delete;
+
+import android.database.Cursor;
+import androidx.test.filters.SmallTest;
+
+import com.litepaltest.model.Classroom;
+import com.litepaltest.model.IdCard;
+import com.litepaltest.model.Student;
+import com.litepaltest.model.Teacher;
+import com.litepaltest.test.LitePalTestCase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.litepal.LitePal;
+import org.litepal.LitePalDB;
+import org.litepal.util.Const;
+import org.litepal.util.DBUtility;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+@SmallTest
+public class DeleteWithForeignKeysTest extends LitePalTestCase {
+
+    private static final String DB_NAME = "fkdb";
+
+    @Before
+    public void setUp() {
+        LitePal.deleteDatabase(DB_NAME);
+        LitePalDB litePalDB = new LitePalDB(DB_NAME, 1);
+        litePalDB.addClassName(Classroom.class.getName());
+        litePalDB.addClassName(Student.class.getName());
+        litePalDB.addClassName(Teacher.class.getName());
+        litePalDB.addClassName(IdCard.class.getName());
+        litePalDB.setForeignKeys(Const.Config.FOREIGN_KEYS_CASCADE);
+        LitePal.use(litePalDB);
+    }
+
+    @After
+    public void tearDown() {
+        LitePal.useDefault();
+        LitePal.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void testForeignKeyConstraintsGenerated() {
+        String studentTable = DBUtility.getTableNameByClassName(Student.class.getName());
+        String classroomTable = DBUtility.getTableNameByClassName(Classroom.class.getName());
+        boolean found = false;
+        Cursor cursor = LitePal.findBySQL("pragma foreign_key_list(" + studentTable + ")");
+        if (cursor.moveToFirst()) {
+            do {
+                String table = cursor.getString(cursor.getColumnIndexOrThrow("table"));
+                if (classroomTable.equalsIgnoreCase(table)) {
+                    assertEquals("CASCADE", cursor.getString(cursor.getColumnIndexOrThrow("on_delete")));
+                    found = true;
+                }
+            } while (cursor.moveToNext());
+        }
+        cursor.close();
+        assertTrue(found);
+    }
+
+    @Test
+    public void testDeleteCascadeBySQLite() {
+        Classroom classroom = new Classroom();
+        classroom.setName("Foreign key room");
+        classroom.getNews().add("news1");
+        classroom.getNews().add("news2");
+        classroom.save();
+        Student s1 = new Student();
+        s1.setName("s1");
+        s1.setClassroom(classroom);
+        s1.save();
+        Student s2 = new Student();
+        s2.setName("s2");
+        s2.setClassroom(classroom);
+        s2.save();
+        assertNotNull(LitePal.find(Student.class, s1.getId()));
+        int rows = LitePal.delete(Classroom.class, classroom.get_id());
+        assertEquals(1, rows);
+        assertNull(LitePal.find(Classroom.class, classroom.get_id()));
+        assertNull(LitePal.find(Student.class, s1.getId()));
+        assertNull(LitePal.find(Student.class, s2.getId()));
+        String tableName = DBUtility.getGenericTableName(Classroom.class.getName(), "news");
+        String column = DBUtility.getGenericValueIdColumnName(Classroom.class.getName());
+        Cursor c = LitePal.findBySQL("select * from " + tableName + " where " + column + " = ?", String.valueOf(classroom.get_id()));
+        assertEquals(0, c.getCount());
+        c.close();
+    }
+
+    @Test
+    public void testDeleteAllCascadeBySQLite() {
+        Student student = new Student();
+        student.setName("Foreign key student");
+        Teacher teacher = new Teacher();
+        teacher.setTeacherName("Foreign key teacher");
+        student.getTeachers().add(teacher);
+        teacher.getStudents().add(student);
+        teacher.save();
+        student.save();
+        String studentTable = DBUtility.getTableNameByClassName(Student.class.getName());
+        String teacherTable = DBUtility.getTableNameByClassName(Teacher.class.getName());
+        assertM2M(studentTable, teacherTable, student.getId(), teacher.getId());
+        int rows = LitePal.deleteAll(Student.class, "name = ?", student.getName());
+        assertEquals(1, rows);
+        assertM2MFalse(studentTable, teacherTable, student.getId(), teacher.getId());
+        assertNotNull(LitePal.find(Teacher.class, teacher.getId()));
+    }
+
+}
@@ -8,6 +8,7 @@ import com.litepaltest.test.LitePalTestCase;
 import org.junit.Test;
 import org.litepal.LitePal;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static junit.framework.TestCase.assertEquals;
@@ -92,6 +93,28 @@ public class QueryBasicTest extends LitePalTestCase {
 		}
 	}
 
+    @Test
+	public void testFindMulWithManyIds() {
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			Book book = new Book();
+			book.setBookName("Book " + i);
+			books.add(book);
+		}
+		LitePal.saveAll(books);
+		long[] ids = new long[books.size() + 1];
+		for (int i = 0; i < books.size(); i++) {
+			ids[i] = books.get(books.size() - 1 - i).getId();
+		}
+		ids[books.size()] = books.get(0).getId();
+		List<Book> bookList = LitePal.findAll(Book.class, ids);
+		assertEquals(books.size(), bookList.size());
+		for (int i = 0; i < bookList.size(); i++) {
+			assertEquals(books.get(i).getId(), bookList.get(i).getId());
+			assertEquals("Book " + i, bookList.get(i).getBookName());
+		}
+	}
+
     @Test
 	public void testFindAll() {
 		List<Book> expectBooks = getBooks(null, null, null, null, null, null, null);
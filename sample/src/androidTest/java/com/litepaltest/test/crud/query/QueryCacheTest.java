@@ -0,0 +1,121 @@
+package com.litepaltest.test.crud.query;
+
+import android.content.ContentValues;
+import androidx.test.filters.SmallTest;
+
+import com.litepaltest.model.Country;
+import com.litepaltest.test.LitePalTestCase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.litepal.LitePal;
+import org.litepal.LitePalDB;
+import org.litepal.crud.ResultCache;
+
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertTrue;
+
+@SmallTest
+public class QueryCacheTest extends LitePalTestCase {
+
+    private static final String DB_NAME = "cachedb";
+
+    private ResultCache cache;
+
+    private Country china;
+
+    private Country japan;
+
+    @Before
+    public void setUp() {
+        LitePal.deleteDatabase(DB_NAME);
+        LitePalDB litePalDB = new LitePalDB(DB_NAME, 1);
+        litePalDB.addClassName(Country.class.getName());
+        LitePal.use(litePalDB);
+        china = new Country();
+        china.setName("China");
+        china.setCode("CN");
+        china.getLanguages().add("Chinese");
+        china.save();
+        japan = new Country();
+        japan.setName("Japan");
+        japan.setCode("JP");
+        japan.save();
+        cache = ResultCache.getInstance();
+        cache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        LitePal.useDefault();
+        LitePal.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void testFindFromCache() {
+        List<Country> countries = LitePal.findAll(Country.class);
+        assertEquals(2, countries.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        countries.get(0).setName("Changed");
+        countries.get(0).getLanguages().clear();
+        List<Country> cachedCountries = LitePal.findAll(Country.class);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cachedCountries.size());
+        assertNotSame(countries.get(0), cachedCountries.get(0));
+        assertEquals("China", cachedCountries.get(0).getName());
+        assertEquals(1, cachedCountries.get(0).getLanguages().size());
+        assertEquals(china.getId(), cachedCountries.get(0).getId());
+        assertTrue(cachedCountries.get(0).isSaved());
+        Country country = LitePal.where("code = ?", "JP").findFirst(Country.class);
+        assertEquals("Japan", country.getName());
+        country = LitePal.where("code = ?", "JP").findFirst(Country.class);
+        assertEquals("Japan", country.getName());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.size(Country.class));
+    }
+
+    @Test
+    public void testEvictEldest() {
+        LitePal.find(Country.class, china.getId());
+        LitePal.find(Country.class, japan.getId());
+        LitePal.findAll(Country.class);
+        assertEquals(2, cache.size(Country.class));
+        assertEquals(1, cache.getEvictionCount());
+        LitePal.findAll(Country.class);
+        assertEquals(1, cache.getHitCount());
+        LitePal.find(Country.class, china.getId());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testInvalidateByWrites() {
+        LitePal.findAll(Country.class);
+        Country korea = new Country();
+        korea.setName("Korea");
+        korea.save();
+        assertEquals(0, cache.size(Country.class));
+        assertEquals(3, LitePal.findAll(Country.class).size());
+        ContentValues values = new ContentValues();
+        values.put("name", "Nippon");
+        LitePal.update(Country.class, values, japan.getId());
+        assertEquals("Nippon", LitePal.find(Country.class, japan.getId()).getName());
+        LitePal.deleteAll(Country.class, "code = ?", "CN");
+        assertEquals(2, LitePal.findAll(Country.class).size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testInvalidateByGenericTableWrites() {
+        assertEquals(1, LitePal.find(Country.class, china.getId()).getLanguages().size());
+        china.getLanguages().add("Cantonese");
+        china.save();
+        assertEquals(2, LitePal.find(Country.class, china.getId()).getLanguages().size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+}
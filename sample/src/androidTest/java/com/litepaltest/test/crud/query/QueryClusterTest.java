@@ -6,6 +6,8 @@ import java.util.List;
 
 import org.junit.Test;
 import org.litepal.LitePal;
+import org.litepal.crud.PreparedQuery;
+import org.litepal.exceptions.LitePalSupportException;
 
 import com.litepaltest.model.Book;
 import com.litepaltest.test.LitePalTestCase;
@@ -15,6 +17,7 @@ import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
 
 @SmallTest
 public class QueryClusterTest extends LitePalTestCase {
@@ -328,4 +331,185 @@ public class QueryClusterTest extends LitePalTestCase {
     	assertNotNull(book2DB);
 	}
 
+	@Test
+	public void testPrepare() {
+		PreparedQuery<Book> query = LitePal.select("bookname", "pages")
+				.where("bookname = ? and pages > ?").order("pages desc").prepare(Book.class);
+		String bookName = "Prepared Book " + System.currentTimeMillis();
+		for (int pages = 100; pages <= 300; pages += 100) {
+			Book book = new Book();
+			book.setBookName(bookName);
+			book.setPages(pages);
+			assertTrue(book.save());
+		}
+		List<Book> books = query.find(bookName, "150");
+		assertEquals(2, books.size());
+		assertEquals(300, (int) books.get(0).getPages());
+		assertEquals(200, (int) books.get(1).getPages());
+		assertEquals(0f, books.get(0).getArea());
+		assertEquals(LitePal.where("bookname = ? and pages > ?", bookName, "50").count(Book.class),
+				query.count(bookName, "50"));
+		assertEquals(3, query.count(bookName, "50"));
+		Book first = query.findFirst(bookName, "50");
+		assertNotNull(first);
+		assertEquals(300, (int) first.getPages());
+		assertNull(query.findFirst(bookName, "300"));
+		assertEquals(0, query.count(bookName, "300"));
+		query.close();
+		assertEquals(3, query.count(bookName, "50"));
+		query.close();
+		query.close();
+
+		PreparedQuery<Book> fixedQuery = LitePal.where("bookname = ? and pages < ?", bookName)
+				.order("pages").limit(1).offset(1).prepare(Book.class);
+		books = fixedQuery.find("1000");
+		assertEquals(1, books.size());
+		assertEquals(200, (int) books.get(0).getPages());
+		try {
+			fixedQuery.find(bookName, "1000");
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(LitePalSupportException.UPDATE_CONDITIONS_EXCEPTION, e.getMessage());
+		}
+	}
+
+	@Test
+	public void testPluck() {
+		String bookName = "Plucked Book " + System.currentTimeMillis();
+		for (int pages = 100; pages <= 300; pages += 100) {
+			Book book = new Book();
+			book.setBookName(bookName);
+			book.setPages(pages);
+			book.setPrice(pages / 10.0);
+			assertTrue(book.save());
+		}
+		Book nullPagesBook = new Book();
+		nullPagesBook.setBookName(bookName);
+		assertTrue(nullPagesBook.save());
+		List<Book> books = LitePal.where("bookname = ?", bookName).order("id").find(Book.class);
+		long[] ids = LitePal.where("bookname = ?", bookName).order("id").pluckLongs(Book.class, "id");
+		assertEquals(books.size(), ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(books.get(i).getId(), ids[i]);
+		}
+		int[] pages = LitePal.where("bookname = ? and pages > ?", bookName, "100").order("pages desc")
+				.pluckInts(Book.class, "pages");
+		assertEquals(2, pages.length);
+		assertEquals(300, pages[0]);
+		assertEquals(200, pages[1]);
+		assertEquals(0, LitePal.where("id = ?", String.valueOf(nullPagesBook.getId())).pluckInts(Book.class, "pages")[0]);
+		double[] prices = LitePal.where("bookname = ?", bookName).order("id").limit(2).offset(1)
+				.pluckDoubles(Book.class, "price");
+		assertEquals(2, prices.length);
+		assertEquals(20.0, prices[0]);
+		assertEquals(30.0, prices[1]);
+		List<String> names = LitePal.where("bookname = ?", bookName).pluckStrings(Book.class, "bookname");
+		assertEquals(4, names.size());
+		assertEquals(bookName, names.get(0));
+		assertEquals(0, LitePal.where("bookname = ?", bookName + " not exist").pluckLongs(Book.class, "id").length);
+	}
+
+	@Test
+	public void testFindAs() {
+		String bookName = "Mapped Book " + System.currentTimeMillis();
+		for (int pages = 100; pages <= 200; pages += 100) {
+			Book book = new Book();
+			book.setBookName(bookName);
+			book.setPages(pages);
+			book.setPrice(pages / 10.0);
+			book.setPublished(pages > 100);
+			assertTrue(book.save());
+		}
+		List<BookItem> items = LitePal.select("bookname", "pages", "price")
+				.where("bookname = ?", bookName).order("pages").findAs(Book.class, BookItem.class);
+		assertEquals(2, items.size());
+		assertEquals(bookName, items.get(0).name);
+		assertEquals(100, items.get(0).pages);
+		assertEquals(10.0, items.get(0).price);
+		assertEquals(200, items.get(1).pages);
+
+		List<BookRow> rows = LitePal.select("bookname", "ispublished", "isbn")
+				.where("bookname = ?", bookName).order("pages desc").findAs(Book.class, BookRow.class);
+		assertEquals(2, rows.size());
+		assertEquals(bookName, rows.get(0).bookName);
+		assertTrue(rows.get(0).isPublished);
+		assertFalse(rows.get(1).isPublished);
+		assertEquals(0, rows.get(0).level);
+
+		assertTrue(LitePal.where("bookname = ?", bookName + " not exist").findAs(Book.class, BookItem.class).isEmpty());
+		try {
+			LitePal.select("bookname").where("bookname = ?", bookName).findAs(Book.class, BookItem.class);
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(BookItem.class.getName() + LitePalSupportException.FIND_AS_NO_SUITABLE_CONSTRUCTOR, e.getMessage());
+		}
+
+		List<BookPair> pairs = LitePal.select("bookname", "pages")
+				.where("bookname = ?", bookName).order("pages").findAs(Book.class, BookPair.class);
+		assertEquals(2, pairs.size());
+		assertEquals(bookName, pairs.get(0).name);
+		assertEquals(100, pairs.get(0).pages);
+		pairs = LitePal.select("pages", "bookname")
+				.where("bookname = ?", bookName).order("pages").findAs(Book.class, BookPair.class);
+		assertEquals(bookName, pairs.get(1).name);
+		assertEquals(200, pairs.get(1).pages);
+		try {
+			LitePal.select("pages", "price").where("bookname = ?", bookName).findAs(Book.class, BookPair.class);
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(BookPair.class.getName() + LitePalSupportException.FIND_AS_AMBIGUOUS_CONSTRUCTOR, e.getMessage());
+		}
+	}
+
+	static class BookItem {
+
+		final String name;
+
+		final int pages;
+
+		final double price;
+
+		BookItem(String name, int pages, double price) {
+			this.name = name;
+			this.pages = pages;
+			this.price = price;
+		}
+
+	}
+
+	static class BookPair {
+
+		final String name;
+
+		final long pages;
+
+		BookPair(String name, long pages) {
+			this.name = name;
+			this.pages = pages;
+		}
+
+		BookPair(long pages, String name) {
+			this(name, pages);
+		}
+
+		BookPair(long pages, double price) {
+			this("", pages);
+		}
+
+		BookPair(int pages, float price) {
+			this("", pages);
+		}
+
+	}
+
+	static class BookRow {
+
+		String bookName;
+
+		boolean isPublished;
+
+		char level;
+
+	}
+
 }
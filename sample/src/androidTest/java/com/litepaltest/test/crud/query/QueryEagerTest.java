@@ -10,6 +10,9 @@ import com.litepaltest.model.Teacher;
 import org.junit.Before;
 import org.junit.Test;
 import org.litepal.LitePal;
+import org.litepal.exceptions.LitePalSupportException;
+import org.litepal.tablemanager.Connector;
+import org.litepal.util.DBUtility;
 
 import java.util.Calendar;
 import java.util.List;
@@ -232,4 +235,153 @@ public class QueryEagerTest {
 		assertEquals("Classroom 11", c.getName());
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testJoin() {
+		String id1 = String.valueOf(student1.getId());
+		String id2 = String.valueOf(student2.getId());
+		String id3 = String.valueOf(student3.getId());
+		List<Student> sList = LitePal.where("student.id in (?, ?, ?)", id1, id2, id3).order("student.id")
+				.join(Classroom.class, "classroom_id").find(Student.class);
+		assertEquals(3, sList.size());
+		Student s1 = sList.get(0);
+		Student s2 = sList.get(1);
+		assertEquals("Student 1", s1.getName());
+		assertNotNull(s1.getBirthday());
+		assertNotNull(s1.getClassroom());
+		assertEquals("Classroom 11", s1.getClassroom().getName());
+		assertEquals(classroom.get_id(), s1.getClassroom().get_id());
+		assertTrue(s1.getClassroom() == s2.getClassroom());
+		assertNull(sList.get(2).getClassroom());
+		assertTrue(s1.getTeachers().isEmpty());
+		sList = LitePal.where("classroom.id = ? and student.id in (?, ?, ?)", String.valueOf(classroom.get_id()),
+				id1, id2, id3).join(Classroom.class).find(Student.class);
+		assertEquals(2, sList.size());
+		Student s = LitePal.where("student.id = ?", id2).join(Classroom.class).findFirst(Student.class);
+		assertEquals("Student 2", s.getName());
+		assertEquals("Classroom 11", s.getClassroom().getName());
+		try {
+			LitePal.where("student.id = ?", id1).join(Teacher.class).find(Student.class);
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(Student.class.getName() + LitePalSupportException.JOIN_WITHOUT_ASSOCIATION
+					+ Teacher.class.getName(), e.getMessage());
+		}
+	}
+
+	@Test
+	public void testInclude() {
+		Classroom c = LitePal.where("id = ?", String.valueOf(classroom.get_id()))
+				.include("studentCollection.teachers", "studentCollection.idcard").findFirst(Classroom.class);
+		assertEquals("Classroom 11", c.getName());
+		assertEquals(2, c.getStudentCollection().size());
+		assertTrue(c.getTeachers().isEmpty());
+		for (Student s : c.getStudentCollection()) {
+			assertTrue(s.getClassroom() == c);
+			if (s.getId() == student1.getId()) {
+				assertEquals(2, s.getTeachers().size());
+				assertNotNull(s.getIdcard());
+				assertEquals("320311", s.getIdcard().getNumber());
+				assertTrue(s.getIdcard().getStudent() == s);
+				continue;
+			}
+			if (s.getId() == student2.getId()) {
+				assertEquals(1, s.getTeachers().size());
+				assertEquals("Teacher 2", s.getTeachers().get(0).getTeacherName());
+				assertNull(s.getIdcard());
+				continue;
+			}
+			fail();
+		}
+		List<Student> sList = LitePal.where("id in (?, ?, ?)", String.valueOf(student1.getId()),
+				String.valueOf(student2.getId()), String.valueOf(student3.getId())).order("id")
+				.include("classroom.teachers").find(Student.class);
+		assertEquals(3, sList.size());
+		assertTrue(sList.get(0).getClassroom() == sList.get(1).getClassroom());
+		assertEquals(1, sList.get(0).getClassroom().getTeachers().size());
+		assertEquals("Teacher 1", sList.get(0).getClassroom().getTeachers().get(0).getTeacherName());
+		assertNull(sList.get(2).getClassroom());
+		assertTrue(sList.get(0).getTeachers().isEmpty());
+		try {
+			LitePal.include("nosuchfield").find(Student.class);
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(Student.class.getName() + LitePalSupportException.INCLUDE_NO_SUCH_ASSOCIATION
+					+ "nosuchfield", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testIncludeWithEager() {
+		List<Classroom> cList = LitePal.where("id = ?", String.valueOf(classroom.get_id()))
+				.include("studentCollection", "studentCollection.idcard").find(Classroom.class, true);
+		assertEquals(1, cList.size());
+		Classroom c = cList.get(0);
+		// The students loaded eagerly are replaced by the included ones, not added again.
+		assertEquals(2, c.getStudentCollection().size());
+		for (Student s : c.getStudentCollection()) {
+			if (s.getId() == student1.getId()) {
+				assertNotNull(s.getIdcard());
+				assertEquals("320311", s.getIdcard().getNumber());
+				continue;
+			}
+			if (s.getId() == student2.getId()) {
+				assertNull(s.getIdcard());
+				continue;
+			}
+			fail();
+		}
+	}
+
+	@Test
+	public void testLazy() {
+		List<Classroom> cList = LitePal.where("id = ?", String.valueOf(classroom.get_id())).lazy()
+				.find(Classroom.class);
+		assertEquals(1, cList.size());
+		Classroom c = cList.get(0);
+		assertEquals(1, c.getTeachers().size());
+		assertEquals("Teacher 1", c.getTeachers().get(0).getTeacherName());
+		assertEquals(2, c.getStudentCollection().size());
+		for (Student s : c.getStudentCollection()) {
+			assertTrue(s.getClassroom() == c);
+			if (s.getId() == student1.getId()) {
+				assertEquals(2, s.getTeachers().size());
+				continue;
+			}
+			if (s.getId() == student2.getId()) {
+				assertEquals(1, s.getTeachers().size());
+				continue;
+			}
+			fail();
+		}
+		List<Student> sList = LitePal.where("id in (?, ?)", String.valueOf(student1.getId()),
+				String.valueOf(student3.getId())).order("id").lazy().find(Student.class);
+		assertEquals(2, sList.size());
+		assertNull(sList.get(0).getClassroom());
+		assertTrue(sList.get(1).getTeachers().isEmpty());
+		// The teachers of all found students are loaded by the first access in one batched query,
+		// so removing the join rows now doesn't affect the other student.
+		Connector.getDatabase().delete(DBUtility.getIntermediateTableName("student", "teacher"),
+				"student_id = ?", new String[] { String.valueOf(student1.getId()) });
+		assertEquals(2, sList.get(0).getTeachers().size());
+		sList = LitePal.where("id = ?", String.valueOf(student1.getId())).find(Student.class);
+		assertTrue(sList.get(0).getTeachers().isEmpty());
+
+		// A model kept by the session still has a lazy list which is not loaded. Querying it
+		// again must not load the list, or each query would cost one more query.
+		LitePal.beginSession();
+		try {
+			Classroom first = LitePal.where("id = ?", String.valueOf(classroom.get_id())).lazy()
+					.findFirst(Classroom.class);
+			List<Teacher> teachers = first.getTeachers();
+			Classroom second = LitePal.where("id = ?", String.valueOf(classroom.get_id())).lazy()
+					.findFirst(Classroom.class);
+			assertTrue(first == second);
+			assertTrue(teachers == second.getTeachers());
+			LitePal.deleteAll(Teacher.class, "id = ?", String.valueOf(teacher1.getId()));
+			assertTrue(teachers.isEmpty());
+		} finally {
+			LitePal.endSession();
+		}
+	}
+
+}
@@ -3,15 +3,24 @@ package com.litepaltest.test.crud.query;
 import android.database.Cursor;
 import androidx.test.filters.SmallTest;
 
+import com.litepaltest.model.Book;
 import com.litepaltest.model.Student;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.litepal.LitePal;
+import org.litepal.crud.AggregateResult;
+import org.litepal.exceptions.LitePalSupportException;
 import org.litepal.util.DBUtility;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 import static junit.framework.TestCase.fail;
+import static org.litepal.crud.Aggregate.avg;
+import static org.litepal.crud.Aggregate.count;
+import static org.litepal.crud.Aggregate.max;
+import static org.litepal.crud.Aggregate.min;
+import static org.litepal.crud.Aggregate.sum;
 
 
 @SmallTest
@@ -130,4 +139,93 @@ public class QueryMathTest {
 		assertEquals(realResult, result);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testAggregate() {
+		String bookName = "Aggregated Book " + System.currentTimeMillis();
+		for (int pages = 100; pages <= 400; pages += 100) {
+			Book book = new Book();
+			book.setBookName(pages <= 200 ? bookName + " A" : bookName + " B");
+			book.setPages(pages);
+			book.setPrice(pages / 10.0);
+			assertTrue(book.save());
+		}
+		AggregateResult result = LitePal.where("bookname like ?", bookName + "%").groupBy("bookname")
+				.order("bookname").aggregate(Book.class, count(), sum("pages"), avg("price"), max("pages"),
+						min("pages").alias("fewest"));
+		assertEquals(2, result.getRowCount());
+		assertEquals(6, result.getColumnNames().length);
+		assertEquals(bookName + " A", result.getString(0, "bookname"));
+		assertEquals(2, result.getInt(0, count()));
+		assertEquals(300, result.getLong(0, sum("pages")));
+		assertEquals(15.0, result.getDouble(0, "avg_price"));
+		assertEquals(200, result.getInt(0, "max_pages"));
+		assertEquals(100, result.getInt(0, "fewest"));
+		assertEquals(bookName + " B", result.getString(1, "bookname"));
+		assertEquals(700, result.getLong(1, "sum_pages"));
+		result = LitePal.where("bookname like ?", bookName + "%").groupBy("bookname").having("sum_pages > 500")
+				.aggregate(Book.class, sum("pages"));
+		assertEquals(1, result.getRowCount());
+		assertEquals(bookName + " B", result.getString(0, "bookname"));
+		result = LitePal.where("bookname like ?", bookName + "%").groupBy("bookname")
+				.having("sum_pages > cast(? as integer) and count > cast(? as integer)", "200", "1").aggregate(Book.class, count(), sum("pages"));
+		assertEquals(2, result.getRowCount());
+		result = LitePal.where("bookname like ?", bookName + "%").groupBy("bookname")
+				.having("sum_pages > cast(? as integer)", "500").aggregate(Book.class, sum("pages"));
+		assertEquals(1, result.getRowCount());
+		assertEquals(bookName + " B", result.getString(0, "bookname"));
+		try {
+			LitePal.groupBy("bookname").having("sum_pages > ?").aggregate(Book.class, sum("pages"));
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(LitePalSupportException.UPDATE_CONDITIONS_EXCEPTION, e.getMessage());
+		}
+		try {
+			LitePal.where("bookname like ?", bookName + "%").groupBy("bookname").find(Book.class);
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(LitePalSupportException.GROUP_BY_WITHOUT_AGGREGATE, e.getMessage());
+		}
+		result = LitePal.where("bookname like ?", bookName + "%").aggregate(Book.class, count(), sum("pages"));
+		assertEquals(1, result.getRowCount());
+		assertEquals(4, result.getInt(0, "count"));
+		assertEquals(LitePal.where("bookname like ?", bookName + "%").sum(Book.class, "pages", Integer.TYPE),
+				result.getInt(0, "sum_pages"));
+		result = LitePal.where("bookname = ?", bookName).aggregate(Book.class, count(), sum("pages"));
+		assertEquals(0, result.getInt(0, "count"));
+		assertTrue(result.isNull(0, "sum_pages"));
+		try {
+			result.getInt(0, "nosuchcolumn");
+			fail();
+		} catch (LitePalSupportException ignored) {
+		}
+	}
+
+	@Test
+	public void testGroupByWithoutAggregate() {
+		try {
+			LitePal.groupBy("bookname").count(Book.class);
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(LitePalSupportException.GROUP_BY_WITHOUT_AGGREGATE, e.getMessage());
+		}
+		try {
+			LitePal.where("pages > ?", "0").groupBy("bookname").sum(Book.class, "pages", Integer.TYPE);
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(LitePalSupportException.GROUP_BY_WITHOUT_AGGREGATE, e.getMessage());
+		}
+		try {
+			LitePal.groupBy("bookname").having("count(*) > 1").pluckStrings(Book.class, "bookname");
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(LitePalSupportException.GROUP_BY_WITHOUT_AGGREGATE, e.getMessage());
+		}
+		try {
+			LitePal.groupBy("bookname").pluckLongs(Book.class, "id");
+			fail();
+		} catch (LitePalSupportException e) {
+			assertEquals(LitePalSupportException.GROUP_BY_WITHOUT_AGGREGATE, e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.litepaltest.test.crud.query;
+
+import android.content.ContentValues;
+
+import androidx.test.filters.SmallTest;
+
+import com.litepaltest.model.Classroom;
+import com.litepaltest.model.Student;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.litepal.LitePal;
+import org.litepal.crud.Session;
+
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+@SmallTest
+public class QuerySessionTest {
+
+	private Classroom classroom;
+
+	private Student student1;
+
+	private Student student2;
+
+	@Before
+	public void setUp() {
+		classroom = new Classroom();
+		classroom.setName("Session Classroom");
+		student1 = new Student();
+		student1.setName("Session Student 1");
+		student1.setClassroom(classroom);
+		student2 = new Student();
+		student2.setName("Session Student 2");
+		student2.setClassroom(classroom);
+		classroom.save();
+		student1.save();
+		student2.save();
+	}
+
+	@Test
+	public void testSameInstanceWithinSession() {
+		LitePal.beginSession();
+		try {
+			assertTrue(Session.isActive());
+			Student s1 = LitePal.find(Student.class, student1.getId());
+			Student s2 = LitePal.find(Student.class, student1.getId());
+			assertSame(s1, s2);
+			List<Student> list = LitePal.where("classroom_id = ?", String.valueOf(classroom.get_id()))
+					.order("id").find(Student.class);
+			assertEquals(2, list.size());
+			assertSame(s1, list.get(0));
+		} finally {
+			LitePal.endSession();
+		}
+		assertFalse(Session.isActive());
+		Student s1 = LitePal.find(Student.class, student1.getId());
+		Student s2 = LitePal.find(Student.class, student1.getId());
+		assertNotSame(s1, s2);
+	}
+
+	@Test
+	public void testEagerLoadSharesInstances() {
+		LitePal.beginSession();
+		try {
+			Student s1 = LitePal.find(Student.class, student1.getId(), true);
+			Student s2 = LitePal.find(Student.class, student2.getId(), true);
+			assertSame(s1.getClassroom(), s2.getClassroom());
+			Classroom c = LitePal.find(Classroom.class, classroom.get_id());
+			assertSame(c, s1.getClassroom());
+			Classroom eagerClassroom = LitePal.find(Classroom.class, classroom.get_id(), true);
+			assertSame(c, eagerClassroom);
+			assertEquals(2, eagerClassroom.getStudentCollection().size());
+			boolean found = false;
+			for (Student student : eagerClassroom.getStudentCollection()) {
+				if (student == s1) {
+					found = true;
+				}
+			}
+			assertTrue(found);
+			assertSame(eagerClassroom, LitePal.find(Classroom.class, classroom.get_id(), true));
+			assertEquals(2, eagerClassroom.getStudentCollection().size());
+		} finally {
+			LitePal.endSession();
+		}
+	}
+
+	@Test
+	public void testNestedSession() {
+		LitePal.beginSession();
+		try {
+			Student s1 = LitePal.find(Student.class, student1.getId());
+			LitePal.beginSession();
+			try {
+				assertSame(s1, LitePal.find(Student.class, student1.getId()));
+			} finally {
+				LitePal.endSession();
+			}
+			assertTrue(Session.isActive());
+			assertSame(s1, LitePal.find(Student.class, student1.getId()));
+		} finally {
+			LitePal.endSession();
+		}
+		assertFalse(Session.isActive());
+	}
+
+	@Test
+	public void testWritesWithinSession() {
+		LitePal.beginSession();
+		try {
+			Student s1 = LitePal.find(Student.class, student1.getId());
+			ContentValues values = new ContentValues();
+			values.put("age", 23);
+			LitePal.updateAll(Student.class, values, "id = ?", String.valueOf(student1.getId()));
+			Student updated = LitePal.find(Student.class, student1.getId());
+			assertNotSame(s1, updated);
+			assertEquals(23, updated.getAge());
+			updated.setName("Session Student 1 Renamed");
+			assertTrue(updated.save());
+			assertSame(updated, LitePal.find(Student.class, student1.getId()));
+			Student student3 = new Student();
+			student3.setName("Session Student 3");
+			assertTrue(student3.save());
+			assertSame(student3, LitePal.find(Student.class, student3.getId()));
+			LitePal.delete(Student.class, student3.getId());
+			assertNull(LitePal.find(Student.class, student3.getId()));
+		} finally {
+			LitePal.endSession();
+		}
+	}
+
+}
@@ -16,6 +16,7 @@ import com.litepaltest.test.LitePalTestCase;
 
 import org.junit.Test;
 import org.litepal.LitePal;
+import org.litepal.crud.StatementCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +42,26 @@ public class SaveTest extends LitePalTestCase {
 		assertTrue(isDataExists(getTableName(cell), cell.getId()));
 	}
 
+    @Test
+	public void testSaveWithStatementCache() {
+		StatementCache cache = StatementCache.getInstance();
+		Computer computer = new Computer("asus", 699.00);
+		assertTrue(computer.save());
+		long hitCount = cache.getHitCount();
+		long missCount = cache.getMissCount();
+		Computer computer2 = new Computer("dell", 599.00);
+		assertTrue(computer2.save());
+		assertEquals(hitCount + 1, cache.getHitCount());
+		assertEquals(missCount, cache.getMissCount());
+		assertTrue(computer2.getId() > computer.getId());
+		assertEquals("dell", getComputer(computer2.getId()).getBrand());
+		assertEquals(1, LitePal.delete(Computer.class, computer.getId()));
+		hitCount = cache.getHitCount();
+		assertEquals(1, LitePal.delete(Computer.class, computer2.getId()));
+		assertEquals(hitCount + 1, cache.getHitCount());
+		assertFalse(isDataExists(getTableName(computer2), computer2.getId()));
+	}
+
     @Test
 	public void testSaveWithConstructors() {
 		Computer computer = new Computer("asus", 699.00);
@@ -1,7 +1,10 @@
 package com.litepaltest.test.crud.update;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -600,4 +603,96 @@ public class UpdateUsingUpdateMethodTest extends LitePalTestCase {
         assertEquals(0, result.getNumbers().size());
     }
 
+    @Test
+    public void testIncrement() {
+        int rowsAffected = LitePal.increment(Student.class, "age", 2, "id = ?", String.valueOf(student.getId()));
+        assertEquals(1, rowsAffected);
+        assertEquals(15, getStudent(student.getId()).getAge());
+        rowsAffected = LitePal.increment(Student.class, "age", -5, "id = ?", String.valueOf(student.getId()));
+        assertEquals(1, rowsAffected);
+        assertEquals(10, getStudent(student.getId()).getAge());
+        rowsAffected = LitePal.increment(Student.class, "age", 1, "id = ?", "-1");
+        assertEquals(0, rowsAffected);
+        try {
+            LitePal.increment(Student.class, "age", (Number) null, "id = ?", String.valueOf(student.getId()));
+            fail();
+        } catch (DataSupportException e) {
+            assertEquals("The amount to increase can not be null.", e.getMessage());
+        }
+        assertEquals(10, getStudent(student.getId()).getAge());
+    }
+
+    @Test
+    public void testIncrementWithDeltas() {
+        initForAssociations();
+        s1.save();
+        s2.save();
+        Map<Long, Integer> deltas = new HashMap<>();
+        deltas.put((long) s1.getId(), 1);
+        deltas.put((long) s2.getId(), 10);
+        deltas.put(-1L, 100);
+        int rowsAffected = LitePal.increment(Student.class, "age", deltas);
+        assertEquals(2, rowsAffected);
+        assertEquals(19, getStudent(s1.getId()).getAge());
+        assertEquals(29, getStudent(s2.getId()).getAge());
+        deltas.put((long) s1.getId(), null);
+        try {
+            LitePal.increment(Student.class, "age", deltas);
+            fail();
+        } catch (DataSupportException e) {
+            assertEquals("The amount to increase can not be null.", e.getMessage());
+        }
+        assertEquals(29, getStudent(s2.getId()).getAge());
+    }
+
+    @Test
+    public void testUpdateAllWithExpression() {
+        initForAssociations();
+        s1.save();
+        s2.save();
+        int rowsAffected = LitePal.updateAllWithExpression(Student.class,
+                new String[] { "age = age * ?", "2" }, "name = ? or name = ?", "Parker", "Peter");
+        assertEquals(2, rowsAffected);
+        assertEquals(36, getStudent(s1.getId()).getAge());
+        assertEquals(38, getStudent(s2.getId()).getAge());
+        assertEquals(13, getStudent(student.getId()).getAge());
+        try {
+            LitePal.updateAllWithExpression(Student.class, new String[] { "" });
+            fail();
+        } catch (DataSupportException e) {
+            assertEquals("The expression to update can not be empty.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUpdateBatch() {
+        initForAssociations();
+        s1.save();
+        s2.save();
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { s1.getId(), "Parker Lee", 20 });
+        rows.add(new Object[] { s2.getId(), null, 21 });
+        rows.add(new Object[] { -1L, "Nobody", 1 });
+        int[] rowsAffected = LitePal.updateBatch(Student.class, new String[] { "name", "age" }, rows);
+        assertEquals(3, rowsAffected.length);
+        assertEquals(1, rowsAffected[0]);
+        assertEquals(1, rowsAffected[1]);
+        assertEquals(0, rowsAffected[2]);
+        Student result = getStudent(s1.getId());
+        assertEquals("Parker Lee", result.getName());
+        assertEquals(20, result.getAge());
+        result = getStudent(s2.getId());
+        assertNull(result.getName());
+        assertEquals(21, result.getAge());
+        rows.clear();
+        rows.add(new Object[] { s1.getId(), "Parker" });
+        try {
+            LitePal.updateBatch(Student.class, new String[] { "name", "age" }, rows);
+            fail();
+        } catch (DataSupportException e) {
+            assertEquals("Each row to update in batch should be an id followed by the values of columns.", e.getMessage());
+        }
+        assertEquals("Parker Lee", getStudent(s1.getId()).getName());
+    }
+
 }
@@ -1,22 +1,40 @@
 package com.litepaltest.test.util;
 
+import android.content.ContentValues;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import androidx.test.filters.SmallTest;
 import android.util.Pair;
 
 import com.litepaltest.model.Book;
 import com.litepaltest.model.Cellphone;
+import com.litepaltest.model.Classroom;
+import com.litepaltest.model.Laptop;
+import com.litepaltest.model.Monitor;
+import com.litepaltest.model.Student;
+import com.litepaltest.model.Tablet;
+import com.litepaltest.model.Teacher;
+import com.litepaltest.model.WeiboMessage;
 import com.litepaltest.test.LitePalTestCase;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.litepal.LitePal;
+import org.litepal.LitePalDB;
+import org.litepal.exceptions.DatabaseGenerateException;
 import org.litepal.tablemanager.Connector;
+import org.litepal.util.Const;
 import org.litepal.util.DBUtility;
 
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
 
 @SmallTest
 public class DBUtilityTest extends LitePalTestCase {
@@ -44,4 +62,104 @@ public class DBUtilityTest extends LitePalTestCase {
         assertEquals(0, uniqueColumns.size());
     }
 
+    @Test
+    public void testAssociationIndexes() {
+        String weiboMessageTable = DBUtility.getTableNameByClassName(WeiboMessage.class.getName());
+        assertTrue(DBUtility.findIndexedColumns(weiboMessageTable, db).first.contains("cellphone_id"));
+        String joinTable = DBUtility.getIntermediateTableName(DBUtility.getTableNameByClassName(Student.class.getName()),
+                DBUtility.getTableNameByClassName(Teacher.class.getName()));
+        assertTrue(DBUtility.findIndexedColumns(joinTable, db).first.contains("teacher_id"));
+        String genericTable = DBUtility.getGenericTableName(Classroom.class.getName(), "news");
+        assertTrue(DBUtility.findIndexedColumns(genericTable, db).first.contains("classroom_id"));
+    }
+
+    @Test
+    public void testFindDeclaredIndexes() {
+        assertEquals(0, DBUtility.findDeclaredIndexes(DBUtility.getTableNameByClassName(Book.class.getName()), db).size());
+        LitePal.deleteDatabase("declared_indexes");
+        LitePalDB litePalDB = new LitePalDB("declared_indexes", 1);
+        litePalDB.addClassName(Laptop.class.getName());
+        LitePal.use(litePalDB);
+        SQLiteDatabase laptopDb = LitePal.getDatabase();
+        String tableName = DBUtility.getTableNameByClassName(Laptop.class.getName());
+        String indexName = DBUtility.getDeclaredIndexName(tableName, Arrays.asList("brand", "price desc"), false, "");
+        assertEquals("lpindex_" + tableName + "_brand_price_desc", indexName);
+        assertTrue(DBUtility.isDeclaredIndex(tableName, indexName));
+        assertFalse(DBUtility.isDeclaredIndex(tableName, DBUtility.getIndexName(tableName, "brand")));
+        // The indexes created by developers are never taken as declared ones.
+        String customIndexName = tableName + "_brand_idx";
+        laptopDb.execSQL("create index " + customIndexName + " on " + tableName + " (brand)");
+        assertFalse(DBUtility.isDeclaredIndex(tableName, customIndexName));
+        Map<String, String> indexes = DBUtility.findDeclaredIndexes(tableName, laptopDb);
+        assertEquals(2, indexes.size());
+        assertTrue(indexes.containsKey(indexName.toLowerCase(Locale.US)));
+        String partialIndexSQL = indexes.get(DBUtility.getDeclaredIndexName(tableName, Arrays.asList("mac"), false,
+                "mac is not null").toLowerCase(Locale.US));
+        assertTrue(partialIndexSQL.toLowerCase(Locale.US).contains("where mac is not null"));
+
+        // Synchronizing the declared indexes in upgrade leaves the index of developers alone.
+        ContentValues values = new ContentValues();
+        values.putNull(Const.TableSchema.COLUMN_FINGERPRINT);
+        laptopDb.update(Const.TableSchema.TABLE_NAME, values, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+                new String[] { tableName.toLowerCase(Locale.US) });
+        litePalDB = new LitePalDB("declared_indexes", 2);
+        litePalDB.addClassName(Laptop.class.getName());
+        LitePal.use(litePalDB);
+        laptopDb = LitePal.getDatabase();
+        assertEquals(2, DBUtility.findDeclaredIndexes(tableName, laptopDb).size());
+        Cursor cursor = laptopDb.rawQuery("select name from sqlite_master where type = 'index' and name = ?",
+                new String[] { customIndexName });
+        try {
+            assertTrue(cursor.moveToFirst());
+        } finally {
+            cursor.close();
+        }
+        LitePal.useDefault();
+        LitePal.deleteDatabase("declared_indexes");
+    }
+
+    @Test
+    public void testDeclaredIndexColumns() {
+        String tableName = DBUtility.getTableNameByClassName(Tablet.class.getName());
+        String orderIndexName = DBUtility.getDeclaredIndexName(tableName, Arrays.asList("brand", "order_lpcolumn desc"),
+                false, "");
+        String uniqueIndexName = DBUtility.getDeclaredIndexName(tableName, Arrays.asList("brand"), true, "");
+        String partialIndexName = DBUtility.getDeclaredIndexName(tableName, Arrays.asList("brand"), false,
+                "order_lpcolumn > 0");
+        // Indexes on the same columns are named apart by their constraints.
+        assertFalse(uniqueIndexName.equals(partialIndexName));
+        assertFalse(uniqueIndexName.equals(DBUtility.getDeclaredIndexName(tableName, Arrays.asList("brand"), false, "")));
+        LitePal.deleteDatabase("declared_index_columns");
+        LitePalDB litePalDB = new LitePalDB("declared_index_columns", 1);
+        litePalDB.addClassName(Tablet.class.getName());
+        LitePal.use(litePalDB);
+        try {
+            Map<String, String> indexes = DBUtility.findDeclaredIndexes(tableName, LitePal.getDatabase());
+            assertEquals(3, indexes.size());
+            assertTrue(indexes.get(orderIndexName.toLowerCase(Locale.US)).contains("(brand, order_lpcolumn desc)"));
+            assertTrue(indexes.get(uniqueIndexName.toLowerCase(Locale.US)).startsWith("create unique index"));
+            assertTrue(indexes.get(partialIndexName.toLowerCase(Locale.US)).contains("where order_lpcolumn > 0"));
+        } finally {
+            LitePal.useDefault();
+            LitePal.deleteDatabase("declared_index_columns");
+        }
+    }
+
+    @Test
+    public void testDuplicateDeclaredIndexes() {
+        LitePal.deleteDatabase("duplicate_indexes");
+        LitePalDB litePalDB = new LitePalDB("duplicate_indexes", 1);
+        litePalDB.addClassName(Monitor.class.getName());
+        LitePal.use(litePalDB);
+        try {
+            LitePal.getDatabase();
+            fail("duplicate indexes should be rejected");
+        } catch (DatabaseGenerateException e) {
+            assertTrue(e.getMessage().contains(Monitor.class.getName()));
+        } finally {
+            LitePal.useDefault();
+            LitePal.deleteDatabase("duplicate_indexes");
+        }
+    }
+
 }
@@ -0,0 +1,32 @@
+package org.litepal.parser;
+
+import androidx.test.filters.SmallTest;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Check the class generated from litepal.xml at build time gives the same
+ * configuration as parsing litepal.xml at runtime.
+ */
+@SmallTest
+public class LitePalParserTest {
+
+    @Test
+    public void testGeneratedConfiguration() {
+        assertTrue(LitePalParser.isGeneratedConfigurationExists());
+        LitePalConfig generated = LitePalParser.parseLitePalConfiguration();
+        LitePalConfig parsed = LitePalParser.parseLitePalXML();
+        assertEquals(parsed.getDbName(), generated.getDbName());
+        assertEquals(parsed.getVersion(), generated.getVersion());
+        assertEquals(parsed.getCases(), generated.getCases());
+        assertEquals(parsed.getStorage(), generated.getStorage());
+        assertEquals(parsed.getForeignKeys(), generated.getForeignKeys());
+        assertEquals(parsed.getMigration(), generated.getMigration());
+        assertEquals(parsed.getAssociationIndexes(), generated.getAssociationIndexes());
+        assertEquals(parsed.getClassNames(), generated.getClassNames());
+    }
+
+}
@@ -0,0 +1,182 @@
+package org.litepal.tablemanager;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQuery;
+import androidx.test.filters.SmallTest;
+
+import com.litepaltest.model.Bookmark;
+import com.litepaltest.model.Memo;
+import com.litepaltest.model.Subscriber;
+import com.litepaltest.model.Ticket;
+import com.litepaltest.model.Voucher;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.litepal.parser.LitePalAttr;
+import org.litepal.tablemanager.model.TableModel;
+import org.litepal.util.Const;
+import org.litepal.util.DBUtility;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Check the schema catalog answers lookups from memory, and follows the
+ * changes of database once it's marked as stale.
+ */
+@SmallTest
+public class SchemaCatalogTest {
+
+    private CountingCursorFactory cursorFactory;
+
+    private SQLiteDatabase db;
+
+    private SchemaCatalog catalog;
+
+    @Before
+    public void setUp() {
+        cursorFactory = new CountingCursorFactory();
+        db = SQLiteDatabase.create(cursorFactory);
+        db.execSQL("create table memo (id integer primary key autoincrement, title text)");
+        db.execSQL("create table notebook (id integer primary key autoincrement, name text)");
+        catalog = new SchemaCatalog(db);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void testLookupsWithoutQueries() {
+        assertTrue(catalog.isColumnExists("title", "memo"));
+        assertTrue(catalog.isColumnExists("name", "notebook"));
+        cursorFactory.queries = 0;
+        for (int i = 0; i < 10; i++) {
+            assertTrue(catalog.isTableExists("memo"));
+            assertTrue(catalog.isColumnExists("title", "memo"));
+            assertTrue(catalog.findPragmaTableInfo("notebook").containsColumn("name"));
+            assertTrue(catalog.findDeclaredIndexes("memo").isEmpty());
+            assertEquals(2, catalog.findAllTableNames().size());
+        }
+        assertEquals(0, cursorFactory.queries);
+        // Only the schema version is checked, if nothing changed.
+        catalog.markStale();
+        assertTrue(catalog.isColumnExists("title", "memo"));
+        assertEquals(1, cursorFactory.queries);
+    }
+
+    @Test
+    public void testColumnAddedDirectly() {
+        assertFalse(catalog.isColumnExists("content", "memo"));
+        db.execSQL("alter table memo add column content text");
+        catalog.markStale();
+        assertTrue(catalog.isColumnExists("content", "memo"));
+        assertTrue(catalog.findPragmaTableInfo("memo").containsColumn("content"));
+    }
+
+    @Test
+    public void testQuotedTableName() {
+        assertFalse(catalog.isTableExists("Diary"));
+        db.execSQL("create   table if not exists \"Diary\"(id integer primary key, content text)");
+        catalog.markStale();
+        assertTrue(catalog.isTableExists("diary"));
+        assertTrue(catalog.findAllTableNames().contains("Diary"));
+        assertTrue(catalog.isColumnExists("content", "diary"));
+        db.execSQL("drop table [Diary]");
+        catalog.markStale();
+        assertFalse(catalog.isTableExists("diary"));
+    }
+
+    @Test
+    public void testIndexCreatedDirectly() {
+        assertFalse(catalog.findPragmaTableInfo("memo").getColumnModelByName("title").isUnique());
+        assertTrue(catalog.findDeclaredIndexes("memo").isEmpty());
+        db.execSQL("create unique index lpindex_memo_title on memo (title)");
+        catalog.markStale();
+        assertTrue(catalog.findPragmaTableInfo("memo").getColumnModelByName("title").isUnique());
+        assertTrue(catalog.findDeclaredIndexes("memo").containsKey("lpindex_memo_title"));
+        db.execSQL("drop index lpindex_memo_title");
+        catalog.markStale();
+        assertFalse(catalog.findPragmaTableInfo("memo").getColumnModelByName("title").isUnique());
+        assertTrue(catalog.findDeclaredIndexes("memo").isEmpty());
+    }
+
+    @Test
+    public void testUnchangedTableKeepsColumns() {
+        TableModel memo = catalog.findPragmaTableInfo("memo");
+        TableModel notebook = catalog.findPragmaTableInfo("notebook");
+        db.execSQL("alter table notebook add column color integer");
+        catalog.markStale();
+        assertSame(memo, catalog.findPragmaTableInfo("memo"));
+        assertNotSame(notebook, catalog.findPragmaTableInfo("notebook"));
+        assertTrue(catalog.isColumnExists("color", "notebook"));
+    }
+
+    @Test
+    public void testUpgradeQueriesIgnoreUnchangedTables() {
+        int queries = countUpgradeQueries(Memo.class, Voucher.class);
+        // Tables which didn't change cost no queries, no matter how many there are.
+        assertEquals(queries, countUpgradeQueries(Memo.class, Voucher.class, Ticket.class, Subscriber.class,
+                Bookmark.class));
+    }
+
+    /**
+     * Create the tables of model classes, then change memo table into a former
+     * shape, and count the queries to upgrade it.
+     */
+    private int countUpgradeQueries(Class<?>... modelClasses) {
+        LitePalAttr litePalAttr = LitePalAttr.getInstance().copy();
+        List<String> classNames = new ArrayList<>();
+        classNames.add("org.litepal.model.Table_Schema");
+        for (Class<?> modelClass : modelClasses) {
+            classNames.add(modelClass.getName());
+        }
+        litePalAttr.setClassNames(classNames);
+        CountingCursorFactory upgradeCursorFactory = new CountingCursorFactory();
+        SQLiteDatabase upgradeDb = SQLiteDatabase.create(upgradeCursorFactory);
+        LitePalAttr.setThreadInstance(litePalAttr);
+        try {
+            Generator.create(upgradeDb);
+            upgradeDb.execSQL("drop table memo");
+            upgradeDb.execSQL("create table memo (id integer primary key autoincrement, title text)");
+            ContentValues values = new ContentValues();
+            values.putNull(Const.TableSchema.COLUMN_FINGERPRINT);
+            upgradeDb.update(Const.TableSchema.TABLE_NAME, values, "lower(" + Const.TableSchema.COLUMN_NAME + ") = ?",
+                    new String[] { "memo" });
+            upgradeCursorFactory.queries = 0;
+            Generator.upgrade(upgradeDb);
+            int queries = upgradeCursorFactory.queries;
+            assertTrue(DBUtility.isColumnExists("content", "memo", upgradeDb));
+            return queries;
+        } finally {
+            LitePalAttr.setThreadInstance(null);
+            upgradeDb.close();
+        }
+    }
+
+    private static class CountingCursorFactory implements SQLiteDatabase.CursorFactory {
+
+        int queries;
+
+        @Override
+        public Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver masterQuery, String editTable,
+                SQLiteQuery query) {
+            queries++;
+            return new SQLiteCursor(masterQuery, editTable, query);
+        }
+
+    }
+
+}